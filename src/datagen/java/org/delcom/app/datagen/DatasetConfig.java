@@ -0,0 +1,167 @@
+package org.delcom.app.datagen;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.delcom.app.enums.WorkoutType;
+
+/**
+ * Konfigurasi generator dataset. Sumber (prioritas naik): default, system
+ * property {@code datagen.<key>}, argumen program {@code <key>=<value>}.
+ *
+ * <pre>
+ * jdbc-url, username, password   database tujuan (Postgres lokal)
+ * create-schema          jalankan migration Flyway (db/migration) dulu (false)
+ * users                  jumlah user (1000)
+ * workouts-per-user      rata-rata workout per user, distribusi eksponensial (50)
+ * type-mix               bobot tipe global (RUNNING=30,CYCLING=20,GYM=25,STRETCHING=10,BODYWEIGHT=10,PLANK=5)
+ * favorite-ratio         peluang workout memakai tipe favorit user (0.4)
+ * days                   rentang tanggal ke belakang dari end-date (730)
+ * end-date               tanggal terakhir; isi tetap agar hasil identik antar hari (hari ini)
+ * description-length     rata-rata panjang deskripsi, maksimal 255 (80)
+ * image-ratio            porsi workout yang punya image_path (0.1)
+ * images-dir             jika diisi, file image ikut ditulis ke direktori ini
+ * image-bytes            ukuran file image (16384)
+ * user-password          password semua user (password)
+ * email-prefix           prefix email, ganti untuk generate ulang ke database yang sama (user)
+ * seed                   seed random (42)
+ * threads                jumlah writer paralel (jumlah CPU)
+ * chunk-users            user per transaksi (500)
+ * batch-size             ukuran JDBC batch untuk database non-Postgres (1000)
+ * analyze                jalankan ANALYZE setelah selesai, khusus Postgres (true)
+ * </pre>
+ */
+final class DatasetConfig {
+    private static final String PREFIX = "datagen.";
+
+    private final Map<String, String> values;
+
+    private DatasetConfig(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static DatasetConfig from(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(PREFIX)) {
+                values.put(name.substring(PREFIX.length()), System.getProperty(name));
+            }
+        }
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Argumen harus berbentuk key=value: " + arg);
+            }
+            values.put(arg.substring(0, separator).trim(), arg.substring(separator + 1).trim());
+        }
+        return new DatasetConfig(values);
+    }
+
+    String jdbcUrl() {
+        return values.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/spring_workout");
+    }
+
+    String username() {
+        return values.getOrDefault("username", "postgres");
+    }
+
+    String password() {
+        return values.getOrDefault("password", "postgres");
+    }
+
+    boolean createSchema() {
+        return Boolean.parseBoolean(values.getOrDefault("create-schema", "false"));
+    }
+
+    int users() {
+        return intValue("users", 1000);
+    }
+
+    double workoutsPerUser() {
+        return doubleValue("workouts-per-user", 50);
+    }
+
+    Map<WorkoutType, Integer> typeMix() {
+        Map<WorkoutType, Integer> mix = new EnumMap<>(WorkoutType.class);
+        String raw = values.getOrDefault("type-mix", "RUNNING=30,CYCLING=20,GYM=25,STRETCHING=10,BODYWEIGHT=10,PLANK=5");
+        for (String entry : raw.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("type-mix tidak valid: " + entry);
+            }
+            mix.put(WorkoutType.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    double favoriteRatio() {
+        return doubleValue("favorite-ratio", 0.4);
+    }
+
+    int days() {
+        return intValue("days", 730);
+    }
+
+    LocalDate endDate() {
+        String value = values.get("end-date");
+        return value == null || value.isEmpty() ? LocalDate.now() : LocalDate.parse(value);
+    }
+
+    int descriptionLength() {
+        return Math.min(intValue("description-length", 80), 255);
+    }
+
+    double imageRatio() {
+        return doubleValue("image-ratio", 0.1);
+    }
+
+    Path imagesDir() {
+        String value = values.get("images-dir");
+        return value == null || value.isEmpty() ? null : Path.of(value);
+    }
+
+    int imageBytes() {
+        return intValue("image-bytes", 16 * 1024);
+    }
+
+    String userPassword() {
+        return values.getOrDefault("user-password", "password");
+    }
+
+    String emailPrefix() {
+        return values.getOrDefault("email-prefix", "user");
+    }
+
+    long seed() {
+        return Long.parseLong(values.getOrDefault("seed", "42"));
+    }
+
+    int threads() {
+        return intValue("threads", Runtime.getRuntime().availableProcessors());
+    }
+
+    int chunkUsers() {
+        return intValue("chunk-users", 500);
+    }
+
+    int batchSize() {
+        return intValue("batch-size", 1000);
+    }
+
+    boolean analyze() {
+        return Boolean.parseBoolean(values.getOrDefault("analyze", "true"));
+    }
+
+    private int intValue(String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+
+    private double doubleValue(String key, double defaultValue) {
+        String value = values.get(key);
+        return value == null || value.isEmpty() ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,144 @@
+package org.delcom.app.datagen;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.delcom.app.enums.WorkoutType;
+import org.delcom.app.services.WorkoutService;
+
+/**
+ * Membuat baris user dan workout secara deterministik: setiap user memakai
+ * random turunan dari (seed, index user), jadi hasilnya sama berapa pun jumlah
+ * thread dan urutan eksekusinya.
+ */
+final class DatasetFactory {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long WORKOUT_SALT = 0x5DEECE66DL;
+
+    // Durasi tipikal (menit) per tipe, divariasikan +/- 35%
+    private static final Map<WorkoutType, Integer> TYPICAL_DURATION = Map.of(
+            WorkoutType.RUNNING, 40,
+            WorkoutType.CYCLING, 60,
+            WorkoutType.GYM, 60,
+            WorkoutType.STRETCHING, 15,
+            WorkoutType.BODYWEIGHT, 30,
+            WorkoutType.PLANK, 5);
+
+    private static final Map<WorkoutType, String[]> TITLES = Map.of(
+            WorkoutType.RUNNING, new String[] { "Lari Pagi", "Lari Sore", "Jogging Santai", "Interval Run" },
+            WorkoutType.CYCLING, new String[] { "Bersepeda Pagi", "Gowes Weekend", "Sepeda Statis" },
+            WorkoutType.GYM, new String[] { "Leg Day", "Push Day", "Pull Day", "Full Body" },
+            WorkoutType.STRETCHING, new String[] { "Peregangan Pagi", "Yoga Ringan", "Cooldown" },
+            WorkoutType.BODYWEIGHT, new String[] { "Push Up & Squat", "Circuit Training", "Calisthenics" },
+            WorkoutType.PLANK, new String[] { "Plank Challenge", "Core Session" });
+
+    private static final String[] WORDS = { "latihan", "hari", "ini", "cukup", "berat", "ringan", "napas",
+            "stabil", "target", "tercapai", "pemanasan", "dulu", "kaki", "pegal", "semangat", "lanjut", "besok",
+            "tempo", "konsisten", "istirahat", "cukup", "minum", "air", "banyak", "progres", "bagus" };
+
+    record UserRow(UUID id, String name, String email, String passwordHash, LocalDateTime createdAt) {
+    }
+
+    record WorkoutRow(UUID id, UUID userId, String title, String description, int durationMinutes,
+            double caloriesBurned, LocalDate date, WorkoutType type, String imagePath, LocalDateTime createdAt) {
+    }
+
+    // Nilai konfigurasi disalin sekali; generate() dipanggil untuk jutaan baris
+    private final long seed;
+    private final String emailPrefix;
+    private final String passwordHash;
+    private final LocalDate endDate;
+    private final int days;
+    private final double workoutsPerUser;
+    private final double favoriteRatio;
+    private final double imageRatio;
+    private final int descriptionLength;
+    private final WorkoutType[] weightedTypes;
+
+    DatasetFactory(DatasetConfig config, String passwordHash) {
+        this.seed = config.seed();
+        this.emailPrefix = config.emailPrefix();
+        this.passwordHash = passwordHash;
+        this.endDate = config.endDate();
+        this.days = Math.max(config.days(), 1);
+        this.workoutsPerUser = config.workoutsPerUser();
+        this.favoriteRatio = config.favoriteRatio();
+        this.imageRatio = config.imageRatio();
+        this.descriptionLength = config.descriptionLength();
+        int total = config.typeMix().values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("type-mix harus punya bobot positif");
+        }
+        this.weightedTypes = new WorkoutType[total];
+        int index = 0;
+        for (Map.Entry<WorkoutType, Integer> entry : config.typeMix().entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                weightedTypes[index++] = entry.getKey();
+            }
+        }
+    }
+
+    UserRow user(int index) {
+        SplittableRandom random = new SplittableRandom(seed * GOLDEN_GAMMA + index);
+        LocalDate joined = endDate.minusDays(days + random.nextInt(60));
+        return new UserRow(randomUuid(random), "User " + index, emailPrefix + "-" + index + "@datagen.local",
+                passwordHash, joined.atTime(randomTime(random)));
+    }
+
+    // Random workout terpisah dari random user supaya user bisa dibuat dulu (FK) tanpa mengubah hasil
+    void workouts(int index, UserRow user, Consumer<WorkoutRow> workouts) {
+        SplittableRandom random = new SplittableRandom((seed * GOLDEN_GAMMA + index) ^ WORKOUT_SALT);
+
+        // Sebagian kecil user sangat aktif, kebanyakan ringan (eksponensial)
+        long count = Math.round(-workoutsPerUser * Math.log(1 - random.nextDouble()));
+        WorkoutType favorite = weightedTypes[random.nextInt(weightedTypes.length)];
+        for (long i = 0; i < count; i++) {
+            WorkoutType type = random.nextDouble() < favoriteRatio ? favorite
+                    : weightedTypes[random.nextInt(weightedTypes.length)];
+            int typical = TYPICAL_DURATION.get(type);
+            int duration = Math.max(1, (int) Math.round(typical * (1 + 0.35 * random.nextGaussian())));
+            // Lebih rapat di hari-hari terakhir (user makin aktif mendekati sekarang)
+            LocalDate date = endDate.minusDays((long) (days * Math.pow(random.nextDouble(), 1.5)));
+            String[] titles = TITLES.get(type);
+            UUID workoutId = randomUuid(random);
+            String imagePath = random.nextDouble() < imageRatio ? "cover_" + workoutId + ".png" : null;
+
+            workouts.accept(new WorkoutRow(workoutId, user.id(), titles[random.nextInt(titles.length)],
+                    description(random), duration, WorkoutService.calculateCalories(type, duration), date, type,
+                    imagePath, date.atTime(randomTime(random))));
+        }
+    }
+
+    private String description(SplittableRandom random) {
+        int target = Math.min(255, (int) Math.round(-descriptionLength * Math.log(1 - random.nextDouble())));
+        StringBuilder description = new StringBuilder(Math.max(target, 8));
+        do {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (description.length() + word.length() + 1 > 255) {
+                break;
+            }
+            if (!description.isEmpty()) {
+                description.append(' ');
+            }
+            description.append(word);
+        } while (description.length() < target);
+        description.setCharAt(0, Character.toUpperCase(description.charAt(0)));
+        return description.toString();
+    }
+
+    private static LocalTime randomTime(SplittableRandom random) {
+        return LocalTime.ofSecondOfDay(random.nextInt(5 * 3600, 22 * 3600));
+    }
+
+    // UUID versi 4 dari random yang di-seed
+    private static UUID randomUuid(SplittableRandom random) {
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(most, least);
+    }
+}
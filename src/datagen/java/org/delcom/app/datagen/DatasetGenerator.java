@@ -0,0 +1,192 @@
+package org.delcom.app.datagen;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.delcom.app.Application;
+import org.delcom.app.datagen.DatasetFactory.UserRow;
+import org.delcom.app.datagen.DatasetFactory.WorkoutRow;
+import org.postgresql.PGConnection;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Mengisi tabel {@code users} dan {@code workouts} dengan data sintetis
+ * berskala besar. User dibagi per chunk; setiap chunk satu transaksi di
+ * koneksi milik thread writer. Postgres memakai COPY, database lain JDBC batch.
+ *
+ * Jalankan: {@code mvn -Pdatagen test -Ddatagen.args="users=100000 workouts-per-user=500"}
+ * (opsi lengkap di {@link DatasetConfig}).
+ */
+public final class DatasetGenerator {
+    private final DatasetConfig config;
+    private final AtomicLong usersWritten = new AtomicLong();
+    private final AtomicLong workoutsWritten = new AtomicLong();
+    // Jumlah hash id semua baris: tidak bergantung urutan, untuk membuktikan determinisme
+    private final AtomicLong checksum = new AtomicLong();
+
+    private DatasetGenerator(DatasetConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new DatasetGenerator(DatasetConfig.from(args)).run();
+    }
+
+    private void run() throws Exception {
+        if (config.createSchema()) {
+            createSchema();
+        }
+        if (config.imagesDir() != null) {
+            Files.createDirectories(config.imagesDir());
+        }
+
+        // Password semua user sama, jadi hash BCrypt cukup dihitung sekali
+        DatasetFactory factory = new DatasetFactory(config,
+                new BCryptPasswordEncoder().encode(config.userPassword()));
+        byte[] image = config.imagesDir() == null ? null : fakePng(config.imageBytes(), config.seed());
+
+        int chunkUsers = Math.max(config.chunkUsers(), 1);
+        int chunks = (config.users() + chunkUsers - 1) / chunkUsers;
+        long start = System.nanoTime();
+
+        ExecutorService writers = Executors.newFixedThreadPool(Math.max(config.threads(), 1));
+        try {
+            List<Future<?>> futures = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int from = chunk * chunkUsers;
+                int to = Math.min(config.users(), from + chunkUsers);
+                futures.add(writers.submit(() -> {
+                    writeChunk(factory, image, from, to);
+                    return null;
+                }));
+            }
+            writers.shutdown();
+            while (!writers.awaitTermination(5, TimeUnit.SECONDS)) {
+                printProgress(start);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+
+        if (config.analyze()) {
+            analyze();
+        }
+        printProgress(start);
+        System.out.printf(Locale.ROOT, "Selesai: seed=%d checksum=%016x%n", config.seed(), checksum.get());
+    }
+
+    // Satu chunk = satu transaksi; jika gagal, chunk di-rollback dan run berhenti
+    private void writeChunk(DatasetFactory factory, byte[] image, int from, int to)
+            throws SQLException, IOException {
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            try (RowSink sink = RowSink.open(connection, config.batchSize())) {
+                List<UserRow> users = new ArrayList<>(to - from);
+                for (int index = from; index < to; index++) {
+                    users.add(factory.user(index));
+                }
+                sink.users(users);
+
+                long[] chunkStats = new long[2];
+                List<WorkoutRow> withImage = new ArrayList<>();
+                for (int i = 0; i < users.size(); i++) {
+                    UserRow user = users.get(i);
+                    chunkStats[1] += user.id().hashCode();
+                    factory.workouts(from + i, user, workout -> {
+                        try {
+                            sink.workout(workout);
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        chunkStats[0]++;
+                        chunkStats[1] += workout.id().hashCode();
+                        if (image != null && workout.imagePath() != null) {
+                            withImage.add(workout);
+                        }
+                    });
+                }
+                sink.flush();
+                connection.commit();
+
+                for (WorkoutRow workout : withImage) {
+                    Files.write(config.imagesDir().resolve(workout.imagePath()), image);
+                }
+                usersWritten.addAndGet(users.size());
+                workoutsWritten.addAndGet(chunkStats[0]);
+                checksum.addAndGet(chunkStats[1]);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(config.jdbcUrl(), config.username(), config.password());
+    }
+
+    // Menjalankan migration Flyway lalu memvalidasi entity, tanpa menjalankan web server
+    private void createSchema() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + config.jdbcUrl(),
+                        "spring.datasource.username=" + config.username(),
+                        "spring.datasource.password=" + config.password(),
+                        "spring.jpa.hibernate.ddl-auto=validate",
+                        "spring.flyway.baseline-on-migrate=true",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run()) {
+            System.out.println("Schema siap");
+        }
+    }
+
+    // Statistik planner harus diperbarui sebelum EXPLAIN di atas data baru
+    private void analyze() throws SQLException {
+        try (Connection connection = connect()) {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE users");
+                statement.execute("ANALYZE workouts");
+            }
+        }
+    }
+
+    private void printProgress(long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long workouts = workoutsWritten.get();
+        System.out.printf(Locale.ROOT, "%6.0fs  users=%d/%d  workouts=%d  (%.0f workout/s)%n", seconds,
+                usersWritten.get(), config.users(), workouts, workouts / Math.max(seconds, 0.001));
+    }
+
+    // Signature PNG + byte acak; server hanya memeriksa content type dan ukuran
+    private static byte[] fakePng(int size, long seed) {
+        byte[] bytes = new byte[Math.max(size, 8)];
+        new SplittableRandom(seed).nextBytes(bytes);
+        byte[] signature = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' };
+        System.arraycopy(signature, 0, bytes, 0, signature.length);
+        return bytes;
+    }
+}
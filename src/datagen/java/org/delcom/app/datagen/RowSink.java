@@ -0,0 +1,201 @@
+package org.delcom.app.datagen;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import org.delcom.app.datagen.DatasetFactory.UserRow;
+import org.delcom.app.datagen.DatasetFactory.WorkoutRow;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Tujuan penulisan baris untuk satu koneksi/transaksi. Postgres memakai
+ * {@code COPY ... FROM STDIN}, database lain memakai JDBC batch.
+ */
+interface RowSink extends AutoCloseable {
+    String USER_COLUMNS = "id, name, email, password, created_at, updated_at";
+    String WORKOUT_COLUMNS = "id, user_id, title, description, duration_minutes, calories_burned, date, type, "
+            + "image_path, created_at, updated_at";
+
+    // Dipanggil sekali per transaksi sebelum workout milik user tersebut (FK)
+    void users(List<UserRow> users) throws SQLException;
+
+    void workout(WorkoutRow workout) throws SQLException;
+
+    // Mengirim sisa buffer; dipanggil sebelum commit
+    void flush() throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+
+    static RowSink open(Connection connection, int batchSize) throws SQLException {
+        if (connection.isWrapperFor(PGConnection.class)) {
+            return new CopySink(connection.unwrap(PGConnection.class).getCopyAPI());
+        }
+        return new BatchSink(connection, batchSize);
+    }
+
+    final class CopySink implements RowSink {
+        private static final int BUFFER_CHARS = 1 << 20;
+
+        private final CopyManager copyManager;
+        private final StringBuilder buffer = new StringBuilder(BUFFER_CHARS + 1024);
+        private CopyIn workoutCopy;
+
+        CopySink(CopyManager copyManager) {
+            this.copyManager = copyManager;
+        }
+
+        @Override
+        public void users(List<UserRow> users) throws SQLException {
+            for (UserRow user : users) {
+                csv(buffer, user.id(), user.name(), user.email(), user.passwordHash(), user.createdAt(),
+                        user.createdAt());
+            }
+            byte[] bytes = drain(buffer);
+            CopyIn copy = copyManager.copyIn("COPY users (" + USER_COLUMNS + ") FROM STDIN WITH (FORMAT csv)");
+            copy.writeToCopy(bytes, 0, bytes.length);
+            copy.endCopy();
+        }
+
+        @Override
+        public void workout(WorkoutRow workout) throws SQLException {
+            csv(buffer, workout.id(), workout.userId(), workout.title(), workout.description(),
+                    workout.durationMinutes(), workout.caloriesBurned(), workout.date(), workout.type().name(),
+                    workout.imagePath(), workout.createdAt(), workout.createdAt());
+            if (buffer.length() >= BUFFER_CHARS) {
+                sendWorkouts();
+            }
+        }
+
+        @Override
+        public void flush() throws SQLException {
+            sendWorkouts();
+            if (workoutCopy != null) {
+                workoutCopy.endCopy();
+                workoutCopy = null;
+            }
+        }
+
+        // Satu COPY workouts terbuka per transaksi, diisi per ~1 MB
+        private void sendWorkouts() throws SQLException {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            if (workoutCopy == null) {
+                workoutCopy = copyManager
+                        .copyIn("COPY workouts (" + WORKOUT_COLUMNS + ") FROM STDIN WITH (FORMAT csv)");
+            }
+            byte[] bytes = drain(buffer);
+            workoutCopy.writeToCopy(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (workoutCopy != null && workoutCopy.isActive()) {
+                workoutCopy.cancelCopy();
+            }
+        }
+
+        private static byte[] drain(StringBuilder buffer) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            buffer.setLength(0);
+            return bytes;
+        }
+
+        private static void csv(StringBuilder out, Object... values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                Object value = values[i];
+                if (value instanceof String text) {
+                    out.append('"').append(text.replace("\"", "\"\"")).append('"');
+                } else if (value != null) {
+                    // null -> kolom kosong tanpa kutip = NULL di format csv
+                    out.append(value);
+                }
+            }
+            out.append('\n');
+        }
+    }
+
+    final class BatchSink implements RowSink {
+        private final int batchSize;
+        private final PreparedStatement userStatement;
+        private final PreparedStatement workoutStatement;
+        private int pendingWorkouts;
+
+        BatchSink(Connection connection, int batchSize) throws SQLException {
+            this.batchSize = batchSize;
+            this.userStatement = connection.prepareStatement(
+                    "INSERT INTO users (" + USER_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)");
+            this.workoutStatement = connection.prepareStatement(
+                    "INSERT INTO workouts (" + WORKOUT_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        }
+
+        @Override
+        public void users(List<UserRow> users) throws SQLException {
+            for (UserRow user : users) {
+                Timestamp createdAt = Timestamp.valueOf(user.createdAt());
+                userStatement.setObject(1, user.id());
+                userStatement.setString(2, user.name());
+                userStatement.setString(3, user.email());
+                userStatement.setString(4, user.passwordHash());
+                userStatement.setTimestamp(5, createdAt);
+                userStatement.setTimestamp(6, createdAt);
+                userStatement.addBatch();
+            }
+            userStatement.executeBatch();
+        }
+
+        @Override
+        public void workout(WorkoutRow workout) throws SQLException {
+            Timestamp createdAt = Timestamp.valueOf(workout.createdAt());
+            workoutStatement.setObject(1, workout.id());
+            workoutStatement.setObject(2, workout.userId());
+            workoutStatement.setString(3, workout.title());
+            workoutStatement.setString(4, workout.description());
+            workoutStatement.setInt(5, workout.durationMinutes());
+            workoutStatement.setDouble(6, workout.caloriesBurned());
+            workoutStatement.setDate(7, Date.valueOf(workout.date()));
+            workoutStatement.setString(8, workout.type().name());
+            if (workout.imagePath() == null) {
+                workoutStatement.setNull(9, Types.VARCHAR);
+            } else {
+                workoutStatement.setString(9, workout.imagePath());
+            }
+            workoutStatement.setTimestamp(10, createdAt);
+            workoutStatement.setTimestamp(11, createdAt);
+            workoutStatement.addBatch();
+            if (++pendingWorkouts >= batchSize) {
+                workoutStatement.executeBatch();
+                pendingWorkouts = 0;
+            }
+        }
+
+        @Override
+        public void flush() throws SQLException {
+            if (pendingWorkouts > 0) {
+                workoutStatement.executeBatch();
+                pendingWorkouts = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                userStatement.close();
+            } finally {
+                workoutStatement.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.delcom.app.configs;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serialisasi {@link ApiResponse} dengan Jackson yang dipakai Spring MVC,
+ * untuk payload kecil (id) dan daftar workout.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseBenchmark {
+
+    private JsonMapper jsonMapper;
+    private ApiResponse<Map<String, UUID>> idResponse;
+    private ApiResponse<Map<String, List<Workout>>> listResponse;
+
+    @Setup
+    public void setup() {
+        jsonMapper = JsonMapper.builder().build();
+        idResponse = new ApiResponse<>("success", "Workout berhasil dibuat", Map.of("id", UUID.randomUUID()));
+
+        List<Workout> workouts = new ArrayList<>();
+        UUID userId = UUID.randomUUID();
+        for (int i = 0; i < 50; i++) {
+            Workout workout = new Workout(userId, "Workout " + i, "Latihan rutin", 45, 450.0,
+                    LocalDate.of(2024, 1, 1).plusDays(i), WorkoutType.RUNNING, null);
+            workout.setId(UUID.randomUUID());
+            workouts.add(workout);
+        }
+        listResponse = new ApiResponse<>("success", "Berhasil mengambil data workout", Map.of("workouts", workouts));
+    }
+
+    @Benchmark
+    public String serializeId() {
+        return jsonMapper.writeValueAsString(idResponse);
+    }
+
+    @Benchmark
+    public String serializeWorkoutList() {
+        return jsonMapper.writeValueAsString(listResponse);
+    }
+}
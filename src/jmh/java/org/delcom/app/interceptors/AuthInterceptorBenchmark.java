@@ -0,0 +1,68 @@
+package org.delcom.app.interceptors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.entities.AuthToken;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.UserService;
+import org.delcom.app.utils.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * preHandle jalur bearer token (tanpa session). Service di-mock, jadi yang
+ * terukur adalah parsing header, validasi + parsing JWT, dan logika interceptor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthInterceptorBenchmark {
+
+    private AuthInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        User user = new User("Bench", "bench@example.com", "secret");
+        UUID userId = UUID.randomUUID();
+        user.setId(userId);
+        String token = JwtUtil.generateToken(userId);
+
+        interceptor = new AuthInterceptor();
+        interceptor.authContext = mock(AuthContext.class);
+        interceptor.authTokenService = mock(AuthTokenService.class);
+        interceptor.userService = mock(UserService.class);
+        when(interceptor.authTokenService.findUserToken(any(), any())).thenReturn(new AuthToken(userId, token));
+        when(interceptor.userService.getUserById(userId)).thenReturn(user);
+
+        request = new MockHttpServletRequest("GET", "/api/workouts");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public boolean preHandleBearer() throws Exception {
+        return interceptor.preHandle(request, response, null);
+    }
+}
@@ -0,0 +1,97 @@
+package org.delcom.app.services;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.enums.WorkoutType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Kernel skalar vs Vector API atas kolom yang sama, di array dan di MemorySegment
+// WorkoutHistoryFile; fork butuh modul incubator
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@State(Scope.Benchmark)
+public class WorkoutAggregatorBenchmark {
+
+    // 1.000 = riwayat power user, 1.000.000 = satu chunk besar laporan platform
+    @Param({ "1000", "100000", "1000000" })
+    public int rows;
+
+    @Param({ "scalar", "vector" })
+    public String kernel;
+
+    private WorkoutKernels kernels;
+    private WorkoutColumns columns;
+    private WorkoutHistoryFile history;
+    private long[] counts;
+
+    @Setup
+    public void setup() {
+        kernels = WorkoutAggregator.select("vector".equals(kernel), true);
+        columns = new WorkoutColumns(rows);
+        WorkoutHistoryFile.Builder builder = WorkoutHistoryFile.builder();
+        Random random = new Random(42);
+        WorkoutType[] types = WorkoutType.values();
+        int day = 19_000;
+        for (int i = 0; i < rows; i++) {
+            day += random.nextInt(3) == 0 ? 1 : 0;
+            WorkoutType type = types[random.nextInt(types.length)];
+            int duration = 10 + random.nextInt(110);
+            double calories = WorkoutService.calculateCalories(type, duration);
+            columns.add(day, duration, (byte) type.ordinal(), WorkoutColumns.scaleCalories(calories));
+            builder.add(UUID.randomUUID(), LocalDate.ofEpochDay(day), duration, type, calories);
+        }
+        history = builder.build();
+        counts = new long[types.length];
+    }
+
+    @Benchmark
+    public long sumDurations() {
+        return kernels.sum(columns.durations, 0, columns.size);
+    }
+
+    @Benchmark
+    public long sumCalories() {
+        return kernels.sum(columns.calories, 0, columns.size);
+    }
+
+    @Benchmark
+    public long[] countByType() {
+        Arrays.fill(counts, 0);
+        kernels.countByType(columns.types, 0, columns.size, counts);
+        return counts;
+    }
+
+    @Benchmark
+    public long sumDurationsSegment() {
+        return kernels.sumInts(history.durations(), 0, history.bufferRows());
+    }
+
+    @Benchmark
+    public long sumCaloriesSegment() {
+        return kernels.sumLongs(history.calories(), 0, history.bufferRows());
+    }
+
+    @Benchmark
+    public long[] countByTypeSegment() {
+        Arrays.fill(counts, 0);
+        kernels.countByType(history.types(), 0, history.bufferRows(), counts);
+        return counts;
+    }
+}
@@ -0,0 +1,69 @@
+package org.delcom.app.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.enums.WorkoutType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkoutServiceBenchmark {
+
+    // Jumlah baris hasil query agregasi (hari / tipe)
+    @Param({ "30", "365" })
+    public int rows;
+
+    private List<Object[]> dailyRows;
+    private List<Object[]> typeRows;
+    private final WorkoutType[] types = WorkoutType.values();
+
+    @Setup
+    public void setup() {
+        dailyRows = new ArrayList<>(rows);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            // Bentuk baris seperti dari driver JDBC: java.sql.Date dan Long
+            dailyRows.add(new Object[] { java.sql.Date.valueOf(start.plusDays(i)), (long) (20 + i % 90) });
+        }
+        typeRows = new ArrayList<>();
+        for (WorkoutType type : types) {
+            typeRows.add(new Object[] { type, (long) rows });
+        }
+    }
+
+    @Benchmark
+    public void calculateCalories(Blackhole blackhole) {
+        for (WorkoutType type : types) {
+            blackhole.consume(WorkoutService.calculateCalories(type, 45));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> buildDurationChart() {
+        return WorkoutService.buildDurationChart(dailyRows);
+    }
+
+    @Benchmark
+    public Map<String, Object> buildTypeChart() {
+        return WorkoutService.buildTypeChart(typeRows);
+    }
+}
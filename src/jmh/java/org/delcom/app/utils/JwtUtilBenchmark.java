@@ -0,0 +1,48 @@
+package org.delcom.app.utils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private UUID userId;
+    private String token;
+
+    @Setup
+    public void setup() {
+        userId = UUID.randomUUID();
+        token = JwtUtil.generateToken(userId);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return JwtUtil.generateToken(userId);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return JwtUtil.validateToken(token, true);
+    }
+
+    @Benchmark
+    public UUID extractUserId() {
+        return JwtUtil.extractUserId(token);
+    }
+}
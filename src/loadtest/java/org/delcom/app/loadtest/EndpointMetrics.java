@@ -0,0 +1,77 @@
+package org.delcom.app.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Histogram latensi (mikrodetik, 3 digit presisi) dan hitungan error per
+ * endpoint. Aman dipakai dari banyak virtual thread sekaligus.
+ */
+final class EndpointMetrics {
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    static final class Endpoint {
+        private final Histogram histogram = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder failedBeforeResponse = new LongAdder();
+
+        Histogram histogram() {
+            return histogram;
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+
+        // Request yang mendapat respons dihitung di histogram, yang gagal koneksi hanya error
+        long attempts() {
+            return histogram.getTotalCount() + failedBeforeResponse.sum();
+        }
+
+        double errorRate() {
+            long attempts = attempts();
+            return attempts == 0 ? 0 : (double) errors() / attempts;
+        }
+
+        double percentileMs(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    void record(String endpoint, long startNanos, boolean ok) {
+        Endpoint stats = endpoint(endpoint);
+        stats.histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+        if (!ok) {
+            stats.errors.increment();
+        }
+    }
+
+    void recordFailure(String endpoint) {
+        Endpoint stats = endpoint(endpoint);
+        stats.failedBeforeResponse.increment();
+        stats.errors.increment();
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    Map<String, Endpoint> snapshot() {
+        return new TreeMap<>(endpoints);
+    }
+
+    private Endpoint endpoint(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+    }
+}
@@ -0,0 +1,375 @@
+package org.delcom.app.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.delcom.app.Application;
+import org.delcom.app.entities.AuthToken;
+import org.delcom.app.entities.User;
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.delcom.app.loadtest.Scenarios.Scenario;
+import org.delcom.app.loadtest.Scenarios.SeededUser;
+import org.delcom.app.loadtest.Scenarios.Session;
+import org.delcom.app.repositories.AuthTokenRepository;
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.repositories.WorkoutRepository;
+import org.delcom.app.utils.JwtUtil;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Load test end-to-end: menjalankan aplikasi dengan database in-memory,
+ * mengisi user + workout, lalu mengirim sesi dengan kedatangan Poisson
+ * (model terbuka: rate tidak turun walau server melambat). Latensi dicatat per
+ * endpoint dengan HdrHistogram; proses keluar dengan kode 1 jika SLO dilanggar.
+ *
+ * Jalankan: {@code mvn -Ploadtest test -Dloadtest.args="rate=1000 duration-seconds=120"}
+ * (opsi lengkap di {@link LoadTestConfig}). Laporan menyertakan lama peminjaman
+ * koneksi per pool; bandingkan run dengan dan tanpa {@code replica.url} untuk
+ * melihat beban yang pindah dari primary.
+ */
+public final class LoadTest {
+    private static final int SEED_BATCH = 500;
+
+    private final LoadTestConfig config;
+
+    private LoadTest(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> breaches = new LoadTest(LoadTestConfig.from(args)).run();
+        System.exit(breaches.isEmpty() ? 0 : 1);
+    }
+
+    private List<String> run() throws Exception {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.threads.virtual.enabled=true",
+                "spring.datasource.url=" + config.datasourceUrl(),
+                "spring.datasource.username=" + config.datasourceUsername(),
+                "spring.datasource.password=" + config.datasourcePassword(),
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.open-in-view=false",
+                "spring.flyway.enabled=false",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + SEED_BATCH,
+                "spring.datasource.hikari.maximum-pool-size=16",
+                "app.storage.type=memory",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN"));
+        if (!config.replicaUrl().isEmpty()) {
+            properties.addAll(List.of(
+                    "app.datasource.replica.enabled=true",
+                    "app.datasource.replica.url=" + config.replicaUrl(),
+                    "app.datasource.replica.username=" + config.replicaUsername(),
+                    "app.datasource.replica.password=" + config.replicaPassword(),
+                    "app.datasource.replica.max-lag-ms=" + config.replicaMaxLagMs()));
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties(properties.toArray(String[]::new))
+                .run()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+            long seedStart = System.nanoTime();
+            List<SeededUser> users = seed(context, "user", config.users(), config.workoutsPerUser(), true);
+            List<SeededUser> loginUsers = seed(context, "login", config.loginUsers(), 0, false);
+            System.out.printf(Locale.ROOT, "Seed %d user (+%d login) x %d workout dalam %.1f detik%n",
+                    users.size(), loginUsers.size(), config.workoutsPerUser(),
+                    (System.nanoTime() - seedStart) / 1e9);
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient http = HttpClient.newBuilder()
+                        .executor(clients)
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+                Scenarios scenarios = new Scenarios(http, "http://localhost:" + port, config, users, loginUsers);
+
+                Map<String, double[]> poolsBefore = poolUsage(context);
+                EndpointMetrics metrics = drive(scenarios);
+                Map<String, double[]> pools = poolUsage(context);
+                pools.forEach((pool, usage) -> {
+                    double[] before = poolsBefore.getOrDefault(pool, new double[2]);
+                    usage[0] -= before[0];
+                    usage[1] -= before[1];
+                });
+                List<String> breaches = evaluate(metrics);
+                report(metrics, pools, breaches);
+                return breaches;
+            }
+        }
+    }
+
+    // Password semua user seed sama, jadi hash BCrypt cukup dihitung sekali
+    private List<SeededUser> seed(ConfigurableApplicationContext context, String prefix, int count,
+            int workoutsPerUser, boolean withToken) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AuthTokenRepository authTokenRepository = context.getBean(AuthTokenRepository.class);
+        WorkoutRepository workoutRepository = context.getBean(WorkoutRepository.class);
+        String passwordHash = new BCryptPasswordEncoder().encode(Scenarios.PASSWORD);
+        SplittableRandom random = new SplittableRandom(config.seed() ^ prefix.hashCode());
+        WorkoutType[] types = WorkoutType.values();
+
+        List<SeededUser> seeded = new ArrayList<>(count);
+        for (int from = 0; from < count; from += SEED_BATCH) {
+            List<User> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(count, from + SEED_BATCH); i++) {
+                batch.add(new User("Load Test " + i, prefix + "-" + i + "@loadtest.local", passwordHash));
+            }
+            List<User> users = userRepository.saveAll(batch);
+
+            List<AuthToken> tokens = new ArrayList<>();
+            List<Workout> workouts = new ArrayList<>();
+            for (User user : users) {
+                if (withToken) {
+                    tokens.add(new AuthToken(user.getId(), JwtUtil.generateToken(user.getId())));
+                }
+                for (int w = 0; w < workoutsPerUser; w++) {
+                    WorkoutType type = types[random.nextInt(types.length)];
+                    int duration = 10 + random.nextInt(110);
+                    workouts.add(new Workout(user.getId(), type + " #" + w, "Data seed load test", duration,
+                            duration * 7.0, LocalDate.now().minusDays(random.nextInt(120)), type, null));
+                }
+            }
+            authTokenRepository.saveAll(tokens);
+            List<Workout> savedWorkouts = workoutRepository.saveAll(workouts);
+
+            Map<UUID, List<UUID>> workoutIds = new LinkedHashMap<>();
+            for (Workout workout : savedWorkouts) {
+                workoutIds.computeIfAbsent(workout.getUserId(), k -> new ArrayList<>()).add(workout.getId());
+            }
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                seeded.add(new SeededUser(user.getId(), user.getEmail(),
+                        withToken ? tokens.get(i).getToken() : null,
+                        List.copyOf(workoutIds.getOrDefault(user.getId(), List.of()))));
+            }
+        }
+        return seeded;
+    }
+
+    // Kedatangan Poisson; sesi selama ramp-up dicatat ke metrik terpisah yang dibuang
+    private EndpointMetrics drive(Scenarios scenarios) throws InterruptedException {
+        List<String> names = new ArrayList<>();
+        List<Scenario> picks = new ArrayList<>();
+        Map<String, Scenario> available = scenarios.all();
+        for (String entry : config.mix().split(",")) {
+            String[] parts = entry.trim().split("=");
+            Scenario scenario = available.get(parts[0].trim());
+            if (scenario == null || parts.length != 2) {
+                throw new IllegalArgumentException("Mix skenario tidak valid: " + entry);
+            }
+            for (int weight = Integer.parseInt(parts[1].trim()); weight > 0; weight--) {
+                names.add(parts[0].trim());
+                picks.add(scenario);
+            }
+        }
+        if (picks.isEmpty()) {
+            throw new IllegalArgumentException("Mix skenario kosong");
+        }
+
+        EndpointMetrics warmup = new EndpointMetrics();
+        EndpointMetrics measured = new EndpointMetrics();
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+        SplittableRandom arrivals = new SplittableRandom(config.seed());
+        double rampSeconds = config.rampSeconds();
+        long begin = System.nanoTime();
+        long rampEnd = begin + TimeUnit.SECONDS.toNanos(config.rampSeconds());
+        long end = rampEnd + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        long nextProgress = begin + TimeUnit.SECONDS.toNanos(10);
+
+        ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            double elapsed = 0;
+            while (true) {
+                double rate = elapsed < rampSeconds
+                        ? Math.max(config.rate() * elapsed / rampSeconds, config.rate() * 0.05)
+                        : config.rate();
+                elapsed += -Math.log(1 - arrivals.nextDouble()) / rate;
+                long scheduled = begin + (long) (elapsed * 1e9);
+                if (scheduled >= end) {
+                    break;
+                }
+                sleepUntil(scheduled);
+
+                EndpointMetrics target = scheduled < rampEnd ? warmup : measured;
+                int pick = arrivals.nextInt(picks.size());
+                Scenario scenario = picks.get(pick);
+                SplittableRandom random = arrivals.split();
+                if (!inFlight.tryAcquire()) {
+                    target.recordDropped();
+                    continue;
+                }
+                sessions.execute(() -> {
+                    try {
+                        scenario.run(new Session(target, random, scheduled));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        System.err.println("Skenario " + names.get(pick) + " gagal: " + e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+
+                if (scheduled >= nextProgress) {
+                    System.out.printf(Locale.ROOT, "t=%4.0fs rate=%7.1f/s in-flight=%d dropped=%d%n",
+                            elapsed, rate, config.maxInFlight() - inFlight.availablePermits(),
+                            warmup.dropped() + measured.dropped());
+                    nextProgress += TimeUnit.SECONDS.toNanos(10);
+                }
+            }
+        } finally {
+            sessions.shutdown();
+            if (!sessions.awaitTermination(60, TimeUnit.SECONDS)) {
+                System.err.println("Sesi belum selesai setelah 60 detik, dihentikan paksa");
+                sessions.shutdownNow();
+            }
+        }
+        return measured;
+    }
+
+    /**
+     * Jumlah dan total lama peminjaman koneksi per pool (hikaricp.connections.usage):
+     * ukuran kerja database per pool, misal seberapa banyak beban primary yang
+     * dipindah ke replica. Nilai [jumlah, total ms].
+     */
+    private static Map<String, double[]> poolUsage(ConfigurableApplicationContext context) {
+        Map<String, double[]> usage = new TreeMap<>();
+        for (Timer timer : context.getBean(MeterRegistry.class).find("hikaricp.connections.usage").timers()) {
+            usage.put(timer.getId().getTag("pool"),
+                    new double[] { timer.count(), timer.totalTime(TimeUnit.MILLISECONDS) });
+        }
+        return usage;
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private List<String> evaluate(EndpointMetrics metrics) {
+        List<String> breaches = new ArrayList<>();
+        metrics.snapshot().forEach((endpoint, stats) -> {
+            double p99Limit = config.sloP99Ms(endpoint);
+            double p999Limit = config.sloP999Ms(endpoint);
+            if (p99Limit > 0 && stats.percentileMs(99) > p99Limit) {
+                breaches.add(String.format(Locale.ROOT, "%s p99 %.1f ms > %.1f ms", endpoint,
+                        stats.percentileMs(99), p99Limit));
+            }
+            if (p999Limit > 0 && stats.percentileMs(99.9) > p999Limit) {
+                breaches.add(String.format(Locale.ROOT, "%s p99.9 %.1f ms > %.1f ms", endpoint,
+                        stats.percentileMs(99.9), p999Limit));
+            }
+            if (stats.errorRate() > config.sloErrorRate()) {
+                breaches.add(String.format(Locale.ROOT, "%s error rate %.4f > %.4f", endpoint, stats.errorRate(),
+                        config.sloErrorRate()));
+            }
+        });
+        if (metrics.dropped() > config.sloMaxDropped()) {
+            breaches.add("dropped " + metrics.dropped() + " > " + config.sloMaxDropped()
+                    + " (naikkan max-in-flight atau turunkan rate)");
+        }
+        return breaches;
+    }
+
+    private void report(EndpointMetrics metrics, Map<String, double[]> pools, List<String> breaches)
+            throws IOException {
+        Path outputDir = config.outputDir();
+        Files.createDirectories(outputDir);
+        double seconds = config.durationSeconds();
+
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%n%-20s %9s %7s %9s %9s %9s %9s %9s %9s%n", "endpoint", "count", "errors", "req/s", "p50 ms",
+                "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        StringBuilder json = new StringBuilder("{\"config\":{");
+        String separator = "";
+        for (Map.Entry<String, String> entry : config.values().entrySet()) {
+            json.append(separator).append(quote(entry.getKey())).append(':').append(quote(entry.getValue()));
+            separator = ",";
+        }
+        json.append("},\"durationSeconds\":").append(config.durationSeconds())
+                .append(",\"dropped\":").append(metrics.dropped()).append(",\"endpoints\":{");
+
+        separator = "";
+        for (Map.Entry<String, EndpointMetrics.Endpoint> entry : metrics.snapshot().entrySet()) {
+            String endpoint = entry.getKey();
+            EndpointMetrics.Endpoint stats = entry.getValue();
+            long count = stats.histogram().getTotalCount();
+            double max = stats.histogram().getMaxValue() / 1000.0;
+            table.append(String.format(Locale.ROOT, "%-20s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint,
+                    count, stats.errors(), count / seconds, stats.percentileMs(50), stats.percentileMs(90),
+                    stats.percentileMs(99), stats.percentileMs(99.9), max));
+            json.append(separator).append(quote(endpoint)).append(String.format(Locale.ROOT,
+                    ":{\"count\":%d,\"errors\":%d,\"errorRate\":%.5f,\"throughput\":%.2f,\"meanMs\":%.3f,"
+                            + "\"p50Ms\":%.3f,\"p90Ms\":%.3f,\"p99Ms\":%.3f,\"p999Ms\":%.3f,\"maxMs\":%.3f}",
+                    count, stats.errors(), stats.errorRate(), count / seconds, stats.histogram().getMean() / 1000.0,
+                    stats.percentileMs(50), stats.percentileMs(90), stats.percentileMs(99),
+                    stats.percentileMs(99.9), max));
+            separator = ",";
+
+            // Distribusi lengkap, bisa diplot dengan HdrHistogram plotter
+            try (PrintStream out = new PrintStream(Files.newOutputStream(outputDir.resolve(endpoint + ".hgrm")))) {
+                stats.histogram().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        json.append("},\"pools\":{");
+        separator = "";
+        double totalBusyMs = pools.values().stream().mapToDouble(usage -> usage[1]).sum();
+        for (Map.Entry<String, double[]> entry : pools.entrySet()) {
+            double[] usage = entry.getValue();
+            double share = totalBusyMs == 0 ? 0 : usage[1] / totalBusyMs;
+            table.append(String.format(Locale.ROOT, "pool %-15s %9.0f koneksi %10.1f ms dipinjam (%.0f%%)%n",
+                    entry.getKey(), usage[0], usage[1], share * 100));
+            json.append(separator).append(quote(entry.getKey())).append(String.format(Locale.ROOT,
+                    ":{\"connections\":%.0f,\"busyMs\":%.3f,\"share\":%.4f}", usage[0], usage[1], share));
+            separator = ",";
+        }
+        json.append("},\"breaches\":[");
+        separator = "";
+        for (String breach : breaches) {
+            json.append(separator).append(quote(breach));
+            separator = ",";
+        }
+        json.append("],\"passed\":").append(breaches.isEmpty()).append('}');
+        Files.writeString(outputDir.resolve("report.json"), json);
+
+        table.append(String.format(Locale.ROOT, "dropped=%d%n", metrics.dropped()));
+        if (breaches.isEmpty()) {
+            table.append("SLO terpenuhi\n");
+        } else {
+            table.append("SLO DILANGGAR:\n");
+            breaches.forEach(breach -> table.append("  - ").append(breach).append('\n'));
+        }
+        System.out.println(table);
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
@@ -0,0 +1,172 @@
+package org.delcom.app.loadtest;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Konfigurasi load test. Sumber (prioritas naik): default, system property
+ * {@code loadtest.<key>}, argumen program {@code <key>=<value>}.
+ *
+ * <pre>
+ * users                 user seed yang memakai bearer token (1000)
+ * login-users           user seed khusus skenario login (100)
+ * workouts-per-user     workout awal per user seed (20)
+ * rate                  kedatangan sesi per detik, model terbuka (200)
+ * ramp-seconds          kenaikan rate linear, tidak ikut diukur (10)
+ * duration-seconds      durasi pengukuran (60)
+ * max-in-flight         batas sesi bersamaan; lebihnya dihitung dropped (5000)
+ * mix                   bobot skenario (login=5,register=2,crud=35,list=20,stats=30,image=8)
+ * stats-polls           jumlah poll per sesi stats (3)
+ * poll-interval-ms      jeda antar poll stats (1000)
+ * image-bytes           ukuran upload image (65536)
+ * seed                  seed random, sama seed = urutan kedatangan sama (42)
+ * datasource.url        JDBC URL (H2 in-memory), beserta datasource.username/password
+ * replica.url           JDBC URL read replica; jika diisi transaksi read-only dirouting ke sana,
+ *                       beserta replica.username/password (default sama dengan datasource) dan
+ *                       replica.max-lag-ms (1000). Seed ditulis ke primary, jadi replica harus
+ *                       benar-benar mereplikasi primary (misal standby PostgreSQL)
+ * slo.p99-ms            batas p99 semua endpoint (500)
+ * slo.p999-ms           batas p99.9, 0 = tidak dicek (0)
+ * slo.error-rate        batas rasio error per endpoint (0.01)
+ * slo.max-dropped       batas kedatangan yang dibuang (0)
+ * slo.&lt;endpoint&gt;.p99-ms / p999-ms   override per endpoint, mis. slo.workouts.stats.p99-ms=200
+ * output-dir            direktori laporan (target/loadtest)
+ * </pre>
+ */
+final class LoadTestConfig {
+    private static final String PREFIX = "loadtest.";
+
+    private final Map<String, String> values;
+
+    private LoadTestConfig(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static LoadTestConfig from(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(PREFIX)) {
+                values.put(name.substring(PREFIX.length()), System.getProperty(name));
+            }
+        }
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Argumen harus berbentuk key=value: " + arg);
+            }
+            values.put(arg.substring(0, separator).trim(), arg.substring(separator + 1).trim());
+        }
+        return new LoadTestConfig(values);
+    }
+
+    int users() {
+        return intValue("users", 1000);
+    }
+
+    int loginUsers() {
+        return intValue("login-users", 100);
+    }
+
+    int workoutsPerUser() {
+        return intValue("workouts-per-user", 20);
+    }
+
+    double rate() {
+        return doubleValue("rate", 200);
+    }
+
+    int rampSeconds() {
+        return intValue("ramp-seconds", 10);
+    }
+
+    int durationSeconds() {
+        return intValue("duration-seconds", 60);
+    }
+
+    int maxInFlight() {
+        return intValue("max-in-flight", 5000);
+    }
+
+    String mix() {
+        return values.getOrDefault("mix", "login=5,register=2,crud=35,list=20,stats=30,image=8");
+    }
+
+    int statsPolls() {
+        return intValue("stats-polls", 3);
+    }
+
+    long pollIntervalMs() {
+        return intValue("poll-interval-ms", 1000);
+    }
+
+    int imageBytes() {
+        return intValue("image-bytes", 64 * 1024);
+    }
+
+    long seed() {
+        return Long.parseLong(values.getOrDefault("seed", "42"));
+    }
+
+    String datasourceUrl() {
+        return values.getOrDefault("datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+    }
+
+    String datasourceUsername() {
+        return values.getOrDefault("datasource.username", "sa");
+    }
+
+    String datasourcePassword() {
+        return values.getOrDefault("datasource.password", "");
+    }
+
+    String replicaUrl() {
+        return values.getOrDefault("replica.url", "");
+    }
+
+    String replicaUsername() {
+        return values.getOrDefault("replica.username", datasourceUsername());
+    }
+
+    String replicaPassword() {
+        return values.getOrDefault("replica.password", datasourcePassword());
+    }
+
+    long replicaMaxLagMs() {
+        return intValue("replica.max-lag-ms", 1000);
+    }
+
+    double sloP99Ms(String endpoint) {
+        return doubleValue("slo." + endpoint + ".p99-ms", doubleValue("slo.p99-ms", 500));
+    }
+
+    double sloP999Ms(String endpoint) {
+        return doubleValue("slo." + endpoint + ".p999-ms", doubleValue("slo.p999-ms", 0));
+    }
+
+    double sloErrorRate() {
+        return doubleValue("slo.error-rate", 0.01);
+    }
+
+    long sloMaxDropped() {
+        return intValue("slo.max-dropped", 0);
+    }
+
+    Path outputDir() {
+        return Path.of(values.getOrDefault("output-dir", "target/loadtest"));
+    }
+
+    Map<String, String> values() {
+        return values;
+    }
+
+    private int intValue(String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+
+    private double doubleValue(String key, double defaultValue) {
+        String value = values.get(key);
+        return value == null || value.isEmpty() ? defaultValue : Double.parseDouble(value);
+    }
+}
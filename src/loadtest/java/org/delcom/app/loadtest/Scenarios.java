@@ -0,0 +1,285 @@
+package org.delcom.app.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.delcom.app.enums.WorkoutType;
+
+/**
+ * Skenario yang dijalankan satu sesi virtual user. Request pertama setiap sesi
+ * diukur dari waktu kedatangan terjadwal (bukan waktu kirim), sehingga antrean
+ * di sisi generator tetap terlihat sebagai latensi (koreksi coordinated omission).
+ */
+final class Scenarios {
+    static final String PASSWORD = "loadtest-secret";
+
+    private static final Pattern TOKEN = Pattern.compile("\"authToken\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"[^>]*value=\"([^\"]+)\"");
+    private static final String[] SEARCH_TERMS = { "Run", "Gym", "Pagi", "Sore" };
+    private static final String[] STATS_RANGES = { "week", "month", "3months" };
+    private static final WorkoutType[] TYPES = WorkoutType.values();
+
+    record SeededUser(UUID id, String email, String token, List<UUID> workoutIds) {
+    }
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final LoadTestConfig config;
+    private final List<SeededUser> users;
+    private final List<SeededUser> loginUsers;
+    private final byte[] image;
+    private final AtomicLong registrations = new AtomicLong();
+
+    Scenarios(HttpClient http, String baseUrl, LoadTestConfig config, List<SeededUser> users,
+            List<SeededUser> loginUsers) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.config = config;
+        this.users = users;
+        this.loginUsers = loginUsers;
+        this.image = fakePng(config.imageBytes(), config.seed());
+    }
+
+    // Nama skenario -> implementasi; urutan mengikuti opsi "mix"
+    Map<String, Scenario> all() {
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("login", this::login);
+        scenarios.put("register", this::register);
+        scenarios.put("crud", this::crud);
+        scenarios.put("list", this::list);
+        scenarios.put("stats", this::stats);
+        scenarios.put("image", this::image);
+        return scenarios;
+    }
+
+    @FunctionalInterface
+    interface Scenario {
+        void run(Session session) throws InterruptedException;
+    }
+
+    // Satu sesi: metrik tujuan, random milik sesi, dan waktu kedatangan terjadwal
+    static final class Session {
+        private final EndpointMetrics metrics;
+        private final SplittableRandom random;
+        private final long scheduledStart;
+        private boolean started;
+        private final Map<String, String> cookies = new LinkedHashMap<>();
+
+        Session(EndpointMetrics metrics, SplittableRandom random, long scheduledStart) {
+            this.metrics = metrics;
+            this.random = random;
+            this.scheduledStart = scheduledStart;
+        }
+
+        // Waktu mulai request berikutnya: terjadwal untuk request pertama, sekarang untuk sisanya
+        long start() {
+            if (started) {
+                return System.nanoTime();
+            }
+            started = true;
+            return scheduledStart;
+        }
+    }
+
+    // Login API memakai pool user terpisah: login menghapus token lama user tersebut
+    private void login(Session session) throws InterruptedException {
+        SeededUser user = loginUsers.get(session.random.nextInt(loginUsers.size()));
+        call(session, "auth.login", post("/api/auth/login", credentials(user.email()), null), 200);
+    }
+
+    private void register(Session session) throws InterruptedException {
+        String email = "register-" + config.seed() + "-" + registrations.incrementAndGet() + "@loadtest.local";
+        if (call(session, "auth.register", post("/api/auth/register", credentials(email), null), 200) == null) {
+            return;
+        }
+        String body = call(session, "auth.login", post("/api/auth/login", credentials(email), null), 200);
+        Matcher matcher = body == null ? null : TOKEN.matcher(body);
+        if (matcher != null && matcher.find()) {
+            call(session, "workouts.list", api("/api/workouts", matcher.group(1)).GET().build(), 200);
+        }
+    }
+
+    private void crud(Session session) throws InterruptedException {
+        SeededUser user = randomUser(session);
+        String created = call(session, "workouts.create", post("/api/workouts", workoutJson(session), user.token()),
+                200);
+        Matcher matcher = created == null ? null : ID.matcher(created);
+        if (matcher == null || !matcher.find()) {
+            return;
+        }
+        String path = "/api/workouts/" + matcher.group(1);
+        call(session, "workouts.get", api(path, user.token()).GET().build(), 200);
+        call(session, "workouts.update", api(path, user.token())
+                .PUT(HttpRequest.BodyPublishers.ofString(workoutJson(session))).build(), 200);
+        call(session, "workouts.list", api("/api/workouts", user.token()).GET().build(), 200);
+        call(session, "workouts.delete", api(path, user.token()).DELETE().build(), 200);
+    }
+
+    private void list(Session session) throws InterruptedException {
+        SeededUser user = randomUser(session);
+        call(session, "workouts.list", api("/api/workouts", user.token()).GET().build(), 200);
+        String term = SEARCH_TERMS[session.random.nextInt(SEARCH_TERMS.length)];
+        call(session, "workouts.search", api("/api/workouts?search=" + term, user.token()).GET().build(), 200);
+        if (!user.workoutIds().isEmpty()) {
+            UUID id = user.workoutIds().get(session.random.nextInt(user.workoutIds().size()));
+            call(session, "workouts.get", api("/api/workouts/" + id, user.token()).GET().build(), 200);
+        }
+    }
+
+    // Dashboard yang me-refresh grafik secara berkala
+    private void stats(Session session) throws InterruptedException {
+        SeededUser user = randomUser(session);
+        String range = STATS_RANGES[session.random.nextInt(STATS_RANGES.length)];
+        for (int poll = 0; poll < config.statsPolls(); poll++) {
+            if (poll > 0) {
+                Thread.sleep(config.pollIntervalMs());
+            }
+            call(session, "workouts.stats", api("/api/workouts/stats?range=" + range, user.token()).GET().build(),
+                    200);
+        }
+    }
+
+    // Upload image hanya tersedia lewat form web: login session, ambil CSRF, kirim multipart
+    private void image(Session session) throws InterruptedException {
+        SeededUser user = randomUser(session);
+        if (user.workoutIds().isEmpty()) {
+            return;
+        }
+        UUID workoutId = user.workoutIds().get(session.random.nextInt(user.workoutIds().size()));
+
+        String loginPage = call(session, "web.login-page", web(session, "/auth/login").GET().build(), 200);
+        String csrf = csrf(loginPage);
+        if (csrf == null) {
+            return;
+        }
+        String form = "_csrf=" + URLEncoder.encode(csrf, StandardCharsets.UTF_8)
+                + "&email=" + URLEncoder.encode(user.email(), StandardCharsets.UTF_8) + "&password=" + PASSWORD;
+        String loggedIn = call(session, "web.login", web(session, "/auth/login/post")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)).build(), 302);
+        if (loggedIn == null) {
+            return;
+        }
+
+        String detail = call(session, "web.workout-detail", web(session, "/workouts/" + workoutId).GET().build(),
+                200);
+        csrf = csrf(detail);
+        if (csrf == null) {
+            return;
+        }
+        String boundary = "loadtest" + Long.toHexString(session.random.nextLong());
+        call(session, "web.image-upload", web(session, "/workouts/edit-image")
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipart(boundary, csrf, workoutId))).build(), 302);
+    }
+
+    private SeededUser randomUser(Session session) {
+        return users.get(session.random.nextInt(users.size()));
+    }
+
+    // Mengirim request; mengembalikan body jika status sesuai, selain itu null
+    private String call(Session session, String endpoint, HttpRequest request, int expectedStatus)
+            throws InterruptedException {
+        long start = session.start();
+        HttpResponse<String> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            session.metrics.recordFailure(endpoint);
+            return null;
+        }
+        boolean ok = response.statusCode() == expectedStatus;
+        session.metrics.record(endpoint, start, ok);
+        storeCookies(session, response.headers());
+        return ok ? response.body() : null;
+    }
+
+    private HttpRequest post(String path, String json, String token) {
+        return api(path, token).POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private HttpRequest.Builder api(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30));
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.Builder web(Session session, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (!session.cookies.isEmpty()) {
+            StringBuilder cookie = new StringBuilder();
+            session.cookies.forEach((name, value) -> cookie.append(cookie.isEmpty() ? "" : "; ")
+                    .append(name).append('=').append(value));
+            builder.header("Cookie", cookie.toString());
+        }
+        return builder;
+    }
+
+    private static void storeCookies(Session session, HttpHeaders headers) {
+        for (String header : headers.allValues("Set-Cookie")) {
+            String pair = header.split(";", 2)[0];
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                session.cookies.put(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim());
+            }
+        }
+    }
+
+    private static String csrf(String html) {
+        Matcher matcher = html == null ? null : CSRF.matcher(html);
+        return matcher != null && matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static String credentials(String email) {
+        return "{\"name\":\"Load Test\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static String workoutJson(Session session) {
+        WorkoutType type = TYPES[session.random.nextInt(TYPES.length)];
+        return "{\"title\":\"" + type.name().charAt(0) + type.name().substring(1).toLowerCase() + " Pagi\","
+                + "\"description\":\"Load test\",\"durationMinutes\":" + (10 + session.random.nextInt(110))
+                + ",\"type\":\"" + type + "\",\"date\":\"" + LocalDate.now().minusDays(session.random.nextInt(90))
+                + "\"}";
+    }
+
+    private byte[] multipart(String boundary, String csrf, UUID workoutId) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(image.length + 512);
+        String head = "--" + boundary + "\r\nContent-Disposition: form-data; name=\"_csrf\"\r\n\r\n" + csrf + "\r\n"
+                + "--" + boundary + "\r\nContent-Disposition: form-data; name=\"id\"\r\n\r\n" + workoutId + "\r\n"
+                + "--" + boundary + "\r\nContent-Disposition: form-data; name=\"imageFile\"; filename=\"loadtest.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n";
+        body.writeBytes(head.getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(image);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    // Signature PNG + byte acak; server hanya memeriksa content type dan ukuran
+    private static byte[] fakePng(int size, long seed) {
+        byte[] bytes = new byte[Math.max(size, 8)];
+        new SplittableRandom(seed).nextBytes(bytes);
+        byte[] signature = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' };
+        System.arraycopy(signature, 0, bytes, 0, signature.length);
+        return bytes;
+    }
+}
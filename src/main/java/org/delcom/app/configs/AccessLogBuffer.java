@@ -0,0 +1,124 @@
+package org.delcom.app.configs;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Ring buffer lock-free untuk record access log: banyak thread request
+ * (producer) dan satu writer (consumer).
+ *
+ * Slot dialokasikan sekali di awal dan dipakai ulang, jadi jalur request tidak
+ * membuat objek baru. Setiap slot punya nomor urut: producer mengklaim posisi
+ * lewat CAS pada {@code tail}, mengisi slot, lalu mem-publish dengan menaikkan
+ * nomor urutnya; consumer hanya membaca slot yang sudah di-publish.
+ */
+final class AccessLogBuffer {
+
+    /** Satu record; field hanya boleh diisi producer antara claim() dan publish(). */
+    static final class Entry {
+        private volatile long sequence;
+        private long position;
+
+        long timestampMillis;
+        long durationNanos;
+        int status;
+        String method;
+        String uri;
+        String pattern;
+        Object handler;
+        String remoteAddr;
+
+        private void clear() {
+            method = null;
+            uri = null;
+            pattern = null;
+            handler = null;
+            remoteAddr = null;
+        }
+    }
+
+    private static final VarHandle SEQUENCE;
+
+    static {
+        try {
+            SEQUENCE = MethodHandles.lookup().findVarHandle(Entry.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Entry[] entries;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Hanya diakses consumer (drain dipanggil di bawah lock milik pemanggil)
+    private long head;
+
+    AccessLogBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(requestedCapacity, 2) - 1) << 1;
+        this.entries = new Entry[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new Entry();
+            entries[i].sequence = i;
+        }
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * Mengklaim slot kosong berikutnya.
+     *
+     * @return slot untuk diisi lalu di-{@link #publish(Entry)}, atau null jika penuh
+     */
+    Entry claim() {
+        long position = tail.get();
+        while (true) {
+            Entry entry = entries[(int) (position & mask)];
+            long sequence = (long) SEQUENCE.getAcquire(entry);
+            long diff = sequence - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    entry.position = position;
+                    return entry;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    void publish(Entry entry) {
+        SEQUENCE.setRelease(entry, entry.position + 1);
+    }
+
+    /**
+     * Menyerahkan semua record yang sudah di-publish ke {@code sink} sesuai urutan,
+     * lalu membebaskan slotnya. Hanya boleh dipanggil oleh satu thread sekaligus.
+     *
+     * @return jumlah record yang diproses
+     */
+    int drain(Consumer<Entry> sink) {
+        int drained = 0;
+        while (true) {
+            Entry entry = entries[(int) (head & mask)];
+            if ((long) SEQUENCE.getAcquire(entry) != head + 1) {
+                return drained;
+            }
+            try {
+                sink.accept(entry);
+            } finally {
+                entry.clear();
+                SEQUENCE.setRelease(entry, head + entries.length);
+                head++;
+                drained++;
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.delcom.app.configs;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+// Executor @Async memakai applicationTaskExecutor bawaan Spring Boot,
+// yang otomatis berbasis virtual thread jika spring.threads.virtual.enabled=true
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    // Dipasang Spring Boot ke applicationTaskExecutor: task @Async melihat AuthContext pemanggil
+    @Bean
+    TaskDecorator authContextTaskDecorator() {
+        return AuthContext::propagate;
+    }
+}
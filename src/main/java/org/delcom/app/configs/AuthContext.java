@@ -1,23 +1,70 @@
 package org.delcom.app.configs;
 
+import java.util.concurrent.Callable;
+
 import org.delcom.app.entities.User;
 import org.springframework.stereotype.Component;
-import org.springframework.web.context.annotation.RequestScope;
 
+/**
+ * User yang terautentikasi untuk request yang sedang berjalan.
+ *
+ * Bean ini singleton (tanpa scoped proxy); datanya dibaca dari
+ * {@link ScopedValue} yang di-bind oleh {@link AuthContextFilter} untuk
+ * seluruh request. {@code AuthInterceptor} mengisi user sekali, setelah itu
+ * nilainya tidak bisa diganti. Task turunan (executor, {@code @Async}) ikut
+ * melihat user yang sama lewat {@link #propagate(Runnable)}.
+ */
 @Component
-@RequestScope
 public class AuthContext {
-    private User authUser;
+    private static final ScopedValue<Slot> CURRENT = ScopedValue.newInstance();
+
+    // Diisi sekali per request
+    private static final class Slot {
+        private User authUser;
+    }
 
     public User getAuthUser() {
-        return authUser;
+        return current();
+    }
+
+    public boolean isAuthenticated() {
+        return current() != null;
     }
 
     public void setAuthUser(User authUser) {
-        this.authUser = authUser;
+        if (!CURRENT.isBound()) {
+            throw new IllegalStateException("AuthContext hanya bisa diisi di dalam scope request");
+        }
+        Slot slot = CURRENT.get();
+        if (slot.authUser != null && slot.authUser != authUser) {
+            throw new IllegalStateException("AuthContext sudah diisi untuk request ini");
+        }
+        slot.authUser = authUser;
     }
 
-    public boolean isAuthenticated() {
-        return authUser != null;
+    public static User current() {
+        return CURRENT.isBound() ? CURRENT.get().authUser : null;
+    }
+
+    // Menjalankan operasi dalam scope auth baru yang masih kosong
+    public static <R, X extends Throwable> R callInScope(ScopedValue.CallableOp<? extends R, X> op) throws X {
+        return ScopedValue.where(CURRENT, new Slot()).call(op);
+    }
+
+    // Membawa scope auth pemanggil ke task yang dijalankan di thread lain
+    public static Runnable propagate(Runnable task) {
+        if (!CURRENT.isBound()) {
+            return task;
+        }
+        Slot slot = CURRENT.get();
+        return () -> ScopedValue.where(CURRENT, slot).run(task);
+    }
+
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        if (!CURRENT.isBound()) {
+            return task;
+        }
+        Slot slot = CURRENT.get();
+        return () -> ScopedValue.where(CURRENT, slot).call(task::call);
     }
 }
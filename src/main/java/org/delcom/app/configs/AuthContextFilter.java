@@ -0,0 +1,38 @@
+package org.delcom.app.configs;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Membungkus seluruh request dalam scope {@link AuthContext} baru, sehingga
+ * {@code AuthInterceptor} bisa mengisi user dan controller membacanya tanpa
+ * scoped proxy atau lookup atribut request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AuthContextFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        try {
+            AuthContext.callInScope(() -> {
+                filterChain.doFilter(request, response);
+                return null;
+            });
+        } catch (IOException | ServletException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ServletException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.delcom.app.configs;
+
+import java.util.UUID;
+
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.utils.JwtUtil;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Request yang benar-benar terautentikasi dengan bearer token: JWT valid dan
+ * masih tercatat di auth_tokens, sama dengan pengecekan AuthInterceptor.
+ * Dipakai untuk mengecualikan request API dari CSRF; header Bearer palsu
+ * tidak cocok, jadi request itu tetap wajib membawa token CSRF.
+ *
+ * CsrfFilter hanya memanggil matcher ini untuk method yang mengubah data.
+ */
+@Component
+public class BearerTokenRequestMatcher implements RequestMatcher {
+    private static final String PREFIX = "Bearer ";
+
+    private final AuthTokenService authTokenService;
+
+    public BearerTokenRequestMatcher(AuthTokenService authTokenService) {
+        this.authTokenService = authTokenService;
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(PREFIX)) {
+            return false;
+        }
+        String token = authorization.substring(PREFIX.length());
+        if (!JwtUtil.validateToken(token, true)) {
+            return false;
+        }
+        UUID userId = JwtUtil.extractUserId(token);
+        return userId != null && authTokenService.findUserToken(userId, token) != null;
+    }
+}
@@ -0,0 +1,21 @@
+package org.delcom.app.configs;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * ETag untuk endpoint fragment HTML, sehingga browser mendapat 304 jika isi
+ * fragment tidak berubah sejak request sebelumnya.
+ */
+@Component
+public class FragmentEtagFilter extends ShallowEtagHeaderFilter {
+
+    public static final String FRAGMENTS_PATH_PREFIX = "/activities/fragments/";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(FRAGMENTS_PATH_PREFIX);
+    }
+}
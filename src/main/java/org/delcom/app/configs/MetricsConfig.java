@@ -0,0 +1,18 @@
+package org.delcom.app.configs;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Endpoint controller/view sudah diukur otomatis sebagai http.server.requests;
+// aspect ini menambahkan timer untuk bean yang diberi @Timed (misal WorkoutService)
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
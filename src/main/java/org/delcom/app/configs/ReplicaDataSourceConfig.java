@@ -0,0 +1,75 @@
+package org.delcom.app.configs;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Dua pool (primary dan replica) di balik satu bean {@code dataSource}, aktif
+ * jika {@code app.datasource.replica.enabled=true}. Tanpa itu DataSource
+ * auto-config Spring Boot dipakai seperti biasa.
+ *
+ * Kedua pool sengaja bukan bean terpisah: BeanPostProcessor Server-Timing
+ * (dan penghitung statement di test) membungkus setiap bean DataSource, jadi
+ * hanya bean routing ini yang dibungkus dan setiap statement tercatat sekali.
+ * Metrik hikaricp.* tetap ada per pool (tag pool=primary / pool=replica).
+ *
+ * Routing butuh {@code spring.jpa.open-in-view=false}: dengan OSIV koneksi
+ * pertama sebuah request dipegang sampai request selesai, sehingga transaksi
+ * read-write setelah bacaan bisa ikut jalan di replica.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource(Environment environment, MeterRegistry meterRegistry,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${spring.datasource.driver-class-name:}") String driverClassName,
+            @Value("${app.datasource.replica.url}") String replicaUrl,
+            @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${app.datasource.replica.max-lag-ms:1000}") long maxLagMs) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = pool("primary", url, username, password, driverClassName, meterRegistry);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        // Replica mewarisi setelan pool primary, bisa di-override lewat app.datasource.replica.hikari.*
+        HikariDataSource replica = pool("replica", replicaUrl, replicaUsername, replicaPassword, driverClassName,
+                meterRegistry);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+        binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replica));
+        replica.setReadOnly(true);
+
+        return new ReplicaRoutingDataSource(primary, replica, Duration.ofMillis(maxLagMs));
+    }
+
+    static HikariDataSource pool(String name, String url, String username, String password,
+            String driverClassName, MeterRegistry meterRegistry) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        if (!driverClassName.isEmpty()) {
+            pool.setDriverClassName(driverClassName);
+        }
+        // Dipasang sebelum pool mulai; auto-config metrik Hikari melewati pool yang sudah punya tracker
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
@@ -0,0 +1,124 @@
+package org.delcom.app.configs;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.entities.User;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * Mengirim transaksi {@code @Transactional(readOnly = true)} ke pool replica,
+ * semua yang lain (transaksi read-write, kode tanpa transaksi: Flyway, DDL,
+ * LISTEN/NOTIFY) ke primary.
+ *
+ * Koneksi fisik baru diambil saat statement pertama (lazy proxy), setelah
+ * flag read-only transaksi terpasang. Setelah transaksi read-write commit,
+ * penulisnya dipin ke primary selama {@code maxLag}: user request yang sedang
+ * login, atau "anonim" untuk register, login dan job tanpa user. Bacaan
+ * penulis itu dalam jendela tersebut tetap melihat tulisannya sendiri walau
+ * replica tertinggal.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    // Kunci pin untuk tulisan tanpa user terautentikasi
+    static final UUID ANONYMOUS = new UUID(0L, 0L);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Cache<UUID, Boolean> recentWriters;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag) {
+        this(primary, replica, maxLag, Ticker.systemTicker());
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag, Ticker ticker) {
+        this.primary = primary;
+        this.replica = replica;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(maxLag.isNegative() ? Duration.ZERO : maxLag)
+                .ticker(ticker)
+                .build();
+        Router router = new Router();
+        router.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        // Default Hikari/PostgreSQL; diisi di sini supaya proxy tidak mengambil koneksi hanya untuk mendeteksinya
+        setDefaultAutoCommit(true);
+        setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    private final class Router extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return route();
+        }
+    }
+
+    // Dipanggil saat koneksi fisik diambil
+    Target route() {
+        UUID writer = currentWriter();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return isPinned(writer) ? Target.PRIMARY : Target.REPLICA;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            pinAfterCommit(writer);
+        }
+        return Target.PRIMARY;
+    }
+
+    public boolean isPinned(UUID userId) {
+        return recentWriters.getIfPresent(userId == null ? ANONYMOUS : userId) != null;
+    }
+
+    private void pinAfterCommit(UUID writer) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(writer, Boolean.TRUE);
+                }
+            });
+        } else {
+            recentWriters.put(writer, Boolean.TRUE);
+        }
+    }
+
+    private static UUID currentWriter() {
+        User user = AuthContext.current();
+        return user == null || user.getId() == null ? ANONYMOUS : user.getId();
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public DataSource getReplica() {
+        return replica;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource pool : List.of(primary, replica)) {
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -1,16 +1,45 @@
 package org.delcom.app.configs;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.delcom.app.configs.jfr.HttpRequestEvent;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Access log per request.
+ *
+ * Thread request hanya mengisi satu slot {@link AccessLogBuffer} (tanpa lock,
+ * tanpa format string); thread writer di background mengosongkan buffer secara
+ * berkala dan menulis semua baris dalam satu kali print. Handler diambil dari
+ * atribut {@link HandlerMapping} yang diisi DispatcherServlet, bukan dari stack trace.
+ *
+ * Konfigurasi {@code app.access-log.*}: format (text/json), sample-rate untuk
+ * request sukses, buffer-size, dan overflow saat buffer penuh:
+ * {@code drop} (dibuang dan dihitung), {@code block} (menunggu writer, maksimal
+ * {@link #BLOCK_TIMEOUT_NANOS}) atau {@code caller-runs} (ditulis langsung oleh
+ * thread request).
+ */
 @Component
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
@@ -20,11 +49,83 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
     private static final String RED = "\u001B[31m";
     private static final String CYAN = "\u001B[36m";
 
-    @Value("${server.port:8080}")
-    private int port;
+    static final long BLOCK_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
 
-    @Value("${spring.devtools.livereload.enabled:false}")
-    private boolean livereload;
+    enum Overflow {
+        DROP, BLOCK, CALLER_RUNS;
+
+        static Overflow parse(String value) {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    @Value("${app.access-log.enabled:true}")
+    protected boolean enabled = true;
+
+    @Value("${app.access-log.format:text}")
+    protected String format = "text";
+
+    @Value("${app.access-log.sample-rate:1.0}")
+    protected double sampleRate = 1.0;
+
+    @Value("${app.access-log.always-log-errors:true}")
+    protected boolean alwaysLogErrors = true;
+
+    @Value("${app.access-log.buffer-size:8192}")
+    protected int bufferSize = 8192;
+
+    @Value("${app.access-log.overflow:drop}")
+    protected String overflow = "drop";
+
+    @Value("${app.access-log.flush-interval-ms:100}")
+    protected long flushIntervalMs = 100;
+
+    private volatile AccessLogBuffer buffer = new AccessLogBuffer(8192);
+    private volatile Overflow overflowPolicy = Overflow.DROP;
+    private volatile boolean json;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private long droppedReported;
+
+    // Hanya dipakai di bawah drainLock (satu consumer sekaligus)
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final StringBuilder batch = new StringBuilder(8192);
+    private final Map<Method, String> handlerNames = new HashMap<>();
+
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        buffer = new AccessLogBuffer(bufferSize);
+        overflowPolicy = Overflow.parse(overflow);
+        json = "json".equalsIgnoreCase(format.trim());
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().daemon().name("access-log-writer").start(this::writeLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        writer = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drain();
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,45 +133,206 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
             FilterChain filterChain)
             throws ServletException, IOException {
 
-        long start = System.currentTimeMillis();
-        filterChain.doFilter(request, response);
-        long duration = System.currentTimeMillis() - start;
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            record(request, response, System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.method = request.getMethod();
+                event.route = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                event.status = response.getStatus();
+                event.commit();
+            }
+        }
+    }
 
+    private void record(HttpServletRequest request, HttpServletResponse response, long durationNanos) {
+        String uri = request.getRequestURI();
+        if (!enabled || uri == null || uri.startsWith("/.well-known")) {
+            return;
+        }
         int status = response.getStatus();
-        String color;
+        if (!sampled(status)) {
+            return;
+        }
+
+        AccessLogBuffer target = buffer;
+        AccessLogBuffer.Entry entry = target.claim();
+        if (entry == null) {
+            entry = onOverflow(target);
+            if (entry == null) {
+                if (overflowPolicy == Overflow.CALLER_RUNS) {
+                    writeDirect(request, status, durationNanos);
+                } else {
+                    dropped.incrementAndGet();
+                }
+                return;
+            }
+        }
+        entry.timestampMillis = System.currentTimeMillis();
+        entry.durationNanos = durationNanos;
+        entry.status = status;
+        entry.method = request.getMethod();
+        entry.uri = uri;
+        entry.pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        entry.handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        entry.remoteAddr = request.getRemoteAddr();
+        target.publish(entry);
+    }
+
+    private boolean sampled(int status) {
+        if (sampleRate >= 1.0 || (alwaysLogErrors && status >= 400)) {
+            return true;
+        }
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    // Buffer penuh: hanya BLOCK yang mencoba lagi, menunggu writer membebaskan slot
+    private AccessLogBuffer.Entry onOverflow(AccessLogBuffer target) {
+        if (overflowPolicy != Overflow.BLOCK) {
+            return null;
+        }
+        LockSupport.unpark(writer);
+        long deadline = System.nanoTime() + BLOCK_TIMEOUT_NANOS;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(50_000);
+            AccessLogBuffer.Entry entry = target.claim();
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    // CALLER_RUNS: baris tetap ditulis, tapi melewati urutan buffer
+    private void writeDirect(HttpServletRequest request, int status, long durationNanos) {
+        StringBuilder line = new StringBuilder(160);
+        append(line, System.currentTimeMillis(), request.getMethod(), request.getRequestURI(),
+                (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), status,
+                durationNanos, handlerName(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)),
+                request.getRemoteAddr());
+        System.out.print(line);
+    }
+
+    private void writeLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(flushIntervalMs, 1));
+        while (running) {
+            drain();
+            LockSupport.parkNanos(this, intervalNanos);
+        }
+    }
+
+    /**
+     * Menulis semua record yang ada di buffer ke stdout. Dipanggil oleh writer
+     * thread, saat shutdown, dan oleh test.
+     */
+    void drain() {
+        drainLock.lock();
+        try {
+            buffer.drain(entry -> {
+                append(batch, entry.timestampMillis, entry.method, entry.uri, entry.pattern, entry.status,
+                        entry.durationNanos, cachedHandlerName(entry.handler), entry.remoteAddr);
+                if (batch.length() >= 64 * 1024) {
+                    flush();
+                }
+            });
+            long totalDropped = dropped.get();
+            if (totalDropped != droppedReported) {
+                System.err.println("access log: " + (totalDropped - droppedReported)
+                        + " record dibuang karena buffer penuh");
+                droppedReported = totalDropped;
+            }
+            flush();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        PrintStream out = System.out;
+        out.print(batch);
+        out.flush();
+        batch.setLength(0);
+    }
+
+    private void append(StringBuilder out, long timestampMillis, String method, String uri, String pattern,
+            int status, long durationNanos, String handler, String remoteAddr) {
+        long durationMicros = durationNanos / 1_000;
+        if (json) {
+            out.append("{\"ts\":\"").append(Instant.ofEpochMilli(timestampMillis))
+                    .append("\",\"method\":");
+            jsonString(out, method);
+            out.append(",\"uri\":");
+            jsonString(out, uri);
+            out.append(",\"pattern\":");
+            jsonString(out, pattern);
+            out.append(",\"status\":").append(status)
+                    .append(",\"durationUs\":").append(durationMicros)
+                    .append(",\"handler\":");
+            jsonString(out, handler);
+            out.append(",\"remote\":");
+            jsonString(out, remoteAddr);
+            out.append("}\n");
+            return;
+        }
+
+        out.append(color(status)).append(method);
+        for (int i = method == null ? 4 : method.length(); i < 6; i++) {
+            out.append(' ');
+        }
+        out.append(' ').append(uri).append(' ').append(status).append(' ')
+                .append(durationMicros / 1_000).append("ms").append(RESET)
+                .append(" [").append(handler).append("] from ").append(remoteAddr).append('\n');
+    }
+
+    private static String color(int status) {
         if (status >= 500) {
-            color = RED;
+            return RED;
         } else if (status >= 400) {
-            color = YELLOW;
+            return YELLOW;
         } else if (status >= 200) {
-            color = GREEN;
-        } else {
-            color = CYAN;
-        }
-
-        // Ambil asal kode dari stacktrace
-        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-        StackTraceElement origin = Arrays.stream(stack)
-                .filter(s -> s.getClassName().startsWith("org.delcom"))
-                .findFirst()
-                .orElse(stack[stack.length - 1]);
-        String originInfo = origin.getClassName() + "." + origin.getMethodName() + ":" + origin.getLineNumber();
-
-        String remoteAddr = request.getRemoteAddr();
-
-        String log = String.format(
-                "%s%-6s %s %d %dms%s [%s] from %s",
-                color,
-                request.getMethod(),
-                request.getRequestURI(),
-                status,
-                duration,
-                RESET,
-                originInfo,
-                remoteAddr);
-
-        if (!request.getRequestURI().startsWith("/.well-known")) {
-            System.out.println(log);
+            return GREEN;
+        }
+        return CYAN;
+    }
+
+    private String cachedHandlerName(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerNames.computeIfAbsent(handlerMethod.getMethod(),
+                    method -> handlerName(handlerMethod));
+        }
+        return handlerName(handler);
+    }
+
+    private static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return handler == null ? "-" : handler.getClass().getSimpleName();
+    }
+
+    private static void jsonString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
         }
+        out.append('"');
     }
 }
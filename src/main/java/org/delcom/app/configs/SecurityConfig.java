@@ -1,27 +1,47 @@
 package org.delcom.app.configs;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+        private static final String PROMETHEUS_PATH = "/actuator/prometheus";
+
         @Bean
-        SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        SecurityFilterChain securityFilterChain(HttpSecurity http, BearerTokenRequestMatcher bearerToken,
+                        @Value("${management.server.port:-1}") int managementPort) throws Exception {
                 http
+                                // Request yang terautentikasi dengan bearer token valid tidak bergantung pada
+                                // cookie, jadi tidak rentan CSRF. Login/register API hanya menukar kredensial di
+                                // body dengan token di body, tanpa membaca atau membuat session
+                                .csrf(csrf -> csrf
+                                                .ignoringRequestMatchers(HttpMethod.POST, "/api/auth/login",
+                                                                "/api/auth/register")
+                                                .ignoringRequestMatchers(bearerToken))
                                 .exceptionHandling(ex -> ex
                                                 .authenticationEntryPoint((req, res, e) -> {
                                                         res.sendRedirect("/auth/login");
                                                 }))
                                 .authorizeHttpRequests(auth -> auth
-                                                .requestMatchers("/auth/**", "/assets/**", "/api/**",
+                                                .requestMatchers("/auth/**", "/api/**",
                                                                 "/css/**", "/js/**", "/workouts/image/**")
                                                 .permitAll()
+                                                .requestMatchers("/actuator/health")
+                                                .permitAll()
+                                                .requestMatchers(managementScrape(managementPort))
+                                                .permitAll()
                                                 .anyRequest().authenticated())
 
                                 .formLogin(form -> form.disable())
@@ -36,8 +56,22 @@ public class SecurityConfig {
                 return http.build();
         }
 
+        // Asset statis tidak perlu melewati filter chain Spring Security sama sekali
+        @Bean
+        WebSecurityCustomizer webSecurityCustomizer() {
+                return web -> web.ignoring().requestMatchers(WebMvcConfig.ASSETS_PATH_PATTERN);
+        }
+
+        // Scrape Prometheus tanpa login hanya lewat port management internal; di port publik (atau tanpa
+        // management.server.port) /actuator/prometheus butuh login seperti halaman lain
+        static RequestMatcher managementScrape(int managementPort) {
+                return request -> managementPort > 0 && request.getLocalPort() == managementPort
+                                && PROMETHEUS_PATH.equals(request.getRequestURI());
+        }
+
+        // Semua hashing password lewat bean ini supaya durasi BCrypt tercatat di metrics
         @Bean
-        public PasswordEncoder passwordEncoder() {
-                return new BCryptPasswordEncoder();
+        public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+                return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
         }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package org.delcom.app.configs;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Pengumpul durasi per request untuk header {@code Server-Timing}.
+ *
+ * Sama seperti {@link AuthContext}, instance di-bind lewat {@link ScopedValue}
+ * oleh {@link ServerTimingFilter}, hanya untuk request yang tersampel. Di luar
+ * scope (request tidak tersampel, job background) semua {@code record} adalah
+ * no-op, jadi pemanggil tidak perlu memeriksa apa pun.
+ *
+ * Metrik boleh tumpang tindih: query yang dijalankan saat autentikasi tercatat
+ * di {@code auth} dan juga di {@code db}.
+ */
+public final class ServerTiming {
+    private static final ScopedValue<ServerTiming> CURRENT = ScopedValue.newInstance();
+
+    public enum Metric {
+        AUTH("auth"), DB("db"), HASH("hash"), RENDER("render");
+
+        private final String headerName;
+
+        Metric(String headerName) {
+            this.headerName = headerName;
+        }
+    }
+
+    private static final int METRICS = Metric.values().length;
+
+    private final long startNanos;
+    private final boolean debug;
+    // [0, METRICS) = durasi nanodetik, [METRICS, 2*METRICS) = jumlah kejadian
+    private final AtomicLongArray values = new AtomicLongArray(METRICS * 2);
+    private volatile long renderStartNanos;
+
+    ServerTiming(long startNanos, boolean debug) {
+        this.startNanos = startNanos;
+        this.debug = debug;
+    }
+
+    public static ServerTiming current() {
+        return CURRENT.isBound() ? CURRENT.get() : null;
+    }
+
+    public static boolean isActive() {
+        return CURRENT.isBound();
+    }
+
+    public static void record(Metric metric, long nanos) {
+        if (CURRENT.isBound()) {
+            CURRENT.get().add(metric, nanos);
+        }
+    }
+
+    // Dipanggil tepat sebelum view dirender (postHandle)
+    public static void markRenderStart() {
+        if (CURRENT.isBound()) {
+            CURRENT.get().renderStartNanos = System.nanoTime();
+        }
+    }
+
+    static <R, X extends Throwable> R callInScope(ServerTiming timing, ScopedValue.CallableOp<? extends R, X> op)
+            throws X {
+        return ScopedValue.where(CURRENT, timing).call(op);
+    }
+
+    public void add(Metric metric, long nanos) {
+        values.addAndGet(metric.ordinal(), nanos);
+        values.incrementAndGet(METRICS + metric.ordinal());
+    }
+
+    public long count(Metric metric) {
+        return values.get(METRICS + metric.ordinal());
+    }
+
+    public long nanos(Metric metric) {
+        return values.get(metric.ordinal());
+    }
+
+    /**
+     * Nilai header pada saat response akan di-commit. Render dihitung dari
+     * {@link #markRenderStart()} sampai saat ini, total dari awal filter.
+     */
+    String headerValue(long nowNanos) {
+        long renderStart = renderStartNanos;
+        if (renderStart != 0 && count(Metric.RENDER) == 0) {
+            add(Metric.RENDER, nowNanos - renderStart);
+        }
+        StringBuilder header = new StringBuilder(96);
+        for (Metric metric : Metric.values()) {
+            long count = count(metric);
+            if (count == 0) {
+                continue;
+            }
+            header.append(metric.headerName).append(";dur=").append(millis(nanos(metric)));
+            if (debug && metric == Metric.DB) {
+                header.append(";desc=\"").append(count).append(count == 1 ? " query\"" : " queries\"");
+            }
+            header.append(", ");
+        }
+        return header.append("total;dur=").append(millis(nowNanos - startNanos)).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,26 @@
+package org.delcom.app.configs;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// DataSource dibungkus agar waktu query masuk ke header Server-Timing (lihat ServerTimingFilter)
+@Configuration
+public class ServerTimingConfig {
+
+    // static: BeanPostProcessor harus dibuat sebelum bean lain di konfigurasi ini
+    @Bean
+    static BeanPostProcessor serverTimingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ServerTimingDataSource)) {
+                    return new ServerTimingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package org.delcom.app.configs;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Mencatat durasi eksekusi statement JDBC ke {@link ServerTiming} metrik
+ * {@code db}. Koneksi hanya dibungkus jika diambil di dalam request yang
+ * tersampel; di luar itu koneksi asli dikembalikan tanpa overhead.
+ *
+ * Yang diukur hanya panggilan {@code execute*} (round trip ke database),
+ * bukan iterasi {@code ResultSet}.
+ */
+public class ServerTimingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    public ServerTimingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    // Bean yang dibungkus BeanPostProcessor kehilangan destroy method "close" milik pool aslinya;
+    // diteruskan di sini supaya pool tetap ditutup saat context berhenti
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    // Titik perluasan (misal penghitung statement di test): kapan koneksi perlu dibungkus
+    protected boolean shouldWrap() {
+        return ServerTiming.isActive();
+    }
+
+    // Dipanggil setelah setiap execute*; sql null jika tidak diketahui (executeBatch tanpa SQL)
+    protected void onExecute(String sql, long nanos) {
+        ServerTiming.record(ServerTiming.Metric.DB, nanos);
+    }
+
+    private Connection wrap(Connection connection) {
+        if (!shouldWrap()) {
+            return connection;
+        }
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            // SQL prepared statement diketahui saat prepare; Statement biasa membawanya di execute(sql)
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, statement, statementHandler(sql));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, statement, statementHandler(sql));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, statement, statementHandler(null));
+            }
+            return result;
+        });
+    }
+
+    private Handler statementHandler(String preparedSql) {
+        return (target, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            long start = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                onExecute(sql, System.nanoTime() - start);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Handler handler) {
+        // Selain equals/hashCode, semua panggilan (termasuk unwrap ke PGConnection) diteruskan ke objek asli
+        InvocationHandler invocationHandler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> handler.handle(target, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(ServerTimingDataSource.class.getClassLoader(),
+                new Class<?>[] { type }, invocationHandler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
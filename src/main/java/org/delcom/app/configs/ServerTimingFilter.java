@@ -0,0 +1,247 @@
+package org.delcom.app.configs;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Menambahkan header {@code Server-Timing} (auth, db, hash, render, total)
+ * untuk sebagian request sesuai {@code app.server-timing.sample-rate}.
+ *
+ * Durasi ini bisa membocorkan informasi (misal metrik hash hanya muncul untuk
+ * email yang terdaftar), jadi header hanya dikirim ke request yang membawa
+ * {@code X-Server-Timing-Token} sama dengan {@code app.server-timing.token},
+ * dan tidak pernah untuk endpoint login/register.
+ *
+ * Header harus dikirim sebelum body, jadi response dibungkus dan nilai header
+ * dihitung tepat sebelum byte pertama ditulis (atau saat redirect/error).
+ * Durasi render baru lengkap jika Thymeleaf merender seluruh halaman dulu
+ * sebelum menulis ({@code produce-partial-output-while-processing=false}); itu
+ * hanya diset bersama {@code app.server-timing.enabled=true}, karena membuat
+ * setiap halaman dibuffer. Dengan streaming, metrik render berhenti saat byte
+ * pertama ditulis.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+    public static final String TOKEN_HEADER = "X-Server-Timing-Token";
+
+    @Value("${app.server-timing.enabled:false}")
+    protected boolean enabled;
+
+    // Kosong berarti tidak ada request yang berhak menerima header
+    @Value("${app.server-timing.token:}")
+    protected String token = "";
+
+    @Value("${app.server-timing.sample-rate:1.0}")
+    protected double sampleRate = 1.0;
+
+    @Value("${app.server-timing.debug:false}")
+    protected boolean debug;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        if (!authorized(request) || !sampled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ServerTiming timing = new ServerTiming(System.nanoTime(), debug);
+        TimingResponse timingResponse = new TimingResponse(response, timing);
+        try {
+            ServerTiming.callInScope(timing, () -> {
+                filterChain.doFilter(request, timingResponse);
+                return null;
+            });
+        } catch (IOException | ServletException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ServletException(e);
+        } finally {
+            // Response tanpa body (204, 304) tidak pernah menulis, header dipasang di sini
+            timingResponse.beforeCommit();
+        }
+    }
+
+    private boolean authorized(HttpServletRequest request) {
+        if (!enabled || token.isBlank() || isAuthEndpoint(request)) {
+            return false;
+        }
+        String presented = request.getHeader(TOKEN_HEADER);
+        return presented != null && MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Login/register: durasi hash dan auth membedakan email terdaftar dari yang tidak
+    private static boolean isAuthEndpoint(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.startsWith("/api/auth") || path.startsWith("/auth/");
+    }
+
+    private boolean sampled() {
+        if (sampleRate <= 0) {
+            return false;
+        }
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    static final class TimingResponse extends HttpServletResponseWrapper {
+        private final ServerTiming timing;
+        private boolean headerWritten;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        TimingResponse(HttpServletResponse response, ServerTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void beforeCommit() {
+            if (headerWritten) {
+                return;
+            }
+            headerWritten = true;
+            if (!isCommitted()) {
+                setHeader(HEADER, timing.headerValue(System.nanoTime()));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CommitAwareOutputStream(super.getOutputStream(), this);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new CommitAwareWriter(super.getWriter(), this));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            beforeCommit();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            beforeCommit();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            beforeCommit();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            beforeCommit();
+            super.sendRedirect(location);
+        }
+    }
+
+    private static final class CommitAwareOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+        private final TimingResponse response;
+
+        CommitAwareOutputStream(ServletOutputStream delegate, TimingResponse response) {
+            this.delegate = delegate;
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            response.beforeCommit();
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            response.beforeCommit();
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            response.beforeCommit();
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            response.beforeCommit();
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+
+    private static final class CommitAwareWriter extends Writer {
+        private final Writer delegate;
+        private final TimingResponse response;
+
+        CommitAwareWriter(Writer delegate, TimingResponse response) {
+            this.delegate = delegate;
+            this.response = response;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            response.beforeCommit();
+            delegate.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            response.beforeCommit();
+            delegate.write(str, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            response.beforeCommit();
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            response.beforeCommit();
+            delegate.close();
+        }
+    }
+}
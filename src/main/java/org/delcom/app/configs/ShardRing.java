@@ -0,0 +1,79 @@
+package org.delcom.app.configs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Consistent hashing user id -> nama shard. Setiap shard ditempatkan di
+ * {@code virtualNodes} titik pada ring 64-bit; user jatuh ke titik pertama
+ * searah jarum jam dari hash id-nya. Menambah shard ke-N+1 hanya memindahkan
+ * sekitar 1/(N+1) user, semuanya ke shard baru.
+ *
+ * Hash sengaja tidak memakai {@code hashCode()} bawaan supaya posisi user
+ * sama di semua node dan versi JVM.
+ */
+public final class ShardRing {
+    private final List<String> shards;
+    private final int virtualNodes;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ShardRing(List<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("Ring shard tidak boleh kosong");
+        }
+        if (new HashSet<>(shards).size() != shards.size()) {
+            throw new IllegalArgumentException("Nama shard ganda: " + shards);
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtual-nodes minimal 1: " + virtualNodes);
+        }
+        this.shards = List.copyOf(shards);
+        this.virtualNodes = virtualNodes;
+        for (String shard : this.shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(shard + "#" + i), shard);
+            }
+        }
+    }
+
+    public String shardOf(UUID userId) {
+        long position = mix(userId.getMostSignificantBits() ^ mix(userId.getLeastSignificantBits()));
+        Map.Entry<Long, String> entry = ring.ceilingEntry(position);
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    // Ring baru dengan jumlah virtual node yang sama, untuk rebalancing
+    public ShardRing withShards(List<String> shards) {
+        return new ShardRing(shards, virtualNodes);
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public int virtualNodes() {
+        return virtualNodes;
+    }
+
+    // FNV-1a 64-bit, lalu diaduk supaya titik virtual node tersebar rata
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // Finalizer SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
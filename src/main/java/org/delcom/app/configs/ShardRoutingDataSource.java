@@ -0,0 +1,121 @@
+package org.delcom.app.configs;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Satu pool "direktori" (users, auth_tokens, Flyway aplikasi) dan N pool
+ * shard tempat tabel {@code workouts} dibagi per user, di balik satu bean
+ * {@code dataSource}.
+ *
+ * Shard dipilih saat koneksi fisik diambil (lazy proxy, statement pertama):
+ * shard yang diikat ke transaksi aktif lewat {@link #bindTransaction}, atau
+ * shard dari {@link #callOn} untuk kode tanpa transaksi (fan-out, tool
+ * rebalancing). Tanpa keduanya koneksi diambil dari direktori. Ikatan
+ * transaksi berlaku sampai transaksi selesai, jadi flush saat commit juga
+ * berjalan di shard yang sama.
+ */
+public class ShardRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private static final ScopedValue<String> SCOPE = ScopedValue.newInstance();
+    // Kunci resource transaksi (TransactionSynchronizationManager)
+    private static final Object TRANSACTION_KEY = new Object();
+
+    private final DataSource directory;
+    private final Map<String, DataSource> shards;
+
+    public ShardRoutingDataSource(DataSource directory, Map<String, DataSource> shards) {
+        this.directory = directory;
+        this.shards = Collections.unmodifiableMap(new LinkedHashMap<>(shards));
+        Router router = new Router();
+        router.setTargetDataSources(new HashMap<>(shards));
+        router.setDefaultTargetDataSource(directory);
+        // Nama shard yang tidak dikenal harus gagal, bukan diam-diam menulis ke direktori
+        router.setLenientFallback(false);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        // Default Hikari/PostgreSQL; diisi di sini supaya proxy tidak mengambil koneksi hanya untuk mendeteksinya
+        setDefaultAutoCommit(true);
+        setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    private static final class Router extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return currentShard();
+        }
+    }
+
+    // Shard tujuan koneksi berikutnya; null = direktori
+    public static String currentShard() {
+        Object bound = TransactionSynchronizationManager.getResource(TRANSACTION_KEY);
+        return bound != null ? (String) bound : SCOPE.orElse(null);
+    }
+
+    // Menjalankan op dengan koneksi (di luar transaksi yang sudah terikat) dari shard tertentu
+    public static <R, X extends Throwable> R callOn(String shard, ScopedValue.CallableOp<? extends R, X> op)
+            throws X {
+        return ScopedValue.where(SCOPE, shard).call(op);
+    }
+
+    /**
+     * Mengikat transaksi aktif ke shard sampai transaksi selesai.
+     *
+     * @return false jika transaksi sudah terikat ke shard yang sama
+     * @throws IllegalStateException jika tidak ada transaksi, atau transaksi
+     *                               sudah terikat ke shard lain (transaksi
+     *                               lintas shard tidak didukung)
+     */
+    public static boolean bindTransaction(String shard) {
+        Object bound = TransactionSynchronizationManager.getResource(TRANSACTION_KEY);
+        if (bound != null) {
+            if (!bound.equals(shard)) {
+                throw new IllegalStateException(
+                        "Transaksi sudah terikat ke shard " + bound + ", tidak bisa memakai shard " + shard);
+            }
+            return false;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Routing shard per user butuh transaksi aktif");
+        }
+        TransactionSynchronizationManager.bindResource(TRANSACTION_KEY, shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_KEY);
+            }
+        });
+        return true;
+    }
+
+    public DataSource getDirectory() {
+        return directory;
+    }
+
+    public Map<String, DataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    public void close() throws Exception {
+        List<DataSource> pools = new ArrayList<>(shards.values());
+        pools.add(directory);
+        for (DataSource pool : pools) {
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.delcom.app.configs;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Pool direktori ({@code spring.datasource.*}) dan satu pool per shard
+ * ({@code app.sharding.datasources.<nama>.*}) di balik satu bean
+ * {@code dataSource}, aktif jika {@code app.sharding.enabled=true}.
+ *
+ * Flyway aplikasi hanya memigrasi direktori (koneksi tanpa shard), jadi
+ * skema setiap shard dimigrasi di sini saat startup dengan migration yang
+ * sama (termasuk db/vendor/{vendor}); tabel users/auth_tokens di shard
+ * dibiarkan kosong.
+ *
+ * Seperti {@link ReplicaDataSourceConfig}, pool sengaja bukan bean supaya
+ * hanya bean routing yang dibungkus BeanPostProcessor Server-Timing. Kedua
+ * mode mendefinisikan bean {@code dataSource}, jadi tidak bisa aktif bersamaan.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource dataSource(Environment environment, MeterRegistry meterRegistry,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${spring.datasource.driver-class-name:}") String driverClassName,
+            @Value("${spring.flyway.locations:classpath:db/migration}") String[] migrationLocations,
+            @Value("${app.sharding.shards}") List<String> shards) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource directory = ReplicaDataSourceConfig.pool("directory", url, username, password,
+                driverClassName, meterRegistry);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(directory));
+
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (String shard : shards) {
+            // Mewarisi setelan pool direktori, bisa di-override lewat app.sharding.datasources.<nama>.hikari.*
+            String prefix = "app.sharding.datasources." + shard;
+            String shardUrl = environment.getRequiredProperty(prefix + ".url");
+            HikariDataSource pool = ReplicaDataSourceConfig.pool(shard, shardUrl,
+                    environment.getProperty(prefix + ".username", username),
+                    environment.getProperty(prefix + ".password", password), driverClassName, meterRegistry);
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            binder.bind(prefix + ".hikari", Bindable.ofInstance(pool));
+            Flyway.configure().dataSource(pool).locations(vendorLocations(migrationLocations, shardUrl)).load()
+                    .migrate();
+            pools.put(shard, pool);
+        }
+        return new ShardRoutingDataSource(directory, pools);
+    }
+
+    // Placeholder {vendor} (db/vendor/postgresql) diisi oleh auto-configuration Flyway, tidak oleh Flyway sendiri
+    private static String[] vendorLocations(String[] locations, String url) {
+        String vendor = DatabaseDriver.fromJdbcUrl(url).getId();
+        String[] resolved = new String[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            resolved[i] = locations[i].replace("{vendor}", vendor);
+        }
+        return resolved;
+    }
+}
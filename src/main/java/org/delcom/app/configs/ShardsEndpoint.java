@@ -0,0 +1,49 @@
+package org.delcom.app.configs;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.delcom.app.services.ShardRebalanceReport;
+import org.delcom.app.services.ShardRebalancer;
+import org.delcom.app.services.ShardRouter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator {@code shards}: ring aktif dan jumlah baris per shard (read),
+ * rebalancing online ke ring baru (write, {@code ring=shard0,shard1,...}).
+ * Tidak diekspos lewat web secara default; aktifkan hanya di
+ * {@code management.server.port} internal atau lewat JMX.
+ */
+@Component
+@Endpoint(id = "shards")
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardsEndpoint {
+    private final ShardRouter shardRouter;
+    private final ShardRebalancer shardRebalancer;
+
+    public ShardsEndpoint(ShardRouter shardRouter, ShardRebalancer shardRebalancer) {
+        this.shardRouter = shardRouter;
+        this.shardRebalancer = shardRebalancer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        Map<String, Object> shards = new LinkedHashMap<>();
+        shards.put("ring", shardRouter.getRing().shards());
+        shards.put("rowsPerShard", shardRebalancer.rowsPerShard());
+        return shards;
+    }
+
+    @WriteOperation
+    public ShardRebalanceReport rebalance(String ring) {
+        return shardRebalancer.rebalance(Arrays.stream(ring.split(","))
+                .map(String::trim)
+                .filter(shard -> !shard.isEmpty())
+                .toList());
+    }
+}
@@ -0,0 +1,122 @@
+package org.delcom.app.configs;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import org.delcom.app.storage.BlobStore;
+import org.delcom.app.storage.CachingBlobStore;
+import org.delcom.app.storage.InMemoryBlobStore;
+import org.delcom.app.storage.LocalBlobStore;
+import org.delcom.app.storage.S3BlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+@Configuration
+public class StorageConfig {
+
+    @Value("${app.storage.type:local}")
+    private String type;
+
+    @Value("${app.upload.dir:./uploads}")
+    private String uploadDir;
+
+    @Value("${app.storage.s3.endpoint:}")
+    private String s3Endpoint;
+
+    @Value("${app.storage.s3.region:us-east-1}")
+    private String s3Region;
+
+    @Value("${app.storage.s3.bucket:uploads}")
+    private String s3Bucket;
+
+    @Value("${app.storage.s3.prefix:}")
+    private String s3Prefix;
+
+    @Value("${app.storage.s3.access-key:}")
+    private String s3AccessKey;
+
+    @Value("${app.storage.s3.secret-key:}")
+    private String s3SecretKey;
+
+    @Value("${app.storage.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${app.storage.cache.dir:./uploads-cache}")
+    private String cacheDir;
+
+    @Value("${app.storage.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    @Value("${app.storage.cache.max-bytes:536870912}")
+    private long cacheMaxBytes;
+
+    @Value("${app.workout-archive.dir:./workout-archive}")
+    private String archiveDir;
+
+    @Value("${app.workout-archive.s3.bucket:${app.storage.s3.bucket:uploads}}")
+    private String archiveS3Bucket;
+
+    @Value("${app.workout-archive.s3.prefix:workout-archive/}")
+    private String archiveS3Prefix;
+
+    // File upload (cover, foto profil) yang disajikan lewat /workouts/image/** dan /uploads/**
+    @Bean
+    @Primary
+    public BlobStore blobStore() {
+        switch (type.toLowerCase()) {
+            case "memory":
+                return new InMemoryBlobStore();
+            case "s3":
+                BlobStore remote = new S3BlobStore(s3Client(), s3Bucket, s3Prefix);
+                if (!cacheEnabled) {
+                    return remote;
+                }
+                return new CachingBlobStore(remote, new LocalBlobStore(Paths.get(cacheDir)),
+                        Duration.ofSeconds(cacheTtlSeconds), cacheMaxBytes);
+            case "local":
+            default:
+                return new LocalBlobStore(Paths.get(uploadDir));
+        }
+    }
+
+    /**
+     * Arsip workout (WorkoutArchiveService), terpisah dari upload: tidak pernah
+     * disajikan endpoint gambar dan tidak ikut dipindai UploadGarbageCollector.
+     * Tanpa cache disk; WorkoutArchiveService men-cache hasil bacaannya sendiri.
+     */
+    @Bean
+    public BlobStore archiveBlobStore() {
+        switch (type.toLowerCase()) {
+            case "memory":
+                return new InMemoryBlobStore();
+            case "s3":
+                return new S3BlobStore(s3Client(), archiveS3Bucket, archiveS3Prefix);
+            case "local":
+            default:
+                return new LocalBlobStore(Paths.get(archiveDir));
+        }
+    }
+
+    private S3Client s3Client() {
+        S3ClientBuilder builder = S3Client.builder().region(Region.of(s3Region));
+        if (!s3Endpoint.isEmpty()) {
+            // MinIO dan server S3-compatible lain biasanya butuh path-style URL
+            builder.endpointOverride(URI.create(s3Endpoint)).forcePathStyle(true);
+        }
+        // Tanpa access key, SDK memakai default credentials chain (env var, instance profile, ...)
+        if (!s3AccessKey.isEmpty()) {
+            builder.credentialsProvider(
+                    StaticCredentialsProvider.create(AwsBasicCredentials.create(s3AccessKey, s3SecretKey)));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,71 @@
+package org.delcom.app.configs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.configs.jfr.PasswordHashEvent;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Membungkus {@link PasswordEncoder} (BCrypt) dan mencatat durasinya sebagai
+ * timer {@code app.password.hash} dengan tag {@code operation=encode|matches}.
+ * BCrypt sengaja lambat, jadi ini biasanya bagian terbesar dari latensi login.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(meterRegistry, "encode");
+        this.matchesTimer = timer(meterRegistry, "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordHashEvent event = new PasswordHashEvent("encode");
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            record(encodeTimer, System.nanoTime() - start);
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordHashEvent event = new PasswordHashEvent("matches");
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            record(matchesTimer, System.nanoTime() - start);
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    // Juga masuk metrik hash di header Server-Timing request yang sedang berjalan
+    private static void record(Timer timer, long nanos) {
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+        ServerTiming.record(ServerTiming.Metric.HASH, nanos);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("app.password.hash")
+                .description("Durasi hashing password (BCrypt)")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
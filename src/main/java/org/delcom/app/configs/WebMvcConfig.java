@@ -1,31 +1,68 @@
 package org.delcom.app.configs;
 
+import java.util.concurrent.TimeUnit;
+
 import org.delcom.app.interceptors.AuthInterceptor;
+import org.delcom.app.interceptors.ServerTimingInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.CssLinkResourceTransformer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    public static final String ASSETS_PATH_PATTERN = "/assets/**";
+
     @Autowired
     private AuthInterceptor authInterceptor;
 
+    @Autowired
+    private ServerTimingInterceptor serverTimingInterceptor;
+
+    // Sama dengan properti Spring Boot; hanya profil dev yang mematikannya (application-dev.properties)
+    @Value("${spring.web.resources.chain.cache:true}")
+    private boolean resourceChainCache;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(serverTimingInterceptor);
         registry.addInterceptor(authInterceptor)
                 .addPathPatterns("/**") // Terapkan ke semua endpoint
                 .excludePathPatterns("/api/auth/**", "/auth/**") // Kecuali endpoint auth
                 .excludePathPatterns("/api/public/**") // Dan endpoint public
-                .excludePathPatterns("/css/**", "/js/**", "/images/**", "/uploads/**", "/webjars/**"); // Dan static
-                                                                                                       // resources
+                .excludePathPatterns("/css/**", "/js/**", "/images/**", "/uploads/**", "/webjars/**",
+                        ASSETS_PATH_PATTERN); // Dan static resources
     }
 
+    /**
+     * Asset statis disajikan dengan URL ber-hash konten (misal
+     * {@code style-<md5>.css}, di-rewrite otomatis oleh {@code @{...}} Thymeleaf),
+     * sehingga aman di-cache browser selama satu tahun. Varian .br/.gz hasil build
+     * dipilih sesuai header Accept-Encoding.
+     */
     @Override
-    public void addResourceHandlers(
-            org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:./uploads/");
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(ASSETS_PATH_PATTERN)
+                .addResourceLocations("classpath:/static/assets/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .resourceChain(resourceChainCache)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+                .addTransformer(new CssLinkResourceTransformer());
+    }
+
+    // Me-rewrite URL asset di template menjadi URL ber-hash
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.WorkoutReport;
+import org.delcom.app.services.WorkoutReportService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator {@code workoutreport}: laporan agregat workout seluruh platform.
+ * Membaca seluruh tabel workouts, jadi tidak diekspos lewat web secara
+ * default; aktifkan hanya di {@code management.server.port} internal atau lewat JMX.
+ */
+@Component
+@Endpoint(id = "workoutreport")
+public class WorkoutReportEndpoint {
+    private final WorkoutReportService workoutReportService;
+
+    public WorkoutReportEndpoint(WorkoutReportService workoutReportService) {
+        this.workoutReportService = workoutReportService;
+    }
+
+    @ReadOperation
+    public WorkoutReport report() {
+        return workoutReportService.report();
+    }
+}
@@ -0,0 +1,20 @@
+package org.delcom.app.configs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Pemeriksaan autentikasi di AuthInterceptor (session atau bearer token)
+@Name("org.delcom.AuthCheck")
+@Label("Auth Check")
+@Category({ "Delcom", "Auth" })
+@Description("Pemeriksaan autentikasi satu request")
+@StackTrace(false)
+public class AuthCheckEvent extends Event {
+
+    @Label("Allowed")
+    public boolean allowed;
+}
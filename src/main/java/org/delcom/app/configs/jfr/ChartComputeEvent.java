@@ -0,0 +1,33 @@
+package org.delcom.app.configs.jfr;
+
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Query GROUP BY + penyusunan data chart di WorkoutService.getChartData
+@Name("org.delcom.ChartCompute")
+@Label("Chart Compute")
+@Category({ "Delcom", "Workout" })
+@Description("Perhitungan data chart durasi harian dan jumlah per tipe")
+@StackTrace(false)
+public class ChartComputeEvent extends Event {
+
+    @Label("Range")
+    public String range;
+
+    @Label("Daily Rows")
+    public int dailyRows;
+
+    @Label("Type Rows")
+    public int typeRows;
+
+    public void rows(List<?> daily, List<?> type) {
+        dailyRows = daily == null ? 0 : daily.size();
+        typeRows = type == null ? 0 : type.size();
+    }
+}
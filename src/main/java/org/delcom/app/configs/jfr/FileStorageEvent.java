@@ -0,0 +1,29 @@
+package org.delcom.app.configs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Simpan/baca file upload lewat FileStorageService (BlobStore)
+@Name("org.delcom.FileStorage")
+@Label("File Storage")
+@Category({ "Delcom", "Storage" })
+@Description("Operasi simpan atau baca file upload")
+@StackTrace(false)
+public class FileStorageEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    public FileStorageEvent(String operation) {
+        this.operation = operation;
+    }
+}
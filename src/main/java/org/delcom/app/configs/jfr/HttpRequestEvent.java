@@ -0,0 +1,28 @@
+package org.delcom.app.configs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Satu request HTTP; durasinya dipakai LatencySpikeRecorder untuk menghitung p99
+@Name(HttpRequestEvent.NAME)
+@Label("HTTP Request")
+@Category({ "Delcom", "HTTP" })
+@Description("Request HTTP dari awal sampai akhir filter chain")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+    public static final String NAME = "org.delcom.HttpRequest";
+
+    @Label("Method")
+    public String method;
+
+    // Pola route (misal /api/workouts/{id}), bukan URI asli, supaya tidak memuat id
+    @Label("Route")
+    public String route;
+
+    @Label("Status")
+    public int status;
+}
@@ -0,0 +1,122 @@
+package org.delcom.app.configs.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Mode continuous profiling: JFR merekam terus-menerus di dalam proses
+ * (rolling, dibatasi umur dan ukuran) dan event {@link HttpRequestEvent}
+ * dibaca lewat streaming. Jika p99 request dalam jendela terakhir melewati
+ * {@code app.jfr.p99-threshold-ms}, rekaman saat itu di-dump ke
+ * {@code app.jfr.dump-dir} sebagai bukti lonjakan latensi, tanpa perlu
+ * memasang profiler. Setelah dump ada jeda {@code cooldown-seconds}.
+ */
+@Component
+public class LatencySpikeRecorder {
+    private static final Logger log = LoggerFactory.getLogger(LatencySpikeRecorder.class);
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${app.jfr.enabled:false}")
+    protected boolean enabled;
+
+    // Konfigurasi bawaan JDK: default (~1% overhead) atau profile (lebih detail)
+    @Value("${app.jfr.settings:default}")
+    protected String settings = "default";
+
+    @Value("${app.jfr.max-age-seconds:600}")
+    protected long maxAgeSeconds = 600;
+
+    @Value("${app.jfr.max-size-bytes:268435456}")
+    protected long maxSizeBytes = 256L * 1024 * 1024;
+
+    @Value("${app.jfr.dump-dir:./jfr-dumps}")
+    protected String dumpDir = "./jfr-dumps";
+
+    @Value("${app.jfr.p99-threshold-ms:1000}")
+    protected long p99ThresholdMs = 1000;
+
+    @Value("${app.jfr.window-seconds:60}")
+    protected long windowSeconds = 60;
+
+    // Jendela dengan sedikit request tidak dinilai (p99 dari 10 sampel tidak bermakna)
+    @Value("${app.jfr.min-samples:200}")
+    protected int minSamples = 200;
+
+    @Value("${app.jfr.cooldown-seconds:600}")
+    protected long cooldownSeconds = 600;
+
+    private RecordingStream stream;
+    private LatencyWindow window;
+    private long lastDumpMillis;
+
+    @PostConstruct
+    public void start() throws IOException, ParseException {
+        if (!enabled) {
+            return;
+        }
+        window = new LatencyWindow(Duration.ofSeconds(windowSeconds).toMillis(), 1 << 16);
+        stream = new RecordingStream(Configuration.getConfiguration(settings));
+        stream.setMaxAge(Duration.ofSeconds(maxAgeSeconds));
+        stream.setMaxSize(maxSizeBytes);
+        stream.onEvent(HttpRequestEvent.NAME,
+                event -> window.add(event.getEndTime().toEpochMilli(), event.getDuration().toNanos()));
+        // Dipanggil setelah setiap flush (~1 detik), di thread stream yang sama dengan onEvent
+        stream.onFlush(() -> check(System.currentTimeMillis()));
+        stream.startAsync();
+        log.info("JFR continuous recording aktif (settings={}, p99 threshold={} ms, dump ke {})", settings,
+                p99ThresholdMs, dumpDir);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    void check(long nowMillis) {
+        if (window.size(nowMillis) < minSamples || nowMillis - lastDumpMillis < cooldownSeconds * 1000) {
+            return;
+        }
+        long p99Nanos = window.p99(nowMillis);
+        if (p99Nanos <= Duration.ofMillis(p99ThresholdMs).toNanos()) {
+            return;
+        }
+        lastDumpMillis = nowMillis;
+        // Dump menulis ulang chunk ke file; jangan menahan thread stream
+        Thread.ofVirtual().name("jfr-spike-dump").start(() -> dump(p99Nanos));
+    }
+
+    private void dump(long p99Nanos) {
+        RecordingStream current = stream;
+        if (current == null) {
+            return;
+        }
+        try {
+            Path directory = Path.of(dumpDir);
+            Files.createDirectories(directory);
+            Path file = directory.resolve("spike-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+            current.dump(file);
+            log.warn("p99 request {} ms melewati {} ms, rekaman JFR disimpan ke {}", p99Nanos / 1_000_000,
+                    p99ThresholdMs, file.toAbsolutePath());
+        } catch (IOException | IllegalStateException e) {
+            log.error("Gagal menyimpan dump JFR", e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.delcom.app.configs.jfr;
+
+import java.util.Arrays;
+
+/**
+ * Durasi request dalam jendela waktu geser, untuk menghitung p99. Tidak
+ * thread-safe: diisi dan dibaca hanya oleh thread RecordingStream.
+ */
+final class LatencyWindow {
+    private final long windowMillis;
+    private final long[] times;
+    private final long[] durations;
+    private int head;
+    private int size;
+
+    LatencyWindow(long windowMillis, int capacity) {
+        this.windowMillis = windowMillis;
+        this.times = new long[capacity];
+        this.durations = new long[capacity];
+    }
+
+    // Jika penuh, sampel tertua ditimpa
+    void add(long timeMillis, long durationNanos) {
+        int index = (head + size) % times.length;
+        if (size == times.length) {
+            head = (head + 1) % times.length;
+        } else {
+            size++;
+        }
+        times[index] = timeMillis;
+        durations[index] = durationNanos;
+    }
+
+    int size(long nowMillis) {
+        evict(nowMillis);
+        return size;
+    }
+
+    /** p99 durasi (nanodetik) dalam jendela, 0 jika kosong. */
+    long p99(long nowMillis) {
+        evict(nowMillis);
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = durations[(head + i) % durations.length];
+        }
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(size * 0.99) - 1];
+    }
+
+    private void evict(long nowMillis) {
+        long cutoff = nowMillis - windowMillis;
+        while (size > 0 && times[head] < cutoff) {
+            head = (head + 1) % times.length;
+            size--;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.delcom.app.configs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Hashing/verifikasi password BCrypt (TimedPasswordEncoder)
+@Name("org.delcom.PasswordHash")
+@Label("Password Hash")
+@Category({ "Delcom", "Auth" })
+@Description("BCrypt encode atau matches")
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    public PasswordHashEvent(String operation) {
+        this.operation = operation;
+    }
+}
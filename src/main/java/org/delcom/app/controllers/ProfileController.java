@@ -6,6 +6,7 @@ import org.delcom.app.dto.ProfileForm;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.FileStorageService;
 import org.delcom.app.services.UserService;
+import org.delcom.app.services.WorkoutService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
@@ -29,7 +30,7 @@ public class ProfileController {
     private FileStorageService fileStorageService;
 
     @Autowired
-    private org.delcom.app.repositories.WorkoutRepository workoutRepository;
+    private WorkoutService workoutService;
 
     @Autowired
     private AuthContext authContext;
@@ -47,7 +48,7 @@ public class ProfileController {
         // Refresh user data from DB to get latest
         user = userService.getUserById(user.getId());
 
-        Integer totalWorkouts = workoutRepository.countByUserId(user.getId());
+        Integer totalWorkouts = workoutService.countWorkouts(user.getId());
         if (totalWorkouts == null)
             totalWorkouts = 0;
 
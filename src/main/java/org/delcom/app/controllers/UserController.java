@@ -12,7 +12,7 @@ import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -20,10 +20,13 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
     private final UserService userService;
     private final AuthTokenService authTokenService;
+    private final PasswordEncoder passwordEncoder;
 
-    public UserController(UserService userService, AuthTokenService authTokenService) {
+    public UserController(UserService userService, AuthTokenService authTokenService,
+            PasswordEncoder passwordEncoder) {
         this.userService = userService;
         this.authTokenService = authTokenService;
+        this.passwordEncoder = passwordEncoder;
     }
 
     @Autowired
@@ -49,7 +52,7 @@ public class UserController {
                             null));
         }
 
-        String hashPassword = new BCryptPasswordEncoder().encode(reqUser.getPassword());
+        String hashPassword = passwordEncoder.encode(reqUser.getPassword());
 
         User createdUser = userService.createUser(
                 reqUser.getName(),
@@ -77,8 +80,7 @@ public class UserController {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Email atau password salah", null));
         }
 
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(reqUser.getPassword(), existingUser.getPassword());
+        boolean isPasswordMatch = passwordEncoder.matches(reqUser.getPassword(), existingUser.getPassword());
         if (!isPasswordMatch) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Email atau password salah", null));
         }
@@ -174,14 +176,13 @@ public class UserController {
         }
 
         // Validasi password lama
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(oldPassword, authUser.getPassword());
+        boolean isPasswordMatch = passwordEncoder.matches(oldPassword, authUser.getPassword());
         if (!isPasswordMatch) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Konfirmasi password tidak cocok", null));
         }
 
         // Update password baru
-        String hashPassword = new BCryptPasswordEncoder().encode(newPassword);
+        String hashPassword = passwordEncoder.encode(newPassword);
         User updatedUser = userService.updatePassword(authUser.getId(), hashPassword);
         if (updatedUser == null) {
             ApiResponse<Void> response = new ApiResponse<>("fail", "User tidak ditemukan", null);
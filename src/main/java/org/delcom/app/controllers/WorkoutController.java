@@ -1,5 +1,6 @@
 package org.delcom.app.controllers;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -8,9 +9,13 @@ import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.Workout;
 import org.delcom.app.entities.User;
+import org.delcom.app.enums.WorkoutType;
+import org.delcom.app.services.WorkoutIngestService;
 import org.delcom.app.services.WorkoutService;
+import org.delcom.app.dto.WorkoutFilter;
 import org.delcom.app.dto.WorkoutForm;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,28 +30,41 @@ import org.springframework.web.bind.annotation.PutMapping;
 @RestController
 @RequestMapping("/api/workouts")
 public class WorkoutController {
+    private static final int MAX_TEXT_LENGTH = 255;
+
     private final WorkoutService workoutService;
+    private final WorkoutIngestService workoutIngestService;
 
     @Autowired
     protected AuthContext authContext;
 
-    public WorkoutController(WorkoutService workoutService) {
+    public WorkoutController(WorkoutService workoutService, WorkoutIngestService workoutIngestService) {
         this.workoutService = workoutService;
+        this.workoutIngestService = workoutIngestService;
+    }
+
+    // Kolom title dan description di tabel workouts: varchar(255)
+    private static boolean isValidText(String value) {
+        return value != null && !value.isEmpty() && value.length() <= MAX_TEXT_LENGTH;
+    }
+
+    private static boolean isWorkoutType(String type) {
+        return Arrays.stream(WorkoutType.values()).anyMatch(known -> known.name().equals(type));
     }
 
-    // Menambahkan workout baru
+    // Menambahkan workout baru (lewat WAL ingestion jika app.workout-ingest.enabled)
     // -------------------------------
     @PostMapping
     public ResponseEntity<ApiResponse<Map<String, UUID>>> createWorkout(@RequestBody WorkoutForm reqWorkout) {
 
-        if (reqWorkout.getTitle() == null || reqWorkout.getTitle().isEmpty()) {
+        if (!isValidText(reqWorkout.getTitle())) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data title tidak valid", null));
-        } else if (reqWorkout.getDescription() == null || reqWorkout.getDescription().isEmpty()) {
+        } else if (!isValidText(reqWorkout.getDescription())) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data description tidak valid", null));
         } else if (reqWorkout.getDurationMinutes() == null || reqWorkout.getDurationMinutes() < 0) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse<>("fail", "Data durationMinutes tidak valid", null));
-        } else if (reqWorkout.getType() == null || reqWorkout.getType().isEmpty()) {
+        } else if (!isWorkoutType(reqWorkout.getType())) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data type tidak valid", null));
         } else if (reqWorkout.getDate() == null) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data date tidak valid", null));
@@ -58,27 +76,35 @@ public class WorkoutController {
         }
         User authUser = authContext.getAuthUser();
 
-        Workout newWorkout = workoutService.createWorkout(authUser.getId(), reqWorkout.getTitle(),
-                reqWorkout.getDescription(), reqWorkout.getDurationMinutes(), reqWorkout.getType(),
-                reqWorkout.getDate());
+        Workout newWorkout = workoutIngestService.isEnabled()
+                ? workoutIngestService.submit(authUser.getId(), reqWorkout.getTitle(), reqWorkout.getDescription(),
+                        reqWorkout.getDurationMinutes(), reqWorkout.getType(), reqWorkout.getDate())
+                : workoutService.createWorkout(authUser.getId(), reqWorkout.getTitle(),
+                        reqWorkout.getDescription(), reqWorkout.getDurationMinutes(), reqWorkout.getType(),
+                        reqWorkout.getDate());
+        if (newWorkout == null) {
+            // Antrean ingestion penuh (app.workout-ingest.max-queued): database sedang tertinggal
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ApiResponse<>("fail", "Server sedang sibuk, coba lagi", null));
+        }
         return ResponseEntity.ok(new ApiResponse<Map<String, UUID>>(
                 "success",
                 "Workout berhasil dibuat",
                 Map.of("id", newWorkout.getId())));
     }
 
-    // Mendapatkan semua workout dengan opsi pencarian
+    // Mendapatkan semua workout dengan filter gabungan (lihat WorkoutFilter):
+    // type, search, from, to, minDuration, maxDuration, sort
     // -------------------------------
     @GetMapping
-    public ResponseEntity<ApiResponse<Map<String, List<Workout>>>> getAllWorkouts(
-            @RequestParam(required = false) String search) {
+    public ResponseEntity<ApiResponse<Map<String, List<Workout>>>> getAllWorkouts(WorkoutFilter filter) {
         // Validasi autentikasi
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
         User authUser = authContext.getAuthUser();
 
-        List<Workout> workouts = workoutService.getAllWorkouts(authUser.getId(), search, null);
+        List<Workout> workouts = workoutService.getAllWorkouts(authUser.getId(), filter);
         return ResponseEntity.ok(new ApiResponse<>(
                 "success",
                 "Daftar workout berhasil diambil",
@@ -112,14 +138,14 @@ public class WorkoutController {
     public ResponseEntity<ApiResponse<Workout>> updateWorkout(@PathVariable UUID id,
             @RequestBody WorkoutForm reqWorkout) {
 
-        if (reqWorkout.getTitle() == null || reqWorkout.getTitle().isEmpty()) {
+        if (!isValidText(reqWorkout.getTitle())) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data title tidak valid", null));
-        } else if (reqWorkout.getDescription() == null || reqWorkout.getDescription().isEmpty()) {
+        } else if (!isValidText(reqWorkout.getDescription())) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data description tidak valid", null));
         } else if (reqWorkout.getDurationMinutes() == null || reqWorkout.getDurationMinutes() < 0) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse<>("fail", "Data durationMinutes tidak valid", null));
-        } else if (reqWorkout.getType() == null || reqWorkout.getType().isEmpty()) {
+        } else if (!isWorkoutType(reqWorkout.getType())) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data type tidak valid", null));
         } else if (reqWorkout.getDate() == null) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data date tidak valid", null));
@@ -131,6 +157,8 @@ public class WorkoutController {
         }
         User authUser = authContext.getAuthUser();
 
+        // Di luar transaksi WorkoutService, supaya flush tidak butuh koneksi kedua
+        workoutIngestService.flushIfPending(authUser.getId(), id);
         Workout updatedWorkout = workoutService.updateWorkout(authUser.getId(), id, reqWorkout.getTitle(),
                 reqWorkout.getDescription(), reqWorkout.getDurationMinutes(), reqWorkout.getType(),
                 reqWorkout.getDate());
@@ -151,6 +179,7 @@ public class WorkoutController {
         }
         User authUser = authContext.getAuthUser();
 
+        workoutIngestService.flushIfPending(authUser.getId(), id);
         boolean status = workoutService.deleteWorkout(authUser.getId(), id);
         if (!status) {
             return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Data workout tidak ditemukan", null));
@@ -0,0 +1,237 @@
+package org.delcom.app.dto;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Filter daftar workout untuk {@code GET /api/workouts} dan halaman aktivitas.
+ * Semua kriteria opsional dan digabung dengan AND. Tipe atau sort yang tidak
+ * dikenal diabaikan, sama seperti filter tipe lama.
+ *
+ * Contoh: {@code ?type=RUNNING,GYM&search=pagi&from=2025-01-01&minDuration=30&sort=longest}
+ */
+public class WorkoutFilter {
+
+    public enum SortOrder {
+        NEWEST("date", Sort.Direction.DESC, "Terbaru"),
+        OLDEST("date", Sort.Direction.ASC, "Terlama"),
+        LONGEST("durationMinutes", Sort.Direction.DESC, "Durasi terlama"),
+        SHORTEST("durationMinutes", Sort.Direction.ASC, "Durasi tersingkat"),
+        MOST_CALORIES("caloriesBurned", Sort.Direction.DESC, "Kalori terbanyak");
+
+        private final String property;
+        private final Sort.Direction direction;
+        private final String label;
+
+        SortOrder(String property, Sort.Direction direction, String label) {
+            this.property = property;
+            this.direction = direction;
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        // createdAt sebagai pemutus seri agar urutan halaman stabil
+        public Sort toSort() {
+            return Sort.by(direction, property).and(Sort.by(direction, "createdAt"));
+        }
+
+        // "most-calories" / "MOST_CALORIES"; kosong atau tidak dikenal -> NEWEST
+        public static SortOrder parse(String value) {
+            if (value == null || value.isBlank()) {
+                return NEWEST;
+            }
+            try {
+                return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return NEWEST;
+            }
+        }
+
+        public String param() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+
+        // Urutan yang sama dengan toSort() untuk workout di memori (mis. dari arsip)
+        public Comparator<Workout> comparator() {
+            Comparator<Workout> order = switch (this) {
+                case NEWEST, OLDEST -> Comparator.comparing(Workout::getDate);
+                case LONGEST, SHORTEST -> Comparator.comparing(Workout::getDurationMinutes);
+                case MOST_CALORIES -> Comparator.comparing(Workout::getCaloriesBurned);
+            };
+            order = order.thenComparing(Workout::getCreatedAt);
+            return direction == Sort.Direction.DESC ? order.reversed() : order;
+        }
+    }
+
+    // ?type=RUNNING&type=GYM atau ?type=RUNNING,GYM
+    private List<String> type;
+
+    private String search;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private Integer minDuration;
+
+    private Integer maxDuration;
+
+    private String sort;
+
+    public WorkoutFilter() {
+    }
+
+    public List<String> getType() {
+        return type;
+    }
+
+    public void setType(List<String> type) {
+        this.type = type;
+    }
+
+    public String getSearch() {
+        return search;
+    }
+
+    public void setSearch(String search) {
+        this.search = search;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public Integer getMinDuration() {
+        return minDuration;
+    }
+
+    public void setMinDuration(Integer minDuration) {
+        this.minDuration = minDuration;
+    }
+
+    public Integer getMaxDuration() {
+        return maxDuration;
+    }
+
+    public void setMaxDuration(Integer maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    // Tipe yang valid saja; kosong berarti semua tipe
+    public Set<WorkoutType> getTypes() {
+        Set<WorkoutType> types = EnumSet.noneOf(WorkoutType.class);
+        if (type != null) {
+            for (String value : type) {
+                if (value == null || value.isBlank()) {
+                    continue;
+                }
+                try {
+                    types.add(WorkoutType.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    // Ignore invalid type
+                }
+            }
+        }
+        return types;
+    }
+
+    // Keyword pencarian tanpa spasi di tepi; null jika kosong
+    public String getKeyword() {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        return search.trim();
+    }
+
+    // Kriteria yang sama dengan WorkoutRepository.findByFilter, untuk workout di memori
+    public boolean matches(Workout workout) {
+        Set<WorkoutType> types = getTypes();
+        String keyword = getKeyword();
+        return (types.isEmpty() || types.contains(workout.getType()))
+                && (keyword == null || contains(workout.getTitle(), keyword)
+                        || contains(workout.getDescription(), keyword))
+                && (from == null || !workout.getDate().isBefore(from))
+                && (to == null || !workout.getDate().isAfter(to))
+                && (minDuration == null || workout.getDurationMinutes() >= minDuration)
+                && (maxDuration == null || workout.getDurationMinutes() <= maxDuration);
+    }
+
+    private static boolean contains(String value, String keyword) {
+        return value.toLowerCase(Locale.ROOT).contains(keyword.toLowerCase(Locale.ROOT));
+    }
+
+    public SortOrder getSortOrder() {
+        return SortOrder.parse(sort);
+    }
+
+    // Tanpa kriteria dan urutan default (daftar aktivitas biasa)
+    public boolean isEmpty() {
+        return toQueryString().isEmpty();
+    }
+
+    /**
+     * Bentuk normal filter sebagai query string (tanpa nilai kosong/default, tipe
+     * terurut). Dipakai untuk link "muat lebih banyak" dan kunci FragmentCache,
+     * jadi dua URL dengan filter yang sama menghasilkan string yang sama.
+     */
+    public String toQueryString() {
+        StringBuilder query = new StringBuilder();
+        for (WorkoutType workoutType : getTypes()) {
+            appendParam(query, "type", workoutType.name());
+        }
+        appendParam(query, "search", getKeyword());
+        appendParam(query, "from", from);
+        appendParam(query, "to", to);
+        appendParam(query, "minDuration", minDuration);
+        appendParam(query, "maxDuration", maxDuration);
+        SortOrder sortOrder = getSortOrder();
+        appendParam(query, "sort", sortOrder == SortOrder.NEWEST ? null : sortOrder.param());
+        return query.toString();
+    }
+
+    private static void appendParam(StringBuilder query, String name, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (!query.isEmpty()) {
+            query.append('&');
+        }
+        query.append(name).append('=').append(URLEncoder.encode(value.toString(), StandardCharsets.UTF_8));
+    }
+}
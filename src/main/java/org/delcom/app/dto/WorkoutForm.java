@@ -4,6 +4,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -11,9 +12,11 @@ public class WorkoutForm {
 
     private UUID id;
 
+    @Size(max = 255, message = "Judul maksimal 255 karakter")
     private String title;
 
     @NotBlank(message = "Deskripsi tidak boleh kosong")
+    @Size(max = 255, message = "Deskripsi maksimal 255 karakter")
     private String description;
 
     @NotNull(message = "Durasi tidak boleh kosong")
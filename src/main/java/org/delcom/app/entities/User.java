@@ -3,6 +3,11 @@ package org.delcom.app.entities;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
@@ -10,10 +15,17 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @JsonPropertyOrder({ "id", "name", "email", "createdAt", "updatedAt" })
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class User {
 
+    // ======= Cache Regions (lihat application.conf) =======
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "users-natural-id";
+
     // ======= Attributes =======
     @Id
     @GeneratedValue(generator = "UUID")
@@ -23,6 +35,7 @@ public class User {
     @Column(name = "name", nullable = false)
     private String name;
 
+    @NaturalId(mutable = true)
     @Column(name = "email", nullable = false)
     private String email;
 
@@ -146,6 +146,22 @@ public class Workout {
         return updatedAt;
     }
 
+    // Workout yang dibaca kembali dari arsip (WorkoutArchiveService) membawa timestamp aslinya
+    public void setTimestamps(LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Salinan lepas (bukan managed) untuk cache di luar persistence context
+    public Workout copy() {
+        Workout copy = new Workout(userId, title, description, durationMinutes, caloriesBurned, date, type,
+                imagePath);
+        copy.id = id;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+
     // ======= @PrePersist & @PreUpdate =======
     @PrePersist
     protected void onCreate() {
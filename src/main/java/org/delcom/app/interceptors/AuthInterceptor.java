@@ -1,6 +1,8 @@
 package org.delcom.app.interceptors;
 
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.configs.ServerTiming;
+import org.delcom.app.configs.jfr.AuthCheckEvent;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
@@ -30,6 +32,21 @@ public class AuthInterceptor implements HandlerInterceptor {
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
+        AuthCheckEvent event = new AuthCheckEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean allowed = false;
+        try {
+            allowed = authenticate(request, response);
+            return allowed;
+        } finally {
+            ServerTiming.record(ServerTiming.Metric.AUTH, System.nanoTime() - start);
+            event.allowed = allowed;
+            event.commit();
+        }
+    }
+
+    private boolean authenticate(HttpServletRequest request, HttpServletResponse response) throws Exception {
         // Skip auth untuk endpoint public
         if (isPublicEndpoint(request)) {
             return true;
@@ -0,0 +1,26 @@
+package org.delcom.app.interceptors;
+
+import org.delcom.app.configs.ServerTiming;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Menandai awal render view untuk metrik {@code render} di header
+ * Server-Timing; postHandle dipanggil tepat sebelum DispatcherServlet merender.
+ */
+@Component
+public class ServerTimingInterceptor implements HandlerInterceptor {
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+            ModelAndView modelAndView) {
+        // Endpoint @ResponseBody sudah menulis body sebelum postHandle, tidak ada render
+        if (modelAndView != null && modelAndView.hasView()) {
+            ServerTiming.markRenderStart();
+        }
+    }
+}
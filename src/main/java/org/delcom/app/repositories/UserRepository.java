@@ -1,13 +1,18 @@
 package org.delcom.app.repositories;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.delcom.app.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
-    Optional<User> findFirstByEmail(String email);
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
+    // Dipakai garbage collector upload: nama file mana saja yang masih direferensikan
+    @Query("SELECT u.profilePhoto FROM User u WHERE u.profilePhoto IN :photos")
+    List<String> findProfilePhotosIn(@Param("photos") Collection<String> photos);
 }
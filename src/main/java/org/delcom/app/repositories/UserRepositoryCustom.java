@@ -0,0 +1,10 @@
+package org.delcom.app.repositories;
+
+import java.util.Optional;
+
+import org.delcom.app.entities.User;
+
+public interface UserRepositoryCustom {
+    // Lewat natural-id email, sehingga bisa dilayani cache level-2
+    Optional<User> findFirstByEmail(String email);
+}
@@ -0,0 +1,113 @@
+package org.delcom.app.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Partisi tahunan tabel {@code workouts} (PostgreSQL, lihat
+ * db/vendor/postgresql/V3__partition_workouts_by_year). Partisi bernama
+ * {@code workouts_y<tahun>}; di database tanpa partisi (H2) {@link #isPartitioned}
+ * bernilai false dan method lain tidak boleh dipanggil.
+ *
+ * Berjalan di koneksi yang sedang aktif, jadi saat sharding aktif dipanggil
+ * dari dalam {@code ShardRouter.fanOut} untuk setiap shard.
+ */
+@Repository
+public class WorkoutPartitionRepository {
+
+    public record Partition(int year, boolean attached) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WorkoutPartitionRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Cursor PostgreSQL (butuh transaksi), supaya partisi besar tidak dimuat sekaligus
+        this.jdbcTemplate.setFetchSize(1000);
+    }
+
+    public boolean isPartitioned() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> "PostgreSQL"
+                .equals(connection.getMetaData().getDatabaseProductName())))) {
+            return false;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p "
+                + "JOIN pg_class c ON c.oid = p.partrelid "
+                + "WHERE c.relname = 'workouts' AND pg_table_is_visible(c.oid))", Boolean.class));
+    }
+
+    // Semua tabel workouts_y<tahun>, termasuk yang sudah di-detach tapi belum di-drop
+    public List<Partition> findYearPartitions() {
+        return jdbcTemplate.query("SELECT c.relname, EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid) "
+                + "FROM pg_class c WHERE c.relkind = 'r' AND c.relname ~ '^workouts_y[0-9]{4}$' "
+                + "AND pg_table_is_visible(c.oid) ORDER BY c.relname",
+                (rs, rowNum) -> new Partition(Integer.parseInt(rs.getString(1).substring("workouts_y".length())),
+                        rs.getBoolean(2)));
+    }
+
+    /**
+     * Membuat partisi satu tahun. Baris tahun itu yang terlanjur masuk ke
+     * workouts_default dipindah lebih dulu, karena ATTACH gagal jika partisi
+     * default masih memuat baris untuk rentang baru.
+     *
+     * @return false jika partisi sudah ada
+     */
+    @Transactional
+    public boolean createYear(int year) {
+        // Self-conflicting tapi tidak memblokir DML: instance lain yang membuat partisi yang sama menunggu di sini
+        jdbcTemplate.execute("LOCK TABLE workouts IN SHARE UPDATE EXCLUSIVE MODE");
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                name(year)))) {
+            return false;
+        }
+        String from = LocalDate.of(year, 1, 1).toString();
+        String to = LocalDate.of(year + 1, 1, 1).toString();
+        jdbcTemplate.execute("CREATE TABLE " + name(year)
+                + " (LIKE workouts INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.update("WITH moved AS (DELETE FROM workouts_default WHERE date >= ?::date AND date < ?::date "
+                + "RETURNING *) INSERT INTO " + name(year) + " SELECT * FROM moved", from, to);
+        jdbcTemplate.execute("ALTER TABLE workouts ATTACH PARTITION " + name(year)
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        return true;
+    }
+
+    // Setelah detach, insert untuk tahun itu jatuh ke workouts_default (lihat drainDefaultYear);
+    // isi partisi tidak berubah lagi
+    public void detachYear(int year) {
+        jdbcTemplate.execute("ALTER TABLE workouts DETACH PARTITION " + name(year));
+    }
+
+    // Urut per user supaya baris satu user menjadi satu segmen di blob arsip
+    @Transactional
+    public void streamYear(int year, RowCallbackHandler handler) {
+        jdbcTemplate.query("SELECT * FROM " + name(year) + " ORDER BY user_id", handler);
+    }
+
+    /**
+     * Menghapus baris satu tahun dari workouts_default sambil menyerahkannya
+     * ke handler. {@code beforeCommit} dijalankan sebelum commit; jika gagal,
+     * baris tetap di database.
+     */
+    @Transactional
+    public void drainDefaultYear(int year, RowCallbackHandler handler, Runnable beforeCommit) {
+        jdbcTemplate.query("DELETE FROM workouts_default WHERE date >= ?::date AND date < ?::date RETURNING *",
+                handler, LocalDate.of(year, 1, 1).toString(), LocalDate.of(year + 1, 1, 1).toString());
+        beforeCommit.run();
+    }
+
+    public void dropYear(int year) {
+        jdbcTemplate.execute("DROP TABLE " + name(year));
+    }
+
+    private static String name(int year) {
+        return "workouts_y" + year;
+    }
+}
@@ -1,5 +1,6 @@
 package org.delcom.app.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -8,14 +9,17 @@ import org.delcom.app.entities.Workout;
 import org.delcom.app.enums.WorkoutType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface WorkoutRepository extends JpaRepository<Workout, UUID> {
+public interface WorkoutRepository extends JpaRepository<Workout, UUID>, WorkoutRepositoryCustom {
         // 1. Core CRUD & Filter
+        // Daftar dengan filter gabungan memakai findByFilter (WorkoutRepositoryCustom); query
+        // terpisah di bawah dipertahankan sebagai pembanding di WorkoutFilterBenchmarkTests
         List<Workout> findByUserIdOrderByDateDesc(UUID userId);
 
         List<Workout> findByUserIdAndTypeOrderByDateDesc(UUID userId, WorkoutType type);
@@ -24,6 +28,11 @@ public interface WorkoutRepository extends JpaRepository<Workout, UUID> {
 
         Page<Workout> findByUserIdAndType(UUID userId, WorkoutType type, Pageable pageable);
 
+        // Slice: cukup tahu ada halaman berikutnya atau tidak, tanpa query COUNT
+        Slice<Workout> findSliceByUserId(UUID userId, Pageable pageable);
+
+        Slice<Workout> findSliceByUserIdAndType(UUID userId, WorkoutType type, Pageable pageable);
+
         // Keep for Search
         @Query("SELECT w FROM Workout w WHERE (LOWER(w.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
                         "OR LOWER(w.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND w.userId = :userId ORDER BY w.date DESC, w.createdAt DESC")
@@ -33,6 +42,10 @@ public interface WorkoutRepository extends JpaRepository<Workout, UUID> {
         @Query("SELECT w FROM Workout w WHERE w.id = :id AND w.userId = :userId")
         Optional<Workout> findByUserIdAndId(@Param("userId") UUID userId, @Param("id") UUID id);
 
+        // Dipakai garbage collector upload: nama file mana saja yang masih direferensikan
+        @Query("SELECT w.imagePath FROM Workout w WHERE w.imagePath IN :paths")
+        List<String> findImagePathsIn(@Param("paths") Collection<String> paths);
+
         // 2. Statistik Dashboard (Total)
         @Query("SELECT SUM(w.durationMinutes) FROM Workout w WHERE w.userId = :userId")
         Integer sumDurationByUserId(@Param("userId") UUID userId);
@@ -43,6 +56,10 @@ public interface WorkoutRepository extends JpaRepository<Workout, UUID> {
         @Query("SELECT COUNT(w) FROM Workout w WHERE w.userId = :userId")
         Integer countByUserId(@Param("userId") UUID userId);
 
+        // Kolom yang disimpan WorkoutHistoryStore (riwayat kolumnar untuk agregasi all-time)
+        @Query("SELECT w.id, w.date, w.durationMinutes, w.type, w.caloriesBurned FROM Workout w WHERE w.userId = :userId")
+        List<Object[]> findHistoryColumnsByUserId(@Param("userId") UUID userId);
+
         // 3. Statistik Chart (Group By)
         @Query("SELECT w.date, SUM(w.durationMinutes) FROM Workout w WHERE w.userId = :userId GROUP BY w.date ORDER BY w.date ASC")
         List<Object[]> findDailyDurationStats(@Param("userId") UUID userId);
@@ -0,0 +1,14 @@
+package org.delcom.app.repositories;
+
+import java.util.UUID;
+
+import org.delcom.app.dto.WorkoutFilter;
+import org.delcom.app.entities.Workout;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface WorkoutRepositoryCustom {
+    // Satu query dinamis untuk semua kombinasi filter; urutan dari pageable.getSort(),
+    // Pageable.unpaged(sort) untuk semua baris
+    Slice<Workout> findByFilter(UUID userId, WorkoutFilter filter, Pageable pageable);
+}
@@ -0,0 +1,90 @@
+package org.delcom.app.repositories;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.dto.WorkoutFilter;
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+@Transactional(readOnly = true)
+public class WorkoutRepositoryCustomImpl implements WorkoutRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Workout> findByFilter(UUID userId, WorkoutFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Workout> query = cb.createQuery(Workout.class);
+        Root<Workout> workout = query.from(Workout.class);
+        query.where(predicates(cb, workout, userId, filter).toArray(Predicate[]::new));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), workout, cb));
+
+        TypedQuery<Workout> typed = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typed.getResultList(), pageable, false);
+        }
+        // Satu baris ekstra cukup untuk tahu ada halaman berikutnya, tanpa query COUNT
+        typed.setFirstResult((int) pageable.getOffset());
+        typed.setMaxResults(pageable.getPageSize() + 1);
+        List<Workout> content = typed.getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    // user_id selalu ada, jadi setiap kombinasi masuk lewat prefix index
+    // (user_id, date, ...) atau (user_id, type, date) dari V2__workout_indexes
+    private static List<Predicate> predicates(CriteriaBuilder cb, Root<Workout> workout, UUID userId,
+            WorkoutFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(workout.get("userId"), userId));
+
+        Set<WorkoutType> types = filter.getTypes();
+        if (!types.isEmpty()) {
+            predicates.add(workout.get("type").in(types));
+        }
+        String keyword = filter.getKeyword();
+        if (keyword != null) {
+            String pattern = "%" + escapeLike(keyword.toLowerCase(Locale.ROOT)) + "%";
+            predicates.add(cb.or(
+                    cb.like(cb.lower(workout.get("title")), pattern, '\\'),
+                    cb.like(cb.lower(workout.get("description")), pattern, '\\')));
+        }
+        if (filter.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(workout.<LocalDate>get("date"), filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(workout.<LocalDate>get("date"), filter.getTo()));
+        }
+        if (filter.getMinDuration() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(workout.<Integer>get("durationMinutes"), filter.getMinDuration()));
+        }
+        if (filter.getMaxDuration() != null) {
+            predicates.add(cb.lessThanOrEqualTo(workout.<Integer>get("durationMinutes"), filter.getMaxDuration()));
+        }
+        return predicates;
+    }
+
+    // Keyword dicari apa adanya: % dan _ dari user bukan wildcard
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,82 @@
+package org.delcom.app.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Nomor versi data per user. Naik setiap kali data workout user berubah,
+ * sehingga cache yang memakai versi ini sebagai bagian kunci otomatis basi.
+ *
+ * Perubahan dari node lain masuk lewat {@link #remoteChanged} (dikirim
+ * {@link UserCacheInvalidator} jika cluster invalidation aktif); cache yang
+ * tidak berkunci versi mendaftar lewat {@link #onRemoteChange}.
+ */
+@Service
+public class DataVersionService {
+    private final Map<UUID, AtomicLong> versions = new ConcurrentHashMap<>();
+    // Naik untuk semua user sekaligus (notifikasi antar node mungkin hilang)
+    private final AtomicLong epoch = new AtomicLong();
+    private final List<Consumer<UUID>> remoteListeners = new CopyOnWriteArrayList<>();
+    private volatile Consumer<UUID> publisher = userId -> {
+    };
+
+    public long getVersion(UUID userId) {
+        AtomicLong version = versions.get(userId);
+        return epoch.get() + (version == null ? 0L : version.get());
+    }
+
+    public long bump(UUID userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+        return getVersion(userId);
+    }
+
+    // Naikkan versi setelah commit, supaya render yang berjalan bersamaan tidak
+    // menyimpan data lama di bawah versi baru
+    public void bumpAfterCommit(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed(userId);
+                }
+            });
+        } else {
+            committed(userId);
+        }
+    }
+
+    // Listener dipanggil dengan user yang diubah node lain, atau null untuk semua user
+    void onRemoteChange(Consumer<UUID> listener) {
+        remoteListeners.add(listener);
+    }
+
+    void publishTo(Consumer<UUID> publisher) {
+        this.publisher = publisher;
+    }
+
+    void remoteChanged(UUID userId) {
+        if (userId == null) {
+            epoch.incrementAndGet();
+        } else {
+            bump(userId);
+        }
+        remoteListeners.forEach(listener -> listener.accept(userId));
+    }
+
+    private void committed(UUID userId) {
+        bump(userId);
+        publisher.accept(userId);
+    }
+}
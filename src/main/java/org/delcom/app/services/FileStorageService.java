@@ -1,111 +1,171 @@
 package org.delcom.app.services;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.delcom.app.configs.jfr.FileStorageEvent;
+import org.delcom.app.storage.BlobStore;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
+import java.util.List;
 import java.util.UUID;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Service
 public class FileStorageService {
-    @Value("${app.upload.dir:./uploads}")
-    protected String uploadDir;
+    // Semua key yang ditulis service ini diawali salah satu prefix ini
+    static final List<String> UPLOAD_PREFIXES = List.of("cover_", "profile_");
+
+    private final BlobStore blobStore;
+    // Byte yang ditulis/dibaca lewat BlobStore, tag direction=write|read
+    private final Counter bytesWritten;
+    private final Counter bytesRead;
+
+    public FileStorageService(BlobStore blobStore, MeterRegistry meterRegistry) {
+        this.blobStore = blobStore;
+        this.bytesWritten = bytesCounter(meterRegistry, "write");
+        this.bytesRead = bytesCounter(meterRegistry, "read");
+    }
 
     public String storeFile(MultipartFile file, UUID todoId) throws IOException {
-        // Buat directory jika belum ada
-        // Buat directory jika belum ada
-        Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
-
-        System.out.println("DEBUG: Storing file to " + uploadPath.toAbsolutePath());
+        String filename = "cover_" + todoId.toString() + resolveExtension(file);
 
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+        // Simpan file
+        put(filename, file);
 
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        } else {
-            String contentType = file.getContentType();
-            if (contentType != null) {
-                if (contentType.equals("image/jpeg"))
-                    fileExtension = ".jpg";
-                else if (contentType.equals("image/png"))
-                    fileExtension = ".png";
-                else if (contentType.equals("image/webp"))
-                    fileExtension = ".webp";
-                else if (contentType.equals("image/gif"))
-                    fileExtension = ".gif";
-            }
-        }
+        return filename;
+    }
 
-        String filename = "cover_" + todoId.toString() + fileExtension;
+    public String storeProfilePhoto(MultipartFile file, UUID userId) throws IOException {
+        String filename = "profile_" + userId.toString() + resolveExtension(file);
 
         // Simpan file
-        Path filePath = uploadPath.resolve(filename);
-        try (java.io.InputStream inputStream = file.getInputStream()) {
-            Files.copy(inputStream, filePath, StandardCopyOption.REPLACE_EXISTING);
-        }
+        put(filename, file);
 
         return filename;
     }
 
-    public String storeProfilePhoto(MultipartFile file, UUID userId) throws IOException {
-        // Buat directory jika belum ada
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+    public boolean deleteFile(String filename) {
+        return blobStore.delete(filename);
+    }
 
-        // Generate filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        } else {
-            String contentType = file.getContentType();
-            if (contentType != null) {
-                if (contentType.equals("image/jpeg"))
-                    fileExtension = ".jpg";
-                else if (contentType.equals("image/png"))
-                    fileExtension = ".png";
-                else if (contentType.equals("image/webp"))
-                    fileExtension = ".webp";
-                else if (contentType.equals("image/gif"))
-                    fileExtension = ".gif";
-            }
+    /**
+     * Buka file untuk di-stream ke response tanpa memuat seluruh isinya ke
+     * memori. Byte yang dibaca dihitung saat stream ditutup. Hanya file upload
+     * ({@link #isUploadKey}) yang bisa dibuka, karena endpoint gambar publik.
+     *
+     * @return stream yang wajib ditutup pemanggil, atau null jika file tidak ditemukan
+     */
+    public InputStream openFile(String filename) throws IOException {
+        if (!isUploadKey(filename)) {
+            return null;
         }
+        InputStream inputStream = blobStore.get(filename);
+        return inputStream == null ? null : new CountingInputStream(inputStream);
+    }
 
-        String filename = "profile_" + userId.toString() + fileExtension;
+    // Cover workout atau foto profil
+    public static boolean isUploadKey(String key) {
+        return UPLOAD_PREFIXES.stream().anyMatch(key::startsWith);
+    }
 
-        // Simpan file
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    public boolean fileExists(String filename) {
+        return blobStore.exists(filename);
+    }
 
-        return filename;
+    public String resolveContentType(String filename) {
+        String lower = filename.toLowerCase();
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg"))
+            return "image/jpeg";
+        else if (lower.endsWith(".png"))
+            return "image/png";
+        else if (lower.endsWith(".gif"))
+            return "image/gif";
+        else if (lower.endsWith(".webp"))
+            return "image/webp";
+        return "application/octet-stream";
     }
 
-    public boolean deleteFile(String filename) {
-        try {
-            Path filePath = Paths.get(uploadDir).resolve(filename);
-            return Files.deleteIfExists(filePath);
-        } catch (IOException e) {
-            return false;
+    private void put(String filename, MultipartFile file) throws IOException {
+        FileStorageEvent event = new FileStorageEvent("store");
+        event.begin();
+        long size = file.getSize();
+        try (InputStream inputStream = file.getInputStream()) {
+            blobStore.put(filename, inputStream, size, file.getContentType());
         }
+        bytesWritten.increment(Math.max(size, 0));
+        event.bytes = Math.max(size, 0);
+        event.commit();
     }
 
-    public Path loadFile(String filename) {
-        return Paths.get(uploadDir).resolve(filename).normalize();
+    private static Counter bytesCounter(MeterRegistry meterRegistry, String direction) {
+        return Counter.builder("app.storage.bytes")
+                .description("Byte file upload yang ditulis/dibaca")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .register(meterRegistry);
     }
 
-    public boolean fileExists(String filename) {
-        return Files.exists(loadFile(filename));
+    private String resolveExtension(MultipartFile file) {
+        String originalFilename = file.getOriginalFilename();
+        if (originalFilename != null && originalFilename.contains(".")) {
+            return originalFilename.substring(originalFilename.lastIndexOf("."));
+        }
+        String contentType = file.getContentType();
+        if (contentType != null) {
+            if (contentType.equals("image/jpeg"))
+                return ".jpg";
+            else if (contentType.equals("image/png"))
+                return ".png";
+            else if (contentType.equals("image/webp"))
+                return ".webp";
+            else if (contentType.equals("image/gif"))
+                return ".gif";
+        }
+        return "";
+    }
+
+    // Mencatat byte yang benar-benar terkirim (counter + event JFR) saat stream ditutup
+    private final class CountingInputStream extends FilterInputStream {
+        private final FileStorageEvent event = new FileStorageEvent("read");
+        private long count;
+        private boolean closed;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+            event.begin();
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                bytesRead.increment(count);
+                event.bytes = count;
+                event.commit();
+            }
+            super.close();
+        }
     }
 }
@@ -0,0 +1,257 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import org.delcom.app.dto.WorkoutFilter;
+import org.delcom.app.entities.Workout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Working set per user: N workout terbaru (urutan sama dengan daftar
+ * aktivitas: tanggal lalu createdAt, terbaru dulu). Dimuat saat pertama dibaca,
+ * lalu dijaga write-through oleh {@link WorkoutService} setelah commit, jadi
+ * halaman pertama, detail workout dan daftar API user kecil tidak perlu ke database.
+ *
+ * Total cache dibatasi perkiraan byte ({@code app.workout-cache.max-bytes});
+ * user yang jarang dibaca tergusur lebih dulu. Penulisan node lain membuang
+ * window user lewat {@link DataVersionService#onRemoteChange} jika
+ * {@code app.cache.user.cluster-invalidation.enabled=true}; tanpa itu, dan
+ * untuk penulisan yang tidak lewat WorkoutService (generator dataset), baru
+ * terlihat setelah {@code ttl-seconds}.
+ */
+@Component
+public class RecentWorkoutCache {
+
+    // Urutan NEWEST di WorkoutFilter: date DESC, createdAt DESC
+    static final Comparator<Workout> NEWEST_FIRST = Comparator
+            .comparing(Workout::getDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Workout::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final boolean enabled;
+    private final int size;
+    private final DataVersionService dataVersionService;
+    private final Cache<UUID, Window> cache;
+
+    public RecentWorkoutCache(
+            @Value("${app.workout-cache.enabled:true}") boolean enabled,
+            @Value("${app.workout-cache.size:50}") int size,
+            @Value("${app.workout-cache.max-bytes:33554432}") long maxBytes,
+            @Value("${app.workout-cache.ttl-seconds:300}") long ttlSeconds,
+            DataVersionService dataVersionService) {
+        this.enabled = enabled && size > 0;
+        this.size = Math.max(size, 1);
+        this.dataVersionService = dataVersionService;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(maxBytes, 0))
+                .weigher((UUID userId, Window window) -> window.weight())
+                .expireAfterWrite(Duration.ofSeconds(Math.max(ttlSeconds, 1)))
+                .recordStats()
+                .build();
+        dataVersionService.onRemoteChange(this::evict);
+    }
+
+    /**
+     * Window user dari cache, atau dimuat lewat {@code loader(userId, n)} (slice
+     * N terbaru). Null jika cache dimatikan.
+     */
+    public Window get(UUID userId, BiFunction<UUID, Integer, Slice<Workout>> loader) {
+        if (!enabled) {
+            return null;
+        }
+        Window window = cache.getIfPresent(userId);
+        if (window != null) {
+            return window;
+        }
+        long version = dataVersionService.getVersion(userId);
+        Slice<Workout> slice = loader.apply(userId, size);
+        List<Workout> workouts = new ArrayList<>(slice.getNumberOfElements());
+        for (Workout workout : slice.getContent()) {
+            workouts.add(workout.copy());
+        }
+        window = new Window(workouts, !slice.hasNext());
+        cache.put(userId, window);
+        // Ada tulis yang commit selama load: isi yang baru dimuat mungkin sudah basi
+        if (dataVersionService.getVersion(userId) != version) {
+            cache.invalidate(userId);
+        }
+        return window;
+    }
+
+    /**
+     * Workout dibuat/diubah. Diterapkan setelah commit; panggil setelah
+     * {@link DataVersionService#bumpAfterCommit} supaya load yang berjalan
+     * bersamaan melihat versi baru lebih dulu.
+     */
+    public void saved(UUID userId, Workout workout) {
+        afterCommit(() -> cache.asMap().computeIfPresent(userId,
+                (id, window) -> window.withSaved(workout.copy(), size)));
+    }
+
+    public void deleted(UUID userId, UUID workoutId) {
+        afterCommit(() -> cache.asMap().computeIfPresent(userId, (id, window) -> window.without(workoutId)));
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    // Data diubah node lain; null berarti semua user
+    private void evict(UUID userId) {
+        if (userId == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(userId);
+        }
+    }
+
+    public Cache<UUID, Window> getNativeCache() {
+        return cache;
+    }
+
+    // Juga dipakai WorkoutHistoryStore
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Isi cache satu user (immutable). {@code complete} berarti user tidak punya
+     * workout lain di luar window, jadi "tidak ada di window" = tidak ada sama sekali.
+     */
+    public static final class Window {
+        private final List<Workout> workouts;
+        private final boolean complete;
+
+        Window(List<Workout> workouts, boolean complete) {
+            this.workouts = List.copyOf(workouts);
+            this.complete = complete;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+
+        public int size() {
+            return workouts.size();
+        }
+
+        // Salinan, supaya pemanggil tidak bisa mengubah isi cache
+        public List<Workout> workouts() {
+            List<Workout> copies = new ArrayList<>(workouts.size());
+            for (Workout workout : workouts) {
+                copies.add(workout.copy());
+            }
+            return copies;
+        }
+
+        // Apakah window bisa menjawab pencarian id ini tanpa database
+        public boolean answers(UUID workoutId) {
+            return complete || indexOf(workoutId) >= 0;
+        }
+
+        public Workout find(UUID workoutId) {
+            int index = indexOf(workoutId);
+            return index < 0 ? null : workouts.get(index).copy();
+        }
+
+        /**
+         * Halaman daftar tanpa filter, atau null jika halaman itu melewati batas
+         * window dan user masih punya workout yang lebih lama.
+         */
+        public Slice<Workout> page(int page, int pageSize) {
+            int pageIndex = Math.max(page, 0);
+            long from = (long) pageIndex * pageSize;
+            long to = from + pageSize;
+            if (to > workouts.size() && !complete) {
+                return null;
+            }
+            List<Workout> content = new ArrayList<>();
+            for (long i = from; i < Math.min(to, workouts.size()); i++) {
+                content.add(workouts.get((int) i).copy());
+            }
+            boolean hasNext = to < workouts.size() || !complete;
+            return new SliceImpl<>(content,
+                    PageRequest.of(pageIndex, pageSize, WorkoutFilter.SortOrder.NEWEST.toSort()), hasNext);
+        }
+
+        Window withSaved(Workout workout, int capacity) {
+            Window remaining = without(workout.getId());
+            if (remaining == null) {
+                return null;
+            }
+            List<Workout> updated = new ArrayList<>(remaining.workouts);
+            // Window belum lengkap: workout yang lebih lama dari isi terakhir bisa saja
+            // didahului baris lain di database, jadi hanya disisipkan jika masuk rentang window
+            if (!complete && NEWEST_FIRST.compare(workout, updated.get(updated.size() - 1)) > 0) {
+                return remaining;
+            }
+            updated.add(workout);
+            updated.sort(NEWEST_FIRST);
+            boolean stillComplete = complete;
+            while (updated.size() > capacity) {
+                updated.remove(updated.size() - 1);
+                stillComplete = false;
+            }
+            return new Window(updated, stillComplete);
+        }
+
+        // Null (entri dibuang, dimuat ulang nanti) jika window tidak lengkap menjadi kosong
+        Window without(UUID workoutId) {
+            int index = indexOf(workoutId);
+            if (index < 0) {
+                return workouts.isEmpty() && !complete ? null : this;
+            }
+            List<Workout> updated = new ArrayList<>(workouts);
+            updated.remove(index);
+            if (updated.isEmpty() && !complete) {
+                return null;
+            }
+            return new Window(updated, complete);
+        }
+
+        private int indexOf(UUID workoutId) {
+            for (int i = 0; i < workouts.size(); i++) {
+                if (workouts.get(i).getId().equals(workoutId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Perkiraan byte: header objek + field + isi string (UTF-16)
+        int weight() {
+            int bytes = 64;
+            for (Workout workout : workouts) {
+                bytes += 200 + Character.BYTES * (length(workout.getTitle()) + length(workout.getDescription())
+                        + length(workout.getImagePath()));
+            }
+            return bytes;
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.delcom.app.services;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+// Loop biasa; dipakai jika modul jdk.incubator.vector tidak dimuat atau vector dimatikan
+final class ScalarWorkoutKernels implements WorkoutKernels {
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public long sum(int[] values, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += values[i];
+        }
+        return total;
+    }
+
+    @Override
+    public long sum(long[] values, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += values[i];
+        }
+        return total;
+    }
+
+    @Override
+    public void countByType(byte[] types, int from, int to, long[] counts) {
+        for (int i = from; i < to; i++) {
+            counts[types[i]]++;
+        }
+    }
+
+    @Override
+    public long sumInts(MemorySegment column, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += column.getAtIndex(INT, i);
+        }
+        return total;
+    }
+
+    @Override
+    public long sumLongs(MemorySegment column, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += column.getAtIndex(LONG, i);
+        }
+        return total;
+    }
+
+    @Override
+    public void countByType(MemorySegment types, int from, int to, long[] counts) {
+        for (int i = from; i < to; i++) {
+            counts[types.get(ValueLayout.JAVA_BYTE, i)]++;
+        }
+    }
+}
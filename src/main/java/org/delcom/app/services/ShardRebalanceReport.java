@@ -0,0 +1,16 @@
+package org.delcom.app.services;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ringkasan satu kali rebalancing shard.
+ *
+ * @param ring         urutan shard pada ring baru
+ * @param usersMoved   user yang datanya dipindah ke shard lain
+ * @param rowsMoved    total baris workouts yang disalin
+ * @param rowsPerShard jumlah baris workouts per shard setelah rebalancing
+ */
+public record ShardRebalanceReport(List<String> ring, int usersMoved, long rowsMoved, Map<String, Long> rowsPerShard,
+        long durationMillis) {
+}
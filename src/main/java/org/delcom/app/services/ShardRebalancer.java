@@ -0,0 +1,138 @@
+package org.delcom.app.services;
+
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.configs.ShardRing;
+import org.delcom.app.configs.ShardRoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tool rebalancing online: memindahkan data workout ke ring shard baru
+ * (misalnya setelah menambah shard) tanpa menghentikan aplikasi.
+ *
+ * <ol>
+ * <li>Setiap user yang shard-nya berubah dipindah satu per satu: baris
+ * disalin apa adanya (id tetap) ke shard tujuan, user diarahkan ke sana,
+ * lalu baris di shard asal dihapus. Hanya transaksi user itu yang menunggu
+ * selama penyalinan.</li>
+ * <li>Transaksi workout ditahan sebentar, user yang baru menulis setelah
+ * tahap 1 ikut dipindah, lalu ring diganti.</li>
+ * </ol>
+ *
+ * Ring baru hanya berlaku di node ini; setelah selesai {@code app.sharding.ring}
+ * harus diubah sebelum restart atau sebelum node lain ikut menulis.
+ */
+@Service
+public class ShardRebalancer {
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ShardRebalancer(ShardRouter shardRouter, DataSource dataSource,
+            PlatformTransactionManager transactionManager) {
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Jumlah baris workouts per shard, dihitung paralel di semua shard
+    public Map<String, Long> rowsPerShard() {
+        return shardRouter.fanOut(shard -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM workouts", Long.class));
+    }
+
+    public synchronized ShardRebalanceReport rebalance(List<String> shards) {
+        if (!shardRouter.isEnabled()) {
+            throw new IllegalStateException("Sharding tidak aktif (app.sharding.enabled=false)");
+        }
+        long start = System.nanoTime();
+        ShardRing target = shardRouter.getRing().withShards(shards);
+        // Gagal di sini (shard tidak dikenal / belum bermigrasi) sebelum ada data yang dipindah
+        for (String shard : target.shards()) {
+            ShardRoutingDataSource.callOn(shard,
+                    () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM workouts", Long.class));
+        }
+
+        Moves moves = new Moves();
+        moveMisplaced(target, moves);
+        shardRouter.switchRing(target, () -> moveMisplaced(target, moves));
+
+        ShardRebalanceReport report = new ShardRebalanceReport(target.shards(), moves.users, moves.rows,
+                rowsPerShard(), (System.nanoTime() - start) / 1_000_000);
+        log.info("Rebalancing shard selesai: ring={} usersMoved={} rowsMoved={} rowsPerShard={} durationMs={}",
+                report.ring(), report.usersMoved(), report.rowsMoved(), report.rowsPerShard(),
+                report.durationMillis());
+        return report;
+    }
+
+    private void moveMisplaced(ShardRing target, Moves moves) {
+        Map<String, List<UUID>> usersPerShard = shardRouter.fanOut(
+                shard -> jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM workouts", UUID.class));
+        usersPerShard.forEach((source, users) -> {
+            for (UUID userId : users) {
+                String destination = target.shardOf(userId);
+                if (!destination.equals(source)) {
+                    moves.rows += move(userId, source, destination);
+                    moves.users++;
+                }
+            }
+        });
+    }
+
+    private int move(UUID userId, String source, String destination) {
+        int[] copied = new int[1];
+        shardRouter.moveUser(userId, destination, () -> copied[0] = copy(userId, source, destination));
+        ShardRoutingDataSource.callOn(source,
+                () -> jdbcTemplate.update("DELETE FROM workouts WHERE user_id = ?", userId));
+        return copied[0];
+    }
+
+    // Salinan idempoten: baris lama user di shard tujuan (sisa percobaan gagal) diganti
+    private int copy(UUID userId, String source, String destination) {
+        Rows rows = ShardRoutingDataSource.callOn(source,
+                () -> jdbcTemplate.query("SELECT * FROM workouts WHERE user_id = ?", resultSet -> {
+                    ResultSetMetaData metaData = resultSet.getMetaData();
+                    List<String> columns = new ArrayList<>();
+                    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                        columns.add(metaData.getColumnName(i));
+                    }
+                    List<Object[]> values = new ArrayList<>();
+                    while (resultSet.next()) {
+                        Object[] row = new Object[columns.size()];
+                        for (int i = 0; i < row.length; i++) {
+                            row[i] = resultSet.getObject(i + 1);
+                        }
+                        values.add(row);
+                    }
+                    return new Rows(columns, values);
+                }, userId));
+        String insert = "INSERT INTO workouts (" + String.join(", ", rows.columns()) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(rows.columns().size(), "?")) + ")";
+        ShardRoutingDataSource.callOn(destination, () -> transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM workouts WHERE user_id = ?", userId);
+            return jdbcTemplate.batchUpdate(insert, rows.values());
+        }));
+        return rows.values().size();
+    }
+
+    private record Rows(List<String> columns, List<Object[]> values) {
+    }
+
+    private static class Moves {
+        int users;
+        long rows;
+    }
+}
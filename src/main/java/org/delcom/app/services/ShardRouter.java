@@ -0,0 +1,221 @@
+package org.delcom.app.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.delcom.app.configs.ShardRing;
+import org.delcom.app.configs.ShardRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Peta user -> shard untuk tabel {@code workouts} (lihat ShardingConfig).
+ * Tanpa {@code app.sharding.enabled} semua method menjadi no-op dan query
+ * berjalan di satu database seperti biasa.
+ *
+ * Setiap transaksi yang menyentuh workout memanggil {@link #bind} dengan user
+ * pemiliknya. Selama transaksi itu berjalan user tersebut tidak bisa
+ * dipindah shard: bind memegang read lock per user (di-stripe), tool
+ * rebalancing mengambil write lock saat menyalin data user lalu mengarahkan
+ * user ke shard barunya. User lain tetap dilayani selama rebalancing.
+ */
+@Service
+public class ShardRouter {
+    // Kunci hasil fanOut saat sharding tidak aktif
+    public static final String DEFAULT_SHARD = "default";
+
+    private static final int LOCK_STRIPES = 256;
+
+    private final ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[LOCK_STRIPES];
+    // User yang sudah dipindah ke shard di luar ring saat ini (selama rebalancing)
+    private final Map<UUID, String> moved = new ConcurrentHashMap<>();
+    private volatile ShardRing ring;
+
+    public ShardRouter(@Value("${app.sharding.enabled:false}") boolean enabled,
+            @Value("${app.sharding.ring:${app.sharding.shards:}}") List<String> ring,
+            @Value("${app.sharding.virtual-nodes:128}") int virtualNodes) {
+        this.ring = enabled ? new ShardRing(ring, virtualNodes) : null;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return ring != null;
+    }
+
+    public ShardRing getRing() {
+        return ring;
+    }
+
+    // Shard milik user; null jika sharding tidak aktif
+    public String shardOf(UUID userId) {
+        ShardRing current = ring;
+        if (current == null) {
+            return null;
+        }
+        String target = moved.get(userId);
+        return target != null ? target : current.shardOf(userId);
+    }
+
+    /**
+     * Mengarahkan transaksi aktif ke shard milik user. Dipanggil sebelum
+     * query pertama transaksi; flush saat commit ikut berjalan di shard itu.
+     */
+    public void bind(UUID userId) {
+        if (ring == null) {
+            return;
+        }
+        Lock lock = lock(userId).readLock();
+        lock.lock();
+        boolean bound;
+        try {
+            bound = ShardRoutingDataSource.bindTransaction(shardOf(userId));
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+        if (!bound) {
+            // Transaksi sudah terikat ke shard ini dan sudah memegang lock-nya
+            lock.unlock();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Seperti {@link #bind} untuk semua user satu batch (ingestion), yang harus
+     * berada di satu shard. Read lock diambil urut stripe, sama dengan
+     * {@link #switchRing}, jadi batch dan rebalancing tidak saling deadlock.
+     */
+    public void bindAll(Collection<UUID> userIds) {
+        if (ring == null) {
+            return;
+        }
+        SortedSet<Integer> stripes = new TreeSet<>();
+        userIds.forEach(userId -> stripes.add(stripe(userId)));
+        List<Lock> held = new ArrayList<>();
+        for (int stripe : stripes) {
+            Lock lock = locks[stripe].readLock();
+            lock.lock();
+            held.add(lock);
+        }
+        try {
+            Set<String> shards = new HashSet<>();
+            userIds.forEach(userId -> shards.add(shardOf(userId)));
+            if (shards.size() != 1) {
+                throw new IllegalStateException("User satu batch harus berada di satu shard, bukan " + shards);
+            }
+            ShardRoutingDataSource.bindTransaction(shards.iterator().next());
+        } catch (RuntimeException e) {
+            held.forEach(Lock::unlock);
+            throw e;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                held.forEach(Lock::unlock);
+            }
+        });
+    }
+
+    /**
+     * Menjalankan query di setiap shard secara paralel (virtual thread),
+     * misalnya agregasi admin lintas user.
+     *
+     * @return hasil per nama shard, urut sesuai ring
+     */
+    public <T> Map<String, T> fanOut(Function<String, T> query) {
+        Map<String, T> results = new LinkedHashMap<>();
+        ShardRing current = ring;
+        if (current == null) {
+            results.put(DEFAULT_SHARD, query.apply(DEFAULT_SHARD));
+            return results;
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Map<String, Future<T>> futures = new LinkedHashMap<>();
+            for (String shard : current.shards()) {
+                futures.put(shard,
+                        executor.submit(() -> ShardRoutingDataSource.callOn(shard, () -> query.apply(shard))));
+            }
+            for (Map.Entry<String, Future<T>> future : futures.entrySet()) {
+                results.put(future.getKey(), future.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Fan-out shard terputus", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Fan-out shard gagal", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Menyalin data user (copy) sementara transaksi baru user itu ditahan,
+     * lalu mengarahkan user ke shard tujuan.
+     */
+    public void moveUser(UUID userId, String target, Runnable copy) {
+        Lock lock = lock(userId).writeLock();
+        lock.lock();
+        try {
+            copy.run();
+            moved.put(userId, target);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mengganti ring. Semua transaksi workout ditahan selama finalPass
+     * (memindahkan user yang muncul setelah pemindahan online) dan
+     * penggantian ring.
+     */
+    public void switchRing(ShardRing next, Runnable finalPass) {
+        for (ReentrantReadWriteLock lock : locks) {
+            lock.writeLock().lock();
+        }
+        try {
+            finalPass.run();
+            ring = next;
+            moved.clear();
+        } finally {
+            for (ReentrantReadWriteLock lock : locks) {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private ReentrantReadWriteLock lock(UUID userId) {
+        return locks[stripe(userId)];
+    }
+
+    private static int stripe(UUID userId) {
+        return Math.floorMod(userId.hashCode(), LOCK_STRIPES);
+    }
+}
@@ -0,0 +1,246 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.repositories.WorkoutRepository;
+import org.delcom.app.storage.BlobInfo;
+import org.delcom.app.storage.BlobStore;
+import org.delcom.app.storage.LocalBlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Membersihkan file upload yang tidak lagi direferensikan oleh
+ * {@code workouts.image_path} maupun {@code users.profile_photo} (sisa
+ * transaksi gagal, ekstensi cover yang berganti, dsb). Cover workout yang
+ * sudah diarsipkan ({@link WorkoutArchiveService}) tetap dianggap terpakai.
+ *
+ * Orphan tidak langsung dihapus: file dipindah ke direktori karantina dan baru
+ * dihapus permanen setelah grace period. File yang lebih muda dari
+ * {@code min-age} dilewati karena file upload disimpan sebelum path-nya
+ * di-commit ke database. Key upload deterministik ({@code cover_<workoutId>},
+ * {@code profile_<userId>}), jadi tepat sebelum dihapus blob dibandingkan lagi
+ * dengan hasil list dan referensinya dicek ulang: re-upload yang menimpa key
+ * setelah query batch tidak ikut terhapus.
+ */
+@Service
+public class UploadGarbageCollector {
+    private static final Logger log = LoggerFactory.getLogger(UploadGarbageCollector.class);
+
+    private final BlobStore blobStore;
+    private final WorkoutRepository workoutRepository;
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final WorkoutArchiveService workoutArchiveService;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.upload.gc.enabled:false}")
+    protected boolean enabled;
+
+    @Value("${app.upload.gc.dry-run:true}")
+    protected boolean dryRun;
+
+    @Value("${app.upload.gc.batch-size:500}")
+    protected int batchSize;
+
+    @Value("${app.upload.gc.parallelism:4}")
+    protected int parallelism;
+
+    @Value("${app.upload.gc.min-age-minutes:60}")
+    protected long minAgeMinutes;
+
+    @Value("${app.upload.gc.grace-period-hours:168}")
+    protected long gracePeriodHours;
+
+    @Value("${app.upload.gc.quarantine-dir:./uploads-quarantine}")
+    protected String quarantineDir;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    protected boolean virtualThreads;
+
+    private volatile UploadGcReport lastReport;
+
+    public UploadGarbageCollector(BlobStore blobStore, WorkoutRepository workoutRepository,
+            UserRepository userRepository, ShardRouter shardRouter, WorkoutArchiveService workoutArchiveService) {
+        this.blobStore = blobStore;
+        this.workoutRepository = workoutRepository;
+        this.userRepository = userRepository;
+        this.shardRouter = shardRouter;
+        this.workoutArchiveService = workoutArchiveService;
+    }
+
+    @Scheduled(cron = "${app.upload.gc.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    public UploadGcReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * @return laporan, atau null jika GC lain sedang berjalan atau gagal
+     */
+    public UploadGcReport run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Upload GC sedang berjalan, dilewati");
+            return null;
+        }
+        try {
+            long start = System.nanoTime();
+            LocalBlobStore quarantine = new LocalBlobStore(Paths.get(quarantineDir));
+
+            Instant cutoff = Instant.now().minus(Duration.ofMinutes(minAgeMinutes));
+            List<BlobInfo> candidates = new ArrayList<>();
+            for (BlobInfo blob : blobStore.list()) {
+                if (FileStorageService.isUploadKey(blob.key()) && !blob.lastModified().isAfter(cutoff)) {
+                    candidates.add(blob);
+                }
+            }
+
+            // Baris workout arsip tidak lagi ada di tabel workouts; arsip yang gagal dibaca menggagalkan GC
+            Set<String> archived = candidates.isEmpty() ? Set.of() : workoutArchiveService.findArchivedImagePaths();
+            BatchResult total = scan(candidates, archived, quarantine);
+            int purged = purge(quarantine);
+
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            UploadGcReport report = new UploadGcReport(dryRun, candidates.size(), total.orphaned,
+                    total.quarantined, purged, total.bytes, durationMillis);
+            log.info("Upload GC selesai: dryRun={} scanned={} orphaned={} quarantined={} purged={} bytes={} "
+                    + "durationMs={} filesPerSec={}", report.dryRun(), report.scanned(), report.orphaned(),
+                    report.quarantined(), report.purged(), report.reclaimedBytes(), report.durationMillis(),
+                    String.format("%.1f", report.filesPerSecond()));
+            lastReport = report;
+            return report;
+        } catch (IOException | UncheckedIOException | InterruptedException | ExecutionException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Upload GC gagal", e);
+            return null;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private BatchResult scan(List<BlobInfo> candidates, Set<String> archived, LocalBlobStore quarantine)
+            throws InterruptedException, ExecutionException {
+        BatchResult total = new BatchResult();
+        if (candidates.isEmpty()) {
+            return total;
+        }
+
+        // Setiap batch = satu query IN per tabel, dijalankan paralel; parallelism tetap
+        // membatasi jumlah koneksi DB yang dipakai meski berjalan di virtual thread
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("upload-gc-", 0).factory()
+                : Executors.defaultThreadFactory();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), threadFactory);
+        try {
+            List<Future<BatchResult>> futures = new ArrayList<>();
+            int size = Math.max(1, batchSize);
+            for (int i = 0; i < candidates.size(); i += size) {
+                List<BlobInfo> batch = candidates.subList(i, Math.min(i + size, candidates.size()));
+                futures.add(executor.submit(() -> processBatch(batch, archived, quarantine)));
+            }
+            for (Future<BatchResult> future : futures) {
+                BatchResult result = future.get();
+                total.orphaned += result.orphaned;
+                total.quarantined += result.quarantined;
+                total.bytes += result.bytes;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return total;
+    }
+
+    private BatchResult processBatch(List<BlobInfo> batch, Set<String> archived, LocalBlobStore quarantine)
+            throws IOException {
+        Set<String> referenced = new HashSet<>(archived);
+        referenced.addAll(referenced(batch.stream().map(BlobInfo::key).toList()));
+
+        BatchResult result = new BatchResult();
+        for (BlobInfo blob : batch) {
+            if (referenced.contains(blob.key())) {
+                continue;
+            }
+            result.orphaned++;
+            result.bytes += blob.size();
+            if (!dryRun && moveToQuarantine(blob, quarantine)) {
+                result.quarantined++;
+            }
+        }
+        return result;
+    }
+
+    // Workout tersebar di semua shard (jika sharding aktif), users hanya di direktori
+    private Set<String> referenced(List<String> keys) {
+        Set<String> referenced = new HashSet<>();
+        shardRouter.fanOut(shard -> workoutRepository.findImagePathsIn(keys)).values().forEach(referenced::addAll);
+        referenced.addAll(userRepository.findProfilePhotosIn(keys));
+        return referenced;
+    }
+
+    private boolean moveToQuarantine(BlobInfo blob, LocalBlobStore quarantine) throws IOException {
+        if (!unchanged(blob) || referenced(List.of(blob.key())).contains(blob.key())) {
+            return false;
+        }
+        try (InputStream in = blobStore.get(blob.key())) {
+            if (in == null) {
+                return false;
+            }
+            quarantine.put(blob.key(), in, blob.size(), null);
+        }
+        // Ditimpa selama disalin: salinan karantina dibuang, blob baru dibiarkan
+        if (!unchanged(blob)) {
+            quarantine.delete(blob.key());
+            return false;
+        }
+        return blobStore.delete(blob.key());
+    }
+
+    private boolean unchanged(BlobInfo listed) throws IOException {
+        BlobInfo current = blobStore.stat(listed.key());
+        return current != null && current.size() == listed.size()
+                && current.lastModified().equals(listed.lastModified());
+    }
+
+    private int purge(LocalBlobStore quarantine) throws IOException {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(gracePeriodHours));
+        int purged = 0;
+        for (BlobInfo blob : quarantine.list()) {
+            if (!blob.lastModified().isAfter(cutoff) && (dryRun || quarantine.delete(blob.key()))) {
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    private static class BatchResult {
+        int orphaned;
+        int quarantined;
+        long bytes;
+    }
+}
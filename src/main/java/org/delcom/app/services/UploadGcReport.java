@@ -0,0 +1,18 @@
+package org.delcom.app.services;
+
+/**
+ * Ringkasan satu kali jalan garbage collector upload.
+ *
+ * @param scanned       jumlah file yang diperiksa terhadap database
+ * @param orphaned      file yang tidak direferensikan workout/user mana pun
+ * @param quarantined   orphan yang dipindah ke karantina (0 saat dry-run)
+ * @param purged        file karantina yang dihapus permanen setelah grace period
+ * @param reclaimedBytes total ukuran orphan yang ditemukan
+ */
+public record UploadGcReport(boolean dryRun, int scanned, int orphaned, int quarantined, int purged,
+        long reclaimedBytes, long durationMillis) {
+
+    public double filesPerSecond() {
+        return durationMillis == 0 ? scanned : scanned * 1000.0 / durationMillis;
+    }
+}
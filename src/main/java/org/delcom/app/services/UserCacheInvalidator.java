@@ -0,0 +1,207 @@
+package org.delcom.app.services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.configs.ShardRoutingDataSource;
+import org.delcom.app.entities.User;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Invalidasi cache level-2 {@link User}, dan antar node juga cache data
+ * workout per user ({@link DataVersionService}).
+ *
+ * Di node yang mengubah data, entri dibuang setelah commit. Jika
+ * {@code app.cache.user.cluster-invalidation.enabled=true}, id user juga
+ * dikirim lewat PostgreSQL {@code NOTIFY} di dalam transaksi yang sama, dan
+ * setiap node mendengarkan channel tersebut untuk membuang salinan lokalnya.
+ * Setelah (re)connect listener, seluruh region user dibuang karena notifikasi
+ * selama terputus bisa hilang.
+ *
+ * Perubahan workout dikirim ke channel {@link #WORKOUT_CHANNEL} setelah
+ * commit, lewat koneksi autocommit ke direktori: koneksi transaksinya bisa
+ * milik shard workout, sedangkan listener mendengarkan di direktori. Node
+ * pengirim mengabaikan notifikasinya sendiri (cache-nya sudah diperbarui
+ * write-through).
+ */
+@Service
+public class UserCacheInvalidator {
+    private static final Logger log = LoggerFactory.getLogger(UserCacheInvalidator.class);
+
+    public static final String CHANNEL = "user_cache_evict";
+    public static final String WORKOUT_CHANNEL = "workout_data_changed";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataVersionService dataVersionService;
+    // Penanda node ini di payload notifikasi workout
+    private final String node = UUID.randomUUID().toString();
+
+    @Value("${app.cache.user.cluster-invalidation.enabled:false}")
+    protected boolean clusterEnabled;
+
+    private volatile Connection listenConnection;
+
+    public UserCacheInvalidator(EntityManagerFactory entityManagerFactory, DataSource dataSource,
+            JdbcTemplate jdbcTemplate, DataVersionService dataVersionService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataVersionService = dataVersionService;
+        dataVersionService.publishTo(this::publishWorkoutChange);
+    }
+
+    public void invalidate(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        if (clusterEnabled) {
+            // NOTIFY ikut transaksi: node lain baru menerimanya setelah commit
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, userId.toString());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache().evictEntityData(User.class, userId);
+                }
+            });
+        } else {
+            cache().evictEntityData(User.class, userId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.user.cluster-invalidation.poll-ms:500}")
+    public void pollNotifications() {
+        if (!clusterEnabled) {
+            return;
+        }
+        try {
+            PGNotification[] notifications = listen().getNotifications();
+            if (notifications == null) {
+                return;
+            }
+            for (PGNotification notification : notifications) {
+                if (CHANNEL.equals(notification.getName())) {
+                    evictRemote(notification.getParameter());
+                } else if (WORKOUT_CHANNEL.equals(notification.getName())) {
+                    workoutChanged(notification.getParameter());
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Listener invalidasi cache user terputus: {}", e.getMessage());
+            close();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        Connection connection = listenConnection;
+        listenConnection = null;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Gagal menutup koneksi listener", e);
+            }
+        }
+    }
+
+    private PGConnection listen() throws SQLException {
+        Connection connection = listenConnection;
+        if (connection == null || connection.isClosed()) {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                statement.execute("LISTEN " + WORKOUT_CHANNEL);
+            }
+            listenConnection = connection;
+            cache().evictEntityData(User.class);
+            cache().evictNaturalIdData(User.class);
+            dataVersionService.remoteChanged(null);
+        }
+        return connection.unwrap(PGConnection.class);
+    }
+
+    private void evictRemote(String parameter) {
+        UUID userId;
+        try {
+            userId = UUID.fromString(parameter);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.debug("Notifikasi {} diabaikan: {}", CHANNEL, parameter);
+            return;
+        }
+        cache().evictEntityData(User.class, userId);
+        // Email (natural id) bisa berubah di node lain
+        cache().evictNaturalIdData(User.class);
+    }
+
+    // Dipanggil setelah commit oleh DataVersionService#bumpAfterCommit
+    private void publishWorkoutChange(UUID userId) {
+        if (!clusterEnabled) {
+            return;
+        }
+        try (Connection connection = directory().getConnection()) {
+            connection.setAutoCommit(true);
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                statement.setString(1, WORKOUT_CHANNEL);
+                statement.setString(2, userId + "/" + node);
+                statement.execute();
+            }
+        } catch (SQLException e) {
+            // Node lain tetap melihat perubahan setelah ttl cache masing-masing
+            log.warn("Notifikasi {} gagal dikirim: {}", WORKOUT_CHANNEL, e.getMessage());
+        }
+    }
+
+    private DataSource directory() throws SQLException {
+        return dataSource.isWrapperFor(ShardRoutingDataSource.class)
+                ? dataSource.unwrap(ShardRoutingDataSource.class).getDirectory()
+                : dataSource;
+    }
+
+    // Payload: <userId>/<node pengirim>
+    private void workoutChanged(String parameter) {
+        int separator = parameter == null ? -1 : parameter.indexOf('/');
+        if (separator < 0) {
+            log.debug("Notifikasi {} diabaikan: {}", WORKOUT_CHANNEL, parameter);
+            return;
+        }
+        if (parameter.substring(separator + 1).equals(node)) {
+            return;
+        }
+        UUID userId;
+        try {
+            userId = UUID.fromString(parameter.substring(0, separator));
+        } catch (IllegalArgumentException e) {
+            log.debug("Notifikasi {} diabaikan: {}", WORKOUT_CHANNEL, parameter);
+            return;
+        }
+        dataVersionService.remoteChanged(userId);
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -10,9 +10,11 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final UserCacheInvalidator userCacheInvalidator;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserCacheInvalidator userCacheInvalidator) {
         this.userRepository = userRepository;
+        this.userCacheInvalidator = userCacheInvalidator;
     }
 
     @Transactional
@@ -43,7 +45,9 @@ public class UserService {
         user.setFavoriteWorkoutType(favoriteWorkoutType);
         user.setWeeklyDurationGoal(weeklyDurationGoal);
         user.setDailyCalorieGoal(dailyCalorieGoal);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCacheInvalidator.invalidate(id);
+        return saved;
     }
 
     @Transactional
@@ -53,7 +57,9 @@ public class UserService {
             return null;
         }
         user.setProfilePhoto(photoPath);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCacheInvalidator.invalidate(id);
+        return saved;
     }
 
     @Transactional
@@ -63,7 +69,9 @@ public class UserService {
             return null;
         }
         user.setProfilePhoto(null);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCacheInvalidator.invalidate(id);
+        return saved;
     }
 
     @Transactional
@@ -73,7 +81,9 @@ public class UserService {
             return null;
         }
         user.setPassword(newPassword);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCacheInvalidator.invalidate(id);
+        return saved;
     }
 
 }
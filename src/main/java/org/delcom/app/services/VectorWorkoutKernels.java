@@ -0,0 +1,124 @@
+package org.delcom.app.services;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernel SIMD dengan Vector API (lebar vector terbesar yang didukung CPU),
+ * sisa elemen di ekor diproses skalar. Kelas ini hanya boleh dimuat jika
+ * modul jdk.incubator.vector ada (lihat {@link WorkoutAggregator#select}).
+ */
+final class VectorWorkoutKernels implements WorkoutKernels {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    public String name() {
+        return "vector";
+    }
+
+    @Override
+    public long sum(int[] values, int from, int to) {
+        // Dijumlah di lane long (dua bagian per vector int) supaya hasilnya sama dengan loop skalar tanpa overflow
+        LongVector total = LongVector.zero(LONGS);
+        int i = from;
+        for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+            IntVector vector = IntVector.fromArray(INTS, values, i);
+            total = total.add((LongVector) vector.convertShape(VectorOperators.I2L, LONGS, 0))
+                    .add((LongVector) vector.convertShape(VectorOperators.I2L, LONGS, 1));
+        }
+        long sum = total.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public long sum(long[] values, int from, int to) {
+        LongVector total = LongVector.zero(LONGS);
+        int i = from;
+        for (int bound = from + LONGS.loopBound(to - from); i < bound; i += LONGS.length()) {
+            total = total.add(LongVector.fromArray(LONGS, values, i));
+        }
+        long sum = total.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public void countByType(byte[] types, int from, int to, long[] counts) {
+        // Satu lintasan compare per tipe (jumlah tipe kecil), dihitung dari mask tanpa cabang per baris
+        int bound = from + BYTES.loopBound(to - from);
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            byte type = (byte) ordinal;
+            long count = 0;
+            for (int i = from; i < bound; i += BYTES.length()) {
+                count += ByteVector.fromArray(BYTES, types, i).eq(type).trueCount();
+            }
+            counts[ordinal] += count;
+        }
+        for (int i = bound; i < to; i++) {
+            counts[types[i]]++;
+        }
+    }
+
+    @Override
+    public long sumInts(MemorySegment column, int from, int to) {
+        LongVector total = LongVector.zero(LONGS);
+        int i = from;
+        for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+            IntVector vector = IntVector.fromMemorySegment(INTS, column, (long) i * Integer.BYTES,
+                    ByteOrder.LITTLE_ENDIAN);
+            total = total.add((LongVector) vector.convertShape(VectorOperators.I2L, LONGS, 0))
+                    .add((LongVector) vector.convertShape(VectorOperators.I2L, LONGS, 1));
+        }
+        long sum = total.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            sum += column.getAtIndex(INT, i);
+        }
+        return sum;
+    }
+
+    @Override
+    public long sumLongs(MemorySegment column, int from, int to) {
+        LongVector total = LongVector.zero(LONGS);
+        int i = from;
+        for (int bound = from + LONGS.loopBound(to - from); i < bound; i += LONGS.length()) {
+            total = total.add(LongVector.fromMemorySegment(LONGS, column, (long) i * Long.BYTES,
+                    ByteOrder.LITTLE_ENDIAN));
+        }
+        long sum = total.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            sum += column.getAtIndex(LONG, i);
+        }
+        return sum;
+    }
+
+    @Override
+    public void countByType(MemorySegment types, int from, int to, long[] counts) {
+        int bound = from + BYTES.loopBound(to - from);
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            byte type = (byte) ordinal;
+            long count = 0;
+            for (int i = from; i < bound; i += BYTES.length()) {
+                count += ByteVector.fromMemorySegment(BYTES, types, i, ByteOrder.LITTLE_ENDIAN).eq(type).trueCount();
+            }
+            counts[ordinal] += count;
+        }
+        for (int i = bound; i < to; i++) {
+            counts[types.get(ValueLayout.JAVA_BYTE, i)]++;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.delcom.app.services;
+
+import java.lang.foreign.MemorySegment;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.delcom.app.enums.WorkoutType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Agregasi massal atas {@link WorkoutColumns}: total, histogram per tipe dan
+ * total per tanggal. Memakai kernel SIMD ({@link VectorWorkoutKernels}) jika
+ * JVM dijalankan dengan {@code --add-modules jdk.incubator.vector} dan
+ * {@code app.workout-aggregation.vector} aktif; selain itu loop skalar dengan
+ * hasil yang sama.
+ *
+ * Untuk {@link WorkoutHistoryFile}, kernel berjalan langsung atas kolom
+ * buffer-nya (mapping file) lalu hasilnya dikoreksi dengan delta (baris yang ditambah dan dihapus sejak
+ * buffer ditulis).
+ */
+@Component
+public class WorkoutAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkoutAggregator.class);
+    private static final WorkoutType[] TYPES = WorkoutType.values();
+
+    public record Totals(long workouts, long durationMinutes, double caloriesBurned) {
+    }
+
+    private final WorkoutKernels kernels;
+
+    public WorkoutAggregator(@Value("${app.workout-aggregation.vector:true}") boolean vector) {
+        this.kernels = select(vector, ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+        log.info("Kernel agregasi workout: {}", kernels.name());
+    }
+
+    // VectorWorkoutKernels baru dimuat di sini, jadi tanpa modulnya kelas itu tidak pernah disentuh
+    static WorkoutKernels select(boolean vector, boolean vectorModulePresent) {
+        return vector && vectorModulePresent ? new VectorWorkoutKernels() : new ScalarWorkoutKernels();
+    }
+
+    public String kernel() {
+        return kernels.name();
+    }
+
+    public Totals totals(WorkoutColumns columns) {
+        return new Totals(columns.size, kernels.sum(columns.durations, 0, columns.size),
+                kernels.sum(columns.calories, 0, columns.size) / 100.0);
+    }
+
+    public Totals totals(WorkoutHistoryFile history) {
+        int rows = history.bufferRows();
+        WorkoutColumns added = history.added();
+        WorkoutColumns removed = history.removed();
+        long durationMinutes = kernels.sumInts(history.durations(), 0, rows)
+                + kernels.sum(added.durations, 0, added.size) - kernels.sum(removed.durations, 0, removed.size);
+        long calories = kernels.sumLongs(history.calories(), 0, rows)
+                + kernels.sum(added.calories, 0, added.size) - kernels.sum(removed.calories, 0, removed.size);
+        return new Totals(history.count(), durationMinutes, calories / 100.0);
+    }
+
+    // Jumlah workout per tipe, index = ordinal WorkoutType
+    public long[] countByType(WorkoutColumns columns) {
+        long[] counts = new long[TYPES.length];
+        kernels.countByType(columns.types, 0, columns.size, counts);
+        return counts;
+    }
+
+    /**
+     * Baris [tanggal, total durasi] urut tanggal, bentuk sama dengan
+     * WorkoutRepository.findDailyDurationStats. Kolom harus urut tanggal
+     * (seperti {@link WorkoutHistoryFile#columns}); setiap rentang hari yang
+     * sama dijumlah dengan kernel.
+     */
+    public List<Object[]> dailyDurations(WorkoutColumns columns) {
+        List<Object[]> rows = new ArrayList<>();
+        int start = 0;
+        while (start < columns.size) {
+            int day = columns.days[start];
+            int end = start + 1;
+            while (end < columns.size && columns.days[end] == day) {
+                end++;
+            }
+            rows.add(new Object[] { LocalDate.ofEpochDay(day), kernels.sum(columns.durations, start, end) });
+            start = end;
+        }
+        return rows;
+    }
+
+    public long[] countByType(WorkoutHistoryFile history) {
+        long[] counts = new long[TYPES.length];
+        kernels.countByType(history.types(), 0, history.bufferRows(), counts);
+        WorkoutColumns added = history.added();
+        kernels.countByType(added.types, 0, added.size, counts);
+        long[] removed = countByType(history.removed());
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            counts[ordinal] -= removed[ordinal];
+        }
+        return counts;
+    }
+
+    /**
+     * Seperti {@link #dailyDurations(WorkoutColumns)} untuk riwayat lengkap:
+     * total harian kolom buffer ditambah koreksi delta; tanggal yang semua
+     * barisnya sudah dihapus tidak muncul.
+     */
+    public List<Object[]> dailyDurations(WorkoutHistoryFile history) {
+        MemorySegment days = history.days();
+        int rows = history.bufferRows();
+        // Epoch day -> {jumlah baris, total durasi}
+        TreeMap<Integer, long[]> changes = new TreeMap<>();
+        change(changes, history.added(), 1);
+        change(changes, history.removed(), -1);
+        List<Object[]> result = new ArrayList<>();
+        int start = 0;
+        while (start < rows) {
+            int day = days.getAtIndex(WorkoutKernels.INT, start);
+            int end = start + 1;
+            while (end < rows && days.getAtIndex(WorkoutKernels.INT, end) == day) {
+                end++;
+            }
+            // Tanggal yang hanya ada di delta (selalu baris tambahan, jadi jumlahnya positif)
+            for (Map.Entry<Integer, long[]> before = changes.firstEntry(); before != null
+                    && before.getKey() < day; before = changes.firstEntry()) {
+                changes.pollFirstEntry();
+                result.add(new Object[] { LocalDate.ofEpochDay(before.getKey()), before.getValue()[1] });
+            }
+            long workouts = end - start;
+            long minutes = kernels.sumInts(history.durations(), start, end);
+            long[] change = changes.remove(day);
+            if (change != null) {
+                workouts += change[0];
+                minutes += change[1];
+            }
+            if (workouts > 0) {
+                result.add(new Object[] { LocalDate.ofEpochDay(day), minutes });
+            }
+            start = end;
+        }
+        changes.forEach((day, change) -> result.add(new Object[] { LocalDate.ofEpochDay(day), change[1] }));
+        return result;
+    }
+
+    private static void change(TreeMap<Integer, long[]> changes, WorkoutColumns rows, int sign) {
+        for (int i = 0; i < rows.size; i++) {
+            long[] change = changes.computeIfAbsent(rows.days[i], day -> new long[2]);
+            change[0] += sign;
+            change[1] += sign * (long) rows.durations[i];
+        }
+    }
+
+    public List<Object[]> typeCounts(WorkoutHistoryFile history) {
+        return typeRows(countByType(history));
+    }
+
+    // Baris [tipe, jumlah] untuk tipe yang muncul, bentuk sama dengan WorkoutRepository.findTypeStats
+    public List<Object[]> typeCounts(WorkoutColumns columns) {
+        return typeRows(countByType(columns));
+    }
+
+    private static List<Object[]> typeRows(long[] counts) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            if (counts[ordinal] > 0) {
+                rows.add(new Object[] { TYPES[ordinal], counts[ordinal] });
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,13 @@
+package org.delcom.app.services;
+
+/**
+ * Ringkasan satu kali jalan job partisi dan arsip workout.
+ *
+ * @param partitionsCreated  partisi tahun ini/tahun depan yang baru dibuat
+ * @param partitionsArchived partisi yang isinya ditulis ke cold storage
+ * @param rowsArchived       jumlah workout di partisi-partisi itu
+ * @param partitionsDropped  partisi yang tabelnya dihapus setelah tercatat di manifest
+ */
+public record WorkoutArchiveReport(int partitionsCreated, int partitionsArchived, long rowsArchived,
+        int partitionsDropped, long durationMillis) {
+}
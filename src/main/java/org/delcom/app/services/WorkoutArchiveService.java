@@ -0,0 +1,795 @@
+package org.delcom.app.services;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.delcom.app.repositories.WorkoutPartitionRepository;
+import org.delcom.app.repositories.WorkoutPartitionRepository.Partition;
+import org.delcom.app.storage.BlobStore;
+import org.delcom.app.storage.BoundedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Partisi tahunan tabel workouts dan cold storage untuk tahun-tahun lama.
+ *
+ * Job harian (di setiap shard): partisi tahun ini dan tahun depan dibuat jika
+ * belum ada. Jika {@code app.workout-archive.enabled}, partisi yang lebih tua
+ * dari {@code retention-years} di-detach, isinya ditulis ke BlobStore arsip
+ * ({@code archiveBlobStore}, terpisah dari upload yang disajikan publik; satu
+ * blob per bucket user), dicatat di manifest, baru kemudian tabelnya di-drop.
+ * Di dalam blob, baris satu user ditulis sebagai satu segmen gzip yang
+ * offset-nya dicatat di index bucket ({@link #indexKey}).
+ * Job yang terhenti di tengah jalan dilanjutkan pada run berikutnya: partisi yang
+ * sudah di-detach tapi belum tercatat diekspor ulang.
+ *
+ * Workout bertanggal tahun yang sudah diarsipkan yang masuk belakangan (jatuh
+ * ke {@code workouts_default}) dipindah ke blob arsip tahun itu pada run
+ * berikutnya. Setiap partisi arsip juga punya index image_path
+ * ({@link #imagesKey}) supaya UploadGarbageCollector tidak mengarantina cover
+ * workout arsip.
+ *
+ * {@link #findArchived} membaca kembali workout arsip milik satu user (hanya
+ * segmen user itu, lewat pembacaan sebagian blob) untuk riwayat penuh di
+ * WorkoutService, di-cache per user. Jika arsip tidak terbaca, hanya data aktif
+ * yang dikembalikan. Workout arsip read-only. Seperti UploadGarbageCollector, job cukup aktif di
+ * satu instance; instance lain melihat arsip baru setelah {@code refresh-minutes}.
+ */
+@Service
+public class WorkoutArchiveService {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutArchiveService.class);
+
+    static final String MANIFEST_KEY = "archive_workouts_manifest.txt";
+    // "WKA1": versi format blob arsip
+    static final int MAGIC = 0x574B4131;
+
+    /**
+     * Satu partisi yang sudah diarsipkan; satu baris di manifest.
+     *
+     * @param source  shard asal, atau ShardRouter.DEFAULT_SHARD tanpa sharding
+     * @param buckets jumlah bucket saat diekspor (menentukan blob milik user)
+     */
+    record ManifestEntry(String source, int year, int buckets, long rows, Instant archivedAt) {
+
+        String id() {
+            return source + "/" + year;
+        }
+    }
+
+    /**
+     * @param appended entry manifest yang isinya bertambah baris terlambat
+     * @param lateRows jumlah baris terlambat yang masuk arsip
+     */
+    private record ShardResult(int created, List<ManifestEntry> archived, List<ManifestEntry> appended,
+            long lateRows) {
+    }
+
+    // Rentang byte baris satu user di blob bucket; satu baris di index bucket
+    record Segment(UUID userId, long offset, long length) {
+    }
+
+    // Membaca baris blob arsip satu per satu
+    @FunctionalInterface
+    interface RowSink {
+        void accept(Workout workout) throws IOException;
+    }
+
+    // Membaca segmen blob bucket satu per satu; stream segmen tidak perlu dibaca habis
+    @FunctionalInterface
+    private interface SegmentSink {
+        void accept(Segment segment, InputStream part) throws IOException;
+    }
+
+    private final BlobStore blobStore;
+    private final WorkoutPartitionRepository partitionRepository;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final int retentionYears;
+    private final int buckets;
+    private final Cache<String, List<ManifestEntry>> manifest;
+    private final Cache<UUID, List<Workout>> archived;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private volatile WorkoutArchiveReport lastReport;
+
+    public WorkoutArchiveService(@Qualifier("archiveBlobStore") BlobStore blobStore,
+            WorkoutPartitionRepository partitionRepository,
+            ShardRouter shardRouter,
+            @Value("${app.workout-archive.enabled:false}") boolean enabled,
+            @Value("${app.workout-archive.retention-years:2}") int retentionYears,
+            @Value("${app.workout-archive.buckets:64}") int buckets,
+            @Value("${app.workout-archive.cache-size:1000}") long cacheSize,
+            @Value("${app.workout-archive.refresh-minutes:5}") long refreshMinutes) {
+        this.blobStore = blobStore;
+        this.partitionRepository = partitionRepository;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.retentionYears = Math.max(retentionYears, 1);
+        this.buckets = Math.max(buckets, 1);
+        Duration refresh = Duration.ofMinutes(Math.max(refreshMinutes, 1));
+        this.manifest = Caffeine.newBuilder().expireAfterWrite(refresh).build();
+        this.archived = Caffeine.newBuilder()
+                .maximumSize(Math.max(cacheSize, 0))
+                .expireAfterWrite(refresh)
+                .recordStats()
+                .build();
+    }
+
+    @Scheduled(cron = "${app.workout-archive.cron:0 0 4 * * *}")
+    public void scheduledRun() {
+        run();
+    }
+
+    public WorkoutArchiveReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Workout arsip milik user (salinan, terbaru dulu); kosong jika belum ada
+     * partisi yang diarsipkan, atau jika arsip sedang tidak terbaca (tidak
+     * di-cache, jadi dicoba lagi pada permintaan berikutnya).
+     */
+    public List<Workout> findArchived(UUID userId) {
+        try {
+            List<ManifestEntry> entries = manifest.get(MANIFEST_KEY, key -> readManifest());
+            if (entries.isEmpty()) {
+                return List.of();
+            }
+            return archived.get(userId, id -> load(id, entries)).stream().map(Workout::copy).toList();
+        } catch (UncheckedIOException e) {
+            log.warn("Arsip workout tidak terbaca, hanya data aktif yang dipakai untuk user {}", userId, e);
+            return List.of();
+        }
+    }
+
+    public Optional<Workout> findArchived(UUID userId, UUID id) {
+        return findArchived(userId).stream().filter(workout -> workout.getId().equals(id)).findFirst();
+    }
+
+    /**
+     * Semua image_path workout arsip, untuk UploadGarbageCollector. Manifest
+     * selalu dibaca ulang dari BlobStore, bukan dari cache.
+     */
+    public Set<String> findArchivedImagePaths() {
+        Set<String> images = new HashSet<>();
+        for (ManifestEntry entry : readManifest()) {
+            images.addAll(readImages(entry));
+        }
+        return images;
+    }
+
+    /**
+     * @return laporan, atau null jika job lain sedang berjalan atau gagal
+     */
+    public WorkoutArchiveReport run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Arsip workout sedang berjalan, dilewati");
+            return null;
+        }
+        try {
+            long start = System.nanoTime();
+            int year = LocalDate.now().getYear();
+            // Selalu dibaca ulang dari BlobStore, bukan dari cache
+            Map<String, ManifestEntry> entries = new LinkedHashMap<>();
+            readManifest().forEach(entry -> entries.put(entry.id(), entry));
+
+            Map<String, ShardResult> results = shardRouter.fanOut(shard -> maintain(shard, year, entries));
+            int created = 0;
+            long lateRows = 0;
+            List<ManifestEntry> exported = new ArrayList<>();
+            List<ManifestEntry> appended = new ArrayList<>();
+            for (ShardResult result : results.values()) {
+                created += result.created();
+                exported.addAll(result.archived());
+                appended.addAll(result.appended());
+                lateRows += result.lateRows();
+            }
+            if (!exported.isEmpty() || !appended.isEmpty()) {
+                exported.forEach(entry -> entries.put(entry.id(), entry));
+                appended.forEach(entry -> entries.put(entry.id(), entry));
+                writeManifest(List.copyOf(entries.values()));
+            }
+            // Tabel baru di-drop setelah manifest tersimpan, jadi datanya selalu bisa dibaca dari salah satu sisi
+            int dropped = shardRouter.fanOut(shard -> dropArchived(shard, year, entries)).values().stream()
+                    .mapToInt(Integer::intValue).sum();
+
+            WorkoutArchiveReport report = new WorkoutArchiveReport(created, exported.size(),
+                    exported.stream().mapToLong(ManifestEntry::rows).sum() + lateRows, dropped,
+                    (System.nanoTime() - start) / 1_000_000);
+            log.info("Arsip workout selesai: created={} archived={} rows={} dropped={} durationMs={}",
+                    report.partitionsCreated(), report.partitionsArchived(), report.rowsArchived(),
+                    report.partitionsDropped(), report.durationMillis());
+            lastReport = report;
+            return report;
+        } catch (RuntimeException e) {
+            log.error("Arsip workout gagal", e);
+            return null;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ShardResult maintain(String shard, int year, Map<String, ManifestEntry> entries) {
+        if (!partitionRepository.isPartitioned()) {
+            return new ShardResult(0, List.of(), List.of(), 0);
+        }
+        int created = 0;
+        for (int ahead = year; ahead <= year + 1; ahead++) {
+            if (partitionRepository.createYear(ahead)) {
+                created++;
+            }
+        }
+        List<ManifestEntry> exported = new ArrayList<>();
+        if (!enabled) {
+            return new ShardResult(created, exported, List.of(), 0);
+        }
+        for (Partition partition : partitionRepository.findYearPartitions()) {
+            if (partition.year() >= year - retentionYears) {
+                continue;
+            }
+            if (partition.attached()) {
+                partitionRepository.detachYear(partition.year());
+                exported.add(export(shard, partition.year()));
+            } else if (!entries.containsKey(shard + "/" + partition.year())) {
+                exported.add(export(shard, partition.year()));
+            }
+        }
+        List<ManifestEntry> appended = new ArrayList<>();
+        long lateRows = 0;
+        for (ManifestEntry entry : entries.values()) {
+            if (entry.source().equals(shard)) {
+                ManifestEntry updated = archiveLateRows(entry);
+                if (updated != null) {
+                    appended.add(updated);
+                    lateRows += updated.rows() - entry.rows();
+                }
+            }
+        }
+        return new ShardResult(created, exported, appended, lateRows);
+    }
+
+    private int dropArchived(String shard, int year, Map<String, ManifestEntry> entries) {
+        if (!enabled || !partitionRepository.isPartitioned()) {
+            return 0;
+        }
+        int dropped = 0;
+        for (Partition partition : partitionRepository.findYearPartitions()) {
+            if (!partition.attached() && partition.year() < year - retentionYears
+                    && entries.containsKey(shard + "/" + partition.year())) {
+                partitionRepository.dropYear(partition.year());
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    // Isi partisi (sudah di-detach, jadi tidak berubah lagi) -> satu blob per bucket user, plus index-nya
+    private ManifestEntry export(String shard, int year) {
+        try (BucketFiles files = new BucketFiles(buckets)) {
+            long[] rows = { 0 };
+            Set<String> images = new TreeSet<>();
+            partitionRepository.streamYear(year, rs -> {
+                Workout workout = toWorkout(rs);
+                try {
+                    writeRow(files.out(bucket(workout.getUserId(), buckets), workout.getUserId()), workout);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                addImage(images, workout);
+                rows[0]++;
+            });
+            files.finish();
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                Path file = files.file(bucket);
+                if (file == null) {
+                    // Sisa ekspor sebelumnya untuk bucket yang sekarang kosong
+                    blobStore.delete(key(shard, year, bucket));
+                    blobStore.delete(indexKey(shard, year, bucket));
+                    continue;
+                }
+                putBucket(shard, year, bucket, files);
+            }
+            writeImages(shard, year, images);
+            log.info("Partisi workouts_y{} shard {} diarsipkan: {} baris", year, shard, rows[0]);
+            return new ManifestEntry(shard, year, buckets, rows[0], Instant.now());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Memindahkan baris terlambat satu tahun arsip dari workouts_default ke blob
+     * arsipnya. Baris baru dihapus dari database setelah blob dan index image
+     * tersimpan; baris yang id-nya sudah ada di blob (run sebelumnya gagal
+     * setelah menulis blob) tidak ditulis dua kali.
+     *
+     * @return entry manifest dengan jumlah baris baru, atau null jika tidak ada baris terlambat
+     */
+    private ManifestEntry archiveLateRows(ManifestEntry entry) {
+        List<Workout> late = new ArrayList<>();
+        long[] added = { 0 };
+        partitionRepository.drainDefaultYear(entry.year(), rs -> late.add(toWorkout(rs)),
+                () -> added[0] = late.isEmpty() ? 0 : append(entry, late));
+        if (added[0] == 0) {
+            return null;
+        }
+        log.info("{} workout terlambat tahun {} shard {} dipindah ke arsip", added[0], entry.year(), entry.source());
+        return new ManifestEntry(entry.source(), entry.year(), entry.buckets(), entry.rows() + added[0],
+                entry.archivedAt());
+    }
+
+    /**
+     * Blob bucket yang terkena ditulis ulang: segmen user lain disalin apa
+     * adanya (tanpa dekompresi), segmen user yang mendapat baris terlambat
+     * ditulis ulang berikut baris barunya.
+     */
+    private long append(ManifestEntry entry, List<Workout> late) {
+        Map<Integer, Map<UUID, List<Workout>>> byBucket = new TreeMap<>();
+        for (Workout workout : late) {
+            byBucket.computeIfAbsent(bucket(workout.getUserId(), entry.buckets()), bucket -> new LinkedHashMap<>())
+                    .computeIfAbsent(workout.getUserId(), userId -> new ArrayList<>()).add(workout);
+        }
+        Set<String> images = readImages(entry);
+        long added = 0;
+        try (BucketFiles files = new BucketFiles(entry.buckets())) {
+            for (Map.Entry<Integer, Map<UUID, List<Workout>>> group : byBucket.entrySet()) {
+                added += appendBucket(entry, group.getKey(), group.getValue(), files, images);
+            }
+            files.finish();
+            for (int bucket : byBucket.keySet()) {
+                putBucket(entry.source(), entry.year(), bucket, files);
+            }
+            writeImages(entry.source(), entry.year(), images);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return added;
+    }
+
+    private long appendBucket(ManifestEntry entry, int bucket, Map<UUID, List<Workout>> late, BucketFiles files,
+            Set<String> images) throws IOException {
+        // Baris lama milik user yang ditulis ulang
+        Map<UUID, List<Workout>> existing = new LinkedHashMap<>();
+        RowSink keep = workout -> existing.computeIfAbsent(workout.getUserId(), userId -> new ArrayList<>())
+                .add(workout);
+        try (InputStream blob = blobStore.get(key(entry.source(), entry.year(), bucket))) {
+            if (blob != null) {
+                List<Segment> index = readIndex(entry.source(), entry.year(), bucket);
+                if (index == null) {
+                    // Blob dari sebelum ada index: semua baris ditulis ulang per user
+                    readRows(blob, keep);
+                } else {
+                    readSegments(blob, index, (segment, part) -> {
+                        if (late.containsKey(segment.userId())) {
+                            readRows(part, keep);
+                        } else {
+                            files.copy(bucket, segment.userId(), part);
+                        }
+                    });
+                }
+            }
+        }
+        late.keySet().forEach(userId -> existing.computeIfAbsent(userId, id -> new ArrayList<>()));
+        long added = 0;
+        for (Map.Entry<UUID, List<Workout>> user : existing.entrySet()) {
+            DataOutputStream out = files.out(bucket, user.getKey());
+            Set<UUID> ids = new HashSet<>();
+            for (Workout workout : user.getValue()) {
+                ids.add(workout.getId());
+                writeRow(out, workout);
+            }
+            for (Workout workout : late.getOrDefault(user.getKey(), List.of())) {
+                if (ids.add(workout.getId())) {
+                    writeRow(out, workout);
+                    addImage(images, workout);
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    // Blob dulu, baru index-nya: index tidak pernah menunjuk ke segmen yang belum tersimpan
+    private void putBucket(String source, int year, int bucket, BucketFiles files) throws IOException {
+        Path file = files.file(bucket);
+        try (InputStream in = Files.newInputStream(file)) {
+            blobStore.put(key(source, year, bucket), in, Files.size(file), "application/gzip");
+        }
+        StringBuilder text = new StringBuilder();
+        for (Segment segment : files.segments(bucket)) {
+            text.append(segment.userId()).append(' ').append(segment.offset()).append(' ')
+                    .append(segment.length()).append('\n');
+        }
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        blobStore.put(indexKey(source, year, bucket), new ByteArrayInputStream(bytes), bytes.length, "text/plain");
+    }
+
+    // Format per baris: "<user id> <offset> <panjang>"; null jika blob dibuat sebelum ada index
+    private List<Segment> readIndex(String source, int year, int bucket) throws IOException {
+        try (InputStream in = blobStore.get(indexKey(source, year, bucket))) {
+            if (in == null) {
+                return null;
+            }
+            List<Segment> segments = new ArrayList<>();
+            new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().forEach(line -> {
+                String[] fields = line.split(" ");
+                segments.add(new Segment(UUID.fromString(fields[0]), Long.parseLong(fields[1]),
+                        Long.parseLong(fields[2])));
+            });
+            return segments;
+        }
+    }
+
+    // Semua baris satu blob bucket, dengan atau tanpa index
+    private void readBucket(String source, int year, int bucket, InputStream blob, RowSink sink)
+            throws IOException {
+        List<Segment> index = readIndex(source, year, bucket);
+        if (index == null) {
+            readRows(blob, sink);
+        } else {
+            readSegments(blob, index, (segment, part) -> readRows(part, sink));
+        }
+    }
+
+    // Segmen dibaca berurutan dari satu stream blob (index ditulis urut offset)
+    private static void readSegments(InputStream blob, List<Segment> index, SegmentSink sink) throws IOException {
+        long position = 0;
+        for (Segment segment : index) {
+            blob.skipNBytes(segment.offset() - position);
+            InputStream part = new BoundedInputStream(blob, segment.length(), false);
+            sink.accept(segment, part);
+            part.transferTo(OutputStream.nullOutputStream());
+            position = segment.offset() + segment.length();
+        }
+    }
+
+    // Index image satu partisi arsip; arsip yang dibuat sebelum ada index dibaca dari blob bucket-nya
+    private Set<String> readImages(ManifestEntry entry) {
+        Set<String> images = new TreeSet<>();
+        try (InputStream index = blobStore.get(imagesKey(entry.source(), entry.year()))) {
+            if (index != null) {
+                new String(index.readAllBytes(), StandardCharsets.UTF_8).lines().forEach(images::add);
+                return images;
+            }
+            for (int bucket = 0; bucket < entry.buckets(); bucket++) {
+                try (InputStream blob = blobStore.get(key(entry.source(), entry.year(), bucket))) {
+                    if (blob != null) {
+                        readBucket(entry.source(), entry.year(), bucket, blob, workout -> addImage(images, workout));
+                    }
+                }
+            }
+            return images;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Satu nama file per baris
+    private void writeImages(String source, int year, Set<String> images) throws IOException {
+        StringBuilder text = new StringBuilder();
+        images.forEach(image -> text.append(image).append('\n'));
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        blobStore.put(imagesKey(source, year), new ByteArrayInputStream(bytes), bytes.length, "text/plain");
+    }
+
+    private static void addImage(Set<String> images, Workout workout) {
+        if (workout.getImagePath() != null) {
+            images.add(workout.getImagePath());
+        }
+    }
+
+    // Per partisi arsip: hanya segmen user ini yang diunduh dan didekompresi
+    private List<Workout> load(UUID userId, List<ManifestEntry> entries) {
+        List<Workout> workouts = new ArrayList<>();
+        try {
+            for (ManifestEntry entry : entries) {
+                int bucket = bucket(userId, entry.buckets());
+                String key = key(entry.source(), entry.year(), bucket);
+                List<Segment> index = readIndex(entry.source(), entry.year(), bucket);
+                if (index == null) {
+                    try (InputStream blob = blobStore.get(key)) {
+                        if (blob != null) {
+                            readRows(blob, userId, workouts);
+                        }
+                    }
+                    continue;
+                }
+                for (Segment segment : index) {
+                    if (segment.userId().equals(userId)) {
+                        try (InputStream part = blobStore.get(key, segment.offset(), segment.length())) {
+                            if (part != null) {
+                                readRows(part, userId, workouts);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        workouts.sort(RecentWorkoutCache.NEWEST_FIRST);
+        return List.copyOf(workouts);
+    }
+
+    private List<ManifestEntry> readManifest() {
+        List<ManifestEntry> entries = new ArrayList<>();
+        try (InputStream in = blobStore.get(MANIFEST_KEY)) {
+            if (in == null) {
+                return entries;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    String[] fields = line.trim().split(" ");
+                    entries.add(new ManifestEntry(fields[0], Integer.parseInt(fields[1]),
+                            Integer.parseInt(fields[2]), Long.parseLong(fields[3]), Instant.parse(fields[4])));
+                }
+            }
+            return entries;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Format per baris: "<shard> <tahun> <bucket> <jumlah baris> <waktu arsip ISO-8601>"
+    private void writeManifest(List<ManifestEntry> entries) {
+        StringBuilder text = new StringBuilder();
+        for (ManifestEntry entry : entries) {
+            text.append(entry.source()).append(' ').append(entry.year()).append(' ').append(entry.buckets())
+                    .append(' ').append(entry.rows()).append(' ').append(entry.archivedAt()).append('\n');
+        }
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            blobStore.put(MANIFEST_KEY, new ByteArrayInputStream(bytes), bytes.length, "text/plain");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        manifest.invalidateAll();
+        archived.invalidateAll();
+    }
+
+    static String key(String source, int year, int bucket) {
+        return "archive_workouts_" + source + "_" + year + "_" + bucket + ".bin.gz";
+    }
+
+    static String indexKey(String source, int year, int bucket) {
+        return "archive_workouts_" + source + "_" + year + "_" + bucket + ".idx";
+    }
+
+    static String imagesKey(String source, int year) {
+        return "archive_workouts_" + source + "_" + year + "_images.txt";
+    }
+
+    static int bucket(UUID userId, int buckets) {
+        return Math.floorMod(userId.hashCode(), buckets);
+    }
+
+    static Workout toWorkout(ResultSet rs) throws SQLException {
+        Workout workout = new Workout(rs.getObject("user_id", UUID.class), rs.getString("title"),
+                rs.getString("description"), rs.getInt("duration_minutes"), rs.getDouble("calories_burned"),
+                rs.getObject("date", LocalDate.class), WorkoutType.valueOf(rs.getString("type")),
+                rs.getString("image_path"));
+        workout.setId(rs.getObject("id", UUID.class));
+        workout.setTimestamps(rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class));
+        return workout;
+    }
+
+    // Satu baris: penanda true lalu semua kolom; blob diakhiri penanda false
+    static void writeRow(DataOutputStream out, Workout workout) throws IOException {
+        out.writeBoolean(true);
+        writeUuid(out, workout.getId());
+        writeUuid(out, workout.getUserId());
+        out.writeUTF(workout.getTitle());
+        out.writeUTF(workout.getDescription());
+        out.writeInt(workout.getDurationMinutes());
+        out.writeDouble(workout.getCaloriesBurned());
+        out.writeLong(workout.getDate().toEpochDay());
+        out.writeUTF(workout.getType().name());
+        String imagePath = workout.getImagePath();
+        out.writeBoolean(imagePath != null);
+        if (imagePath != null) {
+            out.writeUTF(imagePath);
+        }
+        writeTimestamp(out, workout.getCreatedAt());
+        writeTimestamp(out, workout.getUpdatedAt());
+    }
+
+    static void readRows(InputStream blob, UUID userId, List<Workout> into) throws IOException {
+        readRows(blob, workout -> {
+            if (workout.getUserId().equals(userId)) {
+                into.add(workout);
+            }
+        });
+    }
+
+    static void readRows(InputStream blob, RowSink sink) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(blob)));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Format arsip workout tidak dikenal");
+        }
+        while (in.readBoolean()) {
+            UUID id = new UUID(in.readLong(), in.readLong());
+            UUID owner = new UUID(in.readLong(), in.readLong());
+            String title = in.readUTF();
+            String description = in.readUTF();
+            int durationMinutes = in.readInt();
+            double caloriesBurned = in.readDouble();
+            LocalDate date = LocalDate.ofEpochDay(in.readLong());
+            WorkoutType type = WorkoutType.valueOf(in.readUTF());
+            String imagePath = in.readBoolean() ? in.readUTF() : null;
+            LocalDateTime createdAt = readTimestamp(in);
+            LocalDateTime updatedAt = readTimestamp(in);
+            Workout workout = new Workout(owner, title, description, durationMinutes, caloriesBurned, date, type,
+                    imagePath);
+            workout.setId(id);
+            workout.setTimestamps(createdAt, updatedAt);
+            sink.accept(workout);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+        out.writeLong(value.getMostSignificantBits());
+        out.writeLong(value.getLeastSignificantBits());
+    }
+
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    /**
+     * File sementara per bucket, dibuka saat baris pertama bucket itu ditulis;
+     * dihapus saat close. Setiap pergantian user memulai segmen (member gzip)
+     * baru, jadi baris satu user sebaiknya ditulis berurutan. Segmen yang
+     * sedang ditulis (baris satu user, kecil) ditampung di memori.
+     */
+    private static class BucketFiles implements AutoCloseable {
+        private final Path dir;
+        private final Path[] files;
+        private final OutputStream[] fileOuts;
+        private final long[] sizes;
+        private final List<List<Segment>> segments = new ArrayList<>();
+        private final UUID[] owners;
+        private final ByteArrayOutputStream[] buffers;
+        private final DataOutputStream[] outs;
+
+        BucketFiles(int buckets) throws IOException {
+            this.dir = Files.createTempDirectory("workout-archive-");
+            this.files = new Path[buckets];
+            this.fileOuts = new OutputStream[buckets];
+            this.sizes = new long[buckets];
+            this.owners = new UUID[buckets];
+            this.buffers = new ByteArrayOutputStream[buckets];
+            this.outs = new DataOutputStream[buckets];
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                segments.add(new ArrayList<>());
+            }
+        }
+
+        DataOutputStream out(int bucket, UUID userId) throws IOException {
+            if (outs[bucket] == null || !owners[bucket].equals(userId)) {
+                endSegment(bucket);
+                owners[bucket] = userId;
+                buffers[bucket] = new ByteArrayOutputStream();
+                outs[bucket] = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(buffers[bucket])));
+                outs[bucket].writeInt(MAGIC);
+            }
+            return outs[bucket];
+        }
+
+        // Segmen yang sudah jadi disalin tanpa dekompresi
+        void copy(int bucket, UUID userId, InputStream segment) throws IOException {
+            endSegment(bucket);
+            long length = segment.transferTo(open(bucket));
+            segments.get(bucket).add(new Segment(userId, sizes[bucket], length));
+            sizes[bucket] += length;
+        }
+
+        Path file(int bucket) {
+            return files[bucket];
+        }
+
+        List<Segment> segments(int bucket) {
+            return segments.get(bucket);
+        }
+
+        void finish() throws IOException {
+            for (int bucket = 0; bucket < files.length; bucket++) {
+                endSegment(bucket);
+                if (fileOuts[bucket] != null) {
+                    fileOuts[bucket].close();
+                    fileOuts[bucket] = null;
+                }
+            }
+        }
+
+        private OutputStream open(int bucket) throws IOException {
+            if (files[bucket] == null) {
+                files[bucket] = dir.resolve(bucket + ".bin.gz");
+                fileOuts[bucket] = new BufferedOutputStream(Files.newOutputStream(files[bucket]));
+            }
+            return fileOuts[bucket];
+        }
+
+        // Penanda akhir dan trailer gzip, lalu segmen dipindah ke file bucket
+        private void endSegment(int bucket) throws IOException {
+            if (outs[bucket] != null) {
+                outs[bucket].writeBoolean(false);
+                outs[bucket].close();
+                outs[bucket] = null;
+                buffers[bucket].writeTo(open(bucket));
+                segments.get(bucket).add(new Segment(owners[bucket], sizes[bucket], buffers[bucket].size()));
+                sizes[bucket] += buffers[bucket].size();
+                buffers[bucket] = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (DataOutputStream out : outs) {
+                if (out != null) {
+                    out.close();
+                }
+            }
+            for (OutputStream out : fileOuts) {
+                if (out != null) {
+                    out.close();
+                }
+            }
+            for (Path file : files) {
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+}
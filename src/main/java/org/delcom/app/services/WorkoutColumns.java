@@ -0,0 +1,54 @@
+package org.delcom.app.services;
+
+import java.util.Arrays;
+
+/**
+ * Kolom workout dalam array primitif untuk agregasi massal
+ * ({@link WorkoutAggregator}): epoch day, durasi (menit), ordinal
+ * WorkoutType dan kalori x 100; index yang sama adalah satu workout.
+ * Bisa dipakai ulang sebagai buffer chunk lewat {@link #clear}.
+ */
+public final class WorkoutColumns {
+
+    int size;
+    int[] days;
+    int[] durations;
+    byte[] types;
+    long[] calories;
+
+    public WorkoutColumns(int capacity) {
+        int initial = Math.max(capacity, 1);
+        days = new int[initial];
+        durations = new int[initial];
+        types = new byte[initial];
+        calories = new long[initial];
+    }
+
+    public void add(int day, int durationMinutes, byte type, long scaledCalories) {
+        if (size == days.length) {
+            int capacity = size * 2;
+            days = Arrays.copyOf(days, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            types = Arrays.copyOf(types, capacity);
+            calories = Arrays.copyOf(calories, capacity);
+        }
+        days[size] = day;
+        durations[size] = durationMinutes;
+        types[size] = type;
+        calories[size] = scaledCalories;
+        size++;
+    }
+
+    // Kalori disimpan sebagai bilangan bulat x 100
+    public static long scaleCalories(double caloriesBurned) {
+        return Math.round(caloriesBurned * 100);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,295 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.enums.WorkoutType;
+
+/**
+ * Riwayat workout satu user dalam format kolumnar, untuk agregasi all-time
+ * (total dashboard, grafik "all", lewat {@link WorkoutAggregator}) tanpa
+ * memuat entity. Baris urut tanggal; setiap kolom lebar tetap, little-endian
+ * dan disimpan berurutan, jadi kernel agregasi berjalan langsung di atas
+ * mapping file tanpa decode ke heap:
+ *
+ * <pre>
+ * header   magic, jumlah baris (int)
+ * tanggal  epoch day (int)
+ * durasi   menit (int)
+ * kalori   kalori x 100 (long)
+ * id       UUID (2 x long)
+ * tipe     ordinal WorkoutType (1 byte)
+ * </pre>
+ *
+ * Immutable. {@link #with} dan {@link #without} tidak menulis ulang buffer:
+ * hasilnya berbagi buffer yang sama plus delta kecil di heap (baris baru dan
+ * baris buffer yang tidak berlaku lagi), yang diperhitungkan oleh
+ * {@link WorkoutAggregator}. {@link #compact} menggabungkan delta ke buffer
+ * baru. Buffer bisa berupa file yang di-mmap ({@link #map}) atau array di heap
+ * ({@link Builder#build}).
+ */
+public final class WorkoutHistoryFile {
+
+    static final int MAGIC = 0x574B4832; // "WKH2"
+    private static final int HEADER_BYTES = 8;
+    // Tanggal, durasi, kalori, id, tipe
+    private static final int ROW_BYTES = 4 + 4 + 8 + 16 + 1;
+    // Perkiraan byte heap per baris delta (entry map, UUID, Row), untuk weigher cache
+    static final int DELTA_ROW_BYTES = 128;
+
+    // Satu baris delta, dalam bentuk yang sama dengan WorkoutColumns
+    private record Row(int day, int duration, byte type, long calories) {
+    }
+
+    private final MemorySegment buffer;
+    private final int count;
+    // Potongan buffer per kolom, diindeks per baris
+    private final MemorySegment days;
+    private final MemorySegment durations;
+    private final MemorySegment calories;
+    private final MemorySegment ids;
+    private final MemorySegment types;
+    // Delta sejak buffer ditulis: baris baru/pengganti, dan baris buffer yang dihapus/diganti (dengan nilainya)
+    private final Map<UUID, Row> added;
+    private final Map<UUID, Row> removed;
+
+    private WorkoutHistoryFile(MemorySegment buffer) {
+        if (buffer.byteSize() < HEADER_BYTES || buffer.get(WorkoutKernels.INT, 0) != MAGIC
+                || buffer.byteSize() != HEADER_BYTES + (long) ROW_BYTES * buffer.get(WorkoutKernels.INT, 4)) {
+            throw new IllegalArgumentException("Bukan file riwayat workout yang utuh");
+        }
+        this.buffer = buffer;
+        this.count = buffer.get(WorkoutKernels.INT, 4);
+        this.days = buffer.asSlice(HEADER_BYTES, 4L * count);
+        this.durations = buffer.asSlice(HEADER_BYTES + 4L * count, 4L * count);
+        this.calories = buffer.asSlice(HEADER_BYTES + 8L * count, 8L * count);
+        this.ids = buffer.asSlice(HEADER_BYTES + 16L * count, 16L * count);
+        this.types = buffer.asSlice(HEADER_BYTES + 32L * count, count);
+        this.added = Map.of();
+        this.removed = Map.of();
+    }
+
+    // Buffer milik base dipakai bersama
+    private WorkoutHistoryFile(WorkoutHistoryFile base, Map<UUID, Row> added, Map<UUID, Row> removed) {
+        this.buffer = base.buffer;
+        this.count = base.count;
+        this.days = base.days;
+        this.durations = base.durations;
+        this.calories = base.calories;
+        this.ids = base.ids;
+        this.types = base.types;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    public static WorkoutHistoryFile wrap(byte[] bytes) {
+        return new WorkoutHistoryFile(MemorySegment.ofArray(bytes));
+    }
+
+    public static WorkoutHistoryFile map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Mapping tetap berlaku setelah channel ditutup, dilepas GC saat tidak dipakai lagi
+            return new WorkoutHistoryFile(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto()));
+        }
+    }
+
+    // Hanya buffer; delta ikut ditulis setelah compact()
+    public void writeTo(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer source = buffer.asByteBuffer();
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+    }
+
+    // Jumlah workout termasuk delta
+    public int count() {
+        return count - removed.size() + added.size();
+    }
+
+    public int sizeInBytes() {
+        return Math.toIntExact(buffer.byteSize());
+    }
+
+    // Baris di delta, untuk menentukan kapan compact()
+    public int deltaRows() {
+        return added.size() + removed.size();
+    }
+
+    // Jumlah baris di buffer, tanpa delta
+    int bufferRows() {
+        return count;
+    }
+
+    // Kolom buffer untuk kernel WorkoutAggregator (layout WorkoutKernels.INT/LONG, tipe 1 byte)
+    MemorySegment days() {
+        return days;
+    }
+
+    MemorySegment durations() {
+        return durations;
+    }
+
+    MemorySegment calories() {
+        return calories;
+    }
+
+    MemorySegment types() {
+        return types;
+    }
+
+    // Baris delta yang ditambahkan (urutan bebas)
+    WorkoutColumns added() {
+        return toColumns(added);
+    }
+
+    // Baris buffer yang tidak berlaku lagi, dengan nilai di buffer (urutan bebas)
+    WorkoutColumns removed() {
+        return toColumns(removed);
+    }
+
+    // Workout dibuat/diubah: baris lama dengan id yang sama diganti
+    public WorkoutHistoryFile with(UUID id, LocalDate date, int durationMinutes, WorkoutType type,
+            double caloriesBurned) {
+        Map<UUID, Row> nextAdded = new HashMap<>(added);
+        nextAdded.put(id, new Row(Math.toIntExact(date.toEpochDay()), durationMinutes, (byte) type.ordinal(),
+                WorkoutColumns.scaleCalories(caloriesBurned)));
+        return new WorkoutHistoryFile(this, Map.copyOf(nextAdded), hide(id));
+    }
+
+    public WorkoutHistoryFile without(UUID id) {
+        Map<UUID, Row> nextAdded = new HashMap<>(added);
+        nextAdded.remove(id);
+        return new WorkoutHistoryFile(this, Map.copyOf(nextAdded), hide(id));
+    }
+
+    // Buffer baru berisi baris buffer yang masih berlaku plus delta
+    public WorkoutHistoryFile compact() {
+        if (deltaRows() == 0) {
+            return this;
+        }
+        Builder builder = rowsExcept(removed.keySet());
+        added.forEach((id, row) -> builder.add(row.day(), row.duration(), row.type(), row.calories(), id));
+        return builder.build();
+    }
+
+    // Baris buffer dengan id itu (jika ada dan belum disembunyikan) masuk daftar removed
+    private Map<UUID, Row> hide(UUID id) {
+        int index = removed.containsKey(id) ? -1 : indexOf(id);
+        if (index < 0) {
+            return removed;
+        }
+        Map<UUID, Row> next = new HashMap<>(removed);
+        next.put(id, new Row(days.getAtIndex(WorkoutKernels.INT, index),
+                durations.getAtIndex(WorkoutKernels.INT, index), types.get(ValueLayout.JAVA_BYTE, index),
+                calories.getAtIndex(WorkoutKernels.LONG, index)));
+        return Map.copyOf(next);
+    }
+
+    // Pencarian linear di kolom id (16 byte per baris)
+    private int indexOf(UUID id) {
+        for (int i = 0; i < count; i++) {
+            if (ids.getAtIndex(WorkoutKernels.LONG, 2L * i) == id.getMostSignificantBits()
+                    && ids.getAtIndex(WorkoutKernels.LONG, 2L * i + 1) == id.getLeastSignificantBits()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static WorkoutColumns toColumns(Map<UUID, Row> rows) {
+        WorkoutColumns result = new WorkoutColumns(rows.size());
+        rows.values().forEach(row -> result.add(row.day(), row.duration(), row.type(), row.calories()));
+        return result;
+    }
+
+    private Builder rowsExcept(Set<UUID> excluded) {
+        Builder builder = new Builder(count + added.size());
+        for (int i = 0; i < count; i++) {
+            UUID rowId = new UUID(ids.getAtIndex(WorkoutKernels.LONG, 2L * i),
+                    ids.getAtIndex(WorkoutKernels.LONG, 2L * i + 1));
+            if (!excluded.contains(rowId)) {
+                builder.add(days.getAtIndex(WorkoutKernels.INT, i), durations.getAtIndex(WorkoutKernels.INT, i),
+                        types.get(ValueLayout.JAVA_BYTE, i), calories.getAtIndex(WorkoutKernels.LONG, i), rowId);
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Mengumpulkan baris dalam array primitif lalu meng-encode-nya sekaligus;
+     * urutan {@link #add} bebas.
+     */
+    public static final class Builder {
+        private final WorkoutColumns rows;
+        private UUID[] ids;
+
+        Builder(int capacity) {
+            rows = new WorkoutColumns(capacity);
+            ids = new UUID[rows.days.length];
+        }
+
+        public Builder add(UUID id, LocalDate date, int durationMinutes, WorkoutType type, double caloriesBurned) {
+            return add(Math.toIntExact(date.toEpochDay()), durationMinutes, (byte) type.ordinal(),
+                    WorkoutColumns.scaleCalories(caloriesBurned), id);
+        }
+
+        private Builder add(int day, int duration, byte type, long scaledCalories, UUID id) {
+            if (rows.size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[rows.size] = id;
+            rows.add(day, duration, type, scaledCalories);
+            return this;
+        }
+
+        public WorkoutHistoryFile build() {
+            int size = rows.size;
+            // Urut tanggal, index baris di 32 bit bawah supaya tidak perlu boxing
+            long[] order = new long[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = ((long) rows.days[i] << 32) | i;
+            }
+            Arrays.sort(order);
+
+            byte[] bytes = new byte[HEADER_BYTES + ROW_BYTES * size];
+            MemorySegment out = MemorySegment.ofArray(bytes);
+            out.set(WorkoutKernels.INT, 0, MAGIC);
+            out.set(WorkoutKernels.INT, 4, size);
+            long durationsAt = HEADER_BYTES + 4L * size;
+            long caloriesAt = HEADER_BYTES + 8L * size;
+            long idsAt = HEADER_BYTES + 16L * size;
+            long typesAt = HEADER_BYTES + 32L * size;
+            for (int i = 0; i < size; i++) {
+                int row = (int) order[i];
+                UUID id = ids[row];
+                out.set(WorkoutKernels.INT, HEADER_BYTES + 4L * i, rows.days[row]);
+                out.set(WorkoutKernels.INT, durationsAt + 4L * i, rows.durations[row]);
+                out.set(WorkoutKernels.LONG, caloriesAt + 8L * i, rows.calories[row]);
+                out.set(WorkoutKernels.LONG, idsAt + 16L * i, id.getMostSignificantBits());
+                out.set(WorkoutKernels.LONG, idsAt + 16L * i + 8, id.getLeastSignificantBits());
+                out.set(ValueLayout.JAVA_BYTE, typesAt + i, rows.types[row]);
+            }
+            return wrap(bytes);
+        }
+    }
+}
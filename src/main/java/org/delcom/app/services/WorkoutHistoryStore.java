@@ -0,0 +1,212 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.delcom.app.entities.Workout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+/**
+ * Riwayat kolumnar ({@link WorkoutHistoryFile}) per user di disk lokal, di-mmap
+ * untuk dibaca. Dibangun dari database saat pertama dibutuhkan, lalu dijaga
+ * oleh {@link WorkoutService} setelah commit (pola yang sama dengan
+ * {@link RecentWorkoutCache}), jadi agregasi all-time tidak perlu query lagi.
+ * Perubahan hanya ditambahkan ke delta di heap ({@link WorkoutHistoryFile#with});
+ * file user baru ditulis ulang di background setelah delta cukup besar.
+ *
+ * Total ukuran dibatasi {@code app.workout-history.max-bytes}; file yang
+ * tergusur dihapus. Isi direktori dari proses sebelumnya tidak dipakai ulang.
+ * Penulisan node lain membuang riwayat user seperti di RecentWorkoutCache;
+ * penulisan yang tidak lewat WorkoutService baru terlihat setelah
+ * {@code ttl-seconds}.
+ */
+@Component
+public class WorkoutHistoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkoutHistoryStore.class);
+    private static final String SUFFIX = ".wkh";
+    // Delta minimal sebelum compaction; untuk riwayat besar 1/8 jumlah baris
+    static final int COMPACT_MIN_ROWS = 64;
+
+    private record Entry(Path path, WorkoutHistoryFile history) {
+    }
+
+    private final boolean enabled;
+    private final Path directory;
+    private final DataVersionService dataVersionService;
+    private final Cache<UUID, Entry> cache;
+    // Setiap compaction ditulis ke file baru: mapping lama tetap valid untuk pembaca yang sedang berjalan
+    private final AtomicLong generation = new AtomicLong();
+    // User yang compaction-nya sedang dijadwalkan/berjalan
+    private final Set<UUID> compacting = ConcurrentHashMap.newKeySet();
+
+    // Package-private supaya test bisa menjalankan compaction langsung atau menundanya
+    Executor compactor = task -> Thread.ofVirtual().name("workout-history-compact").start(task);
+
+    public WorkoutHistoryStore(
+            @Value("${app.workout-history.enabled:false}") boolean enabled,
+            @Value("${app.workout-history.dir:./workout-history}") String directory,
+            @Value("${app.workout-history.max-bytes:268435456}") long maxBytes,
+            @Value("${app.workout-history.ttl-seconds:300}") long ttlSeconds,
+            DataVersionService dataVersionService) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.dataVersionService = dataVersionService;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(maxBytes, 0))
+                // File yang di-mmap ditambah delta yang disimpan di heap
+                .weigher((UUID userId, Entry entry) -> entry.history().sizeInBytes()
+                        + entry.history().deltaRows() * WorkoutHistoryFile.DELTA_ROW_BYTES)
+                .expireAfterWrite(Duration.ofSeconds(Math.max(ttlSeconds, 1)))
+                // Hapus file langsung di thread pemanggil, bukan di executor async Caffeine
+                .executor(Runnable::run)
+                .removalListener((UUID userId, Entry entry, RemovalCause cause) -> removed(userId, entry))
+                .recordStats()
+                .build();
+        dataVersionService.onRemoteChange(this::evict);
+        if (enabled) {
+            clean();
+        }
+    }
+
+    /**
+     * Riwayat user dari cache, atau dibangun lewat {@code loader} lalu ditulis
+     * ke disk. Null jika dimatikan.
+     */
+    public WorkoutHistoryFile get(UUID userId, Supplier<WorkoutHistoryFile> loader) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(userId);
+        if (entry != null) {
+            return entry.history();
+        }
+        long version = dataVersionService.getVersion(userId);
+        WorkoutHistoryFile history = loader.get();
+        entry = write(userId, history);
+        if (entry == null) {
+            return history;
+        }
+        cache.put(userId, entry);
+        // Ada tulis yang commit selama load: isi yang baru dimuat mungkin sudah basi
+        if (dataVersionService.getVersion(userId) != version) {
+            cache.invalidate(userId);
+        }
+        return entry.history();
+    }
+
+    /**
+     * Workout dibuat/diubah. Diterapkan setelah commit; panggil setelah
+     * {@link DataVersionService#bumpAfterCommit}.
+     */
+    public void saved(UUID userId, Workout workout) {
+        RecentWorkoutCache.afterCommit(() -> update(userId, history -> history.with(workout.getId(),
+                workout.getDate(), workout.getDurationMinutes(), workout.getType(), workout.getCaloriesBurned())));
+    }
+
+    public void deleted(UUID userId, UUID workoutId) {
+        RecentWorkoutCache.afterCommit(() -> update(userId, history -> history.without(workoutId)));
+    }
+
+    // File yang sama dengan delta baru; compaction dijadwalkan setelah map selesai diubah
+    private void update(UUID userId, UnaryOperator<WorkoutHistoryFile> change) {
+        Entry entry = cache.asMap().computeIfPresent(userId,
+                (id, current) -> new Entry(current.path(), change.apply(current.history())));
+        if (entry != null && needsCompaction(entry.history()) && compacting.add(userId)) {
+            compactor.execute(() -> compact(userId, entry));
+        }
+    }
+
+    private static boolean needsCompaction(WorkoutHistoryFile history) {
+        return history.deltaRows() >= Math.max(COMPACT_MIN_ROWS, history.count() / 8);
+    }
+
+    // Entry saat dijadwalkan ditulis ke file baru; jika sudah diganti tulis lain atau tergusur, hasilnya dibuang
+    // dan compaction dijadwalkan lagi oleh tulis berikutnya
+    private void compact(UUID userId, Entry entry) {
+        try {
+            Entry compacted = write(userId, entry.history().compact());
+            if (compacted != null && !cache.asMap().replace(userId, entry, compacted)) {
+                delete(compacted.path());
+            }
+        } finally {
+            compacting.remove(userId);
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    // Data diubah node lain; null berarti semua user
+    private void evict(UUID userId) {
+        if (userId == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(userId);
+        }
+    }
+
+    public Cache<UUID, ?> getNativeCache() {
+        return cache;
+    }
+
+    // Entry dengan delta baru memakai file yang sama; file lama dihapus hanya jika entry pengganti menunjuk file lain
+    private void removed(UUID userId, Entry entry) {
+        Entry current = cache.asMap().get(userId);
+        if (current == null || !current.path().equals(entry.path())) {
+            delete(entry.path());
+        }
+    }
+
+    // Null jika gagal ditulis; pemanggil memakai versi heap (tidak di-cache) atau membuang entry
+    private Entry write(UUID userId, WorkoutHistoryFile history) {
+        Path path = directory.resolve(userId + "-" + generation.incrementAndGet() + SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            history.writeTo(path);
+            return new Entry(path, WorkoutHistoryFile.map(path));
+        } catch (IOException e) {
+            log.warn("Riwayat workout user {} gagal ditulis ke {}: {}", userId, path, e.toString());
+            delete(path);
+            return null;
+        }
+    }
+
+    // File sisa proses sebelumnya: versinya tidak bisa dicocokkan lagi dengan database
+    private void clean() {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                files.forEach(WorkoutHistoryStore::delete);
+            }
+        } catch (IOException e) {
+            log.warn("Direktori riwayat workout {} gagal dibersihkan: {}", directory, e.toString());
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("File riwayat workout {} gagal dihapus: {}", path, e.toString());
+        }
+    }
+}
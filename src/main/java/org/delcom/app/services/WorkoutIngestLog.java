@@ -0,0 +1,279 @@
+package org.delcom.app.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-ahead log lokal untuk {@link WorkoutIngestService}: workout ditulis
+ * berurutan ke segmen {@code <seq>.wal} dan di-fsync sebelum request dijawab.
+ * Penulis yang menunggu fsync bersamaan berbagi satu fsync (group commit).
+ * Segmen ditutup lewat {@link #rotate} saat writer mengambil batch, lalu
+ * dihapus ({@link #deleteClosed}) setelah isinya commit ke database.
+ *
+ * Record: panjang payload (int), CRC32 payload (int), payload. Ekor segmen
+ * yang terpotong atau rusak (crash di tengah tulis) dibuang saat recovery.
+ * Workout yang ditolak database disimpan dengan format yang sama di
+ * {@code dead-letter.dlq} ({@link #deadLetter}), yang tidak diputar ulang.
+ *
+ * Direktori di-fsync setiap kali segmen (atau dead letter) dibuat dan
+ * setelah segmen dihapus, supaya entri direktorinya ikut bertahan saat crash.
+ *
+ * {@link #append} dan {@link #rotate} dipanggil di bawah lock pemanggil;
+ * {@link #sync} boleh dipanggil tanpa lock itu.
+ */
+final class WorkoutIngestLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkoutIngestLog.class);
+    private static final String SUFFIX = ".wal";
+    static final String DEAD_LETTER = "dead-letter.dlq";
+    private static final int HEADER = 8;
+
+    private final Path directory;
+    private final List<Path> closed = new ArrayList<>();
+    private final Object syncLock = new Object();
+
+    private volatile FileChannel channel;
+    private Path current;
+    private long sequence;
+    // Posisi logis lintas segmen: byte yang sudah ditulis / sudah di-fsync / awal segmen aktif
+    private volatile long written;
+    private long synced;
+    private long segmentStart;
+
+    WorkoutIngestLog(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Membaca segmen sisa proses sebelumnya (urut seq) lalu membuka segmen
+     * baru. Segmen lama dianggap tertutup: dihapus bersama batch berikutnya.
+     */
+    List<Workout> open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            files.forEach(segments::add);
+        }
+        segments.sort(Comparator.comparingLong(WorkoutIngestLog::sequenceOf));
+        List<Workout> recovered = new ArrayList<>();
+        for (Path segment : segments) {
+            read(segment, recovered);
+            closed.add(segment);
+            sequence = Math.max(sequence, sequenceOf(segment));
+        }
+        channel = next();
+        return recovered;
+    }
+
+    /** @return posisi akhir record, untuk {@link #sync} */
+    long append(Workout workout) throws IOException {
+        ByteBuffer buffer = record(workout);
+        int length = buffer.remaining();
+        write(channel, buffer);
+        written += length;
+        return written;
+    }
+
+    /**
+     * Menyimpan workout yang ditolak database (mis. melanggar constraint)
+     * supaya bisa diperiksa manual; segmen WAL-nya lalu boleh dihapus.
+     */
+    void deadLetter(Workout workout) throws IOException {
+        Path path = directory.resolve(DEAD_LETTER);
+        boolean created = Files.notExists(path);
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            write(out, record(workout));
+            out.force(false);
+        }
+        if (created) {
+            syncDirectory();
+        }
+    }
+
+    // Group commit: satu fsync menutup semua record yang sudah ditulis saat fsync dimulai
+    void sync(long position) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long upTo = written;
+            channel.force(false);
+            synced = upTo;
+        }
+    }
+
+    // Segmen baru dibuka lebih dulu, jadi jika gagal segmen aktif tetap dipakai. Segmen aktif yang masih
+    // kosong (antrean hanya berisi batch gagal dari segmen tertutup) tidak diganti
+    void rotate() throws IOException {
+        if (written == segmentStart) {
+            return;
+        }
+        Path previous = current;
+        FileChannel opened = next();
+        synchronized (syncLock) {
+            FileChannel old = channel;
+            old.force(false);
+            old.close();
+            channel = opened;
+            synced = written;
+            segmentStart = written;
+        }
+        closed.add(previous);
+    }
+
+    void deleteClosed() throws IOException {
+        Iterator<Path> segments = closed.iterator();
+        while (segments.hasNext()) {
+            Files.deleteIfExists(segments.next());
+            segments.remove();
+        }
+        syncDirectory();
+    }
+
+    int closedSegments() {
+        return closed.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    private FileChannel next() throws IOException {
+        Path path = directory.resolve(++sequence + SUFFIX);
+        FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        try {
+            syncDirectory();
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+        current = path;
+        return opened;
+    }
+
+    // Package-private supaya test bisa menggagalkannya
+    void syncDirectory() throws IOException {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    static void read(Path segment, List<Workout> into) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        while (buffer.remaining() >= HEADER) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            into.add(decode(payload));
+        }
+        if (buffer.hasRemaining()) {
+            log.warn("Ekor WAL {} tidak utuh, {} byte dibuang", segment, buffer.remaining());
+        }
+    }
+
+    private static ByteBuffer record(Workout workout) throws IOException {
+        byte[] payload = encode(workout);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + payload.length);
+        return buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+    }
+
+    private static void write(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    static byte[] encode(Workout workout) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeUuid(out, workout.getId());
+        writeUuid(out, workout.getUserId());
+        writeString(out, workout.getTitle());
+        writeString(out, workout.getDescription());
+        out.writeInt(workout.getDurationMinutes());
+        out.writeDouble(workout.getCaloriesBurned());
+        out.writeLong(workout.getDate().toEpochDay());
+        out.writeByte(workout.getType().ordinal());
+        writeString(out, workout.getCreatedAt().toString());
+        return bytes.toByteArray();
+    }
+
+    static Workout decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        UUID id = readUuid(in);
+        UUID userId = readUuid(in);
+        Workout workout = new Workout(userId, readString(in), readString(in), in.readInt(), in.readDouble(),
+                LocalDate.ofEpochDay(in.readLong()), WorkoutType.values()[in.readByte()], null);
+        workout.setId(id);
+        LocalDateTime createdAt = LocalDateTime.parse(readString(in));
+        workout.setTimestamps(createdAt, createdAt);
+        return workout;
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    // writeUTF dibatasi 64 KB, deskripsi bisa lebih panjang
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,384 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ingestion write-behind untuk {@code POST /api/workouts}
+ * ({@code app.workout-ingest.enabled}). Workout dijawab setelah ditulis dan
+ * di-fsync ke {@link WorkoutIngestLog}; writer di background memasukkannya ke
+ * database per batch (satu transaksi per shard, JDBC batch
+ * {@code batch-size} baris) setiap {@code flush-interval-ms}, atau lebih
+ * cepat saat antrean mencapai {@code batch-size}.
+ *
+ * Sampai commit, workout tetap terlihat oleh user pemiliknya lewat
+ * {@link #pending} (di-overlay oleh {@link WorkoutService}). Saat startup
+ * segmen WAL yang tersisa diputar ulang; workout yang id-nya sudah ada di
+ * database (crash setelah commit, sebelum segmen dihapus) dilewati.
+ *
+ * Batch yang ditolak database (pelanggaran constraint) dicoba ulang per baris,
+ * dan baris yang tetap ditolak dipindah ke dead letter
+ * ({@link WorkoutIngestLog#deadLetter}). Batch yang gagal karena sebab lain
+ * (database tidak tersedia) masuk antrean lagi utuh; writer menunda flush
+ * berikutnya dengan backoff eksponensial (1 detik sampai 30 detik), dan selama
+ * itu segmen WAL-nya tidak dihapus. Jika antrean sudah {@code max-queued},
+ * {@link #submit} menolak workout baru (503 di WorkoutController).
+ *
+ * WorkoutController dan WorkoutView memanggil {@link #flushIfPending} sebelum
+ * edit, hapus dan upload gambar (di luar transaksi WorkoutService), jadi
+ * workout yang masih di antrean sudah ada di database saat diubah.
+ */
+@Service
+public class WorkoutIngestService {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutIngestService.class);
+
+    private static final long MIN_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private static final String INSERT = "INSERT INTO workouts (id, user_id, title, description, duration_minutes, "
+            + "calories_burned, date, type, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxQueued;
+    private final ShardRouter shardRouter;
+    private final DataVersionService dataVersionService;
+    private final RecentWorkoutCache recentWorkoutCache;
+    private final WorkoutHistoryStore workoutHistoryStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Package-private supaya test bisa memasang log yang gagal
+    WorkoutIngestLog wal;
+
+    // Antrean dan segmen WAL aktif diubah bersama di bawah lock ini
+    private final Object lock = new Object();
+    private final ArrayDeque<Workout> queue = new ArrayDeque<>();
+    // Workout yang belum commit per user; list immutable, diganti utuh setiap perubahan
+    private final Map<UUID, List<Workout>> pending = new ConcurrentHashMap<>();
+
+    // Hanya dipakai di bawah flushLock (satu writer sekaligus)
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Set<UUID> recovered = new HashSet<>();
+    // Diubah di bawah flushLock; 0 jika flush terakhir berhasil
+    private volatile long backoffMs;
+    private volatile long retryAt = System.nanoTime();
+
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    public WorkoutIngestService(
+            @Value("${app.workout-ingest.enabled:false}") boolean enabled,
+            @Value("${app.workout-ingest.dir:./workout-ingest}") String directory,
+            @Value("${app.workout-ingest.batch-size:500}") int batchSize,
+            @Value("${app.workout-ingest.flush-interval-ms:50}") long flushIntervalMs,
+            @Value("${app.workout-ingest.max-queued:50000}") int maxQueued,
+            ShardRouter shardRouter, DataVersionService dataVersionService, RecentWorkoutCache recentWorkoutCache,
+            WorkoutHistoryStore workoutHistoryStore, DataSource dataSource,
+            PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.batchSize = Math.max(batchSize, 1);
+        this.flushIntervalMs = Math.max(flushIntervalMs, 1);
+        this.maxQueued = Math.max(maxQueued, 1);
+        this.shardRouter = shardRouter;
+        this.dataVersionService = dataVersionService;
+        this.recentWorkoutCache = recentWorkoutCache;
+        this.workoutHistoryStore = workoutHistoryStore;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wal = new WorkoutIngestLog(Path.of(directory));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        List<Workout> replay;
+        try {
+            replay = wal.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("WAL ingestion workout gagal dibuka", e);
+        }
+        for (Workout workout : replay) {
+            enqueue(workout);
+            recovered.add(workout.getId());
+        }
+        if (!replay.isEmpty()) {
+            log.info("{} workout dari WAL ingestion diputar ulang", replay.size());
+        }
+        running = true;
+        writer = Thread.ofPlatform().daemon().name("workout-ingest-writer").start(this::writeLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        writer = null;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        try {
+            wal.close();
+        } catch (IOException e) {
+            log.warn("WAL ingestion workout gagal ditutup: {}", e.toString());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Mencatat workout baru ke WAL. Setelah method ini kembali workout sudah
+     * durable, tapi baru masuk database pada flush berikutnya.
+     *
+     * @return null jika antrean penuh ({@code max-queued}); workout tidak dicatat
+     */
+    public Workout submit(UUID userId, String title, String description, Integer durationMinutes, String typeStr,
+            LocalDate date) {
+        if (!running) {
+            throw new IllegalStateException("Ingestion workout tidak aktif (app.workout-ingest.enabled=false)");
+        }
+        WorkoutType type = WorkoutService.parseType(typeStr);
+        Workout workout = new Workout(userId, title, description, durationMinutes,
+                WorkoutService.calculateCalories(type, durationMinutes), date, type, null);
+        workout.setId(UUID.randomUUID());
+        LocalDateTime now = LocalDateTime.now();
+        workout.setTimestamps(now, now);
+
+        int queued;
+        try {
+            long position;
+            synchronized (lock) {
+                // Database tertinggal terlalu jauh: ditolak sebelum ditulis ke WAL
+                if (queue.size() >= maxQueued) {
+                    return null;
+                }
+                position = wal.append(workout);
+                queued = enqueue(workout);
+            }
+            wal.sync(position);
+        } catch (IOException e) {
+            // Record bisa saja tetap tersimpan dan ikut di-flush (at-least-once)
+            throw new UncheckedIOException("Workout gagal ditulis ke WAL ingestion", e);
+        }
+        if (queued >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+        return workout.copy();
+    }
+
+    // Workout user yang sudah dijawab tapi belum commit ke database, urut masuk
+    public List<Workout> pending(UUID userId) {
+        return pending.getOrDefault(userId, List.of()).stream().map(Workout::copy).toList();
+    }
+
+    /**
+     * Memasukkan antrean ke database jika workout user itu belum commit.
+     * Harus dipanggil di luar transaksi: flush memakai transaksi dan koneksinya
+     * sendiri, dan menunggu koneksi kedua dari dalam transaksi bisa menghabiskan pool.
+     */
+    public void flushIfPending(UUID userId, UUID workoutId) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("flushIfPending dipanggil di dalam transaksi");
+        }
+        if (pending.getOrDefault(userId, List.of()).stream().anyMatch(workout -> workout.getId().equals(workoutId))) {
+            flush();
+        }
+    }
+
+    long backoffMillis() {
+        return backoffMs;
+    }
+
+    int queued() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    private int enqueue(Workout workout) {
+        synchronized (lock) {
+            queue.add(workout);
+            pending.compute(workout.getUserId(), (userId, workouts) -> workouts == null ? List.of(workout)
+                    : Stream.concat(workouts.stream(), Stream.of(workout)).toList());
+            return queue.size();
+        }
+    }
+
+    private void writeLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (running) {
+            // Setelah flush gagal, tunggu backoff walaupun writer dibangunkan lebih awal oleh submit
+            long wait = retryAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            flush();
+            LockSupport.parkNanos(this, intervalNanos);
+        }
+    }
+
+    /**
+     * Memasukkan seluruh antrean ke database. Dipanggil oleh writer thread,
+     * saat shutdown, dan oleh test.
+     */
+    void flush() {
+        flushLock.lock();
+        try {
+            List<Workout> batch;
+            synchronized (lock) {
+                if (queue.isEmpty()) {
+                    return;
+                }
+                // Segmen yang ditutup di sini berisi tepat record yang ada di antrean
+                wal.rotate();
+                batch = new ArrayList<>(queue);
+                queue.clear();
+            }
+            Map<String, List<Workout>> shards = new LinkedHashMap<>();
+            for (Workout workout : batch) {
+                String shard = Objects.requireNonNullElse(shardRouter.shardOf(workout.getUserId()),
+                        ShardRouter.DEFAULT_SHARD);
+                shards.computeIfAbsent(shard, key -> new ArrayList<>()).add(workout);
+            }
+            List<Workout> failed = new ArrayList<>();
+            shards.forEach((shard, workouts) -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(workouts));
+                    workouts.forEach(workout -> recovered.remove(workout.getId()));
+                } catch (DataIntegrityViolationException e) {
+                    log.warn("{} workout ingestion ditolak shard {}, dicoba per baris: {}", workouts.size(), shard,
+                            e.toString());
+                    workouts.stream().filter(workout -> !insertAlone(workout)).forEach(failed::add);
+                } catch (RuntimeException e) {
+                    log.warn("{} workout ingestion gagal masuk shard {}: {}", workouts.size(), shard, e.toString());
+                    failed.addAll(workouts);
+                }
+            });
+            if (!failed.isEmpty()) {
+                synchronized (lock) {
+                    for (int i = failed.size() - 1; i >= 0; i--) {
+                        queue.addFirst(failed.get(i));
+                    }
+                }
+                backoffMs = Math.clamp(backoffMs * 2, MIN_BACKOFF_MS, MAX_BACKOFF_MS);
+                retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs);
+                log.warn("{} workout ingestion dicoba lagi dalam {} ms", failed.size(), backoffMs);
+                return;
+            }
+            backoffMs = 0;
+            wal.deleteClosed();
+        } catch (IOException e) {
+            log.warn("WAL ingestion workout gagal dirotasi/dibersihkan: {}", e.toString());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // False jika baris harus dicoba lagi pada flush berikutnya
+    private boolean insertAlone(Workout workout) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(List.of(workout)));
+        } catch (DataIntegrityViolationException e) {
+            try {
+                wal.deadLetter(workout);
+            } catch (IOException io) {
+                log.warn("Workout ingestion {} gagal ditulis ke dead letter: {}", workout.getId(), io.toString());
+                return false;
+            }
+            log.error("Workout ingestion {} milik user {} ditolak database, dipindah ke dead letter: {}",
+                    workout.getId(), workout.getUserId(), e.toString());
+            committed(workout);
+        } catch (RuntimeException e) {
+            return false;
+        }
+        recovered.remove(workout.getId());
+        return true;
+    }
+
+    private void insert(List<Workout> workouts) {
+        Set<UUID> users = new LinkedHashSet<>();
+        workouts.forEach(workout -> users.add(workout.getUserId()));
+        shardRouter.bindAll(users);
+        List<Workout> rows = workouts.stream().filter(workout -> !recovered.contains(workout.getId())
+                || jdbcTemplate.queryForObject("SELECT COUNT(*) FROM workouts WHERE id = ?", Long.class,
+                        workout.getId()) == 0)
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT, rows, batchSize, (statement, workout) -> {
+            statement.setObject(1, workout.getId());
+            statement.setObject(2, workout.getUserId());
+            statement.setString(3, workout.getTitle());
+            statement.setString(4, workout.getDescription());
+            statement.setInt(5, workout.getDurationMinutes());
+            statement.setDouble(6, workout.getCaloriesBurned());
+            statement.setObject(7, workout.getDate());
+            statement.setString(8, workout.getType().name());
+            statement.setTimestamp(9, Timestamp.valueOf(workout.getCreatedAt()));
+            statement.setTimestamp(10, Timestamp.valueOf(workout.getUpdatedAt()));
+        });
+        for (UUID userId : users) {
+            dataVersionService.bumpAfterCommit(userId);
+        }
+        for (Workout workout : rows) {
+            recentWorkoutCache.saved(workout.getUserId(), workout);
+            workoutHistoryStore.saved(workout.getUserId(), workout);
+        }
+        // Overlay dilepas setelah cache diperbarui, jadi workout tidak pernah hilang dari bacaan user
+        RecentWorkoutCache.afterCommit(() -> workouts.forEach(this::committed));
+    }
+
+    private void committed(Workout workout) {
+        pending.computeIfPresent(workout.getUserId(), (userId, workouts) -> {
+            List<Workout> rest = workouts.stream().filter(other -> !other.getId().equals(workout.getId())).toList();
+            return rest.isEmpty() ? null : rest;
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package org.delcom.app.services;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+/**
+ * Loop agregasi atas kolom primitif, di array ({@link WorkoutColumns}) atau
+ * di {@link MemorySegment} (kolom {@link WorkoutHistoryFile}, bisa berupa
+ * mapping file). Dua implementasi dengan hasil identik:
+ * {@link ScalarWorkoutKernels} dan {@link VectorWorkoutKernels} (SIMD, butuh
+ * modul jdk.incubator.vector). Rentang {@code [from, to)}.
+ */
+interface WorkoutKernels {
+
+    // Layout kolom di MemorySegment: little-endian, tanpa syarat alignment (segmen heap dari byte[])
+    ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    String name();
+
+    long sum(int[] values, int from, int to);
+
+    long sum(long[] values, int from, int to);
+
+    // counts[ordinal] += jumlah elemen types bernilai ordinal itu; ordinal di luar counts tidak boleh ada
+    void countByType(byte[] types, int from, int to, long[] counts);
+
+    // Kolom int (layout INT), index elemen
+    long sumInts(MemorySegment column, int from, int to);
+
+    // Kolom long (layout LONG), index elemen
+    long sumLongs(MemorySegment column, int from, int to);
+
+    void countByType(MemorySegment types, int from, int to, long[] counts);
+}
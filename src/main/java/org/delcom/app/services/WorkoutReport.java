@@ -0,0 +1,14 @@
+package org.delcom.app.services;
+
+import java.util.Map;
+
+/**
+ * Ringkasan workout seluruh platform (semua user, semua shard) di database.
+ *
+ * @param workoutsByType   jumlah workout per WorkoutType, termasuk tipe yang kosong
+ * @param workoutsPerShard jumlah workout per shard ({@code default} tanpa sharding)
+ * @param kernel           kernel agregasi yang dipakai: vector atau scalar
+ */
+public record WorkoutReport(long workouts, long durationMinutes, double caloriesBurned,
+        Map<String, Long> workoutsByType, Map<String, Long> workoutsPerShard, String kernel, long durationMillis) {
+}
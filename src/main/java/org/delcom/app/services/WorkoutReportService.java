@@ -0,0 +1,112 @@
+package org.delcom.app.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.enums.WorkoutType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Laporan agregat seluruh platform (actuator {@code workoutreport}). Tabel
+ * workouts setiap shard dibaca streaming ke {@link WorkoutColumns} per chunk
+ * ({@code app.workout-report.chunk-size} baris) lalu diagregasi dengan
+ * {@link WorkoutAggregator}, jadi memori tetap kecil berapa pun jumlah
+ * barisnya. Workout yang sudah diarsipkan (WorkoutArchiveService) tidak ikut.
+ */
+@Service
+public class WorkoutReportService {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutReportService.class);
+    private static final WorkoutType[] TYPES = WorkoutType.values();
+
+    private final ShardRouter shardRouter;
+    private final WorkoutAggregator workoutAggregator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public WorkoutReportService(ShardRouter shardRouter, WorkoutAggregator workoutAggregator, DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.workout-report.chunk-size:65536}") int chunkSize) {
+        this.shardRouter = shardRouter;
+        this.workoutAggregator = workoutAggregator;
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Cursor PostgreSQL (butuh transaksi), supaya tabel tidak dimuat sekaligus
+        this.jdbcTemplate.setFetchSize(Math.min(this.chunkSize, 10_000));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Read-only: dirouting ke replica jika aktif
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public WorkoutReport report() {
+        long start = System.nanoTime();
+        Map<String, Accumulator> shards = shardRouter.fanOut(shard -> transactionTemplate.execute(status -> scan()));
+
+        Accumulator all = new Accumulator();
+        Map<String, Long> perShard = new LinkedHashMap<>();
+        for (Map.Entry<String, Accumulator> shard : shards.entrySet()) {
+            all.add(shard.getValue());
+            perShard.put(shard.getKey(), shard.getValue().workouts);
+        }
+        Map<String, Long> byType = new LinkedHashMap<>();
+        for (WorkoutType type : TYPES) {
+            byType.put(type.name(), all.counts[type.ordinal()]);
+        }
+        WorkoutReport report = new WorkoutReport(all.workouts, all.durationMinutes, all.caloriesBurned, byType,
+                perShard, workoutAggregator.kernel(), (System.nanoTime() - start) / 1_000_000);
+        log.info("Laporan workout: workouts={} durationMinutes={} kernel={} durationMs={}", report.workouts(),
+                report.durationMinutes(), report.kernel(), report.durationMillis());
+        return report;
+    }
+
+    private Accumulator scan() {
+        Accumulator totals = new Accumulator();
+        WorkoutColumns chunk = new WorkoutColumns(chunkSize);
+        jdbcTemplate.query("SELECT duration_minutes, type, calories_burned FROM workouts", rs -> {
+            // Tanggal tidak dipakai laporan ini
+            chunk.add(0, rs.getInt(1), (byte) WorkoutType.valueOf(rs.getString(2)).ordinal(),
+                    WorkoutColumns.scaleCalories(rs.getDouble(3)));
+            if (chunk.size() == chunkSize) {
+                totals.add(chunk);
+                chunk.clear();
+            }
+        });
+        totals.add(chunk);
+        return totals;
+    }
+
+    private final class Accumulator {
+        private long workouts;
+        private long durationMinutes;
+        private double caloriesBurned;
+        private final long[] counts = new long[TYPES.length];
+
+        void add(WorkoutColumns chunk) {
+            WorkoutAggregator.Totals totals = workoutAggregator.totals(chunk);
+            workouts += totals.workouts();
+            durationMinutes += totals.durationMinutes();
+            caloriesBurned += totals.caloriesBurned();
+            long[] chunkCounts = workoutAggregator.countByType(chunk);
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += chunkCounts[i];
+            }
+        }
+
+        void add(Accumulator other) {
+            workouts += other.workouts;
+            durationMinutes += other.durationMinutes;
+            caloriesBurned += other.caloriesBurned;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+        }
+    }
+}
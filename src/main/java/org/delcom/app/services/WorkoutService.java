@@ -5,20 +5,51 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.delcom.app.configs.jfr.ChartComputeEvent;
+import org.delcom.app.dto.WorkoutFilter;
 import org.delcom.app.entities.Workout;
 import org.delcom.app.enums.WorkoutType;
 import org.delcom.app.repositories.WorkoutRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+
+// Setiap method public tercatat sebagai timer app.workout.service{class,method} (lihat MetricsConfig).
 @Service
+@Timed(value = "app.workout.service", histogram = true)
 public class WorkoutService {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutService.class);
+
     private final WorkoutRepository workoutRepository;
     private final FileStorageService fileStorageService;
+    private final DataVersionService dataVersionService;
+    private final RecentWorkoutCache recentWorkoutCache;
+    private final ShardRouter shardRouter;
+    private final WorkoutArchiveService workoutArchiveService;
+    private final WorkoutHistoryStore workoutHistoryStore;
+    private final WorkoutAggregator workoutAggregator;
+    private final WorkoutIngestService workoutIngestService;
 
-    public WorkoutService(WorkoutRepository workoutRepository, FileStorageService fileStorageService) {
+    public WorkoutService(WorkoutRepository workoutRepository, FileStorageService fileStorageService,
+            DataVersionService dataVersionService, RecentWorkoutCache recentWorkoutCache, ShardRouter shardRouter,
+            WorkoutArchiveService workoutArchiveService, WorkoutHistoryStore workoutHistoryStore,
+            WorkoutAggregator workoutAggregator, WorkoutIngestService workoutIngestService) {
         this.workoutRepository = workoutRepository;
         this.fileStorageService = fileStorageService;
+        this.dataVersionService = dataVersionService;
+        this.recentWorkoutCache = recentWorkoutCache;
+        this.shardRouter = shardRouter;
+        this.workoutArchiveService = workoutArchiveService;
+        this.workoutHistoryStore = workoutHistoryStore;
+        this.workoutAggregator = workoutAggregator;
+        this.workoutIngestService = workoutIngestService;
     }
 
     @Transactional
@@ -27,41 +58,148 @@ public class WorkoutService {
                 form.getDate());
     }
 
+    // Seperti method lain di sini, transaksi diikat ke shard user (ShardRouter.bind) sebelum query pertama;
+    // transaksi read-only juga dirouting ke replica jika aktif
     @Transactional
     public Workout createWorkout(UUID userId, String title, String description, Integer durationMinutes,
             String typeStr, LocalDate date) {
-        WorkoutType type;
+        shardRouter.bind(userId);
+        WorkoutType type = parseType(typeStr);
+        Double caloriesBurned = calculateCalories(type, durationMinutes);
+
+        Workout workout = new Workout(userId, title, description, durationMinutes, caloriesBurned, date, type, null);
+        Workout saved = workoutRepository.save(workout);
+        dataVersionService.bumpAfterCommit(userId);
+        recentWorkoutCache.saved(userId, saved);
+        workoutHistoryStore.saved(userId, saved);
+        return saved;
+    }
+
+    // Tipe tidak dikenal/kosong ditolak (WorkoutController sudah menjawab 400); juga dipakai WorkoutIngestService
+    static WorkoutType parseType(String typeStr) {
         try {
-            type = WorkoutType.valueOf(typeStr);
+            return WorkoutType.valueOf(typeStr);
         } catch (IllegalArgumentException | NullPointerException e) {
-            e.printStackTrace();
-            type = WorkoutType.RUNNING; // Default
+            log.warn("Tipe workout tidak dikenal: {}", typeStr);
+            throw new IllegalArgumentException("Tipe workout tidak dikenal: " + typeStr, e);
         }
-        Double caloriesBurned = calculateCalories(type, durationMinutes);
+    }
 
-        Workout workout = new Workout(userId, title, description, durationMinutes, caloriesBurned, date, type, null);
-        return workoutRepository.save(workout);
+    // Semua workout yang cocok dengan filter (tipe, keyword, rentang tanggal/durasi) dalam satu query,
+    // digabung dengan workout arsip (WorkoutArchiveService) dan yang belum commit dari ingestion
+    @Transactional(readOnly = true)
+    public List<Workout> getAllWorkouts(UUID userId, WorkoutFilter filter) {
+        shardRouter.bind(userId);
+        List<Workout> workouts = findWorkouts(userId, filter);
+        List<Workout> pending = workoutIngestService.pending(userId);
+        List<Workout> archived = workoutArchiveService.findArchived(userId);
+        if (pending.isEmpty() && archived.isEmpty()) {
+            return workouts;
+        }
+        return merge(workouts, concat(pending, archived), filter);
+    }
+
+    // Workout tambahan yang cocok dengan filter, masing-masing sekali, urut sesuai filter
+    private static List<Workout> merge(List<Workout> workouts, List<Workout> extra, WorkoutFilter filter) {
+        // Id yang masih ada di hasil database (window cache yang dimuat sebelum partisinya diarsipkan,
+        // workout ingestion yang baru saja commit) dilewati
+        java.util.Set<UUID> ids = new java.util.HashSet<>();
+        workouts.forEach(workout -> ids.add(workout.getId()));
+        List<Workout> merged = new java.util.ArrayList<>(workouts);
+        extra.stream().filter(workout -> filter.matches(workout) && ids.add(workout.getId())).forEach(merged::add);
+        merged.sort(filter.getSortOrder().comparator());
+        return merged;
     }
 
-    public List<Workout> getAllWorkouts(UUID userId, String search, String typeStr) {
-        if (typeStr != null && !typeStr.isEmpty()) {
-            try {
-                WorkoutType type = WorkoutType.valueOf(typeStr);
-                return workoutRepository.findByUserIdAndTypeOrderByDateDesc(userId, type);
-            } catch (IllegalArgumentException e) {
-                // Ignore invalid type and return all
+    private static List<Workout> concat(List<Workout> first, List<Workout> second) {
+        return java.util.stream.Stream.concat(first.stream(), second.stream()).toList();
+    }
+
+    private List<Workout> findWorkouts(UUID userId, WorkoutFilter filter) {
+        if (filter.isEmpty()) {
+            RecentWorkoutCache.Window window = recentWorkout(userId);
+            // Hanya jika seluruh workout user muat di window
+            if (window != null && window.isComplete()) {
+                return window.workouts();
             }
         }
-        if (search != null && !search.trim().isEmpty()) {
-            return workoutRepository.findByKeyword(userId, search);
+        return workoutRepository.findByFilter(userId, filter, Pageable.unpaged(filter.getSortOrder().toSort()))
+                .getContent();
+    }
+
+    // Satu halaman workout sesuai filter, default terbaru dulu. Jika ada workout pending (ingestion) atau arsip,
+    // halaman diambil dari offset+size baris teratas database yang digabung dengan keduanya
+    @Transactional(readOnly = true)
+    public Slice<Workout> getWorkoutsPage(UUID userId, WorkoutFilter filter, int page, int size) {
+        shardRouter.bind(userId);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), size, filter.getSortOrder().toSort());
+        List<Workout> extra = concat(workoutIngestService.pending(userId), workoutArchiveService.findArchived(userId));
+        if (!extra.isEmpty()) {
+            Slice<Workout> head = workoutRepository.findByFilter(userId, filter,
+                    PageRequest.of(0, (int) pageable.getOffset() + size, pageable.getSort()));
+            List<Workout> workouts = merge(head.getContent(), extra, filter);
+            int from = (int) Math.min(pageable.getOffset(), workouts.size());
+            int to = Math.min(from + size, workouts.size());
+            return new SliceImpl<>(workouts.subList(from, to), pageable, to < workouts.size() || head.hasNext());
+        }
+        if (filter.isEmpty()) {
+            RecentWorkoutCache.Window window = recentWorkout(userId);
+            Slice<Workout> cached = window == null ? null : window.page(page, size);
+            if (cached != null) {
+                return cached;
+            }
         }
-        return workoutRepository.findByUserIdOrderByDateDesc(userId);
+        return workoutRepository.findByFilter(userId, filter, pageable);
+    }
+
+    // Window N workout terbaru user; null jika cache dimatikan
+    private RecentWorkoutCache.Window recentWorkout(UUID userId) {
+        return recentWorkoutCache.get(userId, (id, size) -> workoutRepository.findSliceByUserId(id,
+                PageRequest.of(0, size, WorkoutFilter.SortOrder.NEWEST.toSort())));
+    }
+
+    // Riwayat kolumnar user (database + arsip) dari WorkoutHistoryStore; null jika dimatikan
+    private WorkoutHistoryFile history(UUID userId) {
+        return workoutHistoryStore.get(userId, () -> {
+            WorkoutHistoryFile.Builder builder = WorkoutHistoryFile.builder();
+            java.util.Set<UUID> ids = new java.util.HashSet<>();
+            for (Object[] row : workoutRepository.findHistoryColumnsByUserId(userId)) {
+                builder.add((UUID) row[0], (LocalDate) row[1], (Integer) row[2], (WorkoutType) row[3],
+                        (Double) row[4]);
+                ids.add((UUID) row[0]);
+            }
+            for (Workout workout : workoutArchiveService.findArchived(userId)) {
+                if (!ids.contains(workout.getId())) {
+                    builder.add(workout.getId(), workout.getDate(), workout.getDurationMinutes(), workout.getType(),
+                            workout.getCaloriesBurned());
+                }
+            }
+            return builder.build();
+        });
     }
 
+    // Total dihitung dengan kernel WorkoutAggregator atas riwayat kolumnar jika aktif, selain itu dari
+    // query database ditambah arsip; workout pending ingestion selalu ikut dihitung
+    @Transactional(readOnly = true)
     public java.util.Map<String, Object> getDashboardStats(UUID userId) {
-        Integer totalDuration = workoutRepository.sumDurationByUserId(userId);
-        Double totalCalories = workoutRepository.sumCaloriesByUserId(userId);
-        Integer totalWorkouts = workoutRepository.countByUserId(userId);
+        shardRouter.bind(userId);
+        List<Workout> pending = workoutIngestService.pending(userId);
+        WorkoutHistoryFile history = history(userId);
+        Integer totalDuration;
+        Double totalCalories;
+        Integer totalWorkouts;
+        List<Workout> extra = pending;
+        if (history != null) {
+            WorkoutAggregator.Totals totals = workoutAggregator.totals(history);
+            totalDuration = (int) totals.durationMinutes();
+            totalCalories = totals.caloriesBurned();
+            totalWorkouts = (int) totals.workouts();
+        } else {
+            totalDuration = workoutRepository.sumDurationByUserId(userId);
+            totalCalories = workoutRepository.sumCaloriesByUserId(userId);
+            totalWorkouts = workoutRepository.countByUserId(userId);
+            extra = concat(workoutArchiveService.findArchived(userId), pending);
+        }
 
         if (totalDuration == null)
             totalDuration = 0;
@@ -70,14 +208,45 @@ public class WorkoutService {
         if (totalWorkouts == null)
             totalWorkouts = 0;
 
+        for (Workout workout : extra) {
+            totalDuration += workout.getDurationMinutes();
+            totalCalories += workout.getCaloriesBurned();
+            totalWorkouts++;
+        }
+
         return java.util.Map.of(
                 "totalDuration", totalDuration,
                 "totalCalories", totalCalories,
                 "totalWorkouts", totalWorkouts);
     }
 
+    // Termasuk workout arsip dan pending ingestion
+    @Transactional(readOnly = true)
+    public Integer countWorkouts(UUID userId) {
+        shardRouter.bind(userId);
+        int pending = workoutIngestService.pending(userId).size();
+        WorkoutHistoryFile history = history(userId);
+        if (history != null) {
+            return history.count() + pending;
+        }
+        return workoutRepository.countByUserId(userId) + workoutArchiveService.findArchived(userId).size() + pending;
+    }
+
+    // Workout pending ingestion dicari lebih dulu, lalu cache/database, lalu arsip
+    @Transactional(readOnly = true)
     public Workout getWorkoutById(UUID userId, UUID id) {
-        return workoutRepository.findByUserIdAndId(userId, id).orElse(null);
+        shardRouter.bind(userId);
+        for (Workout workout : workoutIngestService.pending(userId)) {
+            if (workout.getId().equals(id)) {
+                return workout;
+            }
+        }
+        RecentWorkoutCache.Window window = recentWorkout(userId);
+        Optional<Workout> found = window != null && window.answers(id)
+                ? Optional.ofNullable(window.find(id))
+                : workoutRepository.findByUserIdAndId(userId, id);
+        // Window lengkap hanya mencakup workout di database, bukan arsip
+        return found.or(() -> workoutArchiveService.findArchived(userId, id)).orElse(null);
     }
 
     @Transactional
@@ -86,18 +255,15 @@ public class WorkoutService {
                 form.getType(), form.getDate());
     }
 
+    // Workout yang masih di antrean ingestion harus sudah di-flush oleh pemanggil, sebelum transaksi ini
+    // dimulai (WorkoutIngestService.flushIfPending); juga untuk delete dan updateImage
     @Transactional
     public Workout updateWorkout(UUID userId, UUID id, String title, String description, Integer durationMinutes,
             String typeStr, LocalDate date) {
+        shardRouter.bind(userId);
         Workout workout = workoutRepository.findByUserIdAndId(userId, id).orElse(null);
         if (workout != null) {
-            WorkoutType type;
-            try {
-                type = WorkoutType.valueOf(typeStr);
-            } catch (Exception e) {
-                e.printStackTrace();
-                type = WorkoutType.RUNNING; // Default
-            }
+            WorkoutType type = parseType(typeStr);
             Double caloriesBurned = calculateCalories(type, durationMinutes);
 
             workout.setTitle(title);
@@ -106,12 +272,17 @@ public class WorkoutService {
             workout.setCaloriesBurned(caloriesBurned);
             workout.setType(type);
             workout.setDate(date);
-            return workoutRepository.save(workout);
+            Workout saved = workoutRepository.save(workout);
+            dataVersionService.bumpAfterCommit(userId);
+            recentWorkoutCache.saved(userId, saved);
+            workoutHistoryStore.saved(userId, saved);
+            return saved;
         }
         return null;
     }
 
-    private Double calculateCalories(WorkoutType type, Integer durationMinutes) {
+    // Static supaya bisa dipakai langsung oleh benchmark JMH dan generator dataset
+    public static Double calculateCalories(WorkoutType type, Integer durationMinutes) {
         double multiplier = 0;
         switch (type) {
             case RUNNING:
@@ -137,7 +308,13 @@ public class WorkoutService {
         return (double) (durationMinutes * multiplier);
     }
 
+    // Rentang "all" memakai riwayat kolumnar (WorkoutAggregator) jika aktif, atau database + arsip;
+    // workout pending ingestion di dalam rentang ikut dihitung
+    @Transactional(readOnly = true)
     public java.util.Map<String, Object> getChartData(UUID userId, String range) {
+        shardRouter.bind(userId);
+        ChartComputeEvent event = new ChartComputeEvent();
+        event.begin();
         java.util.Map<String, Object> result = new java.util.HashMap<>();
 
         // --- A. Proses Daily Stats (Duration) ---
@@ -156,12 +333,73 @@ public class WorkoutService {
             }
         }
 
+        // Workout arsip selalu lebih tua dari rentang week/month/3months, jadi hanya untuk "all"
+        LocalDate from = startDate;
+        List<Workout> extra = workoutIngestService.pending(userId).stream()
+                .filter(workout -> from == null || !workout.getDate().isBefore(from)).toList();
+        WorkoutHistoryFile history = startDate == null ? history(userId) : null;
         List<Object[]> dailyRows;
         if (startDate != null) {
             dailyRows = workoutRepository.findDailyDurationStatsAfterDate(userId, startDate);
+        } else if (history != null) {
+            dailyRows = workoutAggregator.dailyDurations(history);
         } else {
+            extra = concat(workoutArchiveService.findArchived(userId), extra);
             dailyRows = workoutRepository.findDailyDurationStats(userId);
         }
+        dailyRows = mergeDaily(dailyRows, extra);
+        result.put("duration", buildDurationChart(dailyRows));
+
+        // --- B. Proses Type Stats (Count) ---
+        List<Object[]> typeRows;
+        if (startDate != null) {
+            typeRows = workoutRepository.findTypeStatsAfterDate(userId, startDate);
+        } else if (history != null) {
+            typeRows = workoutAggregator.typeCounts(history);
+        } else {
+            typeRows = workoutRepository.findTypeStats(userId);
+        }
+        typeRows = mergeTypes(typeRows, extra);
+        result.put("type", buildTypeChart(typeRows));
+
+        event.range = range;
+        event.rows(dailyRows, typeRows);
+        event.commit();
+        return result;
+    }
+
+    // Baris [tanggal, total durasi] dari database ditambah workout arsip/pending, tetap urut tanggal
+    static List<Object[]> mergeDaily(List<Object[]> dailyRows, List<Workout> archived) {
+        if (archived.isEmpty()) {
+            return dailyRows;
+        }
+        java.util.TreeMap<LocalDate, Long> totals = new java.util.TreeMap<>();
+        for (Object[] row : dailyRows) {
+            totals.merge((LocalDate) row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+        for (Workout workout : archived) {
+            totals.merge(workout.getDate(), workout.getDurationMinutes().longValue(), Long::sum);
+        }
+        return totals.entrySet().stream().map(entry -> new Object[] { entry.getKey(), entry.getValue() }).toList();
+    }
+
+    // Baris [tipe, jumlah] dari database ditambah workout arsip/pending
+    static List<Object[]> mergeTypes(List<Object[]> typeRows, List<Workout> archived) {
+        if (archived.isEmpty()) {
+            return typeRows;
+        }
+        java.util.Map<String, Long> counts = new java.util.LinkedHashMap<>();
+        for (Object[] row : typeRows) {
+            counts.merge(row[0].toString(), ((Number) row[1]).longValue(), Long::sum);
+        }
+        for (Workout workout : archived) {
+            counts.merge(workout.getType().name(), 1L, Long::sum);
+        }
+        return counts.entrySet().stream().map(entry -> new Object[] { entry.getKey(), entry.getValue() }).toList();
+    }
+
+    // Baris [tanggal, total durasi] -> {labels, data}
+    static java.util.Map<String, Object> buildDurationChart(List<Object[]> dailyRows) {
         List<String> dailyLabels = new java.util.ArrayList<>();
         List<Integer> dailyData = new java.util.ArrayList<>();
 
@@ -187,15 +425,11 @@ public class WorkoutService {
         java.util.Map<String, Object> durationChartMap = new java.util.HashMap<>();
         durationChartMap.put("labels", dailyLabels);
         durationChartMap.put("data", dailyData);
-        result.put("duration", durationChartMap);
+        return durationChartMap;
+    }
 
-        // --- B. Proses Type Stats (Count) ---
-        List<Object[]> typeRows;
-        if (startDate != null) {
-            typeRows = workoutRepository.findTypeStatsAfterDate(userId, startDate);
-        } else {
-            typeRows = workoutRepository.findTypeStats(userId);
-        }
+    // Baris [tipe, jumlah] -> {labels, data}
+    static java.util.Map<String, Object> buildTypeChart(List<Object[]> typeRows) {
         List<String> typeLabels = new java.util.ArrayList<>();
         List<Integer> typeData = new java.util.ArrayList<>();
 
@@ -213,13 +447,12 @@ public class WorkoutService {
         java.util.Map<String, Object> typeChartMap = new java.util.HashMap<>();
         typeChartMap.put("labels", typeLabels);
         typeChartMap.put("data", typeData);
-        result.put("type", typeChartMap);
-
-        return result;
+        return typeChartMap;
     }
 
     @Transactional
     public boolean deleteWorkout(UUID userId, UUID id) {
+        shardRouter.bind(userId);
         Workout workout = workoutRepository.findByUserIdAndId(userId, id).orElse(null);
         if (workout == null) {
             return false;
@@ -230,12 +463,16 @@ public class WorkoutService {
         }
 
         workoutRepository.deleteById(id);
+        dataVersionService.bumpAfterCommit(userId);
+        recentWorkoutCache.deleted(userId, id);
+        workoutHistoryStore.deleted(userId, id);
         return true;
     }
 
     @Transactional
-    public Workout updateImage(UUID workoutId, String imageFilename) {
-        Optional<Workout> workoutOpt = workoutRepository.findById(workoutId);
+    public Workout updateImage(UUID userId, UUID workoutId, String imageFilename) {
+        shardRouter.bind(userId);
+        Optional<Workout> workoutOpt = workoutRepository.findByUserIdAndId(userId, workoutId);
         if (workoutOpt.isPresent()) {
             Workout workout = workoutOpt.get();
 
@@ -246,7 +483,10 @@ public class WorkoutService {
             }
 
             workout.setImagePath(imageFilename);
-            return workoutRepository.save(workout);
+            Workout saved = workoutRepository.save(workout);
+            dataVersionService.bumpAfterCommit(userId);
+            recentWorkoutCache.saved(userId, saved);
+            return saved;
         }
         return null;
     }
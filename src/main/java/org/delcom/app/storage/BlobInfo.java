@@ -0,0 +1,6 @@
+package org.delcom.app.storage;
+
+import java.time.Instant;
+
+public record BlobInfo(String key, long size, Instant lastModified) {
+}
@@ -0,0 +1,56 @@
+package org.delcom.app.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Abstraksi penyimpanan file upload (cover workout, foto profil).
+ * Key adalah nama file datar tanpa direktori, misal {@code cover_<id>.jpg}.
+ */
+public interface BlobStore extends AutoCloseable {
+
+    /**
+     * Simpan (atau timpa) blob.
+     *
+     * @param size        ukuran dalam byte, atau -1 jika tidak diketahui
+     * @param contentType boleh null
+     */
+    void put(String key, InputStream content, long size, String contentType) throws IOException;
+
+    /**
+     * Buka blob untuk dibaca.
+     *
+     * @return stream yang wajib ditutup pemanggil, atau null jika blob tidak ada
+     */
+    InputStream get(String key) throws IOException;
+
+    /**
+     * Buka sebagian blob: {@code length} byte mulai dari {@code offset}
+     * (lebih sedikit jika blob lebih pendek).
+     *
+     * @return stream yang wajib ditutup pemanggil, atau null jika blob tidak ada
+     */
+    InputStream get(String key, long offset, long length) throws IOException;
+
+    boolean exists(String key);
+
+    /**
+     * Ukuran dan waktu ubah blob saat ini, dengan presisi yang sama seperti
+     * entri {@link #list()}, jadi keduanya bisa dibandingkan langsung.
+     *
+     * @return null jika blob tidak ada
+     */
+    BlobInfo stat(String key) throws IOException;
+
+    /**
+     * @return true jika blob berhasil dihapus
+     */
+    boolean delete(String key);
+
+    List<BlobInfo> list() throws IOException;
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,72 @@
+package org.delcom.app.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Membatasi pembacaan ke {@code limit} byte berikutnya dari stream sumber,
+ * untuk pembacaan sebagian blob ({@link BlobStore#get(String, long, long)}).
+ */
+public final class BoundedInputStream extends FilterInputStream {
+    private final boolean closeSource;
+    private long remaining;
+
+    /**
+     * @param closeSource false supaya stream sumber tetap terbuka setelah close,
+     *                    misal untuk membaca beberapa rentang berurutan
+     */
+    public BoundedInputStream(InputStream in, long limit, boolean closeSource) {
+        super(in);
+        this.remaining = limit;
+        this.closeSource = closeSource;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+        int b = in.read();
+        if (b >= 0) {
+            remaining--;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+        int n = in.read(b, off, (int) Math.min(len, remaining));
+        if (n > 0) {
+            remaining -= n;
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = in.skip(Math.min(n, remaining));
+        remaining -= skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(in.available(), remaining);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closeSource) {
+            in.close();
+        }
+    }
+}
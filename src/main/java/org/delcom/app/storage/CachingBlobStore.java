@@ -0,0 +1,142 @@
+package org.delcom.app.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cache disk lokal (read-through) di depan store remote. Upload ditulis ke
+ * cache lalu dikirim ke remote, sehingga pembacaan berikutnya di node yang sama
+ * cukup dari disk lokal.
+ *
+ * Entry yang lebih tua dari {@code ttl} diambil ulang dari remote, supaya file
+ * yang ditimpa oleh node lain (misal {@code cover_<id>.jpg}) tidak basi selamanya.
+ * Total ukuran cache dibatasi {@code maxBytes}; entry tertua dibuang lebih dulu.
+ */
+public class CachingBlobStore implements BlobStore {
+    private final BlobStore remote;
+    private final LocalBlobStore cache;
+    private final Duration ttl;
+    private final long maxBytes;
+
+    /**
+     * @param ttl      null atau nol berarti entry tidak pernah kedaluwarsa
+     * @param maxBytes nol atau negatif berarti tanpa batas
+     */
+    public CachingBlobStore(BlobStore remote, LocalBlobStore cache, Duration ttl, long maxBytes) {
+        this.remote = remote;
+        this.cache = cache;
+        this.ttl = ttl;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) throws IOException {
+        cache.put(key, content, size, contentType);
+        Path cached = cache.path(key);
+        try (InputStream in = Files.newInputStream(cached)) {
+            remote.put(key, in, Files.size(cached), contentType);
+        } catch (IOException e) {
+            cache.delete(key);
+            throw e;
+        }
+        evictIfNeeded(key);
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        // Key yang tidak bisa disimpan di cache diperlakukan sebagai blob yang tidak ada
+        if (!cache.isValidKey(key)) {
+            return null;
+        }
+        if (isFresh(key)) {
+            return cache.get(key);
+        }
+        try (InputStream in = remote.get(key)) {
+            if (in == null) {
+                cache.delete(key);
+                return null;
+            }
+            cache.put(key, in, -1, null);
+        }
+        evictIfNeeded(key);
+        return cache.get(key);
+    }
+
+    // Dari cache jika masih segar; jika tidak, langsung dari remote tanpa mengisi cache
+    @Override
+    public InputStream get(String key, long offset, long length) throws IOException {
+        if (!cache.isValidKey(key)) {
+            return null;
+        }
+        return isFresh(key) ? cache.get(key, offset, length) : remote.get(key, offset, length);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return cache.isValidKey(key) && (isFresh(key) || remote.exists(key));
+    }
+
+    // Selalu dari remote: cache lokal bisa basi dan waktu ubahnya berbeda dengan list()
+    @Override
+    public BlobInfo stat(String key) throws IOException {
+        return remote.stat(key);
+    }
+
+    @Override
+    public boolean delete(String key) {
+        cache.delete(key);
+        return remote.delete(key);
+    }
+
+    @Override
+    public List<BlobInfo> list() throws IOException {
+        return remote.list();
+    }
+
+    @Override
+    public void close() {
+        remote.close();
+    }
+
+    private boolean isFresh(String key) {
+        if (!cache.exists(key)) {
+            return false;
+        }
+        if (ttl == null || ttl.isZero()) {
+            return true;
+        }
+        try {
+            Instant cachedAt = Files.getLastModifiedTime(cache.path(key)).toInstant();
+            return cachedAt.plus(ttl).isAfter(Instant.now());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Entry yang baru saja ditulis (keep) tidak ikut dibuang
+    private void evictIfNeeded(String keep) throws IOException {
+        if (maxBytes <= 0) {
+            return;
+        }
+        List<BlobInfo> entries = cache.list();
+        long total = entries.stream().mapToLong(BlobInfo::size).sum();
+        if (total <= maxBytes) {
+            return;
+        }
+        entries.sort(Comparator.comparing(BlobInfo::lastModified));
+        for (BlobInfo entry : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (!entry.key().equals(keep) && cache.delete(entry.key())) {
+                total -= entry.size();
+            }
+        }
+    }
+}
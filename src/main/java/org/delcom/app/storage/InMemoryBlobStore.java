@@ -0,0 +1,69 @@
+package org.delcom.app.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Penyimpanan di memori, dipakai untuk test dan pengembangan lokal.
+ */
+public class InMemoryBlobStore implements BlobStore {
+    private record Entry(byte[] data, String contentType, Instant lastModified) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) throws IOException {
+        entries.put(key, new Entry(content.readAllBytes(), contentType, Instant.now()));
+    }
+
+    @Override
+    public InputStream get(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : new ByteArrayInputStream(entry.data());
+    }
+
+    @Override
+    public InputStream get(String key, long offset, long length) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        int from = (int) Math.min(offset, entry.data().length);
+        return new ByteArrayInputStream(entry.data(), from, (int) Math.min(length, entry.data().length - from));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public BlobInfo stat(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : new BlobInfo(key, entry.data().length, entry.lastModified());
+    }
+
+    @Override
+    public boolean delete(String key) {
+        return entries.remove(key) != null;
+    }
+
+    @Override
+    public List<BlobInfo> list() {
+        List<BlobInfo> result = new ArrayList<>();
+        entries.forEach((key, entry) -> result.add(new BlobInfo(key, entry.data().length, entry.lastModified())));
+        return result;
+    }
+
+    public String getContentType(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : entry.contentType();
+    }
+}
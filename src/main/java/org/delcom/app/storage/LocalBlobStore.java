@@ -0,0 +1,136 @@
+package org.delcom.app.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LocalBlobStore implements BlobStore {
+    private static final String TEMP_PREFIX = ".upload-";
+
+    private final Path root;
+
+    public LocalBlobStore(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Path file untuk sebuah key. Menolak key yang keluar dari root (path traversal).
+     */
+    public Path path(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Key tidak valid: " + key);
+        }
+        return path;
+    }
+
+    // Key yang akan ditolak path(), misal "../rahasia.txt"
+    public boolean isValidKey(String key) {
+        return pathOrNull(key) != null;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) throws IOException {
+        Path target = path(key);
+        Files.createDirectories(root);
+
+        // Tulis ke file sementara lalu rename, supaya pembaca tidak pernah melihat file setengah jadi
+        Path temp = Files.createTempFile(root, TEMP_PREFIX, ".tmp");
+        try {
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        Path path = pathOrNull(key);
+        if (path == null || !Files.isRegularFile(path)) {
+            return null;
+        }
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public InputStream get(String key, long offset, long length) throws IOException {
+        Path path = pathOrNull(key);
+        if (path == null || !Files.isRegularFile(path)) {
+            return null;
+        }
+        SeekableByteChannel channel = Files.newByteChannel(path);
+        channel.position(offset);
+        return new BoundedInputStream(Channels.newInputStream(channel), length, true);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        Path path = pathOrNull(key);
+        return path != null && Files.isRegularFile(path);
+    }
+
+    @Override
+    public BlobInfo stat(String key) throws IOException {
+        Path path = pathOrNull(key);
+        if (path == null || !Files.isRegularFile(path)) {
+            return null;
+        }
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        return new BlobInfo(key, attrs.size(), attrs.lastModifiedTime().toInstant());
+    }
+
+    @Override
+    public boolean delete(String key) {
+        Path path = pathOrNull(key);
+        if (path == null) {
+            return false;
+        }
+        try {
+            return Files.deleteIfExists(path);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public List<BlobInfo> list() throws IOException {
+        List<BlobInfo> result = new ArrayList<>();
+        if (!Files.isDirectory(root)) {
+            return result;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(".")) {
+                    continue; // file sementara / tersembunyi
+                }
+                BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                if (attrs.isRegularFile()) {
+                    result.add(new BlobInfo(name, attrs.size(), attrs.lastModifiedTime().toInstant()));
+                }
+            }
+        }
+        return result;
+    }
+
+    private Path pathOrNull(String key) {
+        try {
+            return path(key);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.delcom.app.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Penyimpanan di object storage S3-compatible (AWS S3, MinIO, dsb).
+ * Semua node aplikasi berbagi bucket yang sama sehingga tidak perlu NFS.
+ */
+public class S3BlobStore implements BlobStore {
+    private final S3Client s3;
+    private final String bucket;
+    private final String prefix;
+
+    public S3BlobStore(S3Client s3, String bucket, String prefix) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.prefix = prefix == null ? "" : prefix;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) throws IOException {
+        RequestBody body = size >= 0
+                ? RequestBody.fromInputStream(content, size)
+                : RequestBody.fromBytes(content.readAllBytes());
+        try {
+            s3.putObject(PutObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey(key))
+                    .contentType(contentType)
+                    .build(), body);
+        } catch (SdkException e) {
+            throw new IOException("Gagal menyimpan " + key + " ke S3", e);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        try {
+            return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+        } catch (NoSuchKeyException e) {
+            return null;
+        } catch (SdkException e) {
+            throw new IOException("Gagal membaca " + key + " dari S3", e);
+        }
+    }
+
+    // Range request HTTP, jadi hanya rentang itu yang diunduh
+    @Override
+    public InputStream get(String key, long offset, long length) throws IOException {
+        try {
+            return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(objectKey(key))
+                    .range("bytes=" + offset + "-" + (offset + length - 1)).build());
+        } catch (NoSuchKeyException e) {
+            return null;
+        } catch (SdkException e) {
+            throw new IOException("Gagal membaca " + key + " dari S3", e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Memakai LIST (bukan HEAD) dengan key sebagai prefix: Last-Modified dari
+     * HEAD hanya berpresisi detik, sedangkan {@link #list()} berpresisi milidetik.
+     * Key yang persis sama selalu menjadi hasil pertama prefix-nya.
+     */
+    @Override
+    public BlobInfo stat(String key) throws IOException {
+        try {
+            ListObjectsV2Response response = s3.listObjectsV2(ListObjectsV2Request.builder()
+                    .bucket(bucket)
+                    .prefix(objectKey(key))
+                    .maxKeys(1)
+                    .build());
+            for (S3Object object : response.contents()) {
+                if (object.key().equals(objectKey(key))) {
+                    return new BlobInfo(key, object.size(), object.lastModified());
+                }
+            }
+            return null;
+        } catch (SdkException e) {
+            throw new IOException("Gagal membaca metadata " + key + " dari S3", e);
+        }
+    }
+
+    /**
+     * DELETE di S3 bersifat idempoten, jadi true juga dikembalikan untuk key yang
+     * memang sudah tidak ada.
+     */
+    @Override
+    public boolean delete(String key) {
+        try {
+            s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+            return true;
+        } catch (SdkException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public List<BlobInfo> list() throws IOException {
+        List<BlobInfo> result = new ArrayList<>();
+        String continuationToken = null;
+        try {
+            do {
+                ListObjectsV2Response response = s3.listObjectsV2(ListObjectsV2Request.builder()
+                        .bucket(bucket)
+                        .prefix(prefix)
+                        .continuationToken(continuationToken)
+                        .build());
+                for (S3Object object : response.contents()) {
+                    result.add(new BlobInfo(object.key().substring(prefix.length()), object.size(),
+                            object.lastModified()));
+                }
+                continuationToken = Boolean.TRUE.equals(response.isTruncated())
+                        ? response.nextContinuationToken()
+                        : null;
+            } while (continuationToken != null);
+        } catch (SdkException e) {
+            throw new IOException("Gagal membaca daftar object dari S3", e);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        s3.close();
+    }
+
+    private String objectKey(String key) {
+        return prefix + key;
+    }
+}
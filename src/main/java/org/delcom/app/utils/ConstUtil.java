@@ -7,5 +7,6 @@ public class ConstUtil {
     public static final String TEMPLATE_PAGES_AUTH_LOGIN = "pages/auth/login";
     public static final String TEMPLATE_PAGES_AUTH_REGISTER = "pages/auth/register";
     public static final String TEMPLATE_PAGES_HOME = "pages/home";
+    public static final String TEMPLATE_PAGES_ACTIVITIES = "pages/activities";
     public static final String TEMPLATE_PAGES_WORKOUTS_DETAIL = "pages/workouts/detail";
 }
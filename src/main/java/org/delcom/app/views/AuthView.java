@@ -15,7 +15,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -35,9 +35,11 @@ import org.springframework.validation.BindingResult;
 public class AuthView {
 
     private final UserService userService;
+    private final PasswordEncoder passwordEncoder;
 
-    public AuthView(UserService userService, AuthTokenService authTokenService) {
+    public AuthView(UserService userService, AuthTokenService authTokenService, PasswordEncoder passwordEncoder) {
         this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
     }
 
     @GetMapping("/login")
@@ -72,7 +74,7 @@ public class AuthView {
             return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
         }
 
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
+        boolean isPasswordMatch = passwordEncoder
                 .matches(loginForm.getPassword(), existingUser.getPassword());
         if (!isPasswordMatch) {
             bindingResult.rejectValue("email", "error.loginForm", "Email atau kata sandi salah");
@@ -133,7 +135,7 @@ public class AuthView {
             return ConstUtil.TEMPLATE_PAGES_AUTH_REGISTER;
         }
 
-        String hashPassword = new BCryptPasswordEncoder().encode(registerForm.getPassword());
+        String hashPassword = passwordEncoder.encode(registerForm.getPassword());
 
         User createdUser = userService.createUser(
                 registerForm.getName(),
@@ -1,21 +1,39 @@
 package org.delcom.app.views;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.delcom.app.dto.WorkoutFilter;
 import org.delcom.app.dto.WorkoutForm;
 import org.delcom.app.entities.User;
+import org.delcom.app.entities.Workout;
 import org.delcom.app.services.WorkoutService;
 import org.delcom.app.utils.ConstUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.thymeleaf.context.LazyContextVariable;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 @Controller
 public class HomeView {
 
     private final WorkoutService workoutService;
 
+    @Value("${app.activities.page-size:20}")
+    private int pageSize = 20;
+
     public HomeView(WorkoutService workoutService) {
         this.workoutService = workoutService;
     }
@@ -39,33 +57,109 @@ public class HomeView {
     }
 
     @GetMapping("/activities")
-    public String activities(Model model,
-            @org.springframework.web.bind.annotation.RequestParam(required = false) String filterType) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if ((authentication instanceof AnonymousAuthenticationToken)) {
+    public String activities(Model model, WorkoutFilter filter) {
+        User authUser = getAuthUser();
+        if (authUser == null) {
             return "redirect:/auth/logout";
         }
+        model.addAttribute("auth", authUser);
 
-        Object principal = authentication.getPrincipal();
-        if (!(principal instanceof User)) {
+        // Hanya halaman pertama; halaman berikutnya dan kartu statistik dimuat lewat fragment
+        addWorkoutListAttributes(model, () -> workoutService.getWorkoutsPage(authUser.getId(), filter, 0, pageSize),
+                filter, 0, null);
+
+        // Workout Form
+        model.addAttribute("workoutForm", new WorkoutForm());
+        model.addAttribute("types", org.delcom.app.enums.WorkoutType.values());
+
+        return ConstUtil.TEMPLATE_PAGES_ACTIVITIES;
+    }
+
+    @GetMapping("/activities/fragments/list")
+    public String activitiesListFragment(Model model,
+            WorkoutFilter filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate prevDate) {
+        User authUser = getAuthUser();
+        if (authUser == null) {
             return "redirect:/auth/logout";
         }
 
-        User authUser = (User) principal;
-        model.addAttribute("auth", authUser);
+        int pageIndex = Math.max(page, 0);
+        addWorkoutListAttributes(model,
+                () -> workoutService.getWorkoutsPage(authUser.getId(), filter, pageIndex, pageSize),
+                filter, pageIndex, prevDate);
 
-        // Dashboard Stats
-        var stats = workoutService.getDashboardStats(authUser.getId());
-        model.addAttribute("stats", stats);
+        return ConstUtil.TEMPLATE_PAGES_ACTIVITIES + " :: workoutList";
+    }
 
-        // Workouts
-        var workouts = workoutService.getAllWorkouts(authUser.getId(), "", filterType);
-        model.addAttribute("workouts", workouts);
+    @GetMapping("/activities/fragments/stats")
+    public String activitiesStatsFragment(Model model, HttpServletResponse response) {
+        User authUser = getAuthUser();
+        if (authUser == null) {
+            return "redirect:/auth/logout";
+        }
 
-        // Workout Form
-        model.addAttribute("workoutForm", new WorkoutForm());
-        model.addAttribute("types", org.delcom.app.enums.WorkoutType.values());
+        // Lazy: tidak di-query jika fragment diambil dari FragmentCache
+        model.addAttribute("statsFragment", true);
+        model.addAttribute("stats", lazy(() -> workoutService.getDashboardStats(authUser.getId())));
+
+        // Browser boleh menyimpan, tapi wajib revalidasi (ETag dari FragmentEtagFilter)
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        return ConstUtil.TEMPLATE_PAGES_ACTIVITIES + " :: statsCards";
+    }
+
+    // Data list dibungkus variabel lazy; query baru jalan saat template benar-benar
+    // membacanya (tidak terjadi jika fragment diambil dari FragmentCache)
+    static void addWorkoutListAttributes(Model model, Supplier<Slice<Workout>> loader, WorkoutFilter filter,
+            int page, LocalDate previousDate) {
+        Supplier<Slice<Workout>> slice = memoize(loader);
+        model.addAttribute("workouts", lazy(() -> slice.get().getContent()));
+        model.addAttribute("page", page);
+        model.addAttribute("hasNext", lazy(() -> slice.get().hasNext()));
+        model.addAttribute("nextPage", page + 1);
+        model.addAttribute("filter", filter);
+        // Bentuk normal filter: dipakai tombol "muat lebih banyak" dan kunci FragmentCache
+        model.addAttribute("filterQuery", filter.toQueryString());
+        model.addAttribute("sortOrders", WorkoutFilter.SortOrder.values());
+        model.addAttribute("previousDate", previousDate);
+        model.addAttribute("lastDate", lazy(() -> {
+            List<Workout> workouts = slice.get().getContent();
+            return workouts.isEmpty() ? previousDate : workouts.get(workouts.size() - 1).getDate();
+        }));
+    }
 
-        return "pages/activities";
+    private static <T> LazyContextVariable<T> lazy(Supplier<T> supplier) {
+        return new LazyContextVariable<>() {
+            @Override
+            protected T loadValue() {
+                return supplier.get();
+            }
+        };
+    }
+
+    private static <T> Supplier<T> memoize(Supplier<T> supplier) {
+        return new Supplier<>() {
+            private T value;
+            private boolean loaded;
+
+            @Override
+            public T get() {
+                if (!loaded) {
+                    value = supplier.get();
+                    loaded = true;
+                }
+                return value;
+            }
+        };
+    }
+
+    private User getAuthUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+        return principal instanceof User user ? user : null;
     }
 }
@@ -0,0 +1,42 @@
+package org.delcom.app.views;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.delcom.app.services.FileStorageService;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+@Controller
+public class UploadView {
+
+    private final FileStorageService fileStorageService;
+
+    public UploadView(FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+    }
+
+    // Sajikan file upload (foto profil) dari BlobStore, bukan langsung dari disk.
+    // Isi file di-stream; stream ditutup oleh converter setelah response ditulis.
+    @GetMapping("/uploads/{filename:.+}")
+    public ResponseEntity<InputStreamResource> getUpload(@PathVariable String filename) {
+        try {
+            InputStream content = fileStorageService.openFile(filename);
+            if (content == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(fileStorageService.resolveContentType(filename)))
+                    .body(new InputStreamResource(content));
+        } catch (IllegalArgumentException e) {
+            // Key ditolak oleh BlobStore (misal path traversal)
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
@@ -1,19 +1,25 @@
 package org.delcom.app.views;
 
 import java.io.IOException;
-import java.nio.file.Path;
+import java.io.InputStream;
 import java.util.UUID;
 
+import org.delcom.app.dto.WorkoutFilter;
 import org.delcom.app.dto.WorkoutImageForm;
 import org.delcom.app.dto.WorkoutForm;
 import org.delcom.app.entities.Workout;
 import org.delcom.app.entities.User;
 import org.delcom.app.enums.WorkoutType;
 import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.WorkoutIngestService;
 import org.delcom.app.services.WorkoutService;
 import org.delcom.app.utils.ConstUtil;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -32,13 +38,20 @@ import org.springframework.web.bind.annotation.ResponseBody;
 @Controller
 @RequestMapping("/workouts")
 public class WorkoutView {
+    private static final Logger log = LoggerFactory.getLogger(WorkoutView.class);
 
     private final WorkoutService workoutService;
     private final FileStorageService fileStorageService;
+    private final WorkoutIngestService workoutIngestService;
 
-    public WorkoutView(WorkoutService workoutService, FileStorageService fileStorageService) {
+    @Value("${app.activities.page-size:20}")
+    private int activitiesPageSize = 20;
+
+    public WorkoutView(WorkoutService workoutService, FileStorageService fileStorageService,
+            WorkoutIngestService workoutIngestService) {
         this.workoutService = workoutService;
         this.fileStorageService = fileStorageService;
+        this.workoutIngestService = workoutIngestService;
     }
 
     @ModelAttribute("workoutTypes")
@@ -56,26 +69,28 @@ public class WorkoutView {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()
                 || authentication instanceof AnonymousAuthenticationToken) {
-            System.out.println("DEBUG: User not authenticated in postAddWorkout");
+            log.debug("User not authenticated in postAddWorkout");
             return "redirect:/auth/logout";
         }
         Object principal = authentication.getPrincipal();
         if (!(principal instanceof User)) {
-            System.out.println("DEBUG: Principal is not User instance");
+            log.debug("Principal is not User instance");
             return "redirect:/auth/logout";
         }
         User authUser = (User) principal;
 
-        System.out.println("DEBUG: postAddWorkout called by User ID: " + authUser.getId());
-        System.out.println("DEBUG: Form Data - Title: " + workoutForm.getTitle() + ", Type: " + workoutForm.getType());
+        log.debug("postAddWorkout called by User ID: {}", authUser.getId());
+        log.debug("Form Data - Title: {}, Type: {}", workoutForm.getTitle(), workoutForm.getType());
 
         if (bindingResult.hasErrors()) {
             model.addAttribute("auth", authUser);
             model.addAttribute("types", WorkoutType.values());
-            model.addAttribute("workouts", workoutService.getAllWorkouts(authUser.getId(), "", null));
-            model.addAttribute("stats", workoutService.getDashboardStats(authUser.getId()));
+            WorkoutFilter filter = new WorkoutFilter();
+            HomeView.addWorkoutListAttributes(model,
+                    () -> workoutService.getWorkoutsPage(authUser.getId(), filter, 0, activitiesPageSize), filter, 0,
+                    null);
             model.addAttribute("addWorkoutModalOpen", true);
-            return "pages/activities";
+            return ConstUtil.TEMPLATE_PAGES_ACTIVITIES;
         }
 
         // Simpan workout
@@ -109,31 +124,35 @@ public class WorkoutView {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()
                 || authentication instanceof AnonymousAuthenticationToken) {
-            System.out.println("DEBUG: User not authenticated in postEditWorkout");
+            log.debug("User not authenticated in postEditWorkout");
             return "redirect:/auth/logout";
         }
         Object principal = authentication.getPrincipal();
         if (!(principal instanceof User)) {
-            System.out.println("DEBUG: Principal is not User instance");
+            log.debug("Principal is not User instance");
             return "redirect:/auth/logout";
         }
         User authUser = (User) principal;
 
-        System.out.println("DEBUG: postEditWorkout called by User ID: " + authUser.getId());
-        System.out.println("DEBUG: Form Data - ID: " + workoutForm.getId() + ", Title: " + workoutForm.getTitle());
+        log.debug("postEditWorkout called by User ID: {}", authUser.getId());
+        log.debug("Form Data - ID: {}, Title: {}", workoutForm.getId(), workoutForm.getTitle());
 
         if (bindingResult.hasErrors()) {
             model.addAttribute("auth", authUser);
             model.addAttribute("types", WorkoutType.values());
-            model.addAttribute("workouts", workoutService.getAllWorkouts(authUser.getId(), "", null));
-            model.addAttribute("stats", workoutService.getDashboardStats(authUser.getId()));
+            WorkoutFilter filter = new WorkoutFilter();
+            HomeView.addWorkoutListAttributes(model,
+                    () -> workoutService.getWorkoutsPage(authUser.getId(), filter, 0, activitiesPageSize), filter, 0,
+                    null);
             model.addAttribute("editWorkoutModalOpen", true);
             model.addAttribute("editWorkoutModalId", workoutForm.getId());
-            return "pages/activities";
+            return ConstUtil.TEMPLATE_PAGES_ACTIVITIES;
         }
 
         // Update workout
         try {
+            // Di luar transaksi WorkoutService (juga delete dan upload image)
+            workoutIngestService.flushIfPending(authUser.getId(), workoutForm.getId());
             var updated = workoutService.updateWorkout(workoutForm, authUser.getId());
             if (updated == null) {
                 redirectAttributes.addFlashAttribute("error", "Gagal memperbarui workout");
@@ -188,6 +207,7 @@ public class WorkoutView {
         }
 
         // Hapus workout
+        workoutIngestService.flushIfPending(authUser.getId(), workoutForm.getId());
         boolean deleted = workoutService.deleteWorkout(
                 authUser.getId(),
                 workoutForm.getId());
@@ -282,7 +302,8 @@ public class WorkoutView {
             String fileName = fileStorageService.storeFile(workoutImageForm.getImageFile(), workoutImageForm.getId());
 
             // Update workout dengan nama file image
-            workoutService.updateImage(workoutImageForm.getId(), fileName);
+            workoutIngestService.flushIfPending(authUser.getId(), workoutImageForm.getId());
+            workoutService.updateImage(authUser.getId(), workoutImageForm.getId(), fileName);
 
             redirectAttributes.addFlashAttribute("success", "Image berhasil diupload");
             return "redirect:/workouts/" + workoutImageForm.getId();
@@ -295,42 +316,26 @@ public class WorkoutView {
     }
 
     @GetMapping("/image/{filename:.+}")
-    public org.springframework.http.ResponseEntity<byte[]> getImageByFilename(@PathVariable String filename) {
+    public ResponseEntity<InputStreamResource> getImageByFilename(@PathVariable String filename) {
         try {
-            Path file = fileStorageService.loadFile(filename);
-            System.out.println("DEBUG: Requesting image " + filename + " at path " + file.toAbsolutePath());
-
-            if (!java.nio.file.Files.exists(file)) {
-                System.out.println("DEBUG: File path does not exist: " + file.toAbsolutePath());
-                return org.springframework.http.ResponseEntity.notFound().build();
-            }
+            log.debug("Requesting image {}", filename);
 
-            String contentType = "application/octet-stream";
-            try {
-                contentType = java.nio.file.Files.probeContentType(file);
-                if (contentType == null) {
-                    if (filename.toLowerCase().endsWith(".jpg") || filename.toLowerCase().endsWith(".jpeg"))
-                        contentType = "image/jpeg";
-                    else if (filename.toLowerCase().endsWith(".png"))
-                        contentType = "image/png";
-                    else if (filename.toLowerCase().endsWith(".gif"))
-                        contentType = "image/gif";
-                    else if (filename.toLowerCase().endsWith(".webp"))
-                        contentType = "image/webp";
-                }
-            } catch (Exception e) {
-                // ignore
+            InputStream image = fileStorageService.openFile(filename);
+            if (image == null) {
+                log.debug("File does not exist: {}", filename);
+                return ResponseEntity.notFound().build();
             }
 
-            byte[] imageBytes = java.nio.file.Files.readAllBytes(file);
-            System.out.println("DEBUG: Successfully read " + imageBytes.length + " bytes.");
-
-            return org.springframework.http.ResponseEntity.ok()
-                    .contentType(org.springframework.http.MediaType.parseMediaType(contentType))
-                    .body(imageBytes);
+            String contentType = fileStorageService.resolveContentType(filename);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(contentType))
+                    .body(new InputStreamResource(image));
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid image key: {}", filename);
+            return ResponseEntity.badRequest().build();
         } catch (IOException e) {
-            e.printStackTrace();
-            return org.springframework.http.ResponseEntity.internalServerError().build();
+            log.warn("Image {} gagal dibaca: {}", filename, e.toString());
+            return ResponseEntity.internalServerError().build();
         }
     }
 
@@ -0,0 +1,53 @@
+package org.delcom.app.views.cache;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Penyimpanan HTML fragment yang sudah dirender. Dibatasi total ukuran
+ * (perkiraan byte) dan umur entri; kunci sudah memuat versi data user,
+ * jadi entri lama cukup dibiarkan tergusur.
+ */
+@Component
+public class FragmentCache {
+    private final boolean enabled;
+    private final Cache<String, String> cache;
+
+    public FragmentCache(
+            @Value("${app.fragment-cache.enabled:true}") boolean enabled,
+            @Value("${app.fragment-cache.max-bytes:16777216}") long maxBytes,
+            @Value("${app.fragment-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(maxBytes, 0))
+                .weigher((String key, String html) -> (key.length() + html.length()) * Character.BYTES)
+                .expireAfterWrite(Duration.ofSeconds(Math.max(ttlSeconds, 1)))
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, String html) {
+        cache.put(key, html);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public Cache<String, String> getNativeCache() {
+        return cache;
+    }
+}
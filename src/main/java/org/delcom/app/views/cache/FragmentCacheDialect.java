@@ -0,0 +1,44 @@
+package org.delcom.app.views.cache;
+
+import java.util.Set;
+
+import org.delcom.app.services.DataVersionService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.dialect.AbstractProcessorDialect;
+import org.thymeleaf.processor.IProcessor;
+
+/**
+ * Dialect {@code fc:} untuk cache fragment per user.
+ *
+ * <pre>
+ * &lt;div th:fragment="statsCards" fc:cache="pages/activities :: statsCards"&gt;...&lt;/div&gt;
+ * &lt;th:block th:fragment="workoutList" fc:cache="pages/activities :: workoutList"
+ *     fc:key="|${filterType}:${page}|"&gt;...&lt;/th:block&gt;
+ * </pre>
+ *
+ * Jangan dipakai pada fragment yang memuat form (token CSRF ikut tersimpan).
+ */
+@Component
+public class FragmentCacheDialect extends AbstractProcessorDialect {
+    public static final String PREFIX = "fc";
+
+    private final FragmentCache fragmentCache;
+    private final DataVersionService dataVersionService;
+    private final ObjectProvider<ITemplateEngine> templateEngine;
+
+    // Template engine diambil lewat provider karena engine sendiri bergantung pada dialect ini
+    public FragmentCacheDialect(FragmentCache fragmentCache, DataVersionService dataVersionService,
+            ObjectProvider<ITemplateEngine> templateEngine) {
+        super("Fragment Cache Dialect", PREFIX, 1100);
+        this.fragmentCache = fragmentCache;
+        this.dataVersionService = dataVersionService;
+        this.templateEngine = templateEngine;
+    }
+
+    @Override
+    public Set<IProcessor> getProcessors(String dialectPrefix) {
+        return Set.of(new FragmentCacheProcessor(dialectPrefix, fragmentCache, dataVersionService, templateEngine));
+    }
+}
@@ -0,0 +1,107 @@
+package org.delcom.app.views.cache;
+
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.services.DataVersionService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.context.IWebContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.exceptions.TemplateProcessingException;
+import org.thymeleaf.model.IModel;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeModelProcessor;
+import org.thymeleaf.processor.element.IElementModelStructureHandler;
+import org.thymeleaf.standard.expression.StandardExpressions;
+import org.thymeleaf.templatemode.TemplateMode;
+
+/**
+ * Memproses {@code fc:cache="template :: fragment"}. Kunci cache terdiri dari
+ * user, versi data user, nama fragment, locale, dan nilai {@code fc:key}.
+ * Saat hit, seluruh elemen diganti HTML tersimpan tanpa mengevaluasi isinya,
+ * sehingga variabel lazy di model (query DB) tidak pernah dimuat.
+ */
+public class FragmentCacheProcessor extends AbstractAttributeModelProcessor {
+    static final String ATTR_NAME = "cache";
+    static final String KEY_ATTR_NAME = "key";
+    private static final int PRECEDENCE = 100;
+
+    // Penanda render bersarang, supaya fragment yang sama tidak diproses ulang oleh cache
+    private static final ThreadLocal<Boolean> RENDERING = new ThreadLocal<>();
+
+    private final FragmentCache fragmentCache;
+    private final DataVersionService dataVersionService;
+    private final ObjectProvider<ITemplateEngine> templateEngine;
+
+    public FragmentCacheProcessor(String dialectPrefix, FragmentCache fragmentCache,
+            DataVersionService dataVersionService, ObjectProvider<ITemplateEngine> templateEngine) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, ATTR_NAME, true, PRECEDENCE, true);
+        this.fragmentCache = fragmentCache;
+        this.dataVersionService = dataVersionService;
+        this.templateEngine = templateEngine;
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IModel model, AttributeName attributeName,
+            String attributeValue, IElementModelStructureHandler structureHandler) {
+        IProcessableElementTag tag = (IProcessableElementTag) model.get(0);
+        String keyExpression = tag.getAttributeValue(getDialectPrefix(), KEY_ATTR_NAME);
+        model.replace(0, context.getModelFactory().removeAttribute(tag, getDialectPrefix(), KEY_ATTR_NAME));
+
+        UUID userId = currentUserId();
+        if (!fragmentCache.isEnabled() || userId == null || Boolean.TRUE.equals(RENDERING.get())
+                || !(context instanceof IWebContext webContext)) {
+            // Render biasa
+            return;
+        }
+
+        String[] selector = attributeValue.split("::", 2);
+        if (selector.length != 2 || selector[0].isBlank() || selector[1].isBlank()) {
+            throw new TemplateProcessingException(
+                    "Nilai " + getDialectPrefix() + ":" + ATTR_NAME + " harus berformat 'template :: fragment'");
+        }
+
+        String extraKey = keyExpression == null ? ""
+                : String.valueOf(StandardExpressions.getExpressionParser(context.getConfiguration())
+                        .parseExpression(context, keyExpression).execute(context));
+        String cacheKey = userId + "|" + dataVersionService.getVersion(userId) + "|" + attributeValue.trim()
+                + "|" + context.getLocale() + "|" + extraKey;
+
+        String html = fragmentCache.get(cacheKey);
+        if (html == null) {
+            html = render(context, webContext, selector[0].trim(), selector[1].trim());
+            fragmentCache.put(cacheKey, html);
+        }
+
+        model.reset();
+        model.add(context.getModelFactory().createText(html));
+    }
+
+    private String render(ITemplateContext context, IWebContext webContext, String template, String fragment) {
+        WebContext nested = new WebContext(webContext.getExchange(), context.getLocale());
+        for (String name : context.getVariableNames()) {
+            nested.setVariable(name, context.getVariable(name));
+        }
+
+        RENDERING.set(Boolean.TRUE);
+        try {
+            return templateEngine.getObject().process(template, Set.of(fragment), nested);
+        } finally {
+            RENDERING.remove();
+        }
+    }
+
+    private UUID currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,45 @@
+-- Skema awal, sama dengan yang dulu dibuat Hibernate ddl-auto=update.
+-- Database lama yang sudah punya tabel ini di-baseline di versi 1
+-- (spring.flyway.baseline-on-migrate), jadi file ini hanya jalan di database kosong.
+-- SQL sengaja portable (PostgreSQL dan H2) karena test tanpa datasource memakai H2.
+
+CREATE TABLE users (
+    id uuid NOT NULL,
+    name varchar(255) NOT NULL,
+    email varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    bio text,
+    profile_photo varchar(255),
+    preferences varchar(255),
+    favorite_workout_type varchar(255),
+    weekly_duration_goal integer,
+    daily_calorie_goal integer,
+    CONSTRAINT users_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE auth_tokens (
+    id uuid NOT NULL,
+    token text NOT NULL,
+    user_id uuid NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT auth_tokens_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE workouts (
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    title varchar(255) NOT NULL,
+    description varchar(255) NOT NULL,
+    duration_minutes integer NOT NULL,
+    calories_burned double precision NOT NULL,
+    date date NOT NULL,
+    type varchar(255) NOT NULL,
+    image_path varchar(255),
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT workouts_pkey PRIMARY KEY (id),
+    CONSTRAINT workouts_type_check
+        CHECK (type IN ('RUNNING', 'CYCLING', 'GYM', 'STRETCHING', 'BODYWEIGHT', 'PLANK'))
+);
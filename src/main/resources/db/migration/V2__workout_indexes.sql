@@ -0,0 +1,21 @@
+-- Index yang dipilih sengaja, satu per pola akses di WorkoutRepository.
+-- WorkoutRepositoryPlanTests gagal jika ada query yang jatuh ke Seq Scan.
+
+-- Daftar/slice terbaru dulu (ORDER BY date DESC, created_at DESC), SUM/COUNT per
+-- user dan grafik harian (date >= ?). Prefix user_id juga melayani semua filter
+-- "WHERE user_id = ?", jadi index tunggal (user_id) tidak perlu dibuat terpisah:
+-- hanya menambah biaya tulis tanpa membuka plan baru.
+CREATE INDEX idx_workouts_user_date ON workouts (user_id, date DESC, created_at DESC);
+
+-- Filter per tipe (daftar, slice, page) dan grafik per tipe
+CREATE INDEX idx_workouts_user_type_date ON workouts (user_id, type, date DESC);
+
+-- Garbage collector upload: image_path IN (...)
+CREATE INDEX idx_workouts_image_path ON workouts (image_path);
+
+-- Login, logout dan pengecekan token
+CREATE INDEX idx_auth_tokens_user_id ON auth_tokens (user_id);
+
+-- Email adalah natural id User. Database lama yang punya email ganda harus
+-- dibersihkan dulu; migration ini sengaja gagal daripada diam-diam melewatinya.
+ALTER TABLE users ADD CONSTRAINT users_email_key UNIQUE (email);
@@ -0,0 +1,136 @@
+package org.delcom.app;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.repositories.WorkoutRepository;
+import org.delcom.app.services.WorkoutService;
+import org.delcom.app.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Budget jumlah statement SQL per endpoint. Request diautentikasi lewat
+ * session (principal {@link User}), jadi AuthInterceptor tidak menambah query
+ * dan yang terhitung hanya kerja handler dan render view.
+ *
+ * Jika sebuah perubahan menambah query (N+1, query ganda), test ini gagal
+ * dengan daftar SQL yang dieksekusi. Naikkan budget hanya jika memang disengaja.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "app.storage.type=memory",
+        "app.access-log.enabled=false"
+})
+@AutoConfigureMockMvc
+@Import(SqlStatementCounter.Configuration.class)
+class QueryBudgetTests {
+
+    private static final String WORKOUT_JSON = """
+            {"title":"Lari Sore","description":"Santai","durationMinutes":30,"type":"RUNNING","date":"%s"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    private User user;
+    private UUID workoutId;
+
+    static Stream<Arguments> budgets() {
+        String body = WORKOUT_JSON.formatted(LocalDate.now());
+        return Stream.of(
+                // method, path, body (JSON/form), budget
+                Arguments.of("GET", "/api/workouts", null, 1),
+                Arguments.of("GET", "/api/workouts?search=lari", null, 1),
+                // Semua kriteria filter tetap satu query
+                Arguments.of("GET", "/api/workouts?type=RUNNING,GYM&search=lari&from=2020-01-01&to=2099-12-31"
+                        + "&minDuration=10&maxDuration=120&sort=longest", null, 1),
+                Arguments.of("GET", "/api/workouts/{workoutId}", null, 1),
+                Arguments.of("GET", "/api/workouts/stats", null, 2),
+                Arguments.of("GET", "/api/workouts/stats?range=month", null, 2),
+                Arguments.of("POST", "/api/workouts", body, 1),
+                // SELECT milik user + UPDATE
+                Arguments.of("PUT", "/api/workouts/{workoutId}", body, 2),
+                // SELECT milik user + DELETE (deleteById memakai entity dari persistence context)
+                Arguments.of("DELETE", "/api/workouts/{workoutId}", null, 2),
+                Arguments.of("GET", "/api/users/me", null, 0),
+                // User terbaru + COUNT workout
+                Arguments.of("GET", "/profile", null, 2),
+                Arguments.of("GET", "/activities", null, 1),
+                Arguments.of("GET", "/activities/fragments/list?page=0", null, 1),
+                Arguments.of("GET", "/activities/fragments/list?page=1&type=RUNNING&type=GYM&search=lari&sort=oldest",
+                        null, 1),
+                // SUM durasi, SUM kalori, COUNT
+                Arguments.of("GET", "/activities/fragments/stats", null, 3),
+                // Form tidak valid: hanya halaman pertama daftar workout untuk render ulang
+                Arguments.of("POST", "/workouts/add", "form:title=", 1),
+                Arguments.of("POST", "/workouts/add",
+                        "form:title=Lari&description=Pagi&durationMinutes=30&type=RUNNING&date=" + LocalDate.now(),
+                        1));
+    }
+
+    @BeforeEach
+    void seed() {
+        user = userRepository.save(new User("Budget", "budget-" + UUID.randomUUID() + "@test.local", "x"));
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 5; i++) {
+            WorkoutType type = WorkoutType.values()[i % WorkoutType.values().length];
+            Workout workout = workoutRepository.save(new Workout(user.getId(), "Workout " + i, "Lari santai", 30,
+                    WorkoutService.calculateCalories(type, 30), today.minusDays(i), type, null));
+            workoutId = workout.getId();
+        }
+    }
+
+    @ParameterizedTest(name = "{0} {1} <= {3} statement")
+    @MethodSource("budgets")
+    void endpointStaysWithinQueryBudget(String method, String path, String body, int budget) throws Exception {
+        String uri = path.replace("{workoutId}", workoutId.toString());
+        MockHttpServletRequestBuilder request = request(HttpMethod.valueOf(method), uri)
+                .with(authentication(new UsernamePasswordAuthenticationToken(user, null, List.of())))
+                .with(csrf());
+        if (body != null && body.startsWith("form:")) {
+            request.contentType(MediaType.APPLICATION_FORM_URLENCODED).content(body.substring("form:".length()));
+        } else if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+
+        sqlStatementCounter.assertWithinBudget(method + " " + path, budget,
+                () -> mockMvc.perform(request).andExpect(result -> assertTrue(result.getResponse().getStatus() < 400,
+                        uri + " -> " + result.getResponse().getStatus())));
+    }
+}
@@ -0,0 +1,116 @@
+package org.delcom.app.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.entities.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.annotation.RequestScope;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Biaya per akses {@code isAuthenticated()} + {@code getAuthUser()}: desain lama
+ * (bean {@code @RequestScope} lewat CGLIB proxy) dibanding {@link AuthContext}
+ * berbasis {@link ScopedValue}.
+ *
+ * Jalankan: {@code mvn test -Dgroups=benchmark -Dsurefire.excludedGroups= -Djacoco.skip=true}
+ * Hasil ditulis ke {@code target/benchmarks/auth-context.json}.
+ */
+@Tag("benchmark")
+class AuthContextBenchmarkTests {
+
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5_000_000);
+    private static final int ROUNDS = 5;
+
+    // Salinan AuthContext sebelum memakai ScopedValue
+    @RequestScope
+    static class RequestScopedAuthContext {
+        private User authUser;
+
+        public User getAuthUser() {
+            return authUser;
+        }
+
+        public void setAuthUser(User authUser) {
+            this.authUser = authUser;
+        }
+
+        public boolean isAuthenticated() {
+            return authUser != null;
+        }
+    }
+
+    @Test
+    @DisplayName("ScopedValue vs @RequestScope proxy per akses")
+    void compareAccessCost() throws Exception {
+        User user = new User("Bench", "bench@example.com", "secret");
+
+        double proxyNanos;
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.getBeanFactory().registerScope(WebApplicationContext.SCOPE_REQUEST,
+                    new org.springframework.web.context.request.RequestScope());
+            context.register(RequestScopedAuthContext.class);
+            context.refresh();
+
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            try {
+                RequestScopedAuthContext proxy = context.getBean(RequestScopedAuthContext.class);
+                proxy.setAuthUser(user);
+                proxyNanos = measure(() -> proxy.isAuthenticated() ? proxy.getAuthUser().hashCode() : 0);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }
+
+        AuthContext authContext = new AuthContext();
+        double scopedNanos = AuthContext.callInScope(() -> {
+            authContext.setAuthUser(user);
+            return measure(() -> authContext.isAuthenticated() ? authContext.getAuthUser().hashCode() : 0);
+        });
+
+        System.out.printf(Locale.ROOT, "%n@RequestScope proxy : %8.2f ns/op%nScopedValue         : %8.2f ns/op%n",
+                proxyNanos, scopedNanos);
+
+        Path output = Path.of("target", "benchmarks", "auth-context.json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, String.format(Locale.ROOT,
+                "{\"iterations\":%d,\"requestScopeProxyNsPerOp\":%.3f,\"scopedValueNsPerOp\":%.3f}",
+                ITERATIONS, proxyNanos, scopedNanos));
+
+        assertTrue(proxyNanos > 0 && scopedNanos > 0);
+    }
+
+    private interface Access {
+        int run();
+    }
+
+    // Ronde pertama pemanasan JIT, hasil = rata-rata ronde terbaik
+    private static double measure(Access access) {
+        double best = Double.MAX_VALUE;
+        int sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += access.run();
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round > 0) {
+                best = Math.min(best, (double) elapsed / ITERATIONS);
+            }
+        }
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return best;
+    }
+}
@@ -0,0 +1,284 @@
+package org.delcom.app.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.delcom.app.Application;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Membandingkan throughput dan p99 endpoint workout CRUD + stats antara
+ * pool platform thread Tomcat dan virtual thread.
+ *
+ * Jalankan: {@code mvn test -Dgroups=benchmark -Dsurefire.excludedGroups= -Djacoco.skip=true}
+ *
+ * Parameter (system property): {@code bench.concurrency} (256),
+ * {@code bench.warmup-seconds} (5), {@code bench.duration-seconds} (20),
+ * {@code bench.users} (16), {@code bench.datasource.url} (H2 in-memory;
+ * isi URL Postgres lokal beserta {@code bench.datasource.username/password}
+ * untuk latensi JDBC yang realistis). Hasil ditulis ke
+ * {@code target/benchmarks/virtual-threads.json}.
+ */
+@Tag("benchmark")
+class VirtualThreadBenchmarkTests {
+
+    private static final String[] ENDPOINTS = { "POST /api/workouts", "GET /api/workouts/{id}",
+            "PUT /api/workouts/{id}", "GET /api/workouts/stats", "DELETE /api/workouts/{id}" };
+    private static final Pattern TOKEN = Pattern.compile("\"authToken\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+
+    private final int concurrency = Integer.getInteger("bench.concurrency", 256);
+    private final int warmupSeconds = Integer.getInteger("bench.warmup-seconds", 5);
+    private final int durationSeconds = Integer.getInteger("bench.duration-seconds", 20);
+    private final int users = Integer.getInteger("bench.users", 16);
+
+    @Test
+    @DisplayName("Platform thread vs virtual thread pada workout CRUD dan stats")
+    void compareThreadModes() throws Exception {
+        Map<String, ModeResult> results = new LinkedHashMap<>();
+        results.put("platform", runMode(false));
+        results.put("virtual", runMode(true));
+
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%n%-10s %-28s %10s %10s %10s%n",
+                "mode", "endpoint", "req/s", "p50 ms", "p99 ms"));
+        results.forEach((mode, result) -> {
+            result.endpoints.forEach((endpoint, stats) -> table.append(String.format(Locale.ROOT,
+                    "%-10s %-28s %10.1f %10.2f %10.2f%n", mode, endpoint, stats.count / result.seconds,
+                    stats.percentile(50), stats.percentile(99))));
+            table.append(String.format(Locale.ROOT, "%-10s errors=%d%n", mode, result.errors));
+        });
+        System.out.println(table);
+
+        Path output = Path.of("target", "benchmarks", "virtual-threads.json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, toJson(results));
+
+        results.forEach((mode, result) -> assertTrue(result.endpoints.get(ENDPOINTS[0]).count > result.errors,
+                "Mode " + mode + " hampir tidak melayani request"));
+    }
+
+    private ModeResult runMode(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=" + System.getProperty("bench.datasource.url",
+                                "jdbc:h2:mem:bench-" + mode + ";DB_CLOSE_DELAY=-1"),
+                        "spring.datasource.username=" + System.getProperty("bench.datasource.username", "sa"),
+                        "spring.datasource.password=" + System.getProperty("bench.datasource.password", ""),
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.flyway.enabled=false",
+                        "spring.datasource.hikari.maximum-pool-size=16",
+                        "app.storage.type=memory",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            String baseUrl = "http://localhost:" + port;
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient http = HttpClient.newBuilder().executor(clients)
+                        .connectTimeout(Duration.ofSeconds(10)).build();
+                List<String> tokens = new ArrayList<>();
+                for (int i = 0; i < users; i++) {
+                    tokens.add(login(http, baseUrl, mode + "-" + i + "@bench.local"));
+                }
+
+                runLoad(http, clients, baseUrl, tokens, warmupSeconds);
+                return runLoad(http, clients, baseUrl, tokens, durationSeconds);
+            }
+        }
+    }
+
+    private ModeResult runLoad(HttpClient http, ExecutorService clients, String baseUrl, List<String> tokens,
+            int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<Worker>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(http, baseUrl, tokens.get(i % tokens.size()), deadline);
+            futures.add(clients.submit(() -> {
+                worker.run();
+                return worker;
+            }));
+        }
+
+        ModeResult result = new ModeResult(seconds);
+        for (Future<Worker> future : futures) {
+            Worker worker = future.get();
+            result.errors += worker.errors;
+            for (int i = 0; i < ENDPOINTS.length; i++) {
+                result.endpoints.computeIfAbsent(ENDPOINTS[i], k -> new Latencies()).addAll(worker.latencies[i]);
+            }
+        }
+        return result;
+    }
+
+    private String login(HttpClient http, String baseUrl, String email) throws IOException, InterruptedException {
+        String credentials = "{\"name\":\"Bench\",\"email\":\"" + email + "\",\"password\":\"secret\"}";
+        send(http, post(baseUrl + "/api/auth/register", credentials, null));
+        String body = send(http, post(baseUrl + "/api/auth/login", credentials, null)).body();
+        Matcher matcher = TOKEN.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login benchmark gagal: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static HttpRequest post(String url, String json, String token) {
+        return json(HttpRequest.newBuilder(URI.create(url)), token).POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static HttpRequest.Builder json(HttpRequest.Builder builder, String token) {
+        builder.header("Content-Type", "application/json").timeout(Duration.ofSeconds(30));
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private static HttpResponse<String> send(HttpClient http, HttpRequest request)
+            throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String toJson(Map<String, ModeResult> results) {
+        StringBuilder json = new StringBuilder("{");
+        String modeSeparator = "";
+        for (Map.Entry<String, ModeResult> mode : results.entrySet()) {
+            ModeResult result = mode.getValue();
+            json.append(modeSeparator).append('"').append(mode.getKey()).append("\":{\"seconds\":")
+                    .append(result.seconds).append(",\"errors\":").append(result.errors).append(",\"endpoints\":{");
+            String endpointSeparator = "";
+            for (Map.Entry<String, Latencies> endpoint : result.endpoints.entrySet()) {
+                Latencies stats = endpoint.getValue();
+                json.append(endpointSeparator).append('"').append(endpoint.getKey()).append("\":")
+                        .append(String.format(Locale.ROOT,
+                                "{\"count\":%d,\"throughput\":%.2f,\"p50Ms\":%.3f,\"p99Ms\":%.3f}",
+                                stats.count, stats.count / result.seconds, stats.percentile(50),
+                                stats.percentile(99)));
+                endpointSeparator = ",";
+            }
+            json.append("}}");
+            modeSeparator = ",";
+        }
+        return json.append('}').toString();
+    }
+
+    // Satu klien: siklus create -> get -> update -> stats -> delete sampai deadline
+    private static final class Worker {
+        private final HttpClient http;
+        private final String baseUrl;
+        private final String token;
+        private final long deadline;
+        private final Latencies[] latencies = new Latencies[ENDPOINTS.length];
+        private int errors;
+
+        Worker(HttpClient http, String baseUrl, String token, long deadline) {
+            this.http = http;
+            this.baseUrl = baseUrl;
+            this.token = token;
+            this.deadline = deadline;
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new Latencies();
+            }
+        }
+
+        void run() throws InterruptedException {
+            String body = "{\"title\":\"Bench\",\"description\":\"Load test\",\"durationMinutes\":30,"
+                    + "\"type\":\"RUNNING\",\"date\":\"" + LocalDate.now() + "\"}";
+            while (System.nanoTime() < deadline) {
+                String created = timed(0, post(baseUrl + "/api/workouts", body, token));
+                Matcher matcher = created == null ? null : ID.matcher(created);
+                if (matcher == null || !matcher.find()) {
+                    continue;
+                }
+                String url = baseUrl + "/api/workouts/" + matcher.group(1);
+                timed(1, json(HttpRequest.newBuilder(URI.create(url)), token).GET().build());
+                timed(2, json(HttpRequest.newBuilder(URI.create(url)), token)
+                        .PUT(HttpRequest.BodyPublishers.ofString(body)).build());
+                timed(3, json(HttpRequest.newBuilder(URI.create(baseUrl + "/api/workouts/stats?range=month")),
+                        token).GET().build());
+                timed(4, json(HttpRequest.newBuilder(URI.create(url)), token).DELETE().build());
+            }
+        }
+
+        // Timeout/koneksi ditolak dihitung sebagai error, bukan menggagalkan benchmark
+        private String timed(int endpoint, HttpRequest request) throws InterruptedException {
+            long start = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = send(http, request);
+            } catch (IOException e) {
+                errors++;
+                return null;
+            }
+            latencies[endpoint].add(System.nanoTime() - start);
+            if (response.statusCode() != 200) {
+                errors++;
+                return null;
+            }
+            return response.body();
+        }
+    }
+
+    private static final class Latencies {
+        private long[] values = new long[1024];
+        private int count;
+
+        void add(long nanos) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+        }
+
+        void addAll(Latencies other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        double percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+
+    private static final class ModeResult {
+        private final double seconds;
+        private final Map<String, Latencies> endpoints = new LinkedHashMap<>();
+        private int errors;
+
+        ModeResult(double seconds) {
+            this.seconds = seconds;
+        }
+    }
+}
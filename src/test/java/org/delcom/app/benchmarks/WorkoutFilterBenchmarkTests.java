@@ -0,0 +1,264 @@
+package org.delcom.app.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.delcom.app.Application;
+import org.delcom.app.dto.WorkoutFilter;
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.delcom.app.repositories.WorkoutRepository;
+import org.delcom.app.services.WorkoutService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Membandingkan filter gabungan ({@link WorkoutRepository#findByFilter}, satu
+ * query) dengan cara lama: query terpisah per tipe atau per keyword, lalu
+ * kriteria sisanya (tanggal, durasi, urutan) disaring di memori.
+ *
+ * Jalankan: {@code mvn test -Dgroups=benchmark -Dsurefire.excludedGroups= -Djacoco.skip=true -Dtest=WorkoutFilterBenchmarkTests}
+ *
+ * Parameter (system property): {@code bench.filter.users} (10),
+ * {@code bench.filter.workouts-per-user} (2000), {@code bench.filter.iterations}
+ * (200), {@code bench.datasource.url} (H2 in-memory; isi URL Postgres lokal
+ * beserta {@code bench.datasource.username/password} untuk plan yang realistis).
+ * Hasil ditulis ke {@code target/benchmarks/workout-filter.json}.
+ */
+@Tag("benchmark")
+class WorkoutFilterBenchmarkTests {
+
+    private static final LocalDate END_DATE = LocalDate.of(2025, 6, 30);
+    private static final int DAYS = 730;
+    private static final String[] TITLES = { "Lari pagi", "Gowes sore", "Latihan beban", "Peregangan", "Plank" };
+
+    private final int users = Integer.getInteger("bench.filter.users", 10);
+    private final int workoutsPerUser = Integer.getInteger("bench.filter.workouts-per-user", 2000);
+    private final int iterations = Integer.getInteger("bench.filter.iterations", 200);
+
+    @Test
+    @DisplayName("Filter gabungan vs query terpisah + saring di memori")
+    void compareFilterStrategies() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + System.getProperty("bench.datasource.url",
+                                "jdbc:h2:mem:bench-filter;DB_CLOSE_DELAY=-1"),
+                        "spring.datasource.username=" + System.getProperty("bench.datasource.username", "sa"),
+                        "spring.datasource.password=" + System.getProperty("bench.datasource.password", ""),
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.flyway.enabled=false",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=500",
+                        "app.storage.type=memory",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run()) {
+            WorkoutRepository repository = context.getBean(WorkoutRepository.class);
+            List<UUID> userIds = seed(repository);
+
+            Map<String, Map<String, Stats>> results = new LinkedHashMap<>();
+            for (Map.Entry<String, WorkoutFilter> scenario : scenarios().entrySet()) {
+                WorkoutFilter filter = scenario.getValue();
+                // Hasil kedua strategi harus sama sebelum waktunya dibandingkan
+                for (UUID userId : userIds) {
+                    assertEquals(ids(separate(repository, userId, filter)), ids(combined(repository, userId, filter)),
+                            scenario.getKey());
+                }
+                Map<String, Stats> strategies = new LinkedHashMap<>();
+                strategies.put("separate", measure(userIds, userId -> separate(repository, userId, filter)));
+                strategies.put("combined", measure(userIds, userId -> combined(repository, userId, filter)));
+                results.put(scenario.getKey(), strategies);
+            }
+
+            StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%n%-28s %-10s %8s %10s %10s %10s%n",
+                    "scenario", "strategy", "rows", "avg ms", "p50 ms", "p99 ms"));
+            results.forEach((scenario, strategies) -> strategies.forEach((strategy, stats) -> table.append(
+                    String.format(Locale.ROOT, "%-28s %-10s %8.1f %10.3f %10.3f %10.3f%n", scenario, strategy,
+                            stats.averageRows(), stats.averageMillis(), stats.percentile(50),
+                            stats.percentile(99)))));
+            System.out.println(table);
+
+            Path output = Path.of("target", "benchmarks", "workout-filter.json");
+            Files.createDirectories(output.getParent());
+            Files.writeString(output, toJson(results));
+        }
+    }
+
+    private Map<String, WorkoutFilter> scenarios() {
+        Map<String, WorkoutFilter> scenarios = new LinkedHashMap<>();
+        scenarios.put("satu tipe", filter(List.of("RUNNING"), null, null, null, null, null));
+        scenarios.put("dua tipe + 30 hari", filter(List.of("RUNNING", "CYCLING"), null,
+                END_DATE.minusDays(30), null, null, null));
+        scenarios.put("keyword + durasi", filter(null, "pagi", null, null, 45, null));
+        scenarios.put("tipe + keyword + 90 hari", filter(List.of("RUNNING"), "pagi",
+                END_DATE.minusDays(90), END_DATE, 20, 90));
+        scenarios.put("rentang durasi, terlama", filter(null, null, null, null, 60, 120));
+        return scenarios;
+    }
+
+    private static WorkoutFilter filter(List<String> types, String search, LocalDate from, LocalDate to,
+            Integer minDuration, Integer maxDuration) {
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setType(types);
+        filter.setSearch(search);
+        filter.setFrom(from);
+        filter.setTo(to);
+        filter.setMinDuration(minDuration);
+        filter.setMaxDuration(maxDuration);
+        filter.setSort(maxDuration != null && types == null ? "longest" : null);
+        return filter;
+    }
+
+    private List<UUID> seed(WorkoutRepository repository) {
+        Random random = new Random(42);
+        WorkoutType[] types = WorkoutType.values();
+        List<UUID> userIds = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            UUID userId = UUID.randomUUID();
+            userIds.add(userId);
+            List<Workout> batch = new ArrayList<>(workoutsPerUser);
+            for (int i = 0; i < workoutsPerUser; i++) {
+                WorkoutType type = types[random.nextInt(types.length)];
+                int duration = 10 + random.nextInt(110);
+                batch.add(new Workout(userId, TITLES[random.nextInt(TITLES.length)], "Sesi latihan " + i, duration,
+                        WorkoutService.calculateCalories(type, duration), END_DATE.minusDays(random.nextInt(DAYS)),
+                        type, null));
+            }
+            repository.saveAll(batch);
+        }
+        return userIds;
+    }
+
+    // Cara lama: satu query per tipe (atau per keyword), sisanya di memori
+    private static List<Workout> separate(WorkoutRepository repository, UUID userId, WorkoutFilter filter) {
+        List<Workout> base = new ArrayList<>();
+        Set<WorkoutType> types = filter.getTypes();
+        if (!types.isEmpty()) {
+            for (WorkoutType type : types) {
+                base.addAll(repository.findByUserIdAndTypeOrderByDateDesc(userId, type));
+            }
+        } else if (filter.getKeyword() != null) {
+            base.addAll(repository.findByKeyword(userId, filter.getKeyword()));
+        } else {
+            base.addAll(repository.findByUserIdOrderByDateDesc(userId));
+        }
+        String keyword = filter.getKeyword() == null ? null : filter.getKeyword().toLowerCase(Locale.ROOT);
+        return base.stream()
+                .filter(w -> keyword == null || w.getTitle().toLowerCase(Locale.ROOT).contains(keyword)
+                        || w.getDescription().toLowerCase(Locale.ROOT).contains(keyword))
+                .filter(w -> filter.getFrom() == null || !w.getDate().isBefore(filter.getFrom()))
+                .filter(w -> filter.getTo() == null || !w.getDate().isAfter(filter.getTo()))
+                .filter(w -> filter.getMinDuration() == null || w.getDurationMinutes() >= filter.getMinDuration())
+                .filter(w -> filter.getMaxDuration() == null || w.getDurationMinutes() <= filter.getMaxDuration())
+                .sorted(comparator(filter.getSortOrder()))
+                .toList();
+    }
+
+    private static List<Workout> combined(WorkoutRepository repository, UUID userId, WorkoutFilter filter) {
+        return repository.findByFilter(userId, filter, Pageable.unpaged(filter.getSortOrder().toSort()))
+                .getContent();
+    }
+
+    private static Comparator<Workout> comparator(WorkoutFilter.SortOrder order) {
+        Comparator<Workout> comparator = switch (order) {
+            case OLDEST -> Comparator.comparing(Workout::getDate);
+            case LONGEST -> Comparator.comparing(Workout::getDurationMinutes, Comparator.reverseOrder());
+            case SHORTEST -> Comparator.comparing(Workout::getDurationMinutes);
+            case MOST_CALORIES -> Comparator.comparing(Workout::getCaloriesBurned, Comparator.reverseOrder());
+            case NEWEST -> Comparator.comparing(Workout::getDate, Comparator.reverseOrder());
+        };
+        return comparator.thenComparing(Workout::getCreatedAt, Comparator.reverseOrder());
+    }
+
+    private static Set<UUID> ids(List<Workout> workouts) {
+        return workouts.stream().map(Workout::getId).collect(Collectors.toSet());
+    }
+
+    private Stats measure(List<UUID> userIds, Function<UUID, List<Workout>> query) {
+        // Pemanasan JIT, koneksi pool dan plan cache
+        for (int i = 0; i < Math.max(iterations / 5, 1); i++) {
+            query.apply(userIds.get(i % userIds.size()));
+        }
+        Stats stats = new Stats(iterations);
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            List<Workout> rows = query.apply(userIds.get(i % userIds.size()));
+            stats.add(System.nanoTime() - start, rows.size());
+        }
+        return stats;
+    }
+
+    private static String toJson(Map<String, Map<String, Stats>> results) {
+        StringBuilder json = new StringBuilder("{");
+        String scenarioSeparator = "";
+        for (Map.Entry<String, Map<String, Stats>> scenario : results.entrySet()) {
+            json.append(scenarioSeparator).append('"').append(scenario.getKey()).append("\":{");
+            String strategySeparator = "";
+            for (Map.Entry<String, Stats> strategy : scenario.getValue().entrySet()) {
+                Stats stats = strategy.getValue();
+                json.append(strategySeparator).append('"').append(strategy.getKey()).append("\":")
+                        .append(String.format(Locale.ROOT,
+                                "{\"rows\":%.1f,\"avgMs\":%.3f,\"p50Ms\":%.3f,\"p99Ms\":%.3f}",
+                                stats.averageRows(), stats.averageMillis(), stats.percentile(50),
+                                stats.percentile(99)));
+                strategySeparator = ",";
+            }
+            json.append('}');
+            scenarioSeparator = ",";
+        }
+        return json.append('}').toString();
+    }
+
+    private static final class Stats {
+        private final long[] nanos;
+        private long rows;
+        private int count;
+
+        Stats(int capacity) {
+            nanos = new long[capacity];
+        }
+
+        void add(long elapsedNanos, int resultRows) {
+            nanos[count++] = elapsedNanos;
+            rows += resultRows;
+        }
+
+        double averageRows() {
+            return count == 0 ? 0 : (double) rows / count;
+        }
+
+        double averageMillis() {
+            return count == 0 ? 0 : Arrays.stream(nanos, 0, count).average().orElse(0) / 1_000_000.0;
+        }
+
+        double percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+
+import org.delcom.app.entities.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+class AuthContextFilterTests {
+
+    private final AuthContextFilter filter = new AuthContextFilter();
+    private final AuthContext authContext = new AuthContext();
+
+    @Test
+    @DisplayName("Chain berjalan di dalam scope AuthContext")
+    void bindsScopeForChain() throws Exception {
+        User user = new User("Test", "test@example.com", "123456");
+        User[] seen = new User[1];
+        FilterChain chain = (req, res) -> {
+            authContext.setAuthUser(user);
+            seen[0] = authContext.getAuthUser();
+        };
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain);
+
+        assertSame(user, seen[0]);
+        assertNull(authContext.getAuthUser());
+    }
+
+    @Test
+    @DisplayName("Exception dari chain diteruskan apa adanya")
+    void rethrowsChainExceptions() {
+        FilterChain io = (req, res) -> {
+            throw new IOException("io");
+        };
+        FilterChain servlet = (req, res) -> {
+            throw new ServletException("servlet");
+        };
+        FilterChain runtime = (req, res) -> {
+            throw new IllegalStateException("runtime");
+        };
+
+        assertThrows(IOException.class,
+                () -> filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), io));
+        assertThrows(ServletException.class,
+                () -> filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), servlet));
+        assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), runtime));
+    }
+}
@@ -1,5 +1,9 @@
 package org.delcom.app.configs;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.delcom.app.entities.User;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,25 +12,75 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class AuthContextTests {
 
-    @Test
-    @DisplayName("Membuat instance kelas AuthContext dengan benar")
-    void testAuthContextMethods() {
-        AuthContext authContext = new AuthContext();
+    private final AuthContext authContext = new AuthContext();
 
-        // Awalnya null
+    @Test
+    @DisplayName("Di luar scope request AuthContext kosong dan tidak bisa diisi")
+    void outsideScope() {
         assertNull(authContext.getAuthUser());
         assertFalse(authContext.isAuthenticated());
+        assertNull(AuthContext.current());
+
+        User user = new User("Abdullah Ubaid", "test@example.com", "123456");
+        assertThrows(IllegalStateException.class, () -> authContext.setAuthUser(user));
+    }
 
-        // Set user
+    @Test
+    @DisplayName("User diisi sekali per scope request")
+    void setOncePerScope() {
         User user = new User("Abdullah Ubaid", "test@example.com", "123456");
-        authContext.setAuthUser(user);
+        User other = new User("Lain", "other@example.com", "123456");
+
+        AuthContext.callInScope(() -> {
+            assertFalse(authContext.isAuthenticated());
 
-        assertEquals(user, authContext.getAuthUser());
-        assertTrue(authContext.isAuthenticated());
+            authContext.setAuthUser(user);
+            assertEquals(user, authContext.getAuthUser());
+            assertTrue(authContext.isAuthenticated());
 
-        // Set null lagi
-        authContext.setAuthUser(null);
+            // Mengisi ulang dengan user yang sama tidak masalah, user lain ditolak
+            authContext.setAuthUser(user);
+            assertThrows(IllegalStateException.class, () -> authContext.setAuthUser(other));
+            return null;
+        });
+
+        // Scope berikutnya mulai kosong lagi
+        AuthContext.callInScope(() -> {
+            assertNull(authContext.getAuthUser());
+            return null;
+        });
         assertNull(authContext.getAuthUser());
-        assertFalse(authContext.isAuthenticated());
+    }
+
+    @Test
+    @DisplayName("propagate membawa user ke task di thread lain")
+    void propagateToChildTasks() throws Exception {
+        User user = new User("Abdullah Ubaid", "test@example.com", "123456");
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            User[] fromRunnable = new User[1];
+            User fromCallable = AuthContext.callInScope(() -> {
+                authContext.setAuthUser(user);
+                executor.submit(AuthContext.propagate(() -> {
+                    fromRunnable[0] = AuthContext.current();
+                })).get();
+                Callable<User> task = AuthContext::current;
+                return executor.submit(AuthContext.propagate(task)).get();
+            });
+
+            assertSame(user, fromRunnable[0]);
+            assertSame(user, fromCallable);
+        }
+    }
+
+    @Test
+    @DisplayName("propagate di luar scope mengembalikan task apa adanya")
+    void propagateOutsideScope() {
+        Runnable runnable = () -> {
+        };
+        Callable<User> callable = AuthContext::current;
+
+        assertSame(runnable, AuthContext.propagate(runnable));
+        assertSame(callable, AuthContext.propagate(callable));
     }
 }
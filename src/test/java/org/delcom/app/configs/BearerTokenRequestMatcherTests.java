@@ -0,0 +1,65 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.UUID;
+
+import org.delcom.app.entities.AuthToken;
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.utils.JwtUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+@ExtendWith(MockitoExtension.class)
+class BearerTokenRequestMatcherTests {
+
+    @Mock
+    private AuthTokenService authTokenService;
+
+    @InjectMocks
+    private BearerTokenRequestMatcher matcher;
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/workouts");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+
+    @Test
+    @DisplayName("Hanya bearer token yang valid dan tercatat di database yang cocok")
+    void matchesOnlyStoredValidTokens() {
+        UUID userId = UUID.randomUUID();
+        String token = JwtUtil.generateToken(userId);
+        when(authTokenService.findUserToken(userId, token)).thenReturn(new AuthToken(userId, token), (AuthToken) null);
+
+        assertTrue(matcher.matches(request("Bearer " + token)));
+        // Sudah logout: token tidak lagi tercatat
+        assertFalse(matcher.matches(request("Bearer " + token)));
+
+        assertFalse(matcher.matches(request(null)));
+        assertFalse(matcher.matches(request("Basic abc")));
+        assertFalse(matcher.matches(request("Bearer palsu")));
+        verifyNoMoreInteractions(authTokenService);
+    }
+
+    @Test
+    @DisplayName("Token tanpa user id tidak dicari di database")
+    void tokenWithoutUserId() {
+        try (MockedStatic<JwtUtil> jwt = mockStatic(JwtUtil.class)) {
+            jwt.when(() -> JwtUtil.validateToken("token", true)).thenReturn(true);
+            jwt.when(() -> JwtUtil.extractUserId("token")).thenReturn(null);
+
+            assertFalse(matcher.matches(request("Bearer token")));
+        }
+        verifyNoInteractions(authTokenService);
+    }
+}
@@ -0,0 +1,51 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class FragmentEtagFilterTests {
+
+    private final FragmentEtagFilter filter = new FragmentEtagFilter();
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws java.io.IOException {
+                res.getOutputStream().write("<div>fragment</div>".getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    @Test
+    @DisplayName("Adds ETag and answers 304 for unchanged fragments")
+    void fragmentGetsEtag() throws Exception {
+        MockHttpServletResponse first = perform(new MockHttpServletRequest("GET", "/activities/fragments/stats"));
+        String etag = first.getHeader("ETag");
+        assertNotNull(etag);
+
+        MockHttpServletRequest second = new MockHttpServletRequest("GET", "/activities/fragments/stats");
+        second.addHeader("If-None-Match", etag);
+        assertEquals(304, perform(second).getStatus());
+    }
+
+    @Test
+    @DisplayName("Skips non-fragment URIs")
+    void otherPathsSkipped() throws Exception {
+        MockHttpServletResponse response = perform(new MockHttpServletRequest("GET", "/activities"));
+        assertNull(response.getHeader("ETag"));
+    }
+}
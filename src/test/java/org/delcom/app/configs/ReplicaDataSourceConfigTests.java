@@ -0,0 +1,119 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.WorkoutRepository;
+import org.delcom.app.services.WorkoutService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Routing read replica dengan dua database lokal (H2). Tidak ada replikasi di
+ * antara keduanya, jadi database tempat sebuah query berjalan terlihat dari
+ * datanya: baris yang hanya ada di replica, atau hanya di primary.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.open-in-view=false",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.max-lag-ms=60000",
+        "app.datasource.replica.hikari.maximum-pool-size=4",
+        "app.storage.type=memory",
+        "app.access-log.enabled=false"
+})
+class ReplicaDataSourceConfigTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        // Flyway aplikasi hanya memigrasi primary (tanpa transaksi = primary)
+        Flyway.configure().dataSource(routing.getReplica()).load().migrate();
+        replica = new JdbcTemplate(routing.getReplica());
+    }
+
+    private static User user() {
+        User user = new User("Replica", UUID.randomUUID() + "@test.local", "x");
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    private void insertOnReplica(UUID userId) {
+        replica.update("INSERT INTO workouts (id, user_id, title, description, duration_minutes, calories_burned,"
+                + " date, type, created_at, updated_at) VALUES (?, ?, 'Replica', '-', 30, 300, ?, 'RUNNING', ?, ?)",
+                UUID.randomUUID(), userId, LocalDate.now(), LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Bean dataSource: routing dibungkus Server-Timing tepat satu kali, pool bernama primary/replica")
+    void dataSourceIsWrappedOnce() {
+        ServerTimingDataSource wrapped = assertInstanceOf(ServerTimingDataSource.class, dataSource);
+        assertSame(routing, wrapped.getTargetDataSource());
+        assertEquals("primary", ((HikariDataSource) routing.getPrimary()).getPoolName());
+        assertEquals("replica", ((HikariDataSource) routing.getReplica()).getPoolName());
+        assertEquals(4, ((HikariDataSource) routing.getReplica()).getMaximumPoolSize());
+        assertTrue(((HikariDataSource) routing.getReplica()).isReadOnly());
+    }
+
+    @Test
+    @DisplayName("Query repository (transaksi read-only) dibaca dari replica")
+    void readOnlyQueriesUseReplica() {
+        UUID userId = UUID.randomUUID();
+        insertOnReplica(userId);
+
+        assertEquals(1, workoutRepository.countByUserId(userId));
+    }
+
+    @Test
+    @DisplayName("Tulisan ke primary; penulis membaca tulisannya sendiri, user lain masih dari replica")
+    void writesGoToPrimaryAndWriterReadsOwnWrites() throws Exception {
+        User writer = user();
+        User other = user();
+
+        int ownCount = AuthContext.callInScope(() -> {
+            new AuthContext().setAuthUser(writer);
+            workoutService.createWorkout(writer.getId(), "Lari", "Pagi", 30, "RUNNING", LocalDate.now());
+            return workoutRepository.countByUserId(writer.getId());
+        });
+        int otherCount = AuthContext.callInScope(() -> {
+            new AuthContext().setAuthUser(other);
+            return workoutRepository.countByUserId(writer.getId());
+        });
+
+        assertEquals(1, ownCount);
+        assertEquals(0, otherCount);
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM workouts WHERE user_id = ?", Integer.class,
+                writer.getId()));
+        assertTrue(routing.isPinned(writer.getId()));
+        assertFalse(routing.isPinned(other.getId()));
+    }
+}
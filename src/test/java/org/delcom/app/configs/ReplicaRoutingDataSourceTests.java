@@ -0,0 +1,159 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.entities.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReplicaRoutingDataSourceTests {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final AtomicLong nanos = new AtomicLong();
+    private final ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replica,
+            Duration.ofSeconds(1), nanos::get);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clear();
+    }
+
+    private static User user() {
+        User user = new User("Replica", "replica@test.local", "x");
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    @Test
+    @DisplayName("Tanpa transaksi dan transaksi read-write ke primary, read-only ke replica")
+    void routesByTransactionReadOnlyFlag() {
+        assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, dataSource.route());
+
+        beginTransaction(true);
+        assertEquals(ReplicaRoutingDataSource.Target.REPLICA, dataSource.route());
+        TransactionSynchronizationManager.clear();
+
+        beginTransaction(false);
+        assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, dataSource.route());
+    }
+
+    @Test
+    @DisplayName("Koneksi fisik diambil dari pool sesuai routing saat statement pertama")
+    void connectionComesFromRoutedPool() throws Exception {
+        Connection replicaConnection = mock(Connection.class);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement()).thenReturn(mock(Statement.class));
+
+        beginTransaction(true);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            verifyNoInteractions(replica);
+            connection.createStatement();
+        }
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Penulis dipin ke primary setelah commit selama max lag, user lain tetap ke replica")
+    void writerIsPinnedAfterCommit() throws Exception {
+        User writer = user();
+        User other = user();
+
+        AuthContext.callInScope(() -> {
+            new AuthContext().setAuthUser(writer);
+            beginTransaction(false);
+            dataSource.route();
+            // Belum commit: belum dipin
+            assertFalse(dataSource.isPinned(writer.getId()));
+            commit();
+
+            beginTransaction(true);
+            assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, dataSource.route());
+            return null;
+        });
+        assertTrue(dataSource.isPinned(writer.getId()));
+        assertFalse(dataSource.isPinned(other.getId()));
+        assertFalse(dataSource.isPinned(null));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1001));
+        assertFalse(dataSource.isPinned(writer.getId()));
+    }
+
+    @Test
+    @DisplayName("Tulisan tanpa user (register/login) memin bacaan anonim")
+    void anonymousWritePinsAnonymousReads() {
+        beginTransaction(false);
+        dataSource.route();
+        commit();
+
+        beginTransaction(true);
+        assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, dataSource.route());
+        assertTrue(dataSource.isPinned(null));
+    }
+
+    @Test
+    @DisplayName("Transaksi tanpa sinkronisasi langsung dipin")
+    void pinsImmediatelyWithoutSynchronization() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, dataSource.route());
+        assertTrue(dataSource.isPinned(ReplicaRoutingDataSource.ANONYMOUS));
+    }
+
+    @Test
+    @DisplayName("User tanpa id dianggap anonim; max lag negatif = tanpa pin")
+    void userWithoutIdAndNegativeLag() throws Exception {
+        ReplicaRoutingDataSource noLag = new ReplicaRoutingDataSource(primary, replica, Duration.ofMillis(-1));
+        AuthContext.callInScope(() -> {
+            new AuthContext().setAuthUser(new User("Tanpa id", "noid@test.local", "x"));
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            noLag.route();
+            dataSource.route();
+            return null;
+        });
+
+        assertFalse(noLag.isPinned(null));
+        assertTrue(dataSource.isPinned(null));
+    }
+
+    @Test
+    @DisplayName("close menutup kedua pool yang bisa ditutup")
+    void closeClosesPools() throws Exception {
+        DataSource closable = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(closable, replica, Duration.ofSeconds(1));
+
+        assertSame(closable, routing.getPrimary());
+        assertSame(replica, routing.getReplica());
+        routing.close();
+
+        verify((AutoCloseable) closable).close();
+        verifyNoInteractions(replica);
+    }
+}
@@ -8,12 +8,16 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -36,8 +40,6 @@ class RequestLoggingFilterTests {
     @DisplayName("Log Cyan for status < 200 (e.g. 100)")
     void testLogCyanFor100() throws ServletException, IOException {
         RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
 
         HttpServletRequest request = mock(HttpServletRequest.class);
         HttpServletResponse response = mock(HttpServletResponse.class);
@@ -49,6 +51,7 @@ class RequestLoggingFilterTests {
         when(response.getStatus()).thenReturn(100);
 
         filter.doFilterInternal(request, response, chain);
+        filter.drain();
 
         verify(chain, times(1)).doFilter(request, response);
         // \u001B[36m is Cyan
@@ -59,7 +62,6 @@ class RequestLoggingFilterTests {
     @DisplayName("Log Green for status 200-399")
     void testLogGreenFor200() throws ServletException, IOException {
         RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
 
         HttpServletRequest request = mock(HttpServletRequest.class);
         HttpServletResponse response = mock(HttpServletResponse.class);
@@ -71,6 +73,7 @@ class RequestLoggingFilterTests {
         when(response.getStatus()).thenReturn(201);
 
         filter.doFilterInternal(request, response, chain);
+        filter.drain();
 
         verify(chain).doFilter(request, response);
         // \u001B[32m is Green
@@ -92,6 +95,7 @@ class RequestLoggingFilterTests {
         when(response.getStatus()).thenReturn(404);
 
         filter.doFilterInternal(request, response, chain);
+        filter.drain();
         // \u001B[33m is Yellow
         assertTrue(outContent.toString().contains("\u001B[33m"));
     }
@@ -111,6 +115,7 @@ class RequestLoggingFilterTests {
         when(response.getStatus()).thenReturn(500);
 
         filter.doFilterInternal(request, response, chain);
+        filter.drain();
         // \u001B[31m is Red
         assertTrue(outContent.toString().contains("\u001B[31m"));
     }
@@ -129,8 +134,187 @@ class RequestLoggingFilterTests {
         when(response.getStatus()).thenReturn(200);
 
         filter.doFilterInternal(request, response, chain);
+        filter.drain();
 
         // Should not print to stdout
         assertTrue(outContent.toString().isEmpty());
     }
+
+    @Test
+    @DisplayName("Handler diambil dari atribut HandlerMapping")
+    void testHandlerFromHandlerMappingAttribute() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter();
+        HttpServletRequest request = request("GET", "/api/workouts/stats");
+        HandlerMethod handler = new HandlerMethod(new SampleController(),
+                SampleController.class.getMethod("stats"));
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)).thenReturn(handler);
+
+        filter.doFilterInternal(request, response(200), mock(FilterChain.class));
+        filter.doFilterInternal(request, response(200), mock(FilterChain.class));
+
+        assertTrue(outContent.toString().isEmpty());
+        filter.drain();
+        String output = outContent.toString();
+        assertEquals(2, output.lines().count());
+        assertTrue(output.contains("[SampleController.stats] from 127.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Record tetap ditulis walau chain melempar exception")
+    void testRecordsWhenChainThrows() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter();
+        FilterChain chain = mock(FilterChain.class);
+        HttpServletRequest request = request("GET", "/api/crash");
+        HttpServletResponse response = response(500);
+        doThrow(new ServletException("boom")).when(chain).doFilter(request, response);
+
+        assertThrows(ServletException.class, () -> filter.doFilterInternal(request, response, chain));
+        filter.drain();
+
+        assertTrue(outContent.toString().contains("/api/crash 500"));
+        assertTrue(outContent.toString().contains("[-]"));
+    }
+
+    @Test
+    @DisplayName("Format json menulis satu objek per baris")
+    void testJsonFormat() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter();
+        filter.format = "json";
+        filter.start();
+        filter.stop();
+        HttpServletRequest request = request("POST", "/api/\"x\"");
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/api/{id}");
+
+        filter.doFilterInternal(request, response(201), mock(FilterChain.class));
+        filter.drain();
+
+        String output = outContent.toString();
+        assertTrue(output.startsWith("{\"ts\":\""));
+        assertTrue(output.contains("\"method\":\"POST\",\"uri\":\"/api/\\\"x\\\"\",\"pattern\":\"/api/{id}\""));
+        assertTrue(output.contains("\"status\":201"));
+        assertTrue(output.contains("\"handler\":\"-\""));
+    }
+
+    @Test
+    @DisplayName("Sampling 0 membuang request sukses tetapi tetap mencatat error")
+    void testSamplingKeepsErrors() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter();
+        filter.sampleRate = 0.0;
+
+        filter.doFilterInternal(request("GET", "/api/ok"), response(200), mock(FilterChain.class));
+        filter.doFilterInternal(request("GET", "/api/missing"), response(404), mock(FilterChain.class));
+        filter.drain();
+
+        String output = outContent.toString();
+        assertFalse(output.contains("/api/ok"));
+        assertTrue(output.contains("/api/missing"));
+    }
+
+    @Test
+    @DisplayName("Overflow drop membuang record baru dan menghitungnya")
+    void testOverflowDrop() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter();
+        filter.bufferSize = 2;
+        filter.start();
+        filter.stop();
+
+        for (int i = 0; i < 5; i++) {
+            filter.doFilterInternal(request("GET", "/api/" + i), response(200), mock(FilterChain.class));
+        }
+        filter.drain();
+
+        String output = outContent.toString();
+        assertEquals(2, output.lines().count());
+        assertTrue(output.contains("/api/0 ") && output.contains("/api/1 "));
+        assertEquals(3, filter.droppedCount());
+    }
+
+    @Test
+    @DisplayName("Overflow caller-runs menulis langsung dari thread request")
+    void testOverflowCallerRuns() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter();
+        filter.bufferSize = 2;
+        filter.overflow = "caller-runs";
+        filter.start();
+        filter.stop();
+
+        for (int i = 0; i < 3; i++) {
+            filter.doFilterInternal(request("GET", "/api/" + i), response(200), mock(FilterChain.class));
+        }
+
+        assertTrue(outContent.toString().contains("/api/2 "));
+        filter.drain();
+        assertEquals(3, outContent.toString().lines().count());
+        assertEquals(0, filter.droppedCount());
+    }
+
+    @Test
+    @DisplayName("Writer background mengosongkan buffer tanpa drain manual")
+    void testBackgroundWriter() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter();
+        filter.flushIntervalMs = 5;
+        filter.overflow = "block";
+        filter.start();
+        try {
+            filter.doFilterInternal(request("GET", "/api/async"), response(200), mock(FilterChain.class));
+            long deadline = System.nanoTime() + 2_000_000_000L;
+            while (!outContent.toString().contains("/api/async") && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(outContent.toString().contains("/api/async"));
+        } finally {
+            filter.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Buffer lock-free tetap lengkap dengan banyak producer")
+    void testConcurrentProducers() throws Exception {
+        AccessLogBuffer buffer = new AccessLogBuffer(1 << 16);
+        int producers = 8;
+        int perProducer = 2_000;
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads[p] = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    AccessLogBuffer.Entry entry = buffer.claim();
+                    entry.status = producer;
+                    buffer.publish(entry);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int[] counts = new int[producers];
+        int drained = buffer.drain(entry -> counts[entry.status]++);
+
+        assertEquals(producers * perProducer, drained);
+        for (int count : counts) {
+            assertEquals(perProducer, count);
+        }
+        assertEquals(0, buffer.drain(entry -> { }));
+    }
+
+    private static HttpServletRequest request(String method, String uri) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getRequestURI()).thenReturn(uri);
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        return request;
+    }
+
+    private static HttpServletResponse response(int status) {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getStatus()).thenReturn(status);
+        return response;
+    }
+
+    static class SampleController {
+        public String stats() {
+            return "ok";
+        }
+    }
 }
@@ -4,25 +4,41 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.web.servlet.MockMvc;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
+@AutoConfigureMockMvc
 class SecurityConfigTests {
 
+    @Autowired
+    private MockMvc mockMvc;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
     @Autowired
     private SecurityFilterChain securityFilterChain;
 
+    @Autowired
+    private WebSecurityCustomizer webSecurityCustomizer;
+
     @Test
     @DisplayName("Beans should be loaded")
     void contextLoads() {
         assertThat(passwordEncoder).isNotNull();
         assertThat(securityFilterChain).isNotNull();
+        assertThat(webSecurityCustomizer).isNotNull();
     }
 
     @Test
@@ -33,4 +49,31 @@ class SecurityConfigTests {
         assertThat(encoded).isNotEqualTo(raw);
         assertThat(passwordEncoder.matches(raw, encoded)).isTrue();
     }
+
+    @Test
+    @DisplayName("Prometheus di port publik butuh login; tanpa login hanya lewat port management")
+    void prometheusOnlyOnManagementPort() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().is3xxRedirection());
+
+        MockHttpServletRequest scrape = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        scrape.setLocalPort(8081);
+        assertThat(SecurityConfig.managementScrape(8081).matches(scrape)).isTrue();
+        assertThat(SecurityConfig.managementScrape(-1).matches(scrape)).isFalse();
+        scrape.setLocalPort(8080);
+        assertThat(SecurityConfig.managementScrape(8081).matches(scrape)).isFalse();
+        scrape.setLocalPort(8081);
+        scrape.setRequestURI("/actuator/env");
+        assertThat(SecurityConfig.managementScrape(8081).matches(scrape)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Header Bearer palsu tetap wajib CSRF; login API tidak")
+    void csrfExemptions() throws Exception {
+        mockMvc.perform(post("/api/workouts").header("Authorization", "Bearer palsu")
+                .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,98 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+class ServerTimingDataSourceTests {
+
+    @Test
+    @DisplayName("Di luar request tersampel koneksi asli dikembalikan")
+    void returnsRawConnectionOutsideScope() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(target.getConnection("u", "p")).thenReturn(connection);
+
+        ServerTimingDataSource dataSource = new ServerTimingDataSource(target);
+
+        assertSame(connection, dataSource.getConnection());
+        assertSame(connection, dataSource.getConnection("u", "p"));
+    }
+
+    @Test
+    @DisplayName("Eksekusi statement di dalam scope tercatat sebagai metrik db")
+    void recordsStatementExecution() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement prepared = mock(PreparedStatement.class);
+        CallableStatement callable = mock(CallableStatement.class);
+        Statement statement = mock(Statement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("select 1")).thenReturn(prepared);
+        when(connection.prepareCall("call x()")).thenReturn(callable);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(prepared.executeUpdate()).thenThrow(new SQLException("gagal"));
+        ServerTiming timing = new ServerTiming(System.nanoTime(), true);
+
+        ServerTiming.callInScope(timing, () -> {
+            Connection wrapped = new ServerTimingDataSource(target).getConnection();
+            assertNotSame(connection, wrapped);
+            assertEquals(wrapped, wrapped);
+            assertNotEquals(wrapped, connection);
+            assertEquals(System.identityHashCode(wrapped), wrapped.hashCode());
+            assertTrue(wrapped.getAutoCommit());
+
+            PreparedStatement ps = wrapped.prepareStatement("select 1");
+            ps.setInt(1, 5);
+            ps.executeQuery();
+            assertThrows(SQLException.class, ps::executeUpdate);
+            wrapped.prepareCall("call x()").execute();
+            wrapped.createStatement().executeBatch();
+            return null;
+        });
+
+        verify(prepared).setInt(1, 5);
+        verify(callable).execute();
+        verify(statement).executeBatch();
+        assertEquals(4, timing.count(ServerTiming.Metric.DB));
+    }
+
+    @Test
+    @DisplayName("BeanPostProcessor hanya membungkus DataSource sekali")
+    void postProcessorWrapsDataSources() {
+        BeanPostProcessor postProcessor = ServerTimingConfig.serverTimingDataSourcePostProcessor();
+        DataSource target = mock(DataSource.class);
+
+        Object wrapped = postProcessor.postProcessAfterInitialization(target, "dataSource");
+
+        assertInstanceOf(ServerTimingDataSource.class, wrapped);
+        assertSame(wrapped, postProcessor.postProcessAfterInitialization(wrapped, "dataSource"));
+        assertEquals("bukan", postProcessor.postProcessAfterInitialization("bukan", "other"));
+    }
+
+    @Test
+    @DisplayName("close diteruskan ke pool yang dibungkus")
+    void closeDelegatesToClosableTarget() throws Exception {
+        DataSource pool = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+        DataSource plain = mock(DataSource.class);
+
+        new ServerTimingDataSource(pool).close();
+        new ServerTimingDataSource(plain).close();
+
+        verify((AutoCloseable) pool).close();
+        verifyNoInteractions(plain);
+    }
+}
@@ -0,0 +1,157 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+
+class ServerTimingFilterTests {
+
+    private static final String TOKEN = "rahasia";
+
+    private final ServerTimingFilter filter = filter();
+    private final MockHttpServletRequest request = request("GET", "/api/workouts/stats");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private static ServerTimingFilter filter() {
+        ServerTimingFilter filter = new ServerTimingFilter();
+        filter.enabled = true;
+        filter.token = TOKEN;
+        return filter;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader(ServerTimingFilter.TOKEN_HEADER, TOKEN);
+        return request;
+    }
+
+    @Test
+    @DisplayName("Header dipasang sebelum body pertama ditulis lewat output stream")
+    void headerBeforeOutputStreamWrite() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            ServerTiming.record(ServerTiming.Metric.DB, 3_000_000);
+            res.getOutputStream().write("{}".getBytes());
+            res.flushBuffer();
+            // Setelah commit header tidak berubah lagi
+            ServerTiming.record(ServerTiming.Metric.AUTH, 1_000_000);
+        });
+
+        String header = response.getHeader(ServerTimingFilter.HEADER);
+        assertTrue(header.startsWith("db;dur=3.0, total;dur="), header);
+        assertEquals("{}", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Render view lewat writer tercatat sebagai metrik render")
+    void headerBeforeWriterWrite() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            ServerTiming.markRenderStart();
+            res.getWriter().write("<html>");
+            res.getWriter().flush();
+        });
+
+        assertTrue(response.getHeader(ServerTimingFilter.HEADER).startsWith("render;dur="));
+        assertEquals("<html>", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Response tanpa body dan redirect tetap mendapat header")
+    void headerWithoutBody() throws Exception {
+        filter.doFilter(request, response, (req, res) -> { });
+        assertTrue(response.getHeader(ServerTimingFilter.HEADER).startsWith("total;dur="));
+
+        MockHttpServletResponse redirect = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/workouts"), redirect,
+                (req, res) -> ((HttpServletResponse) res).sendRedirect("/"));
+        assertNotNull(redirect.getHeader(ServerTimingFilter.HEADER));
+
+        MockHttpServletResponse error = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/x"), error,
+                (req, res) -> ((HttpServletResponse) res).sendError(404, "x"));
+        assertNotNull(error.getHeader(ServerTimingFilter.HEADER));
+    }
+
+    @Test
+    @DisplayName("Exception dari chain diteruskan dan header tetap dipasang")
+    void propagatesException() {
+        FilterChain chain = (req, res) -> {
+            throw new ServletException("boom");
+        };
+
+        assertThrows(ServletException.class, () -> filter.doFilter(request, response, chain));
+        assertNotNull(response.getHeader(ServerTimingFilter.HEADER));
+
+        MockHttpServletResponse ioResponse = new MockHttpServletResponse();
+        assertThrows(IOException.class, () -> filter.doFilter(request("GET", "/"), ioResponse,
+                (req, res) -> {
+                    throw new IOException("io");
+                }));
+    }
+
+    @Test
+    @DisplayName("Request tidak tersampel atau fitur dimatikan tidak mendapat header")
+    void notSampled() throws Exception {
+        filter.sampleRate = 0;
+        filter.doFilter(request, response, (req, res) -> assertFalse(ServerTiming.isActive()));
+        assertNull(response.getHeader(ServerTimingFilter.HEADER));
+
+        filter.sampleRate = 1.0;
+        filter.enabled = false;
+        MockHttpServletResponse disabled = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/"), disabled, (req, res) -> { });
+        assertNull(disabled.getHeader(ServerTimingFilter.HEADER));
+    }
+
+    @Test
+    @DisplayName("Default mati; tanpa token yang cocok atau di endpoint login/register tidak ada header")
+    void onlyAuthorizedRequests() throws Exception {
+        ServerTimingFilter defaults = new ServerTimingFilter();
+        assertFalse(defaults.enabled);
+        defaults.enabled = true;
+        MockHttpServletResponse noToken = new MockHttpServletResponse();
+        defaults.doFilter(request("GET", "/"), noToken, (req, res) -> assertFalse(ServerTiming.isActive()));
+        assertNull(noToken.getHeader(ServerTimingFilter.HEADER));
+
+        for (String path : new String[] { "/api/auth/login", "/auth/login/post", "/auth/register/post" }) {
+            MockHttpServletResponse auth = new MockHttpServletResponse();
+            filter.doFilter(request("POST", path), auth, (req, res) -> {
+                ServerTiming.record(ServerTiming.Metric.HASH, 80_000_000);
+            });
+            assertNull(auth.getHeader(ServerTimingFilter.HEADER), path);
+        }
+
+        MockHttpServletResponse missing = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/"), missing, (req, res) -> { });
+        assertNull(missing.getHeader(ServerTimingFilter.HEADER));
+
+        MockHttpServletRequest wrong = new MockHttpServletRequest("GET", "/");
+        wrong.addHeader(ServerTimingFilter.TOKEN_HEADER, "tebakan");
+        MockHttpServletResponse wrongResponse = new MockHttpServletResponse();
+        filter.doFilter(wrong, wrongResponse, (req, res) -> { });
+        assertNull(wrongResponse.getHeader(ServerTimingFilter.HEADER));
+    }
+
+    @Test
+    @DisplayName("Sample rate parsial memakai random per request")
+    void partialSampling() throws Exception {
+        filter.sampleRate = 0.5;
+        int sampled = 0;
+        for (int i = 0; i < 200; i++) {
+            MockHttpServletResponse each = new MockHttpServletResponse();
+            filter.doFilter(request("GET", "/"), each, (req, res) -> { });
+            if (each.getHeader(ServerTimingFilter.HEADER) != null) {
+                sampled++;
+            }
+        }
+        assertTrue(sampled > 0 && sampled < 200, "sampled=" + sampled);
+    }
+}
@@ -0,0 +1,56 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ServerTimingTests {
+
+    @Test
+    @DisplayName("Di luar scope, record dan markRenderStart adalah no-op")
+    void noopOutsideScope() {
+        assertFalse(ServerTiming.isActive());
+        assertNull(ServerTiming.current());
+        ServerTiming.record(ServerTiming.Metric.DB, 1_000_000);
+        ServerTiming.markRenderStart();
+    }
+
+    @Test
+    @DisplayName("Metrik terkumpul di scope dan tampil di header")
+    void collectsMetricsInScope() {
+        ServerTiming timing = new ServerTiming(0, false);
+
+        ServerTiming.callInScope(timing, () -> {
+            assertSame(timing, ServerTiming.current());
+            ServerTiming.record(ServerTiming.Metric.AUTH, 1_500_000);
+            ServerTiming.record(ServerTiming.Metric.DB, 2_000_000);
+            ServerTiming.record(ServerTiming.Metric.DB, 250_000);
+            return null;
+        });
+
+        assertEquals(2, timing.count(ServerTiming.Metric.DB));
+        assertEquals(2_250_000, timing.nanos(ServerTiming.Metric.DB));
+        assertEquals("auth;dur=1.5, db;dur=2.3, total;dur=10.0", timing.headerValue(10_000_000));
+    }
+
+    @Test
+    @DisplayName("Render dihitung dari markRenderStart, debug menambahkan jumlah query")
+    void renderAndDebugQueryCount() {
+        ServerTiming timing = new ServerTiming(System.nanoTime(), true);
+
+        ServerTiming.callInScope(timing, () -> {
+            ServerTiming.record(ServerTiming.Metric.DB, 1_000_000);
+            ServerTiming.markRenderStart();
+            return null;
+        });
+        String header = timing.headerValue(System.nanoTime());
+
+        assertTrue(header.startsWith("db;dur=1.0;desc=\"1 query\", render;dur="));
+        assertEquals(1, timing.count(ServerTiming.Metric.RENDER));
+
+        timing.add(ServerTiming.Metric.DB, 0);
+        assertTrue(timing.headerValue(System.nanoTime()).contains("desc=\"2 queries\""));
+        assertEquals(1, timing.count(ServerTiming.Metric.RENDER));
+    }
+}
@@ -0,0 +1,80 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ShardRingTests {
+
+    private static final int USERS = 20_000;
+
+    private static List<UUID> users() {
+        Random random = new Random(42);
+        return Stream.generate(() -> new UUID(random.nextLong(), random.nextLong()))
+                .limit(USERS)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("User tersebar hampir rata dan posisinya sama untuk ring yang sama")
+    void distributesUsersEvenlyAndDeterministically() {
+        ShardRing ring = new ShardRing(List.of("s0", "s1", "s2", "s3"), 128);
+        ShardRing same = new ShardRing(List.of("s0", "s1", "s2", "s3"), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (UUID user : users()) {
+            String shard = ring.shardOf(user);
+            assertEquals(shard, same.shardOf(user));
+            counts.merge(shard, 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertTrue(count > USERS * 0.18 && count < USERS * 0.32,
+                () -> "Distribusi timpang: " + counts));
+    }
+
+    @Test
+    @DisplayName("Menambah shard hanya memindahkan sebagian kecil user, semuanya ke shard baru")
+    void addingShardMovesOnlyToNewShard() {
+        ShardRing before = new ShardRing(List.of("s0", "s1", "s2"), 128);
+        ShardRing after = before.withShards(List.of("s0", "s1", "s2", "s3"));
+
+        int moved = 0;
+        for (UUID user : users()) {
+            String from = before.shardOf(user);
+            String to = after.shardOf(user);
+            if (!from.equals(to)) {
+                assertEquals("s3", to);
+                moved++;
+            }
+        }
+
+        assertEquals(128, after.virtualNodes());
+        assertTrue(moved > USERS * 0.15 && moved < USERS * 0.35, "moved=" + moved);
+    }
+
+    @Test
+    @DisplayName("Satu titik di ring: posisi setelah titik terakhir kembali ke awal ring")
+    void wrapsAroundTheRing() {
+        ShardRing ring = new ShardRing(List.of("only"), 1);
+
+        users().stream().limit(100).forEach(user -> assertEquals("only", ring.shardOf(user)));
+        assertEquals(List.of("only"), ring.shards());
+    }
+
+    @Test
+    @DisplayName("Ring kosong, nama ganda dan virtual node < 1 ditolak")
+    void rejectsInvalidRings() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardRing(List.of(), 128));
+        assertThrows(IllegalArgumentException.class, () -> new ShardRing(List.of("s0", "s0"), 128));
+        assertThrows(IllegalArgumentException.class, () -> new ShardRing(List.of("s0"), 0));
+    }
+}
@@ -0,0 +1,129 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ShardRoutingDataSourceTests {
+
+    private final DataSource directory = mock(DataSource.class);
+    private final DataSource shard0 = mock(DataSource.class);
+    private final DataSource shard1 = mock(DataSource.class);
+    private final ShardRoutingDataSource dataSource = new ShardRoutingDataSource(directory,
+            new LinkedHashMap<>(Map.of("shard0", shard0, "shard1", shard1)));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete();
+        }
+    }
+
+    // Seperti akhir transaksi: afterCompletion melepas ikatan shard
+    private static void complete() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clear();
+    }
+
+    private static Connection connectionFrom(DataSource pool) throws Exception {
+        Connection connection = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        return connection;
+    }
+
+    private void runStatement() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        }
+    }
+
+    @Test
+    @DisplayName("Tanpa ikatan: direktori; callOn: shard scope; transaksi terikat mengalahkan scope")
+    void resolvesCurrentShard() throws Exception {
+        assertNull(ShardRoutingDataSource.currentShard());
+        assertEquals("shard1", ShardRoutingDataSource.callOn("shard1", ShardRoutingDataSource::currentShard));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(ShardRoutingDataSource.bindTransaction("shard0"));
+        assertEquals("shard0", ShardRoutingDataSource.callOn("shard1", ShardRoutingDataSource::currentShard));
+
+        complete();
+        assertNull(ShardRoutingDataSource.currentShard());
+    }
+
+    @Test
+    @DisplayName("Koneksi fisik diambil dari pool shard saat statement pertama")
+    void connectionComesFromBoundShard() throws Exception {
+        connectionFrom(shard1);
+        connectionFrom(directory);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try (Connection connection = dataSource.getConnection()) {
+            // Shard diikat setelah koneksi (lazy) diminta, sebelum statement pertama
+            ShardRoutingDataSource.bindTransaction("shard1");
+            verifyNoInteractions(shard1);
+            connection.createStatement();
+        }
+        complete();
+        runStatement();
+
+        verify(shard1).getConnection();
+        verify(directory).getConnection();
+        verifyNoInteractions(shard0);
+    }
+
+    @Test
+    @DisplayName("Transaksi terikat ke satu shard: shard sama = no-op, shard lain atau tanpa transaksi ditolak")
+    void bindTransactionRules() {
+        assertThrows(IllegalStateException.class, () -> ShardRoutingDataSource.bindTransaction("shard0"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(ShardRoutingDataSource.bindTransaction("shard0"));
+        assertFalse(ShardRoutingDataSource.bindTransaction("shard0"));
+        assertThrows(IllegalStateException.class, () -> ShardRoutingDataSource.bindTransaction("shard1"));
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+    }
+
+    @Test
+    @DisplayName("Nama shard yang tidak dikenal gagal, tidak jatuh ke direktori")
+    void unknownShardFails() {
+        assertThrows(IllegalStateException.class,
+                () -> ShardRoutingDataSource.callOn("shard9", () -> {
+                    runStatement();
+                    return null;
+                }));
+        verifyNoInteractions(directory);
+    }
+
+    @Test
+    @DisplayName("close menutup semua pool yang bisa ditutup")
+    void closeClosesPools() throws Exception {
+        DataSource closable = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+        DataSource closableDirectory = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(closableDirectory,
+                Map.of("shard0", closable, "shard1", shard1));
+
+        assertSame(closableDirectory, routing.getDirectory());
+        assertEquals(2, routing.getShards().size());
+        routing.close();
+
+        verify((AutoCloseable) closable).close();
+        verify((AutoCloseable) closableDirectory).close();
+        verifyNoInteractions(shard1);
+    }
+}
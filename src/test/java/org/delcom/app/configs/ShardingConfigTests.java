@@ -0,0 +1,169 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.dto.WorkoutFilter;
+import org.delcom.app.entities.Workout;
+import org.delcom.app.repositories.WorkoutRepository;
+import org.delcom.app.services.ShardRouter;
+import org.delcom.app.services.WorkoutService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sharding dengan empat database lokal (H2): direktori dan tiga shard, dua di
+ * antaranya di ring. Lokasi baris workout dicek langsung lewat pool masing-masing.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharding-directory;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.open-in-view=false",
+        "app.sharding.enabled=true",
+        "app.sharding.shards=shard0,shard1,shard2",
+        "app.sharding.ring=shard0,shard1",
+        "app.sharding.datasources.shard0.url=jdbc:h2:mem:sharding-shard0;DB_CLOSE_DELAY=-1",
+        "app.sharding.datasources.shard1.url=jdbc:h2:mem:sharding-shard1;DB_CLOSE_DELAY=-1",
+        "app.sharding.datasources.shard2.url=jdbc:h2:mem:sharding-shard2;DB_CLOSE_DELAY=-1",
+        "app.sharding.datasources.shard2.hikari.maximum-pool-size=2",
+        "app.storage.type=memory",
+        "app.access-log.enabled=false"
+})
+class ShardingConfigTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardsEndpoint shardsEndpoint;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ShardRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        routing = dataSource.unwrap(ShardRoutingDataSource.class);
+    }
+
+    private int rowsOn(DataSource pool, UUID userId) {
+        return new JdbcTemplate(pool).queryForObject("SELECT COUNT(*) FROM workouts WHERE user_id = ?",
+                Integer.class, userId);
+    }
+
+    private UUID userOn(String shard) {
+        UUID user;
+        do {
+            user = UUID.randomUUID();
+        } while (!shard.equals(shardRouter.shardOf(user)));
+        return user;
+    }
+
+    @Test
+    @DisplayName("Bean dataSource: routing dibungkus sekali, pool per shard, skema shard dimigrasi")
+    void dataSourceIsWrappedOnce() {
+        ServerTimingDataSource wrapped = assertInstanceOf(ServerTimingDataSource.class, dataSource);
+        assertSame(routing, wrapped.getTargetDataSource());
+        assertEquals("directory", ((HikariDataSource) routing.getDirectory()).getPoolName());
+        assertEquals(List.of("shard0", "shard1", "shard2"), List.copyOf(routing.getShards().keySet()));
+        assertEquals(2, ((HikariDataSource) routing.getShards().get("shard2")).getMaximumPoolSize());
+        assertEquals(0, rowsOn(routing.getShards().get("shard2"), UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("CRUD WorkoutService berjalan di shard milik user, tidak di direktori")
+    void workoutsLiveOnTheUsersShard() {
+        for (String shard : List.of("shard0", "shard1")) {
+            UUID userId = userOn(shard);
+            String other = shard.equals("shard0") ? "shard1" : "shard0";
+
+            Workout created = workoutService.createWorkout(userId, "Lari", "Pagi", 30, "RUNNING", LocalDate.now());
+            assertEquals(1, rowsOn(routing.getShards().get(shard), userId));
+            assertEquals(0, rowsOn(routing.getShards().get(other), userId));
+            assertEquals(0, rowsOn(routing.getDirectory(), userId));
+
+            assertEquals(List.of(created.getId()), workoutService.getAllWorkouts(userId, new WorkoutFilter())
+                    .stream().map(Workout::getId).toList());
+            assertEquals(1, workoutService.countWorkouts(userId));
+            assertNotNull(workoutService.updateWorkout(userId, created.getId(), "Sepeda", "Sore", 45, "CYCLING",
+                    LocalDate.now()));
+            assertEquals("Sepeda", workoutService.getWorkoutById(userId, created.getId()).getTitle());
+            assertTrue(workoutService.deleteWorkout(userId, created.getId()));
+            assertEquals(0, rowsOn(routing.getShards().get(shard), userId));
+        }
+    }
+
+    @Test
+    @DisplayName("Query repository tanpa ikatan shard jatuh ke direktori")
+    void unboundQueriesGoToDirectory() {
+        UUID userId = userOn("shard0");
+        workoutService.createWorkout(userId, "Lari", "Pagi", 30, "RUNNING", LocalDate.now());
+
+        assertEquals(0, workoutRepository.countByUserId(userId));
+        assertEquals(1, ShardRoutingDataSource.callOn("shard0", () -> workoutRepository.countByUserId(userId)));
+    }
+
+    @Test
+    @DisplayName("Satu transaksi tidak boleh menyentuh dua shard")
+    void crossShardTransactionIsRejected() {
+        UUID onShard0 = userOn("shard0");
+        UUID onShard1 = userOn("shard1");
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        assertThrows(IllegalStateException.class, () -> transaction.executeWithoutResult(status -> {
+            shardRouter.bind(onShard0);
+            shardRouter.bind(onShard1);
+        }));
+    }
+
+    @Test
+    @DisplayName("Agregasi lintas shard (fan-out) menggabungkan hasil semua shard di ring")
+    void fanOutCoversEveryShard() {
+        Set<String> paths = new HashSet<>();
+        for (String shard : List.of("shard0", "shard1")) {
+            UUID userId = userOn(shard);
+            Workout workout = workoutService.createWorkout(userId, "Gym", "-", 60, "GYM", LocalDate.now());
+            String path = "cover_" + workout.getId() + ".jpg";
+            workoutService.updateImage(userId, workout.getId(), path);
+            paths.add(path);
+        }
+
+        Map<String, List<String>> found = shardRouter.fanOut(shard -> workoutRepository.findImagePathsIn(paths));
+        Map<String, Object> endpoint = shardsEndpoint.shards();
+
+        assertEquals(Set.of("shard0", "shard1"), found.keySet());
+        found.values().forEach(perShard -> assertEquals(1, perShard.size()));
+        assertEquals(paths, found.values().stream().flatMap(List::stream).collect(Collectors.toSet()));
+        assertEquals(List.of("shard0", "shard1"), endpoint.get("ring"));
+        assertEquals(Set.of("shard0", "shard1"), ((Map<?, ?>) endpoint.get("rowsPerShard")).keySet());
+    }
+}
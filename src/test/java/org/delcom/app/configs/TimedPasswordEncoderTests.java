@@ -0,0 +1,27 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TimedPasswordEncoderTests {
+
+    @Test
+    @DisplayName("encode dan matches didelegasikan ke BCrypt dan tercatat di timer")
+    void recordsDurations() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TimedPasswordEncoder encoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry);
+
+        String encoded = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", encoded));
+        assertFalse(encoder.matches("salah", encoded));
+        assertFalse(encoder.upgradeEncoding(encoded));
+        assertEquals(1, meterRegistry.get("app.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("app.password.hash").tag("operation", "matches").timer().count());
+    }
+}
@@ -1,16 +1,20 @@
 package org.delcom.app.configs;
 
 import org.delcom.app.interceptors.AuthInterceptor;
+import org.delcom.app.interceptors.ServerTimingInterceptor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.web.MockServletContext;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -20,6 +24,9 @@ class WebMvcConfigTests {
     @Mock
     private AuthInterceptor authInterceptor;
 
+    @Mock
+    private ServerTimingInterceptor serverTimingInterceptor;
+
     @InjectMocks
     private WebMvcConfig webMvcConfig;
 
@@ -40,22 +47,21 @@ class WebMvcConfigTests {
 
         webMvcConfig.addInterceptors(registry);
 
+        verify(registry).addInterceptor(serverTimingInterceptor);
         verify(registry).addInterceptor(authInterceptor);
         verify(registration).addPathPatterns("/**");
     }
 
+
     @Test
-    @DisplayName("Registers Resource Handlers correctly")
+    @DisplayName("Registers fingerprinted asset handler and URL encoding filter")
     void testAddResourceHandlers() {
-        ResourceHandlerRegistry registry = mock(ResourceHandlerRegistry.class);
-        ResourceHandlerRegistration registration = mock(ResourceHandlerRegistration.class);
-
-        when(registry.addResourceHandler(anyString())).thenReturn(registration);
-        when(registration.addResourceLocations(anyString())).thenReturn(registration);
+        ResourceHandlerRegistry registry = new ResourceHandlerRegistry(new StaticApplicationContext(),
+                new MockServletContext());
 
         webMvcConfig.addResourceHandlers(registry);
 
-        verify(registry).addResourceHandler("/uploads/**");
-        verify(registration).addResourceLocations("file:./uploads/");
+        assertTrue(registry.hasMappingForPattern(WebMvcConfig.ASSETS_PATH_PATTERN));
+        assertNotNull(webMvcConfig.resourceUrlEncodingFilter());
     }
 }
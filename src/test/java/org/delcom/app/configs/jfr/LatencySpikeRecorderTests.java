@@ -0,0 +1,62 @@
+package org.delcom.app.configs.jfr;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LatencySpikeRecorderTests {
+
+    @TempDir
+    Path dumpDir;
+
+    @Test
+    @DisplayName("Nonaktif secara default: tidak ada recording yang dibuat")
+    void disabledByDefault() throws Exception {
+        LatencySpikeRecorder recorder = new LatencySpikeRecorder();
+        recorder.start();
+        recorder.stop();
+    }
+
+    @Test
+    @DisplayName("Request lambat di atas threshold memicu dump JFR")
+    void dumpsOnSpike() throws Exception {
+        LatencySpikeRecorder recorder = new LatencySpikeRecorder();
+        recorder.enabled = true;
+        recorder.dumpDir = dumpDir.toString();
+        recorder.p99ThresholdMs = 5;
+        recorder.minSamples = 3;
+        recorder.start();
+        try {
+            for (int i = 0; i < 5; i++) {
+                HttpRequestEvent event = new HttpRequestEvent();
+                event.begin();
+                Thread.sleep(10);
+                event.method = "GET";
+                event.route = "/api/workouts/stats";
+                event.status = 200;
+                event.commit();
+            }
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+            while (countDumps() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            assertEquals(1, countDumps());
+        } finally {
+            recorder.stop();
+        }
+    }
+
+    private long countDumps() throws Exception {
+        try (Stream<Path> files = Files.list(dumpDir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jfr")).count();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.delcom.app.configs.jfr;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LatencyWindowTests {
+
+    @Test
+    @DisplayName("p99 dihitung dari sampel di dalam jendela")
+    void p99WithinWindow() {
+        LatencyWindow window = new LatencyWindow(1_000, 1_024);
+        assertEquals(0, window.p99(0));
+
+        for (int i = 1; i <= 100; i++) {
+            window.add(500, i * 1_000_000L);
+        }
+
+        assertEquals(100, window.size(1_000));
+        assertEquals(99_000_000L, window.p99(1_000));
+    }
+
+    @Test
+    @DisplayName("Sampel lebih tua dari jendela dibuang")
+    void evictsOldSamples() {
+        LatencyWindow window = new LatencyWindow(1_000, 1_024);
+        window.add(0, 5_000_000_000L);
+        window.add(900, 1_000_000L);
+
+        assertEquals(2, window.size(1_000));
+        assertEquals(1, window.size(1_500));
+        assertEquals(1_000_000L, window.p99(1_500));
+    }
+
+    @Test
+    @DisplayName("Jika kapasitas penuh, sampel tertua ditimpa")
+    void overwritesOldestWhenFull() {
+        LatencyWindow window = new LatencyWindow(10_000, 4);
+        for (int i = 1; i <= 6; i++) {
+            window.add(i, i);
+        }
+
+        assertEquals(4, window.size(10));
+        assertEquals(6, window.p99(10));
+    }
+}
@@ -4,9 +4,9 @@ import org.delcom.app.configs.AuthContext;
 import org.delcom.app.dto.ChangePasswordForm;
 import org.delcom.app.dto.ProfileForm;
 import org.delcom.app.entities.User;
-import org.delcom.app.repositories.WorkoutRepository;
 import org.delcom.app.services.FileStorageService;
 import org.delcom.app.services.UserService;
+import org.delcom.app.services.WorkoutService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -37,7 +37,7 @@ class ProfileControllerTests {
     private FileStorageService fileStorageService;
 
     @Mock
-    private WorkoutRepository workoutRepository;
+    private WorkoutService workoutService;
 
     @Mock
     private AuthContext authContext;
@@ -77,7 +77,7 @@ class ProfileControllerTests {
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(user);
         when(userService.getUserById(userId)).thenReturn(user);
-        when(workoutRepository.countByUserId(userId)).thenReturn(5);
+        when(workoutService.countWorkouts(userId)).thenReturn(5);
 
         String viewName = profileController.getProfile(model);
 
@@ -325,7 +325,7 @@ class ProfileControllerTests {
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(user);
         when(userService.getUserById(userId)).thenReturn(user);
-        when(workoutRepository.countByUserId(userId)).thenReturn(null); // Return null
+        when(workoutService.countWorkouts(userId)).thenReturn(null); // Return null
 
         String viewName = profileController.getProfile(model);
 
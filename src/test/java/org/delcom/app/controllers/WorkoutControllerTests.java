@@ -2,14 +2,17 @@ package org.delcom.app.controllers;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.dto.WorkoutFilter;
 import org.delcom.app.dto.WorkoutForm;
 import org.delcom.app.entities.User;
 import org.delcom.app.entities.Workout;
+import org.delcom.app.services.WorkoutIngestService;
 import org.delcom.app.services.WorkoutService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -32,6 +35,9 @@ class WorkoutControllerTests {
     @Mock
     private WorkoutService workoutService;
 
+    @Mock
+    private WorkoutIngestService workoutIngestService;
+
     @Mock
     private AuthContext authContext;
 
@@ -106,16 +112,61 @@ class WorkoutControllerTests {
         assertEquals(created.getId(), response.getBody().getData().get("id"));
     }
 
+    @Test
+    @DisplayName("createWorkout: Acknowledged from the ingestion log when write-behind is enabled")
+    void createWorkout_Ingested() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(authUser);
+        when(workoutIngestService.isEnabled()).thenReturn(true);
+
+        WorkoutForm form = new WorkoutForm();
+        form.setTitle("Run");
+        form.setDescription("Run track");
+        form.setDurationMinutes(30);
+        form.setType("RUNNING");
+        form.setDate(LocalDate.now());
+
+        Workout queued = new Workout();
+        queued.setId(UUID.randomUUID());
+        when(workoutIngestService.submit(eq(userId), eq("Run"), eq("Run track"), eq(30), eq("RUNNING"),
+                any(LocalDate.class)))
+                .thenReturn(queued);
+
+        ResponseEntity<ApiResponse<Map<String, UUID>>> response = workoutController.createWorkout(form);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(queued.getId(), response.getBody().getData().get("id"));
+        verify(workoutService, never()).createWorkout(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("createWorkout: 503 with Retry-After when the ingestion queue is full")
+    void createWorkout_IngestQueueFull() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(authUser);
+        when(workoutIngestService.isEnabled()).thenReturn(true);
+
+        ResponseEntity<ApiResponse<Map<String, UUID>>> response = workoutController.createWorkout(validForm());
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("fail", response.getBody().getStatus());
+        verify(workoutService, never()).createWorkout(any(), any(), any(), any(), any(), any());
+    }
+
     @Test
     @DisplayName("getAllWorkouts: Success")
     void getAllWorkouts_Success() {
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(authUser);
 
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setType(List.of("RUNNING"));
+        filter.setSearch("pagi");
         List<Workout> workouts = List.of(new Workout());
-        when(workoutService.getAllWorkouts(userId, null, null)).thenReturn(workouts);
+        when(workoutService.getAllWorkouts(userId, filter)).thenReturn(workouts);
 
-        ResponseEntity<ApiResponse<Map<String, List<Workout>>>> response = workoutController.getAllWorkouts(null);
+        ResponseEntity<ApiResponse<Map<String, List<Workout>>>> response = workoutController.getAllWorkouts(filter);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(workouts, response.getBody().getData().get("workouts"));
@@ -177,6 +228,10 @@ class WorkoutControllerTests {
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("success", response.getBody().getStatus());
+        InOrder order = inOrder(workoutIngestService, workoutService);
+        order.verify(workoutIngestService).flushIfPending(userId, workoutId);
+        order.verify(workoutService).updateWorkout(eq(userId), eq(workoutId), anyString(), anyString(), anyInt(),
+                anyString(), any(LocalDate.class));
     }
 
     @Test
@@ -191,6 +246,9 @@ class WorkoutControllerTests {
         ResponseEntity<ApiResponse<String>> response = workoutController.deleteWorkout(workoutId);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        InOrder order = inOrder(workoutIngestService, workoutService);
+        order.verify(workoutIngestService).flushIfPending(userId, workoutId);
+        order.verify(workoutService).deleteWorkout(userId, workoutId);
     }
 
     @Test
@@ -212,7 +270,8 @@ class WorkoutControllerTests {
     @DisplayName("getAllWorkouts: Unauthenticated")
     void getAllWorkouts_Unauthenticated() {
         when(authContext.isAuthenticated()).thenReturn(false);
-        ResponseEntity<ApiResponse<Map<String, List<Workout>>>> response = workoutController.getAllWorkouts(null);
+        ResponseEntity<ApiResponse<Map<String, List<Workout>>>> response = workoutController
+                .getAllWorkouts(new WorkoutFilter());
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
     }
 
@@ -233,7 +292,7 @@ class WorkoutControllerTests {
         form.setTitle("T");
         form.setDescription("D");
         form.setDurationMinutes(1);
-        form.setType("T");
+        form.setType("GYM");
         form.setDate(LocalDate.now());
 
         ResponseEntity<ApiResponse<Workout>> response = workoutController.updateWorkout(UUID.randomUUID(), form);
@@ -259,7 +318,7 @@ class WorkoutControllerTests {
         form.setTitle("T");
         form.setDescription("D");
         form.setDurationMinutes(1);
-        form.setType("T");
+        form.setType("GYM");
         form.setDate(LocalDate.now());
 
         when(workoutService.updateWorkout(any(), any(), anyString(), anyString(), anyInt(), anyString(), any()))
@@ -513,4 +572,62 @@ class WorkoutControllerTests {
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Data date tidak valid", response.getBody().getMessage());
     }
+
+    // Form valid untuk create/update; masing-masing test merusak satu field
+    private static WorkoutForm validForm() {
+        WorkoutForm form = new WorkoutForm();
+        form.setTitle("Title");
+        form.setDescription("Desc");
+        form.setDurationMinutes(30);
+        form.setType("RUNNING");
+        form.setDate(LocalDate.now());
+        return form;
+    }
+
+    @Test
+    @DisplayName("createWorkout: Validation Fails - Title/Description longer than varchar(255)")
+    void createWorkout_TextTooLong() {
+        WorkoutForm longTitle = validForm();
+        longTitle.setTitle("x".repeat(256));
+        WorkoutForm longDescription = validForm();
+        longDescription.setDescription("x".repeat(256));
+
+        ResponseEntity<ApiResponse<Map<String, UUID>>> response = workoutController.createWorkout(longTitle);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Data title tidak valid", response.getBody().getMessage());
+        response = workoutController.createWorkout(longDescription);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Data description tidak valid", response.getBody().getMessage());
+        verifyNoInteractions(workoutService, workoutIngestService);
+    }
+
+    @Test
+    @DisplayName("createWorkout: Validation Fails - Unknown Type")
+    void createWorkout_UnknownType() {
+        WorkoutForm form = validForm();
+        form.setType("ANGKAT_BESI");
+
+        ResponseEntity<ApiResponse<Map<String, UUID>>> response = workoutController.createWorkout(form);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Data type tidak valid", response.getBody().getMessage());
+        verifyNoInteractions(workoutService, workoutIngestService);
+    }
+
+    @Test
+    @DisplayName("updateWorkout: Validation Fails - Title longer than varchar(255) or Unknown Type")
+    void updateWorkout_TooLongOrUnknownType() {
+        WorkoutForm longTitle = validForm();
+        longTitle.setTitle("x".repeat(256));
+        WorkoutForm unknownType = validForm();
+        unknownType.setType("running");
+
+        ResponseEntity<ApiResponse<Workout>> response = workoutController.updateWorkout(UUID.randomUUID(), longTitle);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Data title tidak valid", response.getBody().getMessage());
+        response = workoutController.updateWorkout(UUID.randomUUID(), unknownType);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Data type tidak valid", response.getBody().getMessage());
+        verifyNoInteractions(workoutService);
+    }
 }
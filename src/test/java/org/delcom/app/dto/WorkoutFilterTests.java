@@ -0,0 +1,177 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class WorkoutFilterTests {
+
+    private WorkoutFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new WorkoutFilter();
+    }
+
+    @Test
+    @DisplayName("Filter kosong: semua tipe, tanpa keyword, urut terbaru, query string kosong")
+    void emptyFilter_HasDefaults() {
+        assertTrue(filter.getTypes().isEmpty());
+        assertNull(filter.getKeyword());
+        assertEquals(WorkoutFilter.SortOrder.NEWEST, filter.getSortOrder());
+        assertEquals("", filter.toQueryString());
+    }
+
+    @Test
+    @DisplayName("Setter dan getter menyimpan nilai apa adanya")
+    void settersAndGetters() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        filter.setType(List.of("RUNNING"));
+        filter.setSearch(" pagi ");
+        filter.setFrom(from);
+        filter.setTo(to);
+        filter.setMinDuration(10);
+        filter.setMaxDuration(60);
+        filter.setSort("oldest");
+
+        assertEquals(List.of("RUNNING"), filter.getType());
+        assertEquals(" pagi ", filter.getSearch());
+        assertEquals(from, filter.getFrom());
+        assertEquals(to, filter.getTo());
+        assertEquals(10, filter.getMinDuration());
+        assertEquals(60, filter.getMaxDuration());
+        assertEquals("oldest", filter.getSort());
+    }
+
+    @Test
+    @DisplayName("Tipe tidak valid, kosong dan null diabaikan; huruf kecil diterima")
+    void getTypes_IgnoresInvalidValues() {
+        filter.setType(Arrays.asList("gym", "INVALID", "", null, " RUNNING "));
+
+        assertEquals(EnumSet.of(WorkoutType.RUNNING, WorkoutType.GYM), filter.getTypes());
+    }
+
+    @Test
+    @DisplayName("Keyword di-trim, spasi saja dianggap kosong")
+    void getKeyword_TrimsAndIgnoresBlank() {
+        filter.setSearch("  lari pagi ");
+        assertEquals("lari pagi", filter.getKeyword());
+
+        filter.setSearch("   ");
+        assertNull(filter.getKeyword());
+    }
+
+    @Test
+    @DisplayName("Sort menerima bentuk kebab-case dan nama enum; tidak dikenal jatuh ke NEWEST")
+    void sortOrder_Parse() {
+        assertEquals(WorkoutFilter.SortOrder.MOST_CALORIES, WorkoutFilter.SortOrder.parse("most-calories"));
+        assertEquals(WorkoutFilter.SortOrder.SHORTEST, WorkoutFilter.SortOrder.parse("SHORTEST"));
+        assertEquals(WorkoutFilter.SortOrder.NEWEST, WorkoutFilter.SortOrder.parse("sideways"));
+        assertEquals(WorkoutFilter.SortOrder.NEWEST, WorkoutFilter.SortOrder.parse(" "));
+        assertEquals(WorkoutFilter.SortOrder.NEWEST, WorkoutFilter.SortOrder.parse(null));
+    }
+
+    @Test
+    @DisplayName("Sort memakai createdAt searah sebagai pemutus seri")
+    void sortOrder_ToSort() {
+        Sort sort = WorkoutFilter.SortOrder.LONGEST.toSort();
+
+        assertEquals(Sort.Direction.DESC, sort.getOrderFor("durationMinutes").getDirection());
+        assertEquals(Sort.Direction.DESC, sort.getOrderFor("createdAt").getDirection());
+        assertEquals(Sort.Direction.ASC, WorkoutFilter.SortOrder.OLDEST.toSort().getOrderFor("createdAt").getDirection());
+        assertEquals("most-calories", WorkoutFilter.SortOrder.MOST_CALORIES.param());
+        assertEquals("Terbaru", WorkoutFilter.SortOrder.NEWEST.getLabel());
+    }
+
+    @Test
+    @DisplayName("Query string ternormalisasi: tipe urut enum, nilai di-encode, sort default tidak ditulis")
+    void toQueryString_IsNormalized() {
+        filter.setType(List.of("GYM", "RUNNING", "INVALID"));
+        filter.setSearch(" lari & renang ");
+        filter.setFrom(LocalDate.of(2025, 1, 1));
+        filter.setTo(LocalDate.of(2025, 2, 1));
+        filter.setMinDuration(15);
+        filter.setMaxDuration(90);
+        filter.setSort("LONGEST");
+
+        assertEquals("type=RUNNING&type=GYM&search=lari+%26+renang&from=2025-01-01&to=2025-02-01"
+                + "&minDuration=15&maxDuration=90&sort=longest", filter.toQueryString());
+
+        filter.setSort("newest");
+        assertFalse(filter.toQueryString().contains("sort="));
+    }
+
+    private static Workout workout(String title, int duration, LocalDate date, WorkoutType type) {
+        Workout workout = new Workout(null, title, "Sesi " + title, duration, duration * 10.0, date, type, null);
+        workout.setTimestamps(date.atStartOfDay(), date.atStartOfDay());
+        return workout;
+    }
+
+    @Test
+    @DisplayName("matches memakai kriteria yang sama dengan query findByFilter")
+    void matches_AppliesEveryCriterion() {
+        Workout run = workout("Lari Pagi", 30, LocalDate.of(2019, 3, 1), WorkoutType.RUNNING);
+        assertTrue(filter.matches(run));
+
+        filter.setType(List.of("GYM"));
+        assertFalse(filter.matches(run));
+        filter.setType(List.of("RUNNING"));
+        filter.setSearch("PAGI");
+        assertTrue(filter.matches(run));
+        filter.setSearch("sesi lari");
+        assertTrue(filter.matches(run));
+        filter.setSearch("renang");
+        assertFalse(filter.matches(run));
+        filter.setSearch(null);
+
+        filter.setFrom(LocalDate.of(2019, 3, 1));
+        filter.setTo(LocalDate.of(2019, 3, 1));
+        assertTrue(filter.matches(run));
+        filter.setFrom(LocalDate.of(2019, 3, 2));
+        assertFalse(filter.matches(run));
+        filter.setFrom(null);
+        filter.setTo(LocalDate.of(2019, 2, 28));
+        assertFalse(filter.matches(run));
+        filter.setTo(null);
+
+        filter.setMinDuration(30);
+        filter.setMaxDuration(30);
+        assertTrue(filter.matches(run));
+        filter.setMinDuration(31);
+        assertFalse(filter.matches(run));
+        filter.setMinDuration(null);
+        filter.setMaxDuration(29);
+        assertFalse(filter.matches(run));
+    }
+
+    @Test
+    @DisplayName("comparator mengikuti toSort: properti lalu createdAt, searah")
+    void sortOrder_Comparator() {
+        Workout older = workout("A", 60, LocalDate.of(2019, 1, 1), WorkoutType.GYM);
+        Workout newer = workout("B", 20, LocalDate.of(2019, 6, 1), WorkoutType.RUNNING);
+        Workout sameDay = workout("C", 40, LocalDate.of(2019, 6, 1), WorkoutType.CYCLING);
+        sameDay.setTimestamps(sameDay.getCreatedAt().plusHours(1), sameDay.getUpdatedAt());
+        List<Workout> workouts = List.of(older, newer, sameDay);
+
+        assertEquals(List.of(sameDay, newer, older), sorted(workouts, WorkoutFilter.SortOrder.NEWEST));
+        assertEquals(List.of(older, newer, sameDay), sorted(workouts, WorkoutFilter.SortOrder.OLDEST));
+        assertEquals(List.of(older, sameDay, newer), sorted(workouts, WorkoutFilter.SortOrder.LONGEST));
+        assertEquals(List.of(newer, sameDay, older), sorted(workouts, WorkoutFilter.SortOrder.SHORTEST));
+        assertEquals(List.of(older, sameDay, newer), sorted(workouts, WorkoutFilter.SortOrder.MOST_CALORIES));
+    }
+
+    private static List<Workout> sorted(List<Workout> workouts, WorkoutFilter.SortOrder order) {
+        return workouts.stream().sorted(order.comparator()).toList();
+    }
+}
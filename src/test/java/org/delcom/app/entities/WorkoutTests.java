@@ -3,6 +3,7 @@ package org.delcom.app.entities;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import org.junit.jupiter.api.DisplayName;
@@ -64,4 +65,41 @@ class WorkoutTests {
         assertNotNull(workout.getCreatedAt());
         assertNotNull(workout.getUpdatedAt());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("copy menghasilkan objek baru dengan semua field yang sama")
+    void copy_CopiesAllFields() {
+        Workout workout = new Workout(UUID.randomUUID(), "Lari", "Pagi", 30, 300.0, LocalDate.now(),
+                WorkoutType.RUNNING, "cover.png");
+        workout.setId(UUID.randomUUID());
+        workout.onCreate();
+
+        Workout copy = workout.copy();
+
+        assertNotSame(workout, copy);
+        assertEquals(workout.getId(), copy.getId());
+        assertEquals(workout.getUserId(), copy.getUserId());
+        assertEquals(workout.getTitle(), copy.getTitle());
+        assertEquals(workout.getDescription(), copy.getDescription());
+        assertEquals(workout.getDurationMinutes(), copy.getDurationMinutes());
+        assertEquals(workout.getCaloriesBurned(), copy.getCaloriesBurned());
+        assertEquals(workout.getDate(), copy.getDate());
+        assertEquals(workout.getType(), copy.getType());
+        assertEquals(workout.getImagePath(), copy.getImagePath());
+        assertEquals(workout.getCreatedAt(), copy.getCreatedAt());
+        assertEquals(workout.getUpdatedAt(), copy.getUpdatedAt());
+    }
+
+    @Test
+    @DisplayName("setTimestamps memakai timestamp apa adanya (workout dari arsip)")
+    void setTimestamps_KeepsGivenValues() {
+        Workout workout = new Workout();
+        LocalDateTime createdAt = LocalDateTime.of(2019, 5, 1, 7, 30);
+        LocalDateTime updatedAt = createdAt.plusDays(1);
+
+        workout.setTimestamps(createdAt, updatedAt);
+
+        assertEquals(createdAt, workout.getCreatedAt());
+        assertEquals(updatedAt, workout.getUpdatedAt());
+    }
+}
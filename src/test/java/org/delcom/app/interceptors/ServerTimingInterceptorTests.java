@@ -0,0 +1,35 @@
+package org.delcom.app.interceptors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import org.delcom.app.configs.ServerTiming;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.ModelAndView;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class ServerTimingInterceptorTests {
+
+    private final ServerTimingInterceptor interceptor = new ServerTimingInterceptor();
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private final HttpServletResponse response = mock(HttpServletResponse.class);
+
+    @Test
+    @DisplayName("postHandle tidak gagal untuk response tanpa view")
+    void ignoresResponsesWithoutView() {
+        assertDoesNotThrow(() -> {
+            interceptor.postHandle(request, response, null, null);
+            interceptor.postHandle(request, response, null, new ModelAndView());
+        });
+    }
+
+    @Test
+    @DisplayName("postHandle dengan view menandai awal render")
+    void marksRenderStart() {
+        assertDoesNotThrow(() -> interceptor.postHandle(request, response, null, new ModelAndView("pages/home")));
+        assertFalse(ServerTiming.isActive());
+    }
+}
@@ -0,0 +1,54 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.delcom.app.entities.User;
+import org.hibernate.Session;
+import org.hibernate.SimpleNaturalIdLoadAccess;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.persistence.EntityManager;
+
+class UserRepositoryCustomImplTests {
+
+    private EntityManager entityManager;
+    private UserRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        repository = new UserRepositoryCustomImpl();
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+    }
+
+    @Test
+    @DisplayName("findFirstByEmail memakai natural-id lookup")
+    @SuppressWarnings("unchecked")
+    void findFirstByEmail_UsesNaturalId() {
+        Session session = mock(Session.class);
+        SimpleNaturalIdLoadAccess<User> access = mock(SimpleNaturalIdLoadAccess.class);
+        User user = new User("Test", "test@example.com", "pass");
+
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.bySimpleNaturalId(User.class)).thenReturn(access);
+        when(access.loadOptional("test@example.com")).thenReturn(Optional.of(user));
+
+        assertSame(user, repository.findFirstByEmail("test@example.com").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("findFirstByEmail dengan email null mengembalikan empty")
+    void findFirstByEmail_Null() {
+        assertTrue(repository.findFirstByEmail(null).isEmpty());
+        verifyNoInteractions(entityManager);
+    }
+}
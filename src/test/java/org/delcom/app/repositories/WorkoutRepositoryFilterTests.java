@@ -0,0 +1,194 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.WorkoutFilter;
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.delcom.app.services.WorkoutService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Semantik {@link WorkoutRepository#findByFilter} terhadap database sungguhan
+ * (H2): setiap kriteria, kombinasinya, urutan, dan slice tanpa COUNT.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:workout-filter;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "app.storage.type=memory",
+        "app.access-log.enabled=false"
+})
+class WorkoutRepositoryFilterTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 31);
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private WorkoutPartitionRepository workoutPartitionRepository;
+
+    private UUID userId;
+
+    @BeforeEach
+    void seed() {
+        userId = UUID.randomUUID();
+        save(userId, "Lari pagi", "Taman kota", 30, WorkoutType.RUNNING, TODAY);
+        save(userId, "Lari sore", "Stadion", 60, WorkoutType.RUNNING, TODAY.minusDays(10));
+        save(userId, "Gowes", "Lari-lari kecil dulu", 90, WorkoutType.CYCLING, TODAY.minusDays(20));
+        save(userId, "Angkat beban", "Gym 100%", 45, WorkoutType.GYM, TODAY.minusDays(40));
+        save(userId, "Peregangan", "Santai", 15, WorkoutType.STRETCHING, TODAY.minusDays(60));
+        // Milik user lain, tidak boleh ikut
+        save(UUID.randomUUID(), "Lari pagi", "Taman kota", 30, WorkoutType.RUNNING, TODAY);
+    }
+
+    private void save(UUID owner, String title, String description, int duration, WorkoutType type,
+            LocalDate date) {
+        workoutRepository.save(new Workout(owner, title, description, duration,
+                WorkoutService.calculateCalories(type, duration), date, type, null));
+    }
+
+    private List<String> titles(WorkoutFilter filter) {
+        return titles(filter, Pageable.unpaged(filter.getSortOrder().toSort()));
+    }
+
+    private List<String> titles(WorkoutFilter filter, Pageable pageable) {
+        return workoutRepository.findByFilter(userId, filter, pageable).map(Workout::getTitle).getContent();
+    }
+
+    @Test
+    @DisplayName("Tanpa filter: semua workout milik user, terbaru dulu")
+    void emptyFilter_ReturnsAllNewestFirst() {
+        assertEquals(List.of("Lari pagi", "Lari sore", "Gowes", "Angkat beban", "Peregangan"),
+                titles(new WorkoutFilter()));
+    }
+
+    @Test
+    @DisplayName("Beberapa tipe sekaligus")
+    void typeSet() {
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setType(List.of("CYCLING", "GYM"));
+
+        assertEquals(List.of("Gowes", "Angkat beban"), titles(filter));
+    }
+
+    @Test
+    @DisplayName("Keyword mencocokkan judul atau deskripsi tanpa peduli huruf besar")
+    void keyword_MatchesTitleOrDescription() {
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setSearch("LARI");
+
+        assertEquals(List.of("Lari pagi", "Lari sore", "Gowes"), titles(filter));
+    }
+
+    @Test
+    @DisplayName("Karakter wildcard LIKE di keyword dicari apa adanya")
+    void keyword_EscapesWildcards() {
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setSearch("100%");
+        assertEquals(List.of("Angkat beban"), titles(filter));
+
+        filter.setSearch("_");
+        assertTrue(titles(filter).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Rentang tanggal inklusif di kedua sisi")
+    void dateRange() {
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setFrom(TODAY.minusDays(20));
+        filter.setTo(TODAY.minusDays(10));
+
+        assertEquals(List.of("Lari sore", "Gowes"), titles(filter));
+    }
+
+    @Test
+    @DisplayName("Rentang durasi inklusif di kedua sisi")
+    void durationRange() {
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setMinDuration(30);
+        filter.setMaxDuration(60);
+
+        assertEquals(List.of("Lari pagi", "Lari sore", "Angkat beban"), titles(filter));
+    }
+
+    @Test
+    @DisplayName("Semua kriteria digabung dengan AND")
+    void combinedFilter() {
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setType(List.of("RUNNING", "CYCLING"));
+        filter.setSearch("lari");
+        filter.setFrom(TODAY.minusDays(30));
+        filter.setMinDuration(45);
+        filter.setSort("longest");
+
+        assertEquals(List.of("Gowes", "Lari sore"), titles(filter));
+    }
+
+    @Test
+    @DisplayName("Urutan mengikuti sort filter")
+    void sortOrders() {
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setSort("shortest");
+        assertEquals("Peregangan", titles(filter).get(0));
+
+        filter.setSort("oldest");
+        assertEquals("Peregangan", titles(filter).get(0));
+
+        filter.setSort("most-calories");
+        assertEquals("Gowes", titles(filter).get(0));
+    }
+
+    @Test
+    @DisplayName("Slice: satu baris ekstra menentukan hasNext, halaman terakhir tanpa hasNext")
+    void pagedSlice() {
+        WorkoutFilter filter = new WorkoutFilter();
+
+        Slice<Workout> first = workoutRepository.findByFilter(userId, filter,
+                PageRequest.of(0, 2, filter.getSortOrder().toSort()));
+        assertEquals(2, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+
+        Slice<Workout> last = workoutRepository.findByFilter(userId, filter,
+                PageRequest.of(2, 2, filter.getSortOrder().toSort()));
+        assertEquals(List.of("Peregangan"), last.map(Workout::getTitle).getContent());
+        assertFalse(last.hasNext());
+    }
+
+    @Test
+    @DisplayName("WorkoutFilter.matches (dipakai untuk workout arsip) sama dengan hasil query")
+    void inMemoryMatchesAgreeWithQuery() {
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setSearch("LARI");
+        filter.setMinDuration(30);
+        filter.setTo(TODAY.minusDays(5));
+        filter.setSort("shortest");
+        List<Workout> all = workoutRepository.findByFilter(userId, new WorkoutFilter(), Pageable.unpaged())
+                .getContent();
+
+        assertEquals(titles(filter), all.stream().filter(filter::matches)
+                .sorted(filter.getSortOrder().comparator()).map(Workout::getTitle).toList());
+    }
+
+    @Test
+    @DisplayName("Di H2 tabel workouts tidak dipartisi (partisi khusus PostgreSQL)")
+    void h2IsNotPartitioned() {
+        assertFalse(workoutPartitionRepository.isPartitioned());
+    }
+}
@@ -0,0 +1,213 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.dto.WorkoutFilter;
+import org.delcom.app.enums.WorkoutType;
+import org.delcom.app.support.EmbeddedPostgresConfiguration;
+import org.delcom.app.support.SqlStatementCounter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Regresi plan query: setiap query {@link WorkoutRepository} dijalankan
+ * terhadap PostgreSQL lokal (embedded, skema dari migration Flyway), SQL yang
+ * dihasilkan Hibernate ditangkap lalu di-{@code EXPLAIN}. Test gagal jika plan
+ * mengandung Seq Scan, artinya query baru butuh index baru di db/migration.
+ *
+ * Context memakai {@code ddl-auto=validate}, jadi test ini juga gagal jika
+ * migration tidak cocok dengan entity. Migration khusus PostgreSQL ikut jalan,
+ * jadi tabel workouts di sini dipartisi per tahun seperti di produksi.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.locations=classpath:db/migration,classpath:db/vendor/{vendor}",
+        "spring.jpa.properties.hibernate.hbm2ddl.extra_physical_table_types=PARTITIONED TABLE",
+        "app.storage.type=memory",
+        "app.access-log.enabled=false"
+})
+@Import({ SqlStatementCounter.Configuration.class, EmbeddedPostgresConfiguration.class })
+class WorkoutRepositoryPlanTests {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final LocalDate START_DATE = LocalDate.of(2025, 1, 1);
+    // Halaman kedua: Spring Data hanya menjalankan query COUNT jika hasil halaman tidak cukup menentukan total
+    private static final Pageable PAGE = PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "date", "createdAt"));
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @FunctionalInterface
+    interface RepositoryCall {
+        void run(WorkoutRepository repository);
+    }
+
+    static Stream<Arguments> queries() {
+        return Stream.of(
+                query("findByUserIdOrderByDateDesc", r -> r.findByUserIdOrderByDateDesc(USER_ID)),
+                query("findByUserIdAndTypeOrderByDateDesc",
+                        r -> r.findByUserIdAndTypeOrderByDateDesc(USER_ID, WorkoutType.RUNNING)),
+                query("findByUserId", r -> r.findByUserId(USER_ID, PAGE)),
+                query("findByUserIdAndType", r -> r.findByUserIdAndType(USER_ID, WorkoutType.GYM, PAGE)),
+                query("findSliceByUserId", r -> r.findSliceByUserId(USER_ID, PAGE)),
+                query("findSliceByUserIdAndType", r -> r.findSliceByUserIdAndType(USER_ID, WorkoutType.CYCLING, PAGE)),
+                query("findByKeyword", r -> r.findByKeyword(USER_ID, "lari")),
+                query("findByUserIdAndId", r -> r.findByUserIdAndId(USER_ID, UUID.randomUUID())),
+                query("findImagePathsIn", r -> r.findImagePathsIn(List.of("a.jpg", "b.jpg"))),
+                query("sumDurationByUserId", r -> r.sumDurationByUserId(USER_ID)),
+                query("sumCaloriesByUserId", r -> r.sumCaloriesByUserId(USER_ID)),
+                query("countByUserId", r -> r.countByUserId(USER_ID)),
+                query("findHistoryColumnsByUserId", r -> r.findHistoryColumnsByUserId(USER_ID)),
+                query("findDailyDurationStats", r -> r.findDailyDurationStats(USER_ID)),
+                query("findDailyDurationStatsAfterDate", r -> r.findDailyDurationStatsAfterDate(USER_ID, START_DATE)),
+                query("findTypeStats", r -> r.findTypeStats(USER_ID)),
+                query("findTypeStatsAfterDate", r -> r.findTypeStatsAfterDate(USER_ID, START_DATE)),
+                query("findByFilter", r -> r.findByFilter(USER_ID, new WorkoutFilter(), PAGE)),
+                query("findByFilter tipe + tanggal",
+                        r -> r.findByFilter(USER_ID, filter(List.of("RUNNING", "GYM"), null, null), PAGE)),
+                query("findByFilter keyword + durasi, urut durasi",
+                        r -> r.findByFilter(USER_ID, filter(null, "lari", "longest"), PAGE)),
+                query("findByFilter semua kriteria",
+                        r -> r.findByFilter(USER_ID, filter(List.of("CYCLING"), "pagi", "most-calories"),
+                                Pageable.unpaged(Sort.by("date")))));
+    }
+
+    private static WorkoutFilter filter(List<String> types, String search, String sort) {
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setType(types);
+        filter.setSearch(search);
+        filter.setFrom(START_DATE);
+        filter.setTo(START_DATE.plusMonths(1));
+        filter.setMinDuration(10);
+        filter.setMaxDuration(120);
+        filter.setSort(sort);
+        return filter;
+    }
+
+    private static Arguments query(String name, RepositoryCall call) {
+        return Arguments.of(name, call);
+    }
+
+    @Test
+    @DisplayName("Setiap query yang dideklarasikan WorkoutRepository punya pengecekan plan")
+    void everyDeclaredQueryIsChecked() {
+        Set<String> declared = Stream.of(WorkoutRepository.class, WorkoutRepositoryCustom.class)
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .filter(method -> !method.isSynthetic() && !method.isDefault())
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+        // Nama kasus boleh diberi keterangan setelah spasi, misal "findByFilter tipe + tanggal"
+        Set<String> checked = queries()
+                .map(arguments -> ((String) arguments.get()[0]).split(" ")[0])
+                .collect(Collectors.toSet());
+
+        assertEquals(declared, checked);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void queryDoesNotUseSequentialScan(String name, RepositoryCall call) throws Exception {
+        List<String> statements = sqlStatementCounter.record(() -> call.run(workoutRepository));
+
+        assertFalse(statements.isEmpty(), name + " tidak mengeksekusi SQL");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("Seq Scan"),
+                    () -> name + " memakai sequential scan" + System.lineSeparator() + sql
+                            + System.lineSeparator() + plan);
+        }
+    }
+
+    @Test
+    @DisplayName("Query dengan batas tanggal hanya menyentuh partisi tahun yang relevan")
+    void dateBoundQueriesArePruned() throws Exception {
+        int year = LocalDate.now().getYear();
+        LocalDate startOfYear = LocalDate.of(year, 1, 1);
+        List<String> statements = sqlStatementCounter.record(
+                () -> workoutRepository.findDailyDurationStatsAfterDate(USER_ID, startOfYear));
+
+        // Nilai konkret, bukan $n: pruning dengan parameter baru terjadi saat eksekusi
+        String plan = explain(inlineParameters(statements.get(0), USER_ID, startOfYear));
+
+        assertTrue(plan.contains("workouts_y" + year), plan);
+        assertFalse(plan.contains("workouts_y" + (year - 1)), plan);
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            // Tabel kecil selalu lebih murah di-scan berurutan; yang diuji di sini
+            // adalah ada tidaknya index yang bisa dipakai, bukan pilihan cost planner
+            statement.execute("SET enable_seqscan = off");
+            StringBuilder plan = new StringBuilder();
+            // GENERIC_PLAN (PostgreSQL 16+): plan untuk parameter $n tanpa nilai konkret
+            String explain = sql.contains("?") ? "EXPLAIN (GENERIC_PLAN) " + numberParameters(sql) : "EXPLAIN " + sql;
+            try (ResultSet rows = statement.executeQuery(explain)) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append(System.lineSeparator());
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    // Placeholder JDBC "?" -> literal '<nilai>' berurutan (nilai test, tanpa kutip di dalamnya)
+    static String inlineParameters(String sql, Object... values) {
+        String numbered = numberParameters(sql);
+        for (int i = values.length; i > 0; i--) {
+            numbered = numbered.replace("$" + i, "'" + values[i - 1] + "'");
+        }
+        return numbered;
+    }
+
+    // Placeholder JDBC "?" -> "$1", "$2", ... (di luar literal string)
+    static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        boolean inLiteral = false;
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
@@ -0,0 +1,109 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class DataVersionServiceTests {
+
+    private final DataVersionService dataVersionService = new DataVersionService();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Versi awal 0 dan naik per user")
+    void bump_IncrementsPerUser() {
+        UUID userA = UUID.randomUUID();
+        UUID userB = UUID.randomUUID();
+
+        assertEquals(0L, dataVersionService.getVersion(userA));
+        assertEquals(1L, dataVersionService.bump(userA));
+        assertEquals(2L, dataVersionService.bump(userA));
+
+        assertEquals(2L, dataVersionService.getVersion(userA));
+        assertEquals(0L, dataVersionService.getVersion(userB));
+    }
+
+    @Test
+    @DisplayName("bumpAfterCommit tanpa transaksi langsung menaikkan versi")
+    void bumpAfterCommit_NoTransaction() {
+        UUID userId = UUID.randomUUID();
+
+        dataVersionService.bumpAfterCommit(userId);
+
+        assertEquals(1L, dataVersionService.getVersion(userId));
+    }
+
+    @Test
+    @DisplayName("bumpAfterCommit dalam transaksi menunggu commit")
+    void bumpAfterCommit_WaitsForCommit() {
+        UUID userId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        dataVersionService.bumpAfterCommit(userId);
+        assertEquals(0L, dataVersionService.getVersion(userId));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals(1L, dataVersionService.getVersion(userId));
+    }
+
+    @Test
+    @DisplayName("bumpAfterCommit mengabaikan user null")
+    void bumpAfterCommit_NullUser() {
+        dataVersionService.bumpAfterCommit(null);
+
+        assertEquals(0L, dataVersionService.getVersion(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("Perubahan dari node lain menaikkan versi dan memanggil listener; null menaikkan semua user")
+    void remoteChanged_BumpsAndNotifies() {
+        UUID userId = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        List<UUID> notified = new ArrayList<>();
+        dataVersionService.onRemoteChange(notified::add);
+
+        dataVersionService.remoteChanged(userId);
+        assertEquals(1L, dataVersionService.getVersion(userId));
+        assertEquals(0L, dataVersionService.getVersion(unknown));
+
+        dataVersionService.remoteChanged(null);
+        assertEquals(2L, dataVersionService.getVersion(userId));
+        assertEquals(1L, dataVersionService.getVersion(unknown));
+        assertEquals(Arrays.asList(userId, null), notified);
+    }
+
+    @Test
+    @DisplayName("Perubahan lokal dikirim ke publisher setelah commit, bukan perubahan dari node lain")
+    void bumpAfterCommit_Publishes() {
+        UUID userId = UUID.randomUUID();
+        List<UUID> published = new ArrayList<>();
+        dataVersionService.publishTo(published::add);
+        TransactionSynchronizationManager.initSynchronization();
+
+        dataVersionService.bumpAfterCommit(userId);
+        assertEquals(List.of(), published);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        dataVersionService.remoteChanged(UUID.randomUUID());
+        assertEquals(List.of(userId), published);
+    }
+}
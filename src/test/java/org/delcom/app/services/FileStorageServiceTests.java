@@ -5,10 +5,13 @@ import static org.mockito.Mockito.*;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.UUID;
 
+import org.delcom.app.storage.InMemoryBlobStore;
+import org.delcom.app.storage.LocalBlobStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,10 +22,13 @@ import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class FileStorageServiceTests {
 
     private FileStorageService fileStorageService;
+    private SimpleMeterRegistry meterRegistry;
 
     @Mock
     private MultipartFile mockMultipartFile;
@@ -32,8 +38,8 @@ class FileStorageServiceTests {
 
     @BeforeEach
     void setup() {
-        fileStorageService = new FileStorageService();
-        fileStorageService.uploadDir = tempDir.toString();
+        meterRegistry = new SimpleMeterRegistry();
+        fileStorageService = new FileStorageService(new LocalBlobStore(tempDir), meterRegistry);
     }
 
     @Test
@@ -111,11 +117,82 @@ class FileStorageServiceTests {
         }
     }
 
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    @DisplayName("openFile should stream file content and count bytes on close")
+    void openFile_Success() throws Exception {
+        Files.write(tempDir.resolve("cover_file.txt"), "content".getBytes());
+
+        InputStream in = fileStorageService.openFile("cover_file.txt");
+        assertEquals('c', in.read());
+        byte[] rest = in.readAllBytes();
+        // Akhir stream tidak ikut dihitung
+        assertEquals(-1, in.read());
+        assertEquals(0.0, meterRegistry.get("app.storage.bytes").tag("direction", "read").counter().count());
+        in.close();
+        in.close();
+
+        assertArrayEquals("ontent".getBytes(), rest);
+        assertEquals(7.0, meterRegistry.get("app.storage.bytes").tag("direction", "read").counter().count());
+    }
+
+    @Test
+    @DisplayName("openFile should return null if not exists")
+    void openFile_NotExists() throws Exception {
+        assertNull(fileStorageService.openFile("cover_ghost.txt"));
+    }
+
+    @Test
+    @DisplayName("openFile should return null for keys that are not uploads")
+    void openFile_NotUploadKey() throws Exception {
+        Files.write(tempDir.resolve("archive_workouts_manifest.txt"), "secret".getBytes());
+
+        assertNull(fileStorageService.openFile("archive_workouts_manifest.txt"));
+        assertTrue(FileStorageService.isUploadKey("profile_1.png"));
+        assertFalse(FileStorageService.isUploadKey("quarantine/cover_1.png"));
+    }
+
     @Test
-    @DisplayName("loadFile should return correct path")
-    void loadFile() {
-        Path result = fileStorageService.loadFile("file.txt");
-        assertEquals(tempDir.resolve("file.txt"), result);
+    @DisplayName("openFile should return null for path traversal")
+    void openFile_PathTraversal() throws Exception {
+        assertNull(fileStorageService.openFile("../secret.txt"));
+    }
+
+    @Test
+    @DisplayName("resolveContentType should map image extensions")
+    void resolveContentType() {
+        assertEquals("image/jpeg", fileStorageService.resolveContentType("a.jpg"));
+        assertEquals("image/jpeg", fileStorageService.resolveContentType("a.JPEG"));
+        assertEquals("image/png", fileStorageService.resolveContentType("a.png"));
+        assertEquals("image/gif", fileStorageService.resolveContentType("a.gif"));
+        assertEquals("image/webp", fileStorageService.resolveContentType("a.webp"));
+        assertEquals("application/octet-stream", fileStorageService.resolveContentType("a.txt"));
+    }
+
+    @Test
+    @DisplayName("storeFile should pass size and content type to the blob store")
+    void storeFile_UsesBlobStore() throws Exception {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        fileStorageService = new FileStorageService(blobStore, meterRegistry);
+        UUID id = UUID.randomUUID();
+
+        when(mockMultipartFile.getOriginalFilename()).thenReturn("image.png");
+        when(mockMultipartFile.getContentType()).thenReturn("image/png");
+        when(mockMultipartFile.getSize()).thenReturn(4L);
+        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
+
+        String result = fileStorageService.storeFile(mockMultipartFile, id);
+
+        assertTrue(blobStore.exists(result));
+        assertEquals("image/png", blobStore.getContentType(result));
+        assertArrayEquals("data".getBytes(), readAll(fileStorageService.openFile(result)));
+        assertEquals(4.0, meterRegistry.get("app.storage.bytes").tag("direction", "write").counter().count());
+        assertEquals(4.0, meterRegistry.get("app.storage.bytes").tag("direction", "read").counter().count());
     }
 
     @Test
@@ -340,7 +417,7 @@ class FileStorageServiceTests {
         UUID id = UUID.randomUUID();
         // Point to a non-existent subdirectory
         Path newDir = tempDir.resolve("new_uploads");
-        fileStorageService.uploadDir = newDir.toString();
+        fileStorageService = new FileStorageService(new LocalBlobStore(newDir), meterRegistry);
 
         when(mockMultipartFile.getOriginalFilename()).thenReturn("test.jpg");
         when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
@@ -357,7 +434,7 @@ class FileStorageServiceTests {
         UUID userId = UUID.randomUUID();
         // Point to a non-existent subdirectory
         Path newDir = tempDir.resolve("profile_uploads");
-        fileStorageService.uploadDir = newDir.toString();
+        fileStorageService = new FileStorageService(new LocalBlobStore(newDir), meterRegistry);
 
         when(mockMultipartFile.getOriginalFilename()).thenReturn("me.png");
         when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
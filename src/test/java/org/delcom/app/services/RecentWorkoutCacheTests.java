@@ -0,0 +1,300 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class RecentWorkoutCacheTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 31);
+
+    private final DataVersionService dataVersionService = new DataVersionService();
+    private final UUID userId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private RecentWorkoutCache cache(int size) {
+        return new RecentWorkoutCache(true, size, 1 << 20, 300, dataVersionService);
+    }
+
+    private static Workout workout(String title, int daysAgo) {
+        Workout workout = new Workout(UUID.randomUUID(), title, daysAgo % 2 == 0 ? null : "Catatan", 30, 300.0,
+                TODAY.minusDays(daysAgo), WorkoutType.RUNNING, null);
+        workout.setId(UUID.randomUUID());
+        return workout;
+    }
+
+    private static List<String> titles(List<Workout> workouts) {
+        List<String> titles = new ArrayList<>();
+        workouts.forEach(w -> titles.add(w.getTitle()));
+        return titles;
+    }
+
+    // Window langsung dari isi + flag complete (tanpa loader)
+    private static RecentWorkoutCache.Window window(boolean complete, Workout... workouts) {
+        return new RecentWorkoutCache.Window(List.of(workouts), complete);
+    }
+
+    @Test
+    @DisplayName("Dimuat sekali lewat loader, bacaan berikutnya tidak memanggil loader")
+    void get_LoadsOnceThenHits() {
+        RecentWorkoutCache cache = cache(3);
+        AtomicInteger loads = new AtomicInteger();
+        Workout a = workout("A", 0);
+
+        RecentWorkoutCache.Window first = cache.get(userId, (id, size) -> {
+            loads.incrementAndGet();
+            assertEquals(3, size);
+            return new SliceImpl<>(List.of(a));
+        });
+        RecentWorkoutCache.Window second = cache.get(userId, (id, size) -> fail("tidak boleh memuat ulang"));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertTrue(first.isComplete());
+        assertEquals(1, first.size());
+        assertEquals(1L, cache.getNativeCache().estimatedSize());
+    }
+
+    @Test
+    @DisplayName("Cache dimatikan (atau size 0): get mengembalikan null tanpa memuat")
+    void get_Disabled() {
+        RecentWorkoutCache disabled = new RecentWorkoutCache(false, 50, 1 << 20, 300, dataVersionService);
+        RecentWorkoutCache zeroSize = new RecentWorkoutCache(true, 0, 1 << 20, 300, dataVersionService);
+
+        assertNull(disabled.get(userId, (id, size) -> fail("tidak boleh memuat")));
+        assertNull(zeroSize.get(userId, (id, size) -> fail("tidak boleh memuat")));
+    }
+
+    @Test
+    @DisplayName("Tulis yang commit selama load: hasil dikembalikan tapi tidak disimpan")
+    void get_VersionChangedDuringLoad_NotCached() {
+        RecentWorkoutCache cache = cache(3);
+
+        RecentWorkoutCache.Window window = cache.get(userId, (id, size) -> {
+            dataVersionService.bump(id);
+            return new SliceImpl<>(List.of(workout("A", 0)));
+        });
+
+        assertNotNull(window);
+        assertNull(cache.getNativeCache().getIfPresent(userId));
+    }
+
+    @Test
+    @DisplayName("Perubahan dari node lain membuang window user itu, atau semua window saat reset")
+    void remoteChange_Evicts() {
+        RecentWorkoutCache cache = cache(3);
+        UUID otherUser = UUID.randomUUID();
+        cache.get(userId, (id, size) -> new SliceImpl<>(List.of(workout("A", 0))));
+        cache.get(otherUser, (id, size) -> new SliceImpl<>(List.of(workout("B", 0))));
+
+        dataVersionService.remoteChanged(userId);
+        assertNull(cache.getNativeCache().getIfPresent(userId));
+        assertNotNull(cache.getNativeCache().getIfPresent(otherUser));
+
+        dataVersionService.remoteChanged(null);
+        assertNull(cache.getNativeCache().getIfPresent(otherUser));
+    }
+
+    @Test
+    @DisplayName("Isi cache adalah salinan, bukan entity dari loader")
+    void get_StoresCopies() {
+        RecentWorkoutCache cache = cache(3);
+        Workout a = workout("A", 0);
+        RecentWorkoutCache.Window window = cache.get(userId, (id, size) -> new SliceImpl<>(List.of(a)));
+
+        a.setTitle("Diubah");
+        Workout found = window.find(a.getId());
+        found.setTitle("Diubah juga");
+
+        assertEquals("A", window.find(a.getId()).getTitle());
+        assertEquals("A", window.workouts().get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("saved/deleted tanpa transaksi langsung diterapkan ke window yang ada")
+    void savedAndDeleted_NoTransaction() {
+        RecentWorkoutCache cache = cache(3);
+        Workout a = workout("A", 1);
+        cache.get(userId, (id, size) -> new SliceImpl<>(List.of(a)));
+
+        Workout b = workout("B", 0);
+        cache.saved(userId, b);
+        assertEquals(List.of("B", "A"), titles(cache.getNativeCache().getIfPresent(userId).workouts()));
+
+        cache.deleted(userId, a.getId());
+        assertEquals(List.of("B"), titles(cache.getNativeCache().getIfPresent(userId).workouts()));
+
+        // User tanpa window: tidak ada yang dibuat
+        UUID other = UUID.randomUUID();
+        cache.saved(other, b);
+        assertNull(cache.getNativeCache().getIfPresent(other));
+    }
+
+    @Test
+    @DisplayName("saved/deleted dalam transaksi baru diterapkan setelah commit")
+    void savedAndDeleted_AfterCommit() {
+        RecentWorkoutCache cache = cache(3);
+        Workout a = workout("A", 1);
+        cache.get(userId, (id, size) -> new SliceImpl<>(List.of(a)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        Workout b = workout("B", 0);
+        cache.saved(userId, b);
+        cache.deleted(userId, a.getId());
+        assertEquals(List.of("A"), titles(cache.getNativeCache().getIfPresent(userId).workouts()));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(2, synchronizations.size());
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(List.of("B"), titles(cache.getNativeCache().getIfPresent(userId).workouts()));
+    }
+
+    @Test
+    @DisplayName("Total memori dibatasi max-bytes: window yang tidak muat tergusur")
+    void maxBytes_EvictsWindows() {
+        RecentWorkoutCache cache = new RecentWorkoutCache(true, 10, 400, 300, dataVersionService);
+        for (int i = 0; i < 5; i++) {
+            cache.get(UUID.randomUUID(), (id, size) -> new SliceImpl<>(List.of(workout("A", 0))));
+        }
+        cache.getNativeCache().cleanUp();
+
+        assertTrue(cache.getNativeCache().estimatedSize() < 5);
+        assertTrue(cache.getNativeCache().policy().eviction().orElseThrow().weightedSize().orElseThrow() <= 400);
+
+        cache.clear();
+        assertEquals(0L, cache.getNativeCache().estimatedSize());
+    }
+
+    @Test
+    @DisplayName("answers/find: window lengkap menjawab id yang tidak ada dengan null")
+    void window_AnswersAndFind() {
+        Workout a = workout("A", 0);
+        UUID missing = UUID.randomUUID();
+
+        RecentWorkoutCache.Window complete = window(true, a);
+        assertTrue(complete.answers(missing));
+        assertNull(complete.find(missing));
+        assertEquals("A", complete.find(a.getId()).getTitle());
+
+        RecentWorkoutCache.Window partial = window(false, a);
+        assertTrue(partial.answers(a.getId()));
+        assertFalse(partial.answers(missing));
+    }
+
+    @Test
+    @DisplayName("page: halaman di dalam window dilayani, halaman di luar window tidak lengkap null")
+    void window_Page() {
+        RecentWorkoutCache.Window partial = window(false, workout("A", 0), workout("B", 1), workout("C", 2));
+
+        Slice<Workout> first = partial.page(0, 2);
+        assertEquals(List.of("A", "B"), titles(first.getContent()));
+        assertTrue(first.hasNext());
+        assertEquals(0, first.getNumber());
+
+        Slice<Workout> exact = partial.page(-1, 3);
+        assertEquals(3, exact.getNumberOfElements());
+        assertTrue(exact.hasNext(), "masih ada workout lebih lama di database");
+
+        assertNull(partial.page(1, 2));
+
+        RecentWorkoutCache.Window complete = window(true, workout("A", 0), workout("B", 1), workout("C", 2));
+        Slice<Workout> last = complete.page(1, 2);
+        assertEquals(List.of("C"), titles(last.getContent()));
+        assertFalse(last.hasNext());
+        assertTrue(complete.page(0, 2).hasNext());
+        assertTrue(complete.page(5, 2).getContent().isEmpty());
+    }
+
+    @Test
+    @DisplayName("withSaved pada window lengkap: disisipkan terurut, dipotong ke kapasitas")
+    void window_WithSaved_Complete() {
+        Workout a = workout("A", 1);
+        Workout b = workout("B", 3);
+        RecentWorkoutCache.Window window = window(true, a, b);
+
+        RecentWorkoutCache.Window inserted = window.withSaved(workout("C", 2), 3);
+        assertEquals(List.of("A", "C", "B"), titles(inserted.workouts()));
+        assertTrue(inserted.isComplete());
+
+        RecentWorkoutCache.Window trimmed = inserted.withSaved(workout("D", 0), 3);
+        assertEquals(List.of("D", "A", "C"), titles(trimmed.workouts()));
+        assertFalse(trimmed.isComplete());
+
+        // Update: posisi lama dibuang, diurutkan ulang dengan tanggal baru
+        Workout movedA = a.copy();
+        movedA.setDate(TODAY.minusDays(10));
+        assertEquals(List.of("B", "A"), titles(window.withSaved(movedA, 3).workouts()));
+    }
+
+    @Test
+    @DisplayName("withSaved pada window tidak lengkap: workout di luar rentang window tidak disisipkan")
+    void window_WithSaved_Partial() {
+        Workout a = workout("A", 1);
+        Workout b = workout("B", 3);
+        RecentWorkoutCache.Window window = window(false, a, b);
+
+        assertEquals(List.of("A", "C", "B"), titles(window.withSaved(workout("C", 2), 5).workouts()));
+        assertSame(window, window.withSaved(workout("Lama", 30), 5));
+
+        // Workout di window dipindah ke luar rentang: dibuang, bukan disisipkan di ekor
+        Workout movedA = a.copy();
+        movedA.setDate(TODAY.minusDays(30));
+        assertEquals(List.of("B"), titles(window.withSaved(movedA, 5).workouts()));
+
+        // Satu-satunya isi dipindah ke luar rentang: window tidak lengkap jadi kosong, dibuang
+        assertNull(window(false, a).withSaved(movedA, 5));
+    }
+
+    @Test
+    @DisplayName("without: hapus id; window tidak lengkap yang jadi kosong dibuang")
+    void window_Without() {
+        Workout a = workout("A", 0);
+        Workout b = workout("B", 1);
+        UUID missing = UUID.randomUUID();
+
+        RecentWorkoutCache.Window window = window(false, a, b);
+        assertSame(window, window.without(missing));
+        assertEquals(List.of("B"), titles(window.without(a.getId()).workouts()));
+
+        assertNull(window(false, a).without(a.getId()));
+        assertNull(window(false).without(missing));
+
+        RecentWorkoutCache.Window emptyComplete = window(true);
+        assertSame(emptyComplete, emptyComplete.without(missing));
+        RecentWorkoutCache.Window removed = window(true, a).without(a.getId());
+        assertEquals(0, removed.size());
+        assertTrue(removed.isComplete());
+    }
+
+    @Test
+    @DisplayName("Bobot bertambah dengan jumlah workout dan panjang teks")
+    void window_Weight() {
+        Workout shortText = workout("A", 0);
+        Workout longText = workout("Judul yang jauh lebih panjang", 1);
+        longText.setImagePath("cover.png");
+
+        assertTrue(window(true, shortText).weight() > window(true).weight());
+        assertTrue(window(true, longText).weight() > window(true, shortText).weight());
+    }
+}
@@ -0,0 +1,137 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.configs.ShardRing;
+import org.delcom.app.configs.ShardRoutingDataSource;
+import org.delcom.app.configs.ShardsEndpoint;
+import org.delcom.app.dto.WorkoutFilter;
+import org.delcom.app.entities.Workout;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Rebalancing dari ring dua shard ke tiga shard dengan database lokal (H2).
+ * Context dibuang setelahnya karena ring di-ubah.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rebalance-directory;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.open-in-view=false",
+        "app.sharding.enabled=true",
+        "app.sharding.shards=shard0,shard1,shard2",
+        "app.sharding.ring=shard0,shard1",
+        "app.sharding.datasources.shard0.url=jdbc:h2:mem:rebalance-shard0;DB_CLOSE_DELAY=-1",
+        "app.sharding.datasources.shard1.url=jdbc:h2:mem:rebalance-shard1;DB_CLOSE_DELAY=-1",
+        "app.sharding.datasources.shard2.url=jdbc:h2:mem:rebalance-shard2;DB_CLOSE_DELAY=-1",
+        "app.storage.type=memory",
+        "app.access-log.enabled=false"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ShardRebalancerTests {
+
+    private static final int USERS = 30;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardsEndpoint shardsEndpoint;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<UUID> idsOn(String shard, UUID userId) throws Exception {
+        DataSource pool = dataSource.unwrap(ShardRoutingDataSource.class).getShards().get(shard);
+        return new JdbcTemplate(pool).queryForList("SELECT id FROM workouts WHERE user_id = ? ORDER BY id",
+                UUID.class, userId);
+    }
+
+    @Test
+    @DisplayName("Rebalance memindah user yang shard-nya berubah (id tetap), sisanya tidak disentuh")
+    void rebalanceMovesMisplacedUsers() throws Exception {
+        Map<UUID, List<UUID>> workouts = new LinkedHashMap<>();
+        Map<UUID, String> before = new LinkedHashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            UUID userId = UUID.randomUUID();
+            List<UUID> ids = new ArrayList<>();
+            ids.add(workoutService.createWorkout(userId, "Lari", "-", 30, "RUNNING", LocalDate.now()).getId());
+            ids.add(workoutService.createWorkout(userId, "Gym", "-", 45, "GYM", LocalDate.now()).getId());
+            workouts.put(userId, ids.stream().sorted().toList());
+            before.put(userId, shardRouter.shardOf(userId));
+        }
+
+        ShardRebalanceReport report = shardsEndpoint.rebalance(" shard0, shard1,shard2 ,");
+
+        ShardRing ring = shardRouter.getRing();
+        assertEquals(List.of("shard0", "shard1", "shard2"), ring.shards());
+        assertEquals(report.ring(), ring.shards());
+        assertTrue(report.usersMoved() > 0);
+        assertEquals(report.usersMoved() * 2L, report.rowsMoved());
+        assertEquals(USERS * 2L, report.rowsPerShard().values().stream().mapToLong(Long::longValue).sum());
+
+        int moved = 0;
+        for (Map.Entry<UUID, List<UUID>> entry : workouts.entrySet()) {
+            UUID userId = entry.getKey();
+            String shard = shardRouter.shardOf(userId);
+            assertEquals(ring.shardOf(userId), shard);
+            if (!shard.equals(before.get(userId))) {
+                // Consistent hashing: user hanya pindah ke shard baru
+                assertEquals("shard2", shard);
+                moved++;
+            }
+            for (String other : ring.shards()) {
+                assertEquals(other.equals(shard) ? entry.getValue() : List.of(), idsOn(other, userId));
+            }
+            assertEquals(entry.getValue(), workoutService.getAllWorkouts(userId, new WorkoutFilter()).stream()
+                    .map(Workout::getId).sorted().toList());
+        }
+        assertEquals(report.usersMoved(), moved);
+    }
+
+    @Test
+    @DisplayName("Shard tidak dikenal gagal sebelum ada data yang dipindah")
+    void unknownShardFailsBeforeMoving() {
+        List<String> ring = shardRouter.getRing().shards();
+        Map<String, Long> rows = shardRebalancer.rowsPerShard();
+
+        assertThrows(RuntimeException.class, () -> shardRebalancer.rebalance(List.of("shard0", "shard9")));
+
+        assertEquals(ring, shardRouter.getRing().shards());
+        assertEquals(rows, shardRebalancer.rowsPerShard());
+    }
+
+    @Test
+    @DisplayName("Rebalance ditolak jika sharding tidak aktif")
+    void rebalanceRequiresSharding() {
+        ShardRebalancer disabled = new ShardRebalancer(new ShardRouter(false, List.of(), 128), dataSource,
+                transactionManager);
+
+        assertThrows(IllegalStateException.class, () -> disabled.rebalance(List.of("shard0")));
+    }
+}
@@ -0,0 +1,200 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.delcom.app.configs.ShardRing;
+import org.delcom.app.configs.ShardRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ShardRouterTests {
+
+    private final ShardRouter router = new ShardRouter(true, List.of("a", "b"), 64);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete();
+        }
+    }
+
+    private static void complete() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clear();
+    }
+
+    // User acak yang jatuh ke shard tertentu pada ring awal
+    private UUID userOn(String shard) {
+        UUID user;
+        do {
+            user = UUID.randomUUID();
+        } while (!shard.equals(router.shardOf(user)));
+        return user;
+    }
+
+    // Memindah user di thread lain; selesai hanya jika tidak ada transaksi yang memegang lock user itu
+    private CompletableFuture<Void> moveAsync(UUID user, String target, AtomicBoolean copied) {
+        return CompletableFuture.runAsync(() -> router.moveUser(user, target, () -> copied.set(true)));
+    }
+
+    @Test
+    @DisplayName("Sharding mati: tanpa shard, bind no-op, fanOut sekali ke database tunggal")
+    void disabledRouterIsNoOp() {
+        ShardRouter disabled = new ShardRouter(false, List.of(), 128);
+        UUID user = UUID.randomUUID();
+
+        disabled.bind(user);
+        disabled.bindAll(List.of(user));
+        Map<String, Object> results = disabled.fanOut(shard -> null);
+
+        assertFalse(disabled.isEnabled());
+        assertNull(disabled.getRing());
+        assertNull(disabled.shardOf(user));
+        assertEquals(1, results.size());
+        assertTrue(results.containsKey(ShardRouter.DEFAULT_SHARD));
+        assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+    }
+
+    @Test
+    @DisplayName("bind mengikat transaksi ke shard user dan menahan pemindahan user sampai transaksi selesai")
+    void bindHoldsUserUntilTransactionCompletes() throws Exception {
+        UUID user = userOn("a");
+        AtomicBoolean copied = new AtomicBoolean();
+
+        TransactionSynchronizationManager.initSynchronization();
+        router.bind(user);
+        router.bind(user);
+        assertEquals("a", ShardRoutingDataSource.currentShard());
+
+        CompletableFuture<Void> move = moveAsync(user, "b", copied);
+        assertThrows(TimeoutException.class, () -> move.get(200, TimeUnit.MILLISECONDS));
+        assertFalse(copied.get());
+
+        complete();
+        move.get(5, TimeUnit.SECONDS);
+        assertTrue(copied.get());
+        assertEquals("b", router.shardOf(user));
+        assertNull(ShardRoutingDataSource.currentShard());
+    }
+
+    @Test
+    @DisplayName("bind yang gagal (tanpa transaksi / lintas shard) tidak meninggalkan lock")
+    void failedBindReleasesLock() throws Exception {
+        UUID onA = userOn("a");
+        UUID onB = userOn("b");
+
+        assertThrows(IllegalStateException.class, () -> router.bind(onA));
+
+        TransactionSynchronizationManager.initSynchronization();
+        router.bind(onA);
+        assertThrows(IllegalStateException.class, () -> router.bind(onB));
+        complete();
+
+        AtomicBoolean copiedA = new AtomicBoolean();
+        AtomicBoolean copiedB = new AtomicBoolean();
+        moveAsync(onA, "b", copiedA).get(5, TimeUnit.SECONDS);
+        moveAsync(onB, "a", copiedB).get(5, TimeUnit.SECONDS);
+        assertTrue(copiedA.get());
+        assertTrue(copiedB.get());
+    }
+
+    @Test
+    @DisplayName("bindAll mengikat batch ke shard bersama dan menahan user serta switchRing sampai transaksi selesai")
+    void bindAllHoldsUsersUntilTransactionCompletes() throws Exception {
+        UUID first = userOn("a");
+        UUID second = userOn("a");
+        AtomicBoolean copied = new AtomicBoolean();
+        AtomicBoolean finalPass = new AtomicBoolean();
+
+        TransactionSynchronizationManager.initSynchronization();
+        router.bindAll(List.of(second, first));
+        assertEquals("a", ShardRoutingDataSource.currentShard());
+
+        CompletableFuture<Void> move = moveAsync(second, "b", copied);
+        CompletableFuture<Void> switched = CompletableFuture
+                .runAsync(() -> router.switchRing(router.getRing(), () -> finalPass.set(true)));
+        assertThrows(TimeoutException.class, () -> move.get(200, TimeUnit.MILLISECONDS));
+        assertThrows(TimeoutException.class, () -> switched.get(200, TimeUnit.MILLISECONDS));
+
+        complete();
+        move.get(5, TimeUnit.SECONDS);
+        switched.get(5, TimeUnit.SECONDS);
+        assertTrue(copied.get());
+        assertTrue(finalPass.get());
+    }
+
+    @Test
+    @DisplayName("bindAll yang gagal (tanpa transaksi / user lintas shard) tidak meninggalkan lock")
+    void failedBindAllReleasesLocks() throws Exception {
+        UUID onA = userOn("a");
+        UUID onB = userOn("b");
+
+        assertThrows(IllegalStateException.class, () -> router.bindAll(List.of(onA)));
+        TransactionSynchronizationManager.initSynchronization();
+        assertThrows(IllegalStateException.class, () -> router.bindAll(List.of(onA, onB)));
+        assertNull(ShardRoutingDataSource.currentShard());
+        complete();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> router.switchRing(router.getRing(), () -> {
+        }));
+    }
+
+    @Test
+    @DisplayName("fanOut menjalankan query di setiap shard dengan koneksi shard itu, urut ring")
+    void fanOutRunsOnEveryShard() {
+        Map<String, String> results = router.fanOut(shard -> shard + ":" + ShardRoutingDataSource.currentShard());
+
+        assertEquals(List.of("a", "b"), List.copyOf(results.keySet()));
+        assertEquals("a:a", results.get("a"));
+        assertEquals("b:b", results.get("b"));
+    }
+
+    @Test
+    @DisplayName("fanOut: RuntimeException diteruskan, Error dibungkus, interrupt dipertahankan")
+    void fanOutFailures() {
+        IllegalArgumentException failure = new IllegalArgumentException("shard down");
+        assertSame(failure, assertThrows(IllegalArgumentException.class, () -> router.fanOut(shard -> {
+            throw failure;
+        })));
+
+        IllegalStateException wrapped = assertThrows(IllegalStateException.class, () -> router.fanOut(shard -> {
+            throw new AssertionError("boom");
+        }));
+        assertInstanceOf(AssertionError.class, wrapped.getCause());
+
+        Thread.currentThread().interrupt();
+        assertThrows(IllegalStateException.class, () -> router.fanOut(shard -> shard));
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    @DisplayName("switchRing menjalankan final pass, mengganti ring dan menghapus override pemindahan")
+    void switchRingReplacesRing() {
+        UUID user = userOn("a");
+        router.moveUser(user, "b", () -> {
+        });
+        assertEquals("b", router.shardOf(user));
+
+        ShardRing next = router.getRing().withShards(List.of("a"));
+        AtomicBoolean finalPass = new AtomicBoolean();
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> router.switchRing(next, () -> finalPass.set(true)));
+
+        assertTrue(finalPass.get());
+        assertSame(next, router.getRing());
+        assertEquals("a", router.shardOf(user));
+        assertTrue(router.isEnabled());
+    }
+}
@@ -0,0 +1,310 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.repositories.WorkoutRepository;
+import org.delcom.app.storage.BlobInfo;
+import org.delcom.app.storage.BlobStore;
+import org.delcom.app.storage.InMemoryBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class UploadGarbageCollectorTests {
+
+    @Mock
+    private WorkoutRepository workoutRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private WorkoutArchiveService workoutArchiveService;
+
+    @TempDir
+    Path tempDir;
+
+    private InMemoryBlobStore blobStore;
+    private UploadGarbageCollector gc;
+
+    @BeforeEach
+    void setup() throws Exception {
+        blobStore = new InMemoryBlobStore();
+        gc = newCollector(blobStore);
+
+        put("cover_used.jpg");
+        put("cover_orphan.png");
+        put("profile_used.png");
+        put("profile_orphan.jpg");
+        put("notes.txt"); // bukan file yang dikelola aplikasi
+    }
+
+    private UploadGarbageCollector newCollector(BlobStore store) {
+        UploadGarbageCollector collector = new UploadGarbageCollector(store, workoutRepository, userRepository,
+                new ShardRouter(false, List.of(), 128), workoutArchiveService);
+        collector.enabled = true;
+        collector.dryRun = false;
+        collector.batchSize = 2;
+        collector.parallelism = 2;
+        collector.minAgeMinutes = 0;
+        collector.gracePeriodHours = 24;
+        collector.quarantineDir = tempDir.resolve("quarantine").toString();
+        return collector;
+    }
+
+    private void put(String key) throws IOException {
+        blobStore.put(key, new ByteArrayInputStream("data".getBytes()), 4, null);
+    }
+
+    private void stubReferences() {
+        when(workoutRepository.findImagePathsIn(anyCollection())).thenReturn(List.of("cover_used.jpg"));
+        when(userRepository.findProfilePhotosIn(anyCollection())).thenReturn(List.of("profile_used.png"));
+    }
+
+    @Test
+    @DisplayName("run moves unreferenced managed files to quarantine")
+    void run_Quarantines() {
+        stubReferences();
+
+        UploadGcReport report = gc.run();
+
+        assertNotNull(report);
+        assertFalse(report.dryRun());
+        assertEquals(4, report.scanned());
+        assertEquals(2, report.orphaned());
+        assertEquals(2, report.quarantined());
+        assertEquals(0, report.purged());
+        assertEquals(8, report.reclaimedBytes());
+        assertTrue(report.filesPerSecond() > 0);
+        assertSame(report, gc.getLastReport());
+
+        assertTrue(blobStore.exists("cover_used.jpg"));
+        assertTrue(blobStore.exists("profile_used.png"));
+        assertTrue(blobStore.exists("notes.txt"));
+        assertFalse(blobStore.exists("cover_orphan.png"));
+        assertFalse(blobStore.exists("profile_orphan.jpg"));
+        assertTrue(Files.exists(tempDir.resolve("quarantine").resolve("cover_orphan.png")));
+    }
+
+    @Test
+    @DisplayName("cover of an archived workout is kept even though no workouts row references it")
+    void run_KeepsArchivedImages() {
+        stubReferences();
+        when(workoutArchiveService.findArchivedImagePaths()).thenReturn(Set.of("cover_orphan.png"));
+
+        UploadGcReport report = gc.run();
+
+        assertEquals(1, report.orphaned());
+        assertTrue(blobStore.exists("cover_orphan.png"));
+        assertFalse(blobStore.exists("profile_orphan.jpg"));
+    }
+
+    @Test
+    @DisplayName("run returns null without quarantining when the archive index cannot be read")
+    void run_ArchiveUnreadable() {
+        when(workoutArchiveService.findArchivedImagePaths())
+                .thenThrow(new UncheckedIOException(new IOException("down")));
+
+        assertNull(gc.run());
+        assertTrue(blobStore.exists("cover_orphan.png"));
+        verifyNoInteractions(workoutRepository, userRepository);
+    }
+
+    @Test
+    @DisplayName("run with virtual threads processes batches the same way")
+    void run_VirtualThreads() {
+        stubReferences();
+        gc.virtualThreads = true;
+
+        UploadGcReport report = gc.run();
+
+        assertNotNull(report);
+        assertEquals(2, report.orphaned());
+        assertEquals(2, report.quarantined());
+        assertFalse(blobStore.exists("cover_orphan.png"));
+    }
+
+    @Test
+    @DisplayName("dry run reports orphans without touching files")
+    void run_DryRun() throws Exception {
+        stubReferences();
+        gc.dryRun = true;
+        Path quarantine = Files.createDirectories(tempDir.resolve("quarantine"));
+        Files.writeString(quarantine.resolve("cover_old.jpg"), "x");
+        Files.setLastModifiedTime(quarantine.resolve("cover_old.jpg"),
+                FileTime.from(Instant.now().minusSeconds(48 * 3600)));
+
+        UploadGcReport report = gc.run();
+
+        assertTrue(report.dryRun());
+        assertEquals(2, report.orphaned());
+        assertEquals(0, report.quarantined());
+        assertEquals(1, report.purged());
+        assertTrue(blobStore.exists("cover_orphan.png"));
+        assertTrue(Files.exists(quarantine.resolve("cover_old.jpg")));
+    }
+
+    @Test
+    @DisplayName("quarantined files are purged after the grace period")
+    void run_Purges() throws Exception {
+        when(workoutRepository.findImagePathsIn(anyCollection())).thenReturn(List.of());
+        when(userRepository.findProfilePhotosIn(anyCollection())).thenReturn(List.of());
+        Path quarantine = Files.createDirectories(tempDir.resolve("quarantine"));
+        Files.writeString(quarantine.resolve("cover_old.jpg"), "x");
+        Files.setLastModifiedTime(quarantine.resolve("cover_old.jpg"),
+                FileTime.from(Instant.now().minusSeconds(48 * 3600)));
+
+        UploadGcReport report = gc.run();
+
+        assertEquals(1, report.purged());
+        assertFalse(Files.exists(quarantine.resolve("cover_old.jpg")));
+        // Yang baru dikarantina belum melewati grace period
+        assertTrue(Files.exists(quarantine.resolve("cover_orphan.png")));
+    }
+
+    @Test
+    @DisplayName("files younger than min age are skipped")
+    void run_SkipsRecentFiles() {
+        gc.minAgeMinutes = 60;
+
+        UploadGcReport report = gc.run();
+
+        assertEquals(0, report.scanned());
+        assertEquals(0, report.orphaned());
+        verifyNoInteractions(workoutRepository, userRepository, workoutArchiveService);
+    }
+
+    @Test
+    @DisplayName("orphan that disappears before quarantine is not counted as quarantined")
+    void run_BlobVanished() throws Exception {
+        BlobStore store = spy(blobStore);
+        doReturn(null).when(store).get("cover_orphan.png");
+        gc = newCollector(store);
+        stubReferences();
+
+        UploadGcReport report = gc.run();
+
+        assertEquals(2, report.orphaned());
+        assertEquals(1, report.quarantined());
+    }
+
+    @Test
+    @DisplayName("orphan overwritten while being quarantined, or referenced after the batch query, is kept")
+    void run_SkipsOverwrittenOrReferencedAgain() throws Exception {
+        BlobStore store = spy(blobStore);
+        BlobInfo listed = blobStore.stat("cover_orphan.png");
+        doReturn(listed, new BlobInfo(listed.key(), 9, listed.lastModified())).when(store).stat("cover_orphan.png");
+        gc = newCollector(store);
+        when(workoutRepository.findImagePathsIn(anyCollection())).thenReturn(List.of("cover_used.jpg"));
+        // Cek ulang satu key melihat foto profil yang baru di-commit
+        when(userRepository.findProfilePhotosIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<?> keys = invocation.getArgument(0);
+            return keys.size() == 1 ? List.of("profile_used.png", "profile_orphan.jpg") : List.of("profile_used.png");
+        });
+
+        UploadGcReport report = gc.run();
+
+        assertEquals(2, report.orphaned());
+        assertEquals(0, report.quarantined());
+        assertTrue(blobStore.exists("cover_orphan.png"));
+        assertTrue(blobStore.exists("profile_orphan.jpg"));
+        assertFalse(Files.exists(tempDir.resolve("quarantine").resolve("cover_orphan.png")));
+    }
+
+    @Test
+    @DisplayName("orphan deleted or re-uploaded after listing is left alone")
+    void run_SkipsChangedSinceListing() throws Exception {
+        BlobStore store = spy(blobStore);
+        BlobInfo listed = blobStore.stat("profile_orphan.jpg");
+        doReturn(null).when(store).stat("cover_orphan.png");
+        doReturn(new BlobInfo(listed.key(), listed.size(), listed.lastModified().plusSeconds(1))).when(store)
+                .stat("profile_orphan.jpg");
+        gc = newCollector(store);
+        stubReferences();
+
+        UploadGcReport report = gc.run();
+
+        assertEquals(2, report.orphaned());
+        assertEquals(0, report.quarantined());
+        assertTrue(blobStore.exists("cover_orphan.png"));
+        assertTrue(blobStore.exists("profile_orphan.jpg"));
+        verify(store, never()).get(anyString());
+    }
+
+    @Test
+    @DisplayName("run returns null when listing fails")
+    void run_ListFails() throws Exception {
+        BlobStore store = mock(BlobStore.class);
+        when(store.list()).thenThrow(new IOException("down"));
+        gc = newCollector(store);
+
+        assertNull(gc.run());
+        assertNull(gc.getLastReport());
+    }
+
+    @Test
+    @DisplayName("run returns null when a batch fails")
+    void run_BatchFails() {
+        when(workoutRepository.findImagePathsIn(anyCollection())).thenThrow(new RuntimeException("db down"));
+
+        assertNull(gc.run());
+    }
+
+    @Test
+    @DisplayName("scheduledRun only runs when enabled")
+    void scheduledRun() {
+        gc.enabled = false;
+        gc.scheduledRun();
+        assertNull(gc.getLastReport());
+
+        stubReferences();
+        gc.enabled = true;
+        gc.scheduledRun();
+        assertNotNull(gc.getLastReport());
+    }
+
+    @Test
+    @DisplayName("concurrent run is skipped")
+    void run_Concurrent() throws Exception {
+        BlobStore store = mock(BlobStore.class);
+        UploadGarbageCollector[] holder = new UploadGarbageCollector[1];
+        UploadGcReport[] nested = new UploadGcReport[] { new UploadGcReport(false, 1, 0, 0, 0, 0, 0) };
+        when(store.list()).thenAnswer(i -> {
+            nested[0] = holder[0].run();
+            return List.of();
+        });
+        holder[0] = newCollector(store);
+
+        UploadGcReport report = holder[0].run();
+
+        assertNotNull(report);
+        assertNull(nested[0]);
+    }
+
+    @Test
+    @DisplayName("filesPerSecond handles zero duration")
+    void report_ZeroDuration() {
+        assertEquals(3.0, new UploadGcReport(false, 3, 0, 0, 0, 0, 0).filesPerSecond());
+        assertEquals(1.5, new UploadGcReport(false, 3, 0, 0, 0, 0, 2000).filesPerSecond());
+    }
+}
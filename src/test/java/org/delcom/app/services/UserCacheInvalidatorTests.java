@@ -0,0 +1,268 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.configs.ShardRoutingDataSource;
+import org.delcom.app.entities.User;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManagerFactory;
+
+class UserCacheInvalidatorTests {
+
+    private Cache cache;
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private Connection connection;
+    private Statement statement;
+    private PGConnection pgConnection;
+    private DataVersionService dataVersionService;
+    private UserCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        cache = mock(Cache.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+
+        dataSource = mock(DataSource.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        connection = mock(Connection.class);
+        statement = mock(Statement.class);
+        pgConnection = mock(PGConnection.class);
+        lenient().when(dataSource.getConnection()).thenReturn(connection);
+        lenient().when(connection.createStatement()).thenReturn(statement);
+        lenient().when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+
+        dataVersionService = new DataVersionService();
+        invalidator = new UserCacheInvalidator(entityManagerFactory, dataSource, jdbcTemplate, dataVersionService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("invalidate null tidak melakukan apa-apa")
+    void invalidate_Null() {
+        invalidator.invalidate(null);
+
+        verifyNoInteractions(cache, jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("invalidate tanpa transaksi langsung membuang entri lokal")
+    void invalidate_NoTransaction() {
+        UUID userId = UUID.randomUUID();
+
+        invalidator.invalidate(userId);
+
+        verify(cache).evictEntityData(User.class, userId);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("invalidate dalam transaksi mengirim NOTIFY dan membuang entri setelah commit")
+    @SuppressWarnings("unchecked")
+    void invalidate_ClusterAfterCommit() {
+        invalidator.clusterEnabled = true;
+        UUID userId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        invalidator.invalidate(userId);
+
+        verify(jdbcTemplate).query(eq("SELECT pg_notify(?, ?)"), any(ResultSetExtractor.class),
+                eq(UserCacheInvalidator.CHANNEL), eq(userId.toString()));
+        verify(cache, never()).evictEntityData(User.class, userId);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        verify(cache).evictEntityData(User.class, userId);
+    }
+
+    @Test
+    @DisplayName("pollNotifications tidak aktif jika cluster invalidation dimatikan")
+    void poll_Disabled() {
+        invalidator.pollNotifications();
+
+        verifyNoInteractions(dataSource, cache);
+    }
+
+    @Test
+    @DisplayName("pollNotifications membuka LISTEN sekali dan membuang seluruh region")
+    void poll_ConnectsOnce() throws SQLException {
+        invalidator.clusterEnabled = true;
+        when(pgConnection.getNotifications()).thenReturn(null);
+
+        invalidator.pollNotifications();
+        invalidator.pollNotifications();
+
+        verify(dataSource, times(1)).getConnection();
+        verify(connection).setAutoCommit(true);
+        verify(statement).execute("LISTEN " + UserCacheInvalidator.CHANNEL);
+        verify(statement).execute("LISTEN " + UserCacheInvalidator.WORKOUT_CHANNEL);
+        verify(cache).evictEntityData(User.class);
+        verify(cache).evictNaturalIdData(User.class);
+        // Notifikasi workout selama terputus bisa hilang: versi semua user naik
+        assertEquals(1L, dataVersionService.getVersion(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("pollNotifications membuang user yang dinotifikasi node lain")
+    void poll_EvictsNotifiedUsers() throws SQLException {
+        invalidator.clusterEnabled = true;
+        UUID userId = UUID.randomUUID();
+        PGNotification[] notifications = {
+                notification(UserCacheInvalidator.CHANNEL, userId.toString()),
+                notification("other_channel", UUID.randomUUID().toString()),
+                notification(UserCacheInvalidator.CHANNEL, "bukan-uuid"),
+                notification(UserCacheInvalidator.CHANNEL, null)
+        };
+        when(pgConnection.getNotifications()).thenReturn(notifications);
+
+        invalidator.pollNotifications();
+
+        verify(cache).evictEntityData(User.class, userId);
+        verify(cache, times(1)).evictEntityData(eq(User.class), any(UUID.class));
+        // sekali saat connect, sekali untuk notifikasi valid
+        verify(cache, times(2)).evictNaturalIdData(User.class);
+    }
+
+    @Test
+    @DisplayName("Perubahan workout tidak dikirim jika cluster invalidation dimatikan")
+    void publishWorkout_Disabled() {
+        dataVersionService.bumpAfterCommit(UUID.randomUUID());
+
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    @DisplayName("Perubahan workout dikirim lewat koneksi autocommit; node pengirim mengabaikan notifikasinya sendiri")
+    void publishWorkout_NotifiesOtherNodes() throws SQLException {
+        invalidator.clusterEnabled = true;
+        PreparedStatement notify = mock(PreparedStatement.class);
+        when(connection.prepareStatement("SELECT pg_notify(?, ?)")).thenReturn(notify);
+        UUID userId = UUID.randomUUID();
+
+        dataVersionService.bumpAfterCommit(userId);
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(connection).setAutoCommit(true);
+        verify(notify).setString(1, UserCacheInvalidator.WORKOUT_CHANNEL);
+        verify(notify).setString(eq(2), payload.capture());
+        verify(notify).execute();
+        verify(connection).close();
+        assertTrue(payload.getValue().startsWith(userId + "/"));
+
+        UUID remoteUser = UUID.randomUUID();
+        PGNotification[] notifications = {
+                notification(UserCacheInvalidator.WORKOUT_CHANNEL, payload.getValue()),
+                notification(UserCacheInvalidator.WORKOUT_CHANNEL, remoteUser + "/node-lain"),
+                notification(UserCacheInvalidator.WORKOUT_CHANNEL, "tanpa-pemisah"),
+                notification(UserCacheInvalidator.WORKOUT_CHANNEL, "bukan-uuid/node-lain"),
+                notification(UserCacheInvalidator.WORKOUT_CHANNEL, null)
+        };
+        when(pgConnection.getNotifications()).thenReturn(notifications);
+        long before = dataVersionService.getVersion(userId);
+
+        invalidator.pollNotifications();
+
+        // epoch +1 saat connect, notifikasi sendiri tidak menaikkan lagi
+        assertEquals(before + 1, dataVersionService.getVersion(userId));
+        assertEquals(2L, dataVersionService.getVersion(remoteUser));
+    }
+
+    @Test
+    @DisplayName("Dengan sharding NOTIFY dikirim ke direktori; kegagalan hanya dicatat")
+    void publishWorkout_ShardedAndFailing() throws SQLException {
+        invalidator.clusterEnabled = true;
+        ShardRoutingDataSource routing = mock(ShardRoutingDataSource.class);
+        DataSource directory = mock(DataSource.class);
+        when(dataSource.isWrapperFor(ShardRoutingDataSource.class)).thenReturn(true);
+        when(dataSource.unwrap(ShardRoutingDataSource.class)).thenReturn(routing);
+        when(routing.getDirectory()).thenReturn(directory);
+        when(directory.getConnection()).thenThrow(new SQLException("direktori mati"));
+
+        assertDoesNotThrow(() -> dataVersionService.bumpAfterCommit(UUID.randomUUID()));
+
+        verify(directory).getConnection();
+        verify(dataSource, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Koneksi tertutup dibuka ulang")
+    void poll_ReconnectsClosedConnection() throws SQLException {
+        invalidator.clusterEnabled = true;
+        when(pgConnection.getNotifications()).thenReturn(null);
+
+        invalidator.pollNotifications();
+        when(connection.isClosed()).thenReturn(true);
+        invalidator.pollNotifications();
+
+        verify(dataSource, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("SQLException menutup koneksi listener")
+    void poll_SqlExceptionClosesConnection() throws SQLException {
+        invalidator.clusterEnabled = true;
+        when(pgConnection.getNotifications()).thenThrow(new SQLException("terputus"));
+
+        invalidator.pollNotifications();
+
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("close aman tanpa koneksi dan saat close gagal")
+    void close_Safe() throws SQLException {
+        invalidator.close();
+        verifyNoInteractions(connection);
+
+        invalidator.clusterEnabled = true;
+        when(pgConnection.getNotifications()).thenReturn(null);
+        doThrow(new SQLException("gagal")).when(connection).close();
+        invalidator.pollNotifications();
+
+        invalidator.close();
+        invalidator.close();
+
+        verify(connection, times(1)).close();
+    }
+
+    private PGNotification notification(String name, String parameter) {
+        PGNotification notification = mock(PGNotification.class);
+        when(notification.getName()).thenReturn(name);
+        lenient().when(notification.getParameter()).thenReturn(parameter);
+        return notification;
+    }
+}
@@ -22,6 +22,9 @@ class UserServiceTests {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCacheInvalidator userCacheInvalidator;
+
     @InjectMocks
     private UserService userService;
 
@@ -107,6 +110,7 @@ class UserServiceTests {
         assertEquals("GYM", result.getFavoriteWorkoutType());
         assertEquals(100, result.getWeeklyDurationGoal());
         assertEquals(2000, result.getDailyCalorieGoal());
+        verify(userCacheInvalidator).invalidate(id);
     }
 
     @Test
@@ -134,6 +138,7 @@ class UserServiceTests {
 
         assertNotNull(result);
         assertEquals("new-photo.jpg", result.getProfilePhoto());
+        verify(userCacheInvalidator).invalidate(id);
     }
 
     @Test
@@ -151,6 +156,7 @@ class UserServiceTests {
 
         assertNotNull(result);
         assertNull(result.getProfilePhoto());
+        verify(userCacheInvalidator).invalidate(id);
     }
 
     @Test
@@ -168,6 +174,7 @@ class UserServiceTests {
 
         assertNotNull(result);
         assertEquals("newPass", result.getPassword());
+        verify(userCacheInvalidator).invalidate(id);
     }
 
     @Test
@@ -178,5 +185,6 @@ class UserServiceTests {
         assertNull(userService.updateProfilePhoto(id, "path"));
         assertNull(userService.deleteProfilePhoto(id));
         assertNull(userService.updatePassword(id, "pass"));
+        verify(userCacheInvalidator, never()).invalidate(any());
     }
 }
@@ -0,0 +1,111 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.foreign.MemorySegment;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import org.delcom.app.enums.WorkoutType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Surefire menjalankan test dengan modul jdk.incubator.vector, jadi kedua
+ * kernel bisa dibandingkan langsung.
+ */
+class WorkoutAggregatorTests {
+
+    private final WorkoutKernels scalar = new ScalarWorkoutKernels();
+    private final WorkoutKernels vector = new VectorWorkoutKernels();
+
+    @Test
+    @DisplayName("Kernel dipilih dari setelan dan ketersediaan modul Vector API")
+    void selectsKernel() {
+        assertEquals("vector", WorkoutAggregator.select(true, true).name());
+        assertEquals("scalar", WorkoutAggregator.select(true, false).name());
+        assertEquals("scalar", WorkoutAggregator.select(false, true).name());
+        assertEquals("vector", new WorkoutAggregator(true).kernel());
+        assertEquals("scalar", new WorkoutAggregator(false).kernel());
+    }
+
+    @Test
+    @DisplayName("Kernel vector memberi hasil yang sama dengan skalar untuk semua panjang dan offset")
+    void vectorMatchesScalar() {
+        Random random = new Random(17);
+        // Panjang di sekitar kelipatan lebar vector, termasuk ekor dan rentang kosong
+        for (int length : new int[] { 0, 1, 7, 8, 31, 32, 33, 64, 65, 1000, 4099 }) {
+            int[] ints = new int[length + 5];
+            long[] longs = new long[length + 5];
+            byte[] types = new byte[length + 5];
+            for (int i = 0; i < ints.length; i++) {
+                // Nilai ekstrem: jumlah int harus dihitung di long tanpa overflow
+                ints[i] = random.nextBoolean() ? Integer.MAX_VALUE - random.nextInt(3) : random.nextInt();
+                longs[i] = random.nextLong() >> 8;
+                types[i] = (byte) random.nextInt(WorkoutType.values().length);
+            }
+            // Kolom yang sama dalam MemorySegment little-endian, seperti di WorkoutHistoryFile
+            MemorySegment intColumn = MemorySegment.ofArray(new byte[ints.length * Integer.BYTES]);
+            MemorySegment longColumn = MemorySegment.ofArray(new byte[longs.length * Long.BYTES]);
+            for (int i = 0; i < ints.length; i++) {
+                intColumn.setAtIndex(WorkoutKernels.INT, i, ints[i]);
+                longColumn.setAtIndex(WorkoutKernels.LONG, i, longs[i]);
+            }
+            MemorySegment typeColumn = MemorySegment.ofArray(types);
+            for (int from = 0; from <= 5; from += 5) {
+                int to = from + length;
+                long intSum = scalar.sum(ints, from, to);
+                long longSum = scalar.sum(longs, from, to);
+                assertEquals(intSum, vector.sum(ints, from, to), "int " + length);
+                assertEquals(longSum, vector.sum(longs, from, to), "long " + length);
+                assertEquals(intSum, scalar.sumInts(intColumn, from, to), "int segment " + length);
+                assertEquals(intSum, vector.sumInts(intColumn, from, to), "int segment " + length);
+                assertEquals(longSum, scalar.sumLongs(longColumn, from, to), "long segment " + length);
+                assertEquals(longSum, vector.sumLongs(longColumn, from, to), "long segment " + length);
+                long[] expected = new long[WorkoutType.values().length];
+                long[] actual = new long[WorkoutType.values().length];
+                scalar.countByType(types, from, to, expected);
+                vector.countByType(types, from, to, actual);
+                assertArrayEquals(expected, actual, "types " + length);
+                assertEquals(length, java.util.Arrays.stream(actual).sum());
+                for (WorkoutKernels kernels : List.of(scalar, vector)) {
+                    long[] fromSegment = new long[WorkoutType.values().length];
+                    kernels.countByType(typeColumn, from, to, fromSegment);
+                    assertArrayEquals(expected, fromSegment, "types segment " + length);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Total, histogram tipe dan total harian dari kolom urut tanggal")
+    void aggregatesColumns() {
+        WorkoutColumns columns = new WorkoutColumns(0);
+        int day = (int) LocalDate.of(2025, 1, 1).toEpochDay();
+        columns.add(day, 30, (byte) WorkoutType.RUNNING.ordinal(), WorkoutColumns.scaleCalories(300.0));
+        columns.add(day, 45, (byte) WorkoutType.GYM.ordinal(), WorkoutColumns.scaleCalories(270.5));
+        columns.add(day + 3, 20, (byte) WorkoutType.RUNNING.ordinal(), WorkoutColumns.scaleCalories(200.0));
+
+        for (WorkoutAggregator aggregator : List.of(new WorkoutAggregator(false), new WorkoutAggregator(true))) {
+            assertEquals(new WorkoutAggregator.Totals(3, 95, 770.5), aggregator.totals(columns));
+            assertArrayEquals(new long[] { 2, 0, 1, 0, 0, 0 }, aggregator.countByType(columns));
+
+            List<Object[]> daily = aggregator.dailyDurations(columns);
+            assertEquals(2, daily.size());
+            assertArrayEquals(new Object[] { LocalDate.of(2025, 1, 1), 75L }, daily.get(0));
+            assertArrayEquals(new Object[] { LocalDate.of(2025, 1, 4), 20L }, daily.get(1));
+
+            List<Object[]> types = aggregator.typeCounts(columns);
+            assertEquals(2, types.size());
+            assertArrayEquals(new Object[] { WorkoutType.RUNNING, 2L }, types.get(0));
+            assertArrayEquals(new Object[] { WorkoutType.GYM, 1L }, types.get(1));
+        }
+
+        columns.clear();
+        WorkoutAggregator aggregator = new WorkoutAggregator(true);
+        assertEquals(new WorkoutAggregator.Totals(0, 0, 0.0), aggregator.totals(columns));
+        assertEquals(List.of(), aggregator.dailyDurations(columns));
+        assertEquals(List.of(), aggregator.typeCounts(columns));
+    }
+}
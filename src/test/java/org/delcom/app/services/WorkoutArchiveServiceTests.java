@@ -0,0 +1,538 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.dto.WorkoutFilter;
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.delcom.app.repositories.WorkoutPartitionRepository;
+import org.delcom.app.repositories.WorkoutPartitionRepository.Partition;
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.repositories.WorkoutRepository;
+import org.delcom.app.storage.BlobStore;
+import org.delcom.app.storage.InMemoryBlobStore;
+import org.delcom.app.support.EmbeddedPostgresConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Partisi dan arsip terhadap PostgreSQL lokal (embedded, skema dari migration
+ * termasuk db/vendor/postgresql), plus kasus gagal dengan repository/BlobStore tiruan.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.locations=classpath:db/migration,classpath:db/vendor/{vendor}",
+        "spring.jpa.properties.hibernate.hbm2ddl.extra_physical_table_types=PARTITIONED TABLE",
+        "app.workout-archive.enabled=true",
+        "app.workout-archive.buckets=2",
+        "app.storage.type=memory",
+        "app.access-log.enabled=false"
+})
+@Import(EmbeddedPostgresConfiguration.class)
+class WorkoutArchiveServiceTests {
+
+    private static final int YEAR = LocalDate.now().getYear();
+
+    @Autowired
+    private WorkoutArchiveService workoutArchiveService;
+
+    @Autowired
+    private WorkoutPartitionRepository partitionRepository;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    @Qualifier("archiveBlobStore")
+    private BlobStore archiveBlobStore;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @TempDir
+    Path quarantine;
+
+    private boolean tableExists(int year) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                "workouts_y" + year);
+    }
+
+    // User lain di bucket yang sama, supaya pembacaan arsip harus menyaring pemilik
+    private static UUID sameBucketAs(UUID userId) {
+        return sameBucketAs(userId, 2);
+    }
+
+    private static UUID sameBucketAs(UUID userId, int buckets) {
+        UUID other;
+        do {
+            other = UUID.randomUUID();
+        } while (WorkoutArchiveService.bucket(other, buckets) != WorkoutArchiveService.bucket(userId, buckets));
+        return other;
+    }
+
+    private static UUID otherBucketThan(UUID userId) {
+        UUID other;
+        do {
+            other = UUID.randomUUID();
+        } while (WorkoutArchiveService.bucket(other, 2) == WorkoutArchiveService.bucket(userId, 2));
+        return other;
+    }
+
+    private UploadGarbageCollector collector() {
+        UploadGarbageCollector collector = new UploadGarbageCollector(blobStore, workoutRepository, userRepository,
+                shardRouter, workoutArchiveService);
+        collector.dryRun = false;
+        collector.batchSize = 500;
+        collector.parallelism = 1;
+        collector.minAgeMinutes = 0;
+        collector.gracePeriodHours = 0;
+        collector.quarantineDir = quarantine.toString();
+        return collector;
+    }
+
+    @Test
+    @DisplayName("Partisi lama diekspor, dicatat lalu di-drop; riwayat penuh tetap terbaca lewat arsip")
+    void oldPartitionsAreArchivedAndReadThrough() throws Exception {
+        int old = YEAR - 5;
+        UUID userId = UUID.randomUUID();
+        UUID other = sameBucketAs(userId);
+        // Belum ada partisinya: masuk workouts_default, dipindah saat partisi dibuat
+        Workout early = workoutService.createWorkout(userId, "Lari", "Pagi", 30, "RUNNING", LocalDate.of(old, 3, 1));
+        assertTrue(partitionRepository.createYear(old));
+        assertFalse(partitionRepository.createYear(old));
+        Workout gym = workoutService.createWorkout(userId, "Gym", "Sore", 45, "GYM", LocalDate.of(old, 6, 1));
+        String cover = "cover_" + gym.getId() + ".jpg";
+        blobStore.put(cover, new ByteArrayInputStream(new byte[] { 1 }), 1, "image/jpeg");
+        workoutService.updateImage(userId, gym.getId(), cover);
+        workoutService.createWorkout(other, "Plank", "-", 5, "PLANK", LocalDate.of(old, 7, 1));
+        Workout recent = workoutService.createWorkout(userId, "Sepeda", "-", 60, "CYCLING", LocalDate.now());
+
+        WorkoutArchiveReport report = workoutArchiveService.run();
+
+        assertEquals(0, report.partitionsCreated());
+        assertEquals(1, report.partitionsArchived());
+        assertEquals(3, report.rowsArchived());
+        assertEquals(1, report.partitionsDropped());
+        assertSame(report, workoutArchiveService.getLastReport());
+        assertFalse(tableExists(old));
+        assertTrue(tableExists(YEAR - 1));
+        // Arsip tidak pernah masuk storage upload yang disajikan publik
+        assertTrue(archiveBlobStore.exists(WorkoutArchiveService.MANIFEST_KEY));
+        assertFalse(blobStore.exists(WorkoutArchiveService.MANIFEST_KEY));
+
+        assertEquals(List.of(recent.getId(), gym.getId(), early.getId()),
+                workoutService.getAllWorkouts(userId, new WorkoutFilter()).stream().map(Workout::getId).toList());
+        WorkoutFilter gymOnly = new WorkoutFilter();
+        gymOnly.setType(List.of("GYM"));
+        List<Workout> gyms = workoutService.getAllWorkouts(userId, gymOnly);
+        assertEquals(1, gyms.size());
+        assertEquals("cover_" + gym.getId() + ".jpg", gyms.get(0).getImagePath());
+        assertEquals(gym.getCreatedAt(), gyms.get(0).getCreatedAt());
+
+        assertEquals("Lari", workoutService.getWorkoutById(userId, early.getId()).getTitle());
+        assertEquals(3, workoutService.countWorkouts(userId));
+        assertEquals(135, workoutService.getDashboardStats(userId).get("totalDuration"));
+        assertEquals(1, workoutService.getAllWorkouts(other, new WorkoutFilter()).size());
+
+        // Baris arsip tidak lagi ada di tabel workouts, tapi cover-nya tetap terpakai (grace period 0)
+        assertNotNull(collector().run());
+        assertTrue(blobStore.exists(cover));
+        assertTrue(workoutArchiveService.findArchivedImagePaths().contains(cover));
+
+        // Tanggal lama setelah partisinya diarsipkan masuk workouts_default; run berikutnya memindahkannya
+        Workout late = workoutService.createWorkout(userId, "Renang", "-", 40, "CYCLING", LocalDate.of(old, 9, 1));
+        UUID lonely = otherBucketThan(userId);
+        Workout lonelyLate = workoutService.createWorkout(lonely, "Plank", "-", 5, "PLANK", LocalDate.of(old, 9, 2));
+
+        WorkoutArchiveReport again = workoutArchiveService.run();
+        assertEquals(0, again.partitionsArchived());
+        assertEquals(0, again.partitionsDropped());
+        assertEquals(2, again.rowsArchived());
+        assertEquals(0, new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM workouts WHERE user_id = ? OR id = ?", Integer.class, lonely, late.getId()));
+        assertEquals(late.getId(), workoutService.getWorkoutById(userId, late.getId()).getId());
+        assertEquals("Plank", workoutService.getWorkoutById(lonely, lonelyLate.getId()).getTitle());
+        assertEquals(4, workoutService.countWorkouts(userId));
+        assertTrue(workoutArchiveService.findArchivedImagePaths().contains(cover));
+
+        assertEquals(0, workoutArchiveService.run().rowsArchived());
+    }
+
+    @Test
+    @DisplayName("Partisi yang terlanjur di-detach (job terhenti) diekspor dan di-drop pada run berikutnya")
+    void detachedPartitionIsRecovered() {
+        int old = YEAR - 6;
+        UUID userId = UUID.randomUUID();
+        partitionRepository.createYear(old);
+        Workout workout = workoutService.createWorkout(userId, "Lari", "-", 20, "RUNNING", LocalDate.of(old, 1, 1));
+        partitionRepository.detachYear(old);
+
+        WorkoutArchiveReport report = workoutArchiveService.run();
+
+        assertEquals(1, report.partitionsArchived());
+        assertFalse(tableExists(old));
+        assertEquals(workout.getId(), workoutService.getWorkoutById(userId, workout.getId()).getId());
+    }
+
+    // ===== Dengan repository dan/atau BlobStore tiruan =====
+
+    private static WorkoutArchiveService service(BlobStore blobStore, WorkoutPartitionRepository repository,
+            boolean enabled) {
+        return new WorkoutArchiveService(blobStore, repository, new ShardRouter(false, List.of(), 128), enabled, 2,
+                4, 100, 5);
+    }
+
+    private static ResultSet row(UUID userId, String title) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("id", UUID.class)).thenReturn(UUID.randomUUID());
+        when(rs.getObject("user_id", UUID.class)).thenReturn(userId);
+        when(rs.getString("title")).thenReturn(title);
+        when(rs.getString("description")).thenReturn("-");
+        when(rs.getInt("duration_minutes")).thenReturn(30);
+        when(rs.getDouble("calories_burned")).thenReturn(300.0);
+        when(rs.getObject("date", LocalDate.class)).thenReturn(LocalDate.of(YEAR - 11, 1, 1));
+        when(rs.getString("type")).thenReturn("RUNNING");
+        when(rs.getString("image_path")).thenReturn("cover_a.jpg");
+        when(rs.getObject("created_at", LocalDateTime.class)).thenReturn(LocalDateTime.of(YEAR - 11, 1, 1, 7, 0));
+        when(rs.getObject("updated_at", LocalDateTime.class)).thenReturn(LocalDateTime.of(YEAR - 11, 1, 2, 7, 0));
+        return rs;
+    }
+
+    private static void streams(WorkoutPartitionRepository repository, int year, ResultSet rs) {
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(repository).streamYear(eq(year), any());
+    }
+
+    private static void putManifest(BlobStore blobStore, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        blobStore.put(WorkoutArchiveService.MANIFEST_KEY, new ByteArrayInputStream(bytes), bytes.length, null);
+    }
+
+    @Test
+    @DisplayName("Tanpa partisi (H2) tidak ada yang dilakukan; arsip mati hanya membuat partisi baru")
+    void maintenanceOnly() {
+        WorkoutPartitionRepository unpartitioned = mock(WorkoutPartitionRepository.class);
+        assertEquals(new WorkoutArchiveReport(0, 0, 0, 0, 0),
+                withoutDuration(service(new InMemoryBlobStore(), unpartitioned, true).run()));
+        verify(unpartitioned, never()).createYear(anyInt());
+
+        WorkoutPartitionRepository repository = mock(WorkoutPartitionRepository.class);
+        when(repository.isPartitioned()).thenReturn(true);
+        when(repository.createYear(anyInt())).thenReturn(true);
+        WorkoutArchiveService disabled = service(new InMemoryBlobStore(), repository, false);
+        disabled.scheduledRun();
+
+        assertEquals(2, disabled.getLastReport().partitionsCreated());
+        verify(repository).createYear(YEAR);
+        verify(repository).createYear(YEAR + 1);
+        verify(repository, never()).findYearPartitions();
+        assertTrue(disabled.findArchived(UUID.randomUUID()).isEmpty());
+    }
+
+    private static WorkoutArchiveReport withoutDuration(WorkoutArchiveReport report) {
+        return new WorkoutArchiveReport(report.partitionsCreated(), report.partitionsArchived(),
+                report.rowsArchived(), report.partitionsDropped(), 0);
+    }
+
+    @Test
+    @DisplayName("Hanya partisi lama yang sudah tercatat di manifest yang di-drop")
+    void dropsOnlyRecordedPartitions() throws Exception {
+        UUID userId = UUID.randomUUID();
+        BlobStore blobStore = new InMemoryBlobStore();
+        putManifest(blobStore, "default " + (YEAR - 10) + " 4 1 2020-01-01T00:00:00Z\n\n");
+        WorkoutPartitionRepository repository = mock(WorkoutPartitionRepository.class);
+        when(repository.isPartitioned()).thenReturn(true);
+        when(repository.findYearPartitions())
+                .thenReturn(List.of(new Partition(YEAR - 10, false), new Partition(YEAR - 11, false),
+                        new Partition(YEAR, true)))
+                .thenReturn(List.of(new Partition(YEAR - 20, false), new Partition(YEAR - 11, false),
+                        new Partition(YEAR - 10, false), new Partition(YEAR - 1, false),
+                        new Partition(YEAR, true)));
+        streams(repository, YEAR - 11, row(userId, "Lari"));
+        WorkoutArchiveService service = service(blobStore, repository, true);
+
+        WorkoutArchiveReport report = service.run();
+
+        assertEquals(1, report.partitionsArchived());
+        assertEquals(1, report.rowsArchived());
+        assertEquals(2, report.partitionsDropped());
+        verify(repository).dropYear(YEAR - 10);
+        verify(repository).dropYear(YEAR - 11);
+        verify(repository, never()).dropYear(YEAR - 20);
+        verify(repository, never()).detachYear(anyInt());
+
+        List<Workout> archived = service.findArchived(userId);
+        assertEquals(1, archived.size());
+        assertEquals("cover_a.jpg", archived.get(0).getImagePath());
+        assertEquals(LocalDateTime.of(YEAR - 11, 1, 2, 7, 0), archived.get(0).getUpdatedAt());
+        assertTrue(service.findArchived(userId, archived.get(0).getId()).isPresent());
+        assertTrue(service.findArchived(userId, UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Gagal menulis ke cold storage atau manifest: run gagal dan tidak ada partisi yang di-drop")
+    void storageFailureKeepsPartitions() throws Exception {
+        WorkoutPartitionRepository repository = mock(WorkoutPartitionRepository.class);
+        when(repository.isPartitioned()).thenReturn(true);
+        when(repository.findYearPartitions()).thenReturn(List.of(new Partition(YEAR - 11, true)));
+        streams(repository, YEAR - 11, row(UUID.randomUUID(), "Lari"));
+
+        BlobStore down = mock(BlobStore.class);
+        doThrow(new IOException("down")).when(down).put(any(), any(), anyLong(), any());
+        assertNull(service(down, repository, true).run());
+
+        BlobStore manifestDown = mock(BlobStore.class);
+        doThrow(new IOException("down")).when(manifestDown)
+                .put(eq(WorkoutArchiveService.MANIFEST_KEY), any(), anyLong(), any());
+        assertNull(service(manifestDown, repository, true).run());
+        verify(manifestDown, atLeastOnce()).delete(any());
+
+        // Baris yang tidak bisa dikodekan (writeUTF maksimal 64 KB) membatalkan ekspor, juga setelah segmen lain
+        streams(repository, YEAR - 11, row(UUID.randomUUID(), "x".repeat(70_000)));
+        assertNull(service(new InMemoryBlobStore(), repository, true).run());
+        UUID first = UUID.randomUUID();
+        UUID second = sameBucketAs(first, 4);
+        ResultSet ok = row(first, "Lari");
+        ResultSet tooLong = row(second, "x".repeat(70_000));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(ok);
+            invocation.<RowCallbackHandler>getArgument(1).processRow(tooLong);
+            return null;
+        }).when(repository).streamYear(eq(YEAR - 11), any());
+        assertNull(service(new InMemoryBlobStore(), repository, true).run());
+
+        verify(repository, never()).dropYear(anyInt());
+    }
+
+    @Test
+    @DisplayName("Job yang sedang berjalan tidak dijalankan dua kali")
+    void runIsExclusive() {
+        WorkoutPartitionRepository repository = mock(WorkoutPartitionRepository.class);
+        WorkoutArchiveService service = service(new InMemoryBlobStore(), repository, true);
+        when(repository.isPartitioned()).thenAnswer(invocation -> {
+            assertNull(service.run());
+            return false;
+        });
+
+        assertNotNull(service.run());
+    }
+
+    @Test
+    @DisplayName("Bucket tanpa blob dilewati; blob atau manifest yang tidak terbaca: hanya data aktif, tanpa cache")
+    void readFailures() throws Exception {
+        UUID userId = UUID.randomUUID();
+        BlobStore blobStore = new InMemoryBlobStore();
+        putManifest(blobStore, "shard0 2015 1 3 2020-01-01T00:00:00Z\n");
+        assertTrue(service(blobStore, mock(WorkoutPartitionRepository.class), true).findArchived(userId).isEmpty());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(42);
+        }
+        blobStore.put(WorkoutArchiveService.key("shard0", 2015, 0), new ByteArrayInputStream(bytes.toByteArray()),
+                bytes.size(), null);
+        WorkoutArchiveService corrupt = service(blobStore, mock(WorkoutPartitionRepository.class), true);
+        assertTrue(corrupt.findArchived(userId).isEmpty());
+
+        // Kegagalan tidak di-cache: setelah blob diperbaiki, arsip langsung terbaca lagi
+        Workout workout = archivedWorkout(null);
+        bytes.reset();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(WorkoutArchiveService.MAGIC);
+            WorkoutArchiveService.writeRow(out, workout);
+            out.writeBoolean(false);
+        }
+        blobStore.put(WorkoutArchiveService.key("shard0", 2015, 0), new ByteArrayInputStream(bytes.toByteArray()),
+                bytes.size(), null);
+        assertEquals(1, corrupt.findArchived(workout.getUserId()).size());
+
+        BlobStore down = mock(BlobStore.class);
+        when(down.get(WorkoutArchiveService.MANIFEST_KEY)).thenThrow(new IOException("down"));
+        assertTrue(service(down, mock(WorkoutPartitionRepository.class), true).findArchived(userId).isEmpty());
+        assertNull(service(down, mock(WorkoutPartitionRepository.class), true).run());
+    }
+
+    @Test
+    @DisplayName("Baris terlambat yang sudah ada di blob (run sebelumnya gagal sebelum commit) tidak ditulis dua kali")
+    void lateRowsAreAppendedOnce() throws Exception {
+        UUID userId = UUID.randomUUID();
+        BlobStore blobStore = new InMemoryBlobStore();
+        // Entry shard lain tidak disentuh oleh shard ini
+        putManifest(blobStore, "shard9 " + (YEAR - 12) + " 4 1 2020-01-01T00:00:00Z\n");
+        WorkoutPartitionRepository repository = mock(WorkoutPartitionRepository.class);
+        when(repository.isPartitioned()).thenReturn(true);
+        when(repository.findYearPartitions()).thenReturn(List.of(new Partition(YEAR - 11, true)))
+                .thenReturn(List.of(new Partition(YEAR - 11, false)));
+        ResultSet archivedRow = row(userId, "Lari");
+        streams(repository, YEAR - 11, archivedRow);
+        WorkoutArchiveService service = service(blobStore, repository, true);
+        service.run();
+
+        ResultSet late = row(userId, "Renang");
+        when(late.getString("image_path")).thenReturn("cover_b.jpg");
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(archivedRow);
+            invocation.<RowCallbackHandler>getArgument(1).processRow(late);
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(repository).drainDefaultYear(eq(YEAR - 11), any(), any());
+
+        assertEquals(1, service.run().rowsArchived());
+
+        assertEquals(List.of("Lari", "Renang"),
+                service.findArchived(userId).stream().map(Workout::getTitle).sorted().toList());
+        assertEquals(Set.of("cover_a.jpg", "cover_b.jpg"), service.findArchivedImagePaths());
+        String manifest = new String(blobStore.get(WorkoutArchiveService.MANIFEST_KEY).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertTrue(manifest.contains(ShardRouter.DEFAULT_SHARD + " " + (YEAR - 11) + " 4 2 "));
+        verify(repository, never()).drainDefaultYear(eq(YEAR - 12), any(), any());
+    }
+
+    private static Workout archivedWorkout(String imagePath) {
+        Workout workout = new Workout(UUID.randomUUID(), "Lari", "-", 30, 300.0, LocalDate.of(2015, 1, 1),
+                WorkoutType.RUNNING, imagePath);
+        workout.setId(UUID.randomUUID());
+        workout.setTimestamps(LocalDateTime.of(2015, 1, 1, 7, 0), LocalDateTime.of(2015, 1, 1, 7, 0));
+        return workout;
+    }
+
+    @Test
+    @DisplayName("Baris terlambat mengubah blob tanpa index menjadi segmen per user; segmen user lain disalin apa adanya")
+    void lateRowsRewriteBlobsPerUser() throws Exception {
+        int year = YEAR - 11;
+        String shard = ShardRouter.DEFAULT_SHARD;
+        BlobStore blobStore = new InMemoryBlobStore();
+        putManifest(blobStore, shard + " " + year + " 1 2 2020-01-01T00:00:00Z\n");
+        Workout mine = archivedWorkout("cover_old.jpg");
+        Workout theirs = archivedWorkout(null);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(WorkoutArchiveService.MAGIC);
+            WorkoutArchiveService.writeRow(out, mine);
+            WorkoutArchiveService.writeRow(out, theirs);
+            out.writeBoolean(false);
+        }
+        blobStore.put(WorkoutArchiveService.key(shard, year, 0), new ByteArrayInputStream(bytes.toByteArray()),
+                bytes.size(), null);
+        WorkoutPartitionRepository repository = mock(WorkoutPartitionRepository.class);
+        when(repository.isPartitioned()).thenReturn(true);
+        ResultSet mineLate = row(mine.getUserId(), "Renang");
+        ResultSet theirsLate = row(theirs.getUserId(), "Gym");
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(mineLate);
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(theirsLate);
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(repository).drainDefaultYear(eq(year), any(), any());
+        WorkoutArchiveService service = service(blobStore, repository, true);
+
+        assertEquals(1, service.run().rowsArchived());
+        assertTrue(blobStore.exists(WorkoutArchiveService.indexKey(shard, year, 0)));
+        assertEquals(List.of("Lari", "Renang"),
+                service.findArchived(mine.getUserId()).stream().map(Workout::getTitle).sorted().toList());
+        assertEquals(1, service.findArchived(theirs.getUserId()).size());
+
+        assertEquals(1, service.run().rowsArchived());
+        assertEquals(2, service.findArchived(mine.getUserId()).size());
+        assertEquals(List.of("Gym", "Lari"),
+                service.findArchived(theirs.getUserId()).stream().map(Workout::getTitle).sorted().toList());
+
+        // Tanpa index image, semua segmen blob dibaca
+        blobStore.delete(WorkoutArchiveService.imagesKey(shard, year));
+        assertEquals(Set.of("cover_old.jpg", "cover_a.jpg"), service.findArchivedImagePaths());
+
+        // Index yang menunjuk blob yang sudah tidak ada: tidak ada baris
+        blobStore.delete(WorkoutArchiveService.key(shard, year, 0));
+        assertTrue(service(blobStore, repository, true).findArchived(mine.getUserId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Arsip tanpa index image (dibuat sebelum ada index) dibaca dari blob bucket-nya")
+    void imagesOfArchivesWithoutIndex() throws Exception {
+        BlobStore blobStore = new InMemoryBlobStore();
+        putManifest(blobStore, "shard0 2015 2 2 2020-01-01T00:00:00Z\n");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(WorkoutArchiveService.MAGIC);
+            WorkoutArchiveService.writeRow(out, archivedWorkout("cover_old.jpg"));
+            WorkoutArchiveService.writeRow(out, archivedWorkout(null));
+            out.writeBoolean(false);
+        }
+        // Bucket 1 tanpa blob
+        blobStore.put(WorkoutArchiveService.key("shard0", 2015, 0), new ByteArrayInputStream(bytes.toByteArray()),
+                bytes.size(), null);
+        assertEquals(Set.of("cover_old.jpg"),
+                service(blobStore, mock(WorkoutPartitionRepository.class), true).findArchivedImagePaths());
+
+        BlobStore down = spy(blobStore);
+        doThrow(new IOException("down")).when(down).get(WorkoutArchiveService.imagesKey("shard0", 2015));
+        assertThrows(UncheckedIOException.class,
+                () -> service(down, mock(WorkoutPartitionRepository.class), true).findArchivedImagePaths());
+    }
+
+    @Test
+    @DisplayName("Manifest mencatat shard, tahun, bucket, jumlah baris dan waktu arsip")
+    void manifestFormat() throws Exception {
+        BlobStore blobStore = new InMemoryBlobStore();
+        WorkoutPartitionRepository repository = mock(WorkoutPartitionRepository.class);
+        when(repository.isPartitioned()).thenReturn(true);
+        when(repository.findYearPartitions()).thenReturn(List.of(new Partition(YEAR - 11, true)));
+        Instant before = Instant.now();
+
+        service(blobStore, repository, true).run();
+
+        String[] fields = new String(blobStore.get(WorkoutArchiveService.MANIFEST_KEY).readAllBytes(),
+                StandardCharsets.UTF_8).trim().split(" ");
+        assertEquals(List.of(ShardRouter.DEFAULT_SHARD, String.valueOf(YEAR - 11), "4", "0"),
+                List.of(fields).subList(0, 4));
+        assertFalse(Instant.parse(fields[4]).isBefore(before));
+    }
+}
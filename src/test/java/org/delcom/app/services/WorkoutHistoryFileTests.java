@@ -0,0 +1,199 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.delcom.app.enums.WorkoutType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WorkoutHistoryFileTests {
+
+    private static final LocalDate START = LocalDate.of(1965, 12, 30);
+    // Kernel skalar dan vector sama-sama berjalan di atas MemorySegment riwayat
+    private static final List<WorkoutAggregator> AGGREGATORS = List.of(new WorkoutAggregator(false),
+            new WorkoutAggregator(true));
+
+    private record Row(UUID id, LocalDate date, int duration, WorkoutType type, double calories) {
+    }
+
+    private static List<Row> randomRows(int count, long seed) {
+        Random random = new Random(seed);
+        WorkoutType[] types = WorkoutType.values();
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int duration = random.nextInt(400) - 20;
+            WorkoutType type = types[random.nextInt(types.length)];
+            // Tanggal sebelum dan sesudah 1970 (epoch day negatif), beberapa workout di hari yang sama
+            rows.add(new Row(UUID.randomUUID(), START.plusDays(random.nextInt(30_000)), duration, type,
+                    WorkoutService.calculateCalories(type, duration) + (i % 4) * 0.25));
+        }
+        return rows;
+    }
+
+    private static WorkoutHistoryFile build(List<Row> rows) {
+        WorkoutHistoryFile.Builder builder = WorkoutHistoryFile.builder();
+        rows.forEach(row -> builder.add(row.id(), row.date(), row.duration(), row.type(), row.calories()));
+        return builder.build();
+    }
+
+    // Agregasi atas kolom buffer plus delta dibandingkan dengan perhitungan langsung dari baris
+    private static void assertAggregates(List<Row> rows, WorkoutHistoryFile history) {
+        assertEquals(rows.size(), history.count());
+        TreeMap<LocalDate, Long> daily = new TreeMap<>();
+        rows.forEach(row -> daily.merge(row.date(), (long) row.duration(), Long::sum));
+        long[] byType = new long[WorkoutType.values().length];
+        rows.forEach(row -> byType[row.type().ordinal()]++);
+
+        for (WorkoutAggregator aggregator : AGGREGATORS) {
+            WorkoutAggregator.Totals totals = aggregator.totals(history);
+            assertEquals(rows.size(), totals.workouts());
+            assertEquals(rows.stream().mapToLong(Row::duration).sum(), totals.durationMinutes());
+            assertEquals(rows.stream().mapToDouble(Row::calories).sum(), totals.caloriesBurned(), 1e-6);
+
+            List<Object[]> dailyRows = aggregator.dailyDurations(history);
+            assertEquals(daily.size(), dailyRows.size());
+            int i = 0;
+            for (var entry : daily.entrySet()) {
+                assertEquals(entry.getKey(), dailyRows.get(i)[0]);
+                assertEquals(entry.getValue(), dailyRows.get(i)[1]);
+                i++;
+            }
+
+            assertArrayEquals(byType, aggregator.countByType(history));
+            List<Object[]> typeRows = aggregator.typeCounts(history);
+            for (Object[] row : typeRows) {
+                assertEquals(byType[((WorkoutType) row[0]).ordinal()], row[1]);
+            }
+            assertEquals(Arrays.stream(byType).filter(count -> count > 0).count(), typeRows.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Agregasi dari file kolumnar sama dengan perhitungan per baris")
+    void aggregatesMatchRows() {
+        List<Row> rows = randomRows(2000, 42);
+        WorkoutHistoryFile history = build(rows);
+
+        assertAggregates(rows, history);
+        // Header 8 byte, lalu tanggal 4 + durasi 4 + kalori 8 + id 16 + tipe 1 byte per baris
+        assertEquals(8 + rows.size() * 33, history.sizeInBytes());
+        assertEquals(rows.size(), history.bufferRows());
+    }
+
+    @Test
+    @DisplayName("Riwayat kosong")
+    void empty() {
+        WorkoutHistoryFile history = WorkoutHistoryFile.builder().build();
+
+        assertEquals(0, history.count());
+        assertEquals(0, history.bufferRows());
+        assertAggregates(List.of(), history);
+        assertAggregates(List.of(), history.without(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("with mengganti baris dengan id yang sama, without menghapusnya")
+    void withAndWithout() {
+        List<Row> rows = new ArrayList<>(randomRows(50, 7));
+        WorkoutHistoryFile history = build(rows);
+
+        // Id yang hanya berbeda di bit rendah tidak boleh dianggap sama
+        UUID id = new UUID(rows.get(0).id().getMostSignificantBits(), 1);
+        Row added = new Row(id, LocalDate.of(2030, 1, 1), 45, WorkoutType.GYM, 270.0);
+        rows.add(added);
+        history = history.with(added.id(), added.date(), added.duration(), added.type(), added.calories());
+        assertAggregates(rows, history);
+
+        Row updated = new Row(id, START.minusDays(3), 300, WorkoutType.PLANK, 1200.0);
+        rows.set(rows.size() - 1, updated);
+        history = history.with(updated.id(), updated.date(), updated.duration(), updated.type(), updated.calories());
+        assertAggregates(rows, history);
+
+        Row removed = rows.remove(10);
+        history = history.without(removed.id());
+        assertAggregates(rows, history);
+        assertAggregates(rows, history.without(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("with/without hanya menambah delta tanpa menulis ulang buffer; compact menggabungkannya")
+    void deltaThenCompact() {
+        List<Row> rows = new ArrayList<>(randomRows(200, 5));
+        WorkoutHistoryFile base = build(rows);
+        WorkoutHistoryFile history = base;
+
+        // Baris buffer yang diubah dua kali tetap satu baris yang disembunyikan
+        for (int duration : new int[] { 90, 120 }) {
+            Row updated = new Row(rows.get(0).id(), rows.get(0).date(), duration, WorkoutType.GYM, duration * 6.0);
+            rows.set(0, updated);
+            history = history.with(updated.id(), updated.date(), updated.duration(), updated.type(),
+                    updated.calories());
+        }
+        // Semua baris di satu tanggal dihapus: tanggal itu hilang dari total harian
+        LocalDate emptied = rows.get(1).date();
+        for (Row row : List.copyOf(rows)) {
+            if (row.date().equals(emptied)) {
+                rows.remove(row);
+                history = history.without(row.id());
+            }
+        }
+        // Tanggal yang hanya ada di delta: sebelum, di antara dan sesudah tanggal buffer
+        for (LocalDate date : List.of(START.minusDays(10), emptied, LocalDate.of(2100, 1, 1))) {
+            Row added = new Row(UUID.randomUUID(), date, 25, WorkoutType.PLANK, 100.0);
+            rows.add(added);
+            history = history.with(added.id(), added.date(), added.duration(), added.type(), added.calories());
+        }
+        assertAggregates(rows, history);
+        assertEquals(base.sizeInBytes(), history.sizeInBytes());
+        assertTrue(history.deltaRows() >= 5, "delta " + history.deltaRows());
+        assertSame(base.durations(), history.durations());
+
+        WorkoutHistoryFile compacted = history.compact();
+        assertEquals(0, compacted.deltaRows());
+        assertAggregates(rows, compacted);
+        assertSame(compacted, compacted.compact());
+    }
+
+    @Test
+    @DisplayName("File yang ditulis lalu di-mmap berisi riwayat yang sama")
+    void writeAndMap(@TempDir Path directory) throws Exception {
+        List<Row> rows = randomRows(300, 11);
+        Path path = directory.resolve("riwayat.wkh");
+
+        build(rows).writeTo(path);
+        WorkoutHistoryFile mapped = WorkoutHistoryFile.map(path);
+
+        assertEquals(Files.size(path), mapped.sizeInBytes());
+        assertAggregates(rows, mapped);
+        // Bisa diubah lagi (delta di heap, mapping tetap dipakai)
+        assertAggregates(rows.subList(1, rows.size()), mapped.without(rows.get(0).id()));
+    }
+
+    @Test
+    @DisplayName("Buffer yang bukan riwayat utuh ditolak")
+    void rejectsInvalidBuffers(@TempDir Path directory) throws Exception {
+        Path path = directory.resolve("riwayat.wkh");
+        build(randomRows(5, 3)).writeTo(path);
+        byte[] valid = Files.readAllBytes(path);
+        byte[] badMagic = valid.clone();
+        badMagic[0] = 0;
+        byte[] truncated = Arrays.copyOf(valid, valid.length - 1);
+
+        assertEquals(5, WorkoutHistoryFile.wrap(valid).count());
+        assertThrows(IllegalArgumentException.class, () -> WorkoutHistoryFile.wrap(new byte[4]));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutHistoryFile.wrap(new byte[8]));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutHistoryFile.wrap(badMagic));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutHistoryFile.wrap(truncated));
+    }
+}
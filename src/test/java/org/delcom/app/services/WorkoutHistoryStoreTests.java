@@ -0,0 +1,306 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class WorkoutHistoryStoreTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 31);
+    private static final WorkoutAggregator AGGREGATOR = new WorkoutAggregator(false);
+
+    private final DataVersionService dataVersionService = new DataVersionService();
+    private final UUID userId = UUID.randomUUID();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private WorkoutHistoryStore store(Path dir, long maxBytes) {
+        return new WorkoutHistoryStore(true, dir.toString(), maxBytes, 300, dataVersionService);
+    }
+
+    private static Workout workout(int duration, WorkoutType type) {
+        Workout workout = new Workout(UUID.randomUUID(), "Latihan", "-", duration,
+                WorkoutService.calculateCalories(type, duration), TODAY, type, null);
+        workout.setId(UUID.randomUUID());
+        return workout;
+    }
+
+    private static WorkoutHistoryFile history(Workout... workouts) {
+        WorkoutHistoryFile.Builder builder = WorkoutHistoryFile.builder();
+        for (Workout workout : workouts) {
+            builder.add(workout.getId(), workout.getDate(), workout.getDurationMinutes(), workout.getType(),
+                    workout.getCaloriesBurned());
+        }
+        return builder.build();
+    }
+
+    private List<Path> files() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Dibangun sekali lewat loader dan ditulis ke satu file, bacaan berikutnya dari cache")
+    void get_LoadsOnceThenHits() throws Exception {
+        WorkoutHistoryStore store = store(directory, 1 << 20);
+        AtomicInteger loads = new AtomicInteger();
+
+        WorkoutHistoryFile first = store.get(userId, () -> {
+            loads.incrementAndGet();
+            return history(workout(30, WorkoutType.RUNNING));
+        });
+        WorkoutHistoryFile second = store.get(userId, () -> fail("tidak boleh memuat ulang"));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(30, AGGREGATOR.totals(first).durationMinutes());
+        assertEquals(1, files().size());
+        assertEquals(first.sizeInBytes(), Files.size(files().get(0)));
+    }
+
+    @Test
+    @DisplayName("Perubahan dari node lain membuang riwayat user itu beserta filenya, atau semua saat reset")
+    void remoteChange_Evicts() throws Exception {
+        WorkoutHistoryStore store = store(directory, 1 << 20);
+        UUID otherUser = UUID.randomUUID();
+        store.get(userId, () -> history(workout(30, WorkoutType.RUNNING)));
+        store.get(otherUser, () -> history(workout(45, WorkoutType.GYM)));
+
+        dataVersionService.remoteChanged(userId);
+        assertNull(store.getNativeCache().getIfPresent(userId));
+        assertNotNull(store.getNativeCache().getIfPresent(otherUser));
+        assertEquals(1, files().size());
+
+        dataVersionService.remoteChanged(null);
+        assertEquals(0, store.getNativeCache().estimatedSize());
+        assertEquals(0, files().size());
+    }
+
+    @Test
+    @DisplayName("Dimatikan: get mengembalikan null tanpa memuat, direktori tidak disentuh")
+    void get_Disabled() {
+        Path missing = directory.resolve("tidak-ada");
+        WorkoutHistoryStore disabled = new WorkoutHistoryStore(false, missing.toString(), 1 << 20, 300,
+                dataVersionService);
+
+        assertNull(disabled.get(userId, () -> fail("tidak boleh memuat")));
+        assertFalse(Files.exists(missing));
+    }
+
+    @Test
+    @DisplayName("Saat start, file riwayat sisa proses sebelumnya dihapus")
+    void startup_RemovesLeftoverFiles() throws Exception {
+        Files.writeString(directory.resolve("lama.wkh"), "basi");
+        Files.writeString(directory.resolve("lain.txt"), "bukan riwayat");
+        // Tidak bisa dihapus (direktori berisi), hanya dicatat
+        Files.createDirectories(directory.resolve("penuh.wkh"));
+        Files.writeString(directory.resolve("penuh.wkh").resolve("isi"), "-");
+
+        store(directory, 1 << 20);
+
+        assertFalse(Files.exists(directory.resolve("lama.wkh")));
+        assertTrue(Files.exists(directory.resolve("lain.txt")));
+        assertTrue(Files.exists(directory.resolve("penuh.wkh")));
+    }
+
+    @Test
+    @DisplayName("Direktori tidak bisa dipakai: riwayat tetap dihitung di heap, tidak di-cache")
+    void unwritableDirectory_FallsBackToHeap() throws Exception {
+        Path file = directory.resolve("bukan-direktori");
+        Files.writeString(file, "-");
+        WorkoutHistoryStore store = store(file, 1 << 20);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            WorkoutHistoryFile history = store.get(userId, () -> {
+                loads.incrementAndGet();
+                return history(workout(20, WorkoutType.GYM));
+            });
+            assertEquals(1, history.count());
+        }
+
+        assertEquals(2, loads.get());
+        assertEquals(0, store.getNativeCache().estimatedSize());
+    }
+
+    @Test
+    @DisplayName("Tulis yang commit selama load: hasil load tidak di-cache")
+    void get_ConcurrentWriteDuringLoad() throws Exception {
+        WorkoutHistoryStore store = store(directory, 1 << 20);
+
+        store.get(userId, () -> {
+            dataVersionService.bump(userId);
+            return history();
+        });
+
+        assertNull(store.getNativeCache().getIfPresent(userId));
+        assertEquals(List.of(), files());
+    }
+
+    @Test
+    @DisplayName("saved/deleted memperbarui riwayat setelah commit lewat delta, file tidak ditulis ulang")
+    void savedAndDeleted_UpdateAfterCommit() throws Exception {
+        WorkoutHistoryStore store = store(directory, 1 << 20);
+        Workout run = workout(30, WorkoutType.RUNNING);
+        store.get(userId, () -> history(run));
+        Path file = files().get(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        Workout gym = workout(45, WorkoutType.GYM);
+        store.saved(userId, gym);
+        assertEquals(1, store.get(userId, () -> fail("tidak boleh memuat")).count());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        WorkoutHistoryFile history = store.get(userId, () -> fail("tidak boleh memuat"));
+        WorkoutAggregator.Totals totals = AGGREGATOR.totals(history);
+        assertEquals(2, totals.workouts());
+        assertEquals(75, totals.durationMinutes());
+        assertEquals(570.0, totals.caloriesBurned());
+
+        run.setDurationMinutes(60);
+        run.setCaloriesBurned(600.0);
+        store.saved(userId, run);
+        store.deleted(userId, gym.getId());
+
+        history = store.get(userId, () -> fail("tidak boleh memuat"));
+        assertEquals(1, history.count());
+        assertEquals(60, AGGREGATOR.totals(history).durationMinutes());
+        assertEquals(2, history.deltaRows());
+        assertEquals(List.of(file), files());
+        assertEquals(history.sizeInBytes(), Files.size(file));
+    }
+
+    // Menyimpan workout baru satu per satu tanpa transaksi aktif (langsung diterapkan)
+    private static void saveMany(WorkoutHistoryStore store, UUID userId, int count) {
+        for (int i = 0; i < count; i++) {
+            store.saved(userId, workout(10, WorkoutType.CYCLING));
+        }
+    }
+
+    @Test
+    @DisplayName("Delta sebesar COMPACT_MIN_ROWS ditulis ulang ke file baru; file lama dihapus")
+    void compaction_ReplacesFile() throws Exception {
+        WorkoutHistoryStore store = store(directory, 1 << 20);
+        store.compactor = Runnable::run;
+        store.get(userId, () -> history(workout(30, WorkoutType.RUNNING)));
+        Path file = files().get(0);
+
+        saveMany(store, userId, WorkoutHistoryStore.COMPACT_MIN_ROWS - 1);
+        assertEquals(List.of(file), files());
+
+        saveMany(store, userId, 1);
+        WorkoutHistoryFile history = store.get(userId, () -> fail("tidak boleh memuat"));
+        assertEquals(0, history.deltaRows());
+        assertEquals(WorkoutHistoryStore.COMPACT_MIN_ROWS + 1, history.count());
+        assertEquals(30 + 10 * WorkoutHistoryStore.COMPACT_MIN_ROWS, AGGREGATOR.totals(history).durationMinutes());
+        assertEquals(1, files().size());
+        assertNotEquals(file, files().get(0));
+        assertEquals(history.sizeInBytes(), Files.size(files().get(0)));
+    }
+
+    @Test
+    @DisplayName("Compaction dijadwalkan sekali; hasilnya dibuang jika ada tulis lain atau user tergusur")
+    void compaction_StaleResultIsDiscarded() throws Exception {
+        WorkoutHistoryStore store = store(directory, 1 << 20);
+        List<Runnable> scheduled = new ArrayList<>();
+        store.compactor = scheduled::add;
+        store.get(userId, () -> history());
+        Path file = files().get(0);
+
+        saveMany(store, userId, WorkoutHistoryStore.COMPACT_MIN_ROWS + 1);
+        assertEquals(1, scheduled.size());
+        scheduled.remove(0).run();
+        // Entry yang dijadwalkan sudah diganti tulis terakhir
+        assertEquals(List.of(file), files());
+        assertEquals(WorkoutHistoryStore.COMPACT_MIN_ROWS + 1,
+                store.get(userId, () -> fail("tidak boleh memuat")).deltaRows());
+
+        saveMany(store, userId, 1);
+        assertEquals(1, scheduled.size());
+        store.clear();
+        scheduled.remove(0).run();
+        assertEquals(List.of(), files());
+    }
+
+    @Test
+    @DisplayName("Compaction yang gagal ditulis membiarkan delta di heap")
+    void compaction_WriteFails() throws Exception {
+        Path dir = directory.resolve("riwayat");
+        WorkoutHistoryStore store = store(dir, 1 << 20);
+        store.compactor = Runnable::run;
+        store.get(userId, () -> history(workout(30, WorkoutType.RUNNING)));
+        // Mapping tetap berlaku setelah file dan direktorinya hilang
+        try (Stream<Path> leftovers = Files.list(dir)) {
+            for (Path leftover : leftovers.toList()) {
+                Files.delete(leftover);
+            }
+        }
+        Files.delete(dir);
+        Files.writeString(dir, "-");
+
+        saveMany(store, userId, WorkoutHistoryStore.COMPACT_MIN_ROWS);
+
+        WorkoutHistoryFile history = store.get(userId, () -> fail("tidak boleh memuat"));
+        assertEquals(WorkoutHistoryStore.COMPACT_MIN_ROWS, history.deltaRows());
+        assertEquals(WorkoutHistoryStore.COMPACT_MIN_ROWS + 1, history.count());
+    }
+
+    @Test
+    @DisplayName("saved/deleted untuk user yang belum dimuat tidak membuat file")
+    void savedAndDeleted_NotLoaded() throws Exception {
+        WorkoutHistoryStore store = store(directory, 1 << 20);
+
+        store.saved(userId, workout(30, WorkoutType.RUNNING));
+        store.deleted(userId, UUID.randomUUID());
+
+        assertNull(store.getNativeCache().getIfPresent(userId));
+        assertEquals(List.of(), files());
+    }
+
+    @Test
+    @DisplayName("Total ukuran dibatasi max-bytes; file user yang tergusur dihapus")
+    void evictionDeletesFiles() throws Exception {
+        WorkoutHistoryFile sample = history(workout(30, WorkoutType.RUNNING));
+        WorkoutHistoryStore store = store(directory, sample.sizeInBytes() * 2L);
+
+        for (int i = 0; i < 5; i++) {
+            store.get(UUID.randomUUID(), () -> history(workout(30, WorkoutType.RUNNING)));
+        }
+        store.getNativeCache().cleanUp();
+
+        assertTrue(store.getNativeCache().estimatedSize() <= 2);
+        assertEquals(store.getNativeCache().estimatedSize(), files().size());
+
+        store.clear();
+        assertEquals(List.of(), files());
+    }
+}
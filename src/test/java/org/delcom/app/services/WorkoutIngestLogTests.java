@@ -0,0 +1,199 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WorkoutIngestLogTests {
+
+    @TempDir
+    Path directory;
+
+    private static Workout workout(String title, String description) {
+        Workout workout = new Workout(UUID.randomUUID(), title, description, 45, 270.0, LocalDate.of(2025, 3, 31),
+                WorkoutType.GYM, null);
+        workout.setId(UUID.randomUUID());
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 31, 7, 15, 30, 123_456_789);
+        workout.setTimestamps(createdAt, createdAt);
+        return workout;
+    }
+
+    private static void assertSameWorkout(Workout expected, Workout actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getUserId(), actual.getUserId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getDurationMinutes(), actual.getDurationMinutes());
+        assertEquals(expected.getCaloriesBurned(), actual.getCaloriesBurned());
+        assertEquals(expected.getDate(), actual.getDate());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getCreatedAt(), actual.getUpdatedAt());
+        assertNull(actual.getImagePath());
+    }
+
+    private List<String> files(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Record yang sudah di-fsync dibaca ulang utuh dan urut saat log dibuka lagi")
+    void appendedRecordsAreRecovered() throws Exception {
+        WorkoutIngestLog wal = new WorkoutIngestLog(directory);
+        assertEquals(List.of(), wal.open());
+        Workout first = workout("Lari pagi", "Taman kota");
+        // Lebih dari batas 64 KB writeUTF, dengan karakter multi-byte
+        Workout second = workout("Angkat beban", "é".repeat(40_000));
+
+        long firstPosition = wal.append(first);
+        long secondPosition = wal.append(second);
+        assertTrue(secondPosition > firstPosition);
+        wal.sync(secondPosition);
+        // Sudah tercakup fsync sebelumnya
+        wal.sync(firstPosition);
+        wal.close();
+
+        WorkoutIngestLog reopened = new WorkoutIngestLog(directory);
+        List<Workout> recovered = reopened.open();
+        assertEquals(2, recovered.size());
+        assertSameWorkout(first, recovered.get(0));
+        assertSameWorkout(second, recovered.get(1));
+        // Segmen lama tertutup, record baru masuk segmen berikutnya
+        assertEquals(1, reopened.closedSegments());
+        assertEquals(List.of("1.wal", "2.wal"), files(directory));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Segmen tertutup dihapus setelah batch commit; segmen diputar ulang urut nomor")
+    void rotateAndDeleteClosed() throws Exception {
+        WorkoutIngestLog wal = new WorkoutIngestLog(directory);
+        wal.open();
+        for (int i = 1; i <= 10; i++) {
+            wal.append(workout("Latihan " + i, "-"));
+            wal.rotate();
+        }
+        assertEquals(10, wal.closedSegments());
+        wal.append(workout("Latihan 11", "-"));
+        wal.close();
+
+        // 10.wal dan 11.wal harus diputar setelah 2.wal, bukan urut nama file
+        WorkoutIngestLog reopened = new WorkoutIngestLog(directory);
+        List<Workout> recovered = reopened.open();
+        assertEquals(11, recovered.size());
+        for (int i = 0; i < recovered.size(); i++) {
+            assertEquals("Latihan " + (i + 1), recovered.get(i).getTitle());
+        }
+
+        // Segmen aktif masih kosong: rotasi tidak membuat segmen baru
+        reopened.rotate();
+        assertEquals(11, reopened.closedSegments());
+
+        reopened.deleteClosed();
+        assertEquals(0, reopened.closedSegments());
+        assertEquals(List.of("12.wal"), files(directory));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Rotasi yang gagal membuka segmen baru tetap menulis ke segmen aktif")
+    void failedRotateKeepsCurrentSegment() throws Exception {
+        WorkoutIngestLog wal = new WorkoutIngestLog(directory);
+        wal.open();
+        wal.append(workout("Sebelum gagal", "-"));
+        Files.createFile(directory.resolve("2.wal"));
+
+        assertThrows(FileAlreadyExistsException.class, wal::rotate);
+        wal.sync(wal.append(workout("Setelah gagal", "-")));
+        assertEquals(0, wal.closedSegments());
+        wal.rotate();
+        assertEquals(1, wal.closedSegments());
+        wal.close();
+
+        WorkoutIngestLog reopened = new WorkoutIngestLog(directory);
+        List<Workout> recovered = reopened.open();
+        assertEquals(List.of("Sebelum gagal", "Setelah gagal"), recovered.stream().map(Workout::getTitle).toList());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Ekor segmen yang terpotong atau rusak dibuang, record sebelumnya tetap dipulihkan")
+    void tornTailIsDiscarded() throws Exception {
+        byte[] payload = WorkoutIngestLog.encode(workout("Rusak", "-"));
+        List<byte[]> tails = List.of(
+                // Header terpotong
+                new byte[] { 0, 0, 1 },
+                // Panjang negatif
+                ByteBuffer.allocate(8).putInt(-1).putInt(0).array(),
+                // Panjang melebihi sisa file
+                ByteBuffer.allocate(12).putInt(1000).putInt(0).putInt(7).array(),
+                // CRC tidak cocok
+                ByteBuffer.allocate(8 + payload.length).putInt(payload.length).putInt(42).put(payload).array());
+
+        for (int i = 0; i < tails.size(); i++) {
+            Path dir = directory.resolve("case-" + i);
+            WorkoutIngestLog wal = new WorkoutIngestLog(dir);
+            wal.open();
+            Workout kept = workout("Utuh", "-");
+            wal.append(kept);
+            wal.close();
+            Files.write(dir.resolve("1.wal"), tails.get(i), StandardOpenOption.APPEND);
+
+            WorkoutIngestLog reopened = new WorkoutIngestLog(dir);
+            List<Workout> recovered = reopened.open();
+            assertEquals(1, recovered.size(), "tail " + i);
+            assertSameWorkout(kept, recovered.get(0));
+            reopened.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Direktori di-fsync setelah segmen atau dead letter dibuat dan setelah segmen dihapus")
+    void syncsDirectoryEntries() throws Exception {
+        WorkoutIngestLog wal = spy(new WorkoutIngestLog(directory));
+        wal.open();
+        verify(wal, times(1)).syncDirectory();
+        wal.append(workout("Satu", "-"));
+        wal.rotate();
+        wal.deleteClosed();
+        verify(wal, times(3)).syncDirectory();
+        wal.deadLetter(workout("Ditolak", "-"));
+        wal.deadLetter(workout("Ditolak lagi", "-"));
+        verify(wal, times(4)).syncDirectory();
+
+        // fsync direktori gagal: segmen baru ditutup lagi, segmen aktif tetap dipakai
+        doThrow(new IOException("fsync gagal")).when(wal).syncDirectory();
+        wal.append(workout("Dua", "-"));
+        assertThrows(IOException.class, wal::rotate);
+        wal.sync(wal.append(workout("Tiga", "-")));
+        assertEquals(0, wal.closedSegments());
+        wal.close();
+
+        WorkoutIngestLog reopened = new WorkoutIngestLog(directory);
+        assertEquals(List.of("Dua", "Tiga"), reopened.open().stream().map(Workout::getTitle).toList());
+        reopened.close();
+        List<Workout> deadLetters = new ArrayList<>();
+        WorkoutIngestLog.read(directory.resolve(WorkoutIngestLog.DEAD_LETTER), deadLetters);
+        assertEquals(List.of("Ditolak", "Ditolak lagi"), deadLetters.stream().map(Workout::getTitle).toList());
+    }
+}
@@ -0,0 +1,372 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.delcom.app.repositories.WorkoutRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ingestion write-behind atas database lokal (H2). Setiap test membuat
+ * service sendiri di direktori WAL sementara; bean di context tetap mati.
+ * Interval flush dibuat panjang supaya flush hanya terjadi saat dipanggil
+ * test (atau saat antrean mencapai batch-size).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:workout-ingest;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "app.storage.type=memory",
+        "app.access-log.enabled=false"
+})
+class WorkoutIngestServiceTests {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 3, 31);
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private RecentWorkoutCache recentWorkoutCache;
+
+    @Autowired
+    private WorkoutHistoryStore workoutHistoryStore;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @TempDir
+    Path directory;
+
+    private final UUID userId = UUID.randomUUID();
+    private final List<WorkoutIngestService> started = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        started.forEach(WorkoutIngestService::stop);
+        workoutRepository.deleteAll();
+    }
+
+    private WorkoutIngestService service(boolean enabled, Path dir, int batchSize) {
+        return service(enabled, dir, batchSize, shardRouter);
+    }
+
+    private WorkoutIngestService service(boolean enabled, Path dir, int batchSize, ShardRouter router) {
+        return service(enabled, dir, batchSize, router, 10_000);
+    }
+
+    private WorkoutIngestService service(boolean enabled, Path dir, int batchSize, ShardRouter router,
+            int maxQueued) {
+        return new WorkoutIngestService(enabled, dir.toString(), batchSize, 60_000, maxQueued, router,
+                dataVersionService, recentWorkoutCache, workoutHistoryStore, dataSource, transactionManager);
+    }
+
+    private WorkoutIngestService started(int batchSize) {
+        return started(batchSize, shardRouter);
+    }
+
+    private WorkoutIngestService started(int batchSize, ShardRouter router) {
+        WorkoutIngestService service = service(true, directory, batchSize, router);
+        service.start();
+        started.add(service);
+        return service;
+    }
+
+    private Workout submit(WorkoutIngestService service, String title) {
+        return service.submit(userId, title, "Sesi pagi", 30, "RUNNING", DATE);
+    }
+
+    private long files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    @DisplayName("Workout dijawab dari WAL, terlihat lewat pending, lalu masuk database saat flush")
+    void submitThenFlush() throws Exception {
+        WorkoutIngestService service = started(500);
+        long version = dataVersionService.getVersion(userId);
+
+        Workout first = submit(service, "Lari");
+        Workout second = service.submit(userId, "Angkat beban", "-", 10, "GYM", DATE);
+        // Tipe tidak dikenal ditolak sebelum ditulis ke WAL
+        assertThrows(IllegalArgumentException.class,
+                () -> service.submit(userId, "Tanpa tipe", "-", 10, "ANGKAT_BESI", DATE));
+
+        assertEquals(300.0, first.getCaloriesBurned());
+        assertEquals(WorkoutType.GYM, second.getType());
+        assertNotNull(first.getCreatedAt());
+        assertTrue(workoutRepository.findByUserIdAndId(userId, first.getId()).isEmpty());
+        assertEquals(List.of(first.getId(), second.getId()),
+                service.pending(userId).stream().map(Workout::getId).toList());
+        assertEquals(List.of(), service.pending(UUID.randomUUID()));
+        assertEquals(2, service.queued());
+
+        service.flush();
+
+        Workout saved = workoutRepository.findByUserIdAndId(userId, first.getId()).orElseThrow();
+        assertEquals("Lari", saved.getTitle());
+        assertEquals(DATE, saved.getDate());
+        assertEquals(WorkoutType.RUNNING, saved.getType());
+        assertEquals(2, workoutRepository.countByUserId(userId));
+        assertEquals(List.of(), service.pending(userId));
+        assertEquals(0, service.queued());
+        assertTrue(dataVersionService.getVersion(userId) > version);
+        // Hanya segmen aktif yang tersisa
+        assertEquals(1, files());
+
+        // Antrean kosong: tidak ada rotasi
+        service.flush();
+        assertEquals(1, files());
+    }
+
+    @Test
+    @DisplayName("Antrean sebesar batch-size membangunkan writer tanpa menunggu interval flush")
+    void fullBatchWakesWriter() throws Exception {
+        WorkoutIngestService service = started(2);
+
+        submit(service, "Satu");
+        submit(service, "Dua");
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (workoutRepository.countByUserId(userId) < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, workoutRepository.countByUserId(userId));
+    }
+
+    @Test
+    @DisplayName("WAL sisa crash diputar ulang saat startup; workout yang sudah commit tidak dimasukkan lagi")
+    void replaysWalOnStartup() throws Exception {
+        Workout committed = new Workout(userId, "Sudah commit", "-", 20, 200.0, DATE, WorkoutType.RUNNING, null);
+        committed.setId(UUID.randomUUID());
+        Workout lost = new Workout(userId, "Belum commit", "-", 40, 240.0, DATE, WorkoutType.GYM, null);
+        lost.setId(UUID.randomUUID());
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 31, 6, 0);
+        committed.setTimestamps(createdAt, createdAt);
+        lost.setTimestamps(createdAt, createdAt);
+        WorkoutIngestLog wal = new WorkoutIngestLog(directory);
+        wal.open();
+        wal.append(committed);
+        wal.append(lost);
+        wal.close();
+        // Crash setelah batch commit, sebelum segmennya dihapus
+        new JdbcTemplate(dataSource).update("INSERT INTO workouts (id, user_id, title, description, duration_minutes, "
+                + "calories_burned, date, type, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                committed.getId(), userId, committed.getTitle(), "-", 20, 200.0, DATE, "RUNNING",
+                Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+
+        WorkoutIngestService service = started(500);
+        assertEquals(2, service.pending(userId).size());
+
+        service.flush();
+
+        assertEquals(2, workoutRepository.countByUserId(userId));
+        Workout replayed = workoutRepository.findByUserIdAndId(userId, lost.getId()).orElseThrow();
+        assertEquals("Belum commit", replayed.getTitle());
+        assertEquals(createdAt, replayed.getCreatedAt());
+        assertEquals(List.of(), service.pending(userId));
+        assertEquals(1, files());
+    }
+
+    @Test
+    @DisplayName("Batch yang gagal dicoba per baris; baris yang ditolak database masuk dead letter")
+    void rejectedRowGoesToDeadLetter() throws Exception {
+        WorkoutIngestService service = started(500);
+        WorkoutIngestLog wal = spy(service.wal);
+        service.wal = wal;
+        submit(service, "Valid");
+        // Melebihi kolom title varchar(255): controller menolaknya, tapi WAL dari versi lama bisa berisi baris ini
+        Workout rejected = submit(service, "x".repeat(300));
+
+        // Dead letter belum bisa ditulis: baris itu tetap di antrean, overlay dan WAL
+        doThrow(new IOException("disk penuh")).when(wal).deadLetter(any());
+        service.flush();
+        assertEquals(1, workoutRepository.countByUserId(userId));
+        assertEquals(List.of(rejected.getId()), service.pending(userId).stream().map(Workout::getId).toList());
+        assertEquals(1, service.queued());
+        assertEquals(2, files());
+
+        doCallRealMethod().when(wal).deadLetter(any());
+        service.flush();
+        assertEquals(1, workoutRepository.countByUserId(userId));
+        assertEquals(0, service.queued());
+        assertEquals(List.of(), service.pending(userId));
+        List<Workout> deadLetters = new ArrayList<>();
+        WorkoutIngestLog.read(directory.resolve(WorkoutIngestLog.DEAD_LETTER), deadLetters);
+        assertEquals(List.of(rejected.getId()), deadLetters.stream().map(Workout::getId).toList());
+        // Segmen aktif dan dead letter; segmen yang berisi baris itu sudah dihapus
+        assertEquals(2, files());
+    }
+
+    @Test
+    @DisplayName("Kegagalan selain constraint: baris tetap di antrean tanpa menambah segmen WAL setiap flush")
+    void transientFailureKeepsRows() throws Exception {
+        ShardRouter router = spy(shardRouter);
+        WorkoutIngestService service = started(500, router);
+        doThrow(new IllegalStateException("shard sedang dipindah")).when(router).bindAll(any());
+        submit(service, "Satu");
+        submit(service, "Dua");
+
+        // Tidak dicoba per baris; flush berikutnya dari writer ditunda makin lama
+        service.flush();
+        assertEquals(1_000, service.backoffMillis());
+        service.flush();
+        assertEquals(2_000, service.backoffMillis());
+        verify(router, times(2)).bindAll(any());
+        assertEquals(0, workoutRepository.countByUserId(userId));
+        assertEquals(2, service.queued());
+        assertEquals(2, service.pending(userId).size());
+        // Satu segmen tertutup berisi antrean dan segmen aktif yang masih kosong
+        assertEquals(2, files());
+        assertFalse(Files.exists(directory.resolve(WorkoutIngestLog.DEAD_LETTER)));
+
+        doCallRealMethod().when(router).bindAll(any());
+        service.flush();
+        assertEquals(2, workoutRepository.countByUserId(userId));
+        assertEquals(0, service.queued());
+        assertEquals(1, files());
+        assertEquals(0, service.backoffMillis());
+    }
+
+    @Test
+    @DisplayName("Writer yang dibangunkan submit selama backoff menunggu sampai backoff habis")
+    void writerWaitsForBackoff() throws Exception {
+        ShardRouter router = spy(shardRouter);
+        doThrow(new IllegalStateException("database tidak tersedia")).when(router).bindAll(any());
+        WorkoutIngestService service = started(2, router);
+        submit(service, "Satu");
+        submit(service, "Dua");
+        verify(router, timeout(5_000)).bindAll(any());
+
+        // Antrean masih sebesar batch-size: writer dibangunkan lagi, tapi backoff 1 detik belum habis
+        submit(service, "Tiga");
+        verify(router, after(300).times(1)).bindAll(any());
+        verify(router, timeout(5_000).times(2)).bindAll(any());
+        assertEquals(3, service.queued());
+    }
+
+    @Test
+    @DisplayName("Antrean penuh: workout baru ditolak sebelum ditulis ke WAL")
+    void fullQueueRejectsSubmit() throws Exception {
+        WorkoutIngestService service = service(true, directory, 500, shardRouter, 1);
+        service.start();
+        started.add(service);
+
+        Workout accepted = submit(service, "Satu");
+        assertNull(submit(service, "Dua"));
+        assertEquals(1, service.queued());
+        assertEquals(List.of(accepted.getId()), service.pending(userId).stream().map(Workout::getId).toList());
+
+        service.flush();
+        assertNotNull(submit(service, "Tiga"));
+        assertEquals(1, workoutRepository.countByUserId(userId));
+    }
+
+    @Test
+    @DisplayName("flushIfPending memasukkan workout yang masih di antrean, hanya dari luar transaksi")
+    void flushIfPendingCommitsBeforeEdit() {
+        WorkoutIngestService service = started(500);
+        Workout workout = submit(service, "Lari");
+
+        // Id atau user lain: antrean tidak disentuh
+        service.flushIfPending(userId, UUID.randomUUID());
+        service.flushIfPending(UUID.randomUUID(), workout.getId());
+        assertEquals(1, service.queued());
+
+        // Dari dalam transaksi ditolak: flush akan menahan koneksi kedua dari pool
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> assertThrows(
+                IllegalStateException.class, () -> service.flushIfPending(userId, workout.getId())));
+        assertEquals(1, service.queued());
+
+        service.flushIfPending(userId, workout.getId());
+        assertEquals(0, service.queued());
+        assertEquals(List.of(), service.pending(userId));
+        assertTrue(workoutRepository.findByUserIdAndId(userId, workout.getId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("fsync gagal menjadi error request; rotasi/pembersihan WAL yang gagal hanya menunda")
+    void walFailures() throws Exception {
+        WorkoutIngestService service = started(500);
+        WorkoutIngestLog wal = spy(service.wal);
+        service.wal = wal;
+
+        doThrow(new IOException("disk penuh")).when(wal).sync(anyLong());
+        assertThrows(UncheckedIOException.class, () -> submit(service, "Gagal fsync"));
+        // Record sudah tertulis (belum pasti durable): tetap ikut di-flush
+        assertEquals(1, service.queued());
+
+        doThrow(new IOException("disk penuh")).when(wal).rotate();
+        service.flush();
+        assertEquals(1, service.queued());
+        assertEquals(0, workoutRepository.countByUserId(userId));
+
+        doCallRealMethod().when(wal).rotate();
+        doThrow(new IOException("tidak bisa dihapus")).when(wal).deleteClosed();
+        service.flush();
+        assertEquals(0, service.queued());
+        assertEquals(1, workoutRepository.countByUserId(userId));
+        assertEquals(1, wal.closedSegments());
+
+        doThrow(new IOException("tidak bisa ditutup")).when(wal).close();
+        // Interrupt saat menunggu writer berhenti tetap diteruskan ke pemanggil
+        Thread.currentThread().interrupt();
+        service.stop();
+        assertTrue(Thread.interrupted());
+        started.clear();
+    }
+
+    @Test
+    @DisplayName("Dimatikan atau direktori WAL tidak bisa dibuat")
+    void disabledOrUnavailable() throws Exception {
+        WorkoutIngestService disabled = service(false, directory, 500);
+        disabled.start();
+        assertFalse(disabled.isEnabled());
+        assertThrows(IllegalStateException.class, () -> submit(disabled, "Ditolak"));
+        disabled.stop();
+
+        Path file = Files.createFile(directory.resolve("bukan-direktori"));
+        WorkoutIngestService unavailable = service(true, file, 500);
+        assertTrue(unavailable.isEnabled());
+        assertThrows(UncheckedIOException.class, unavailable::start);
+    }
+}
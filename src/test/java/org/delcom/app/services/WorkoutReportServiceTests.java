@@ -0,0 +1,71 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.delcom.app.configs.WorkoutReportEndpoint;
+import org.delcom.app.entities.Workout;
+import org.delcom.app.enums.WorkoutType;
+import org.delcom.app.repositories.WorkoutRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Laporan platform atas database lokal (H2). Chunk dibuat kecil supaya
+ * pembacaan streaming melewati beberapa chunk penuh dan satu chunk sisa.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:workout-report;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "app.storage.type=memory",
+        "app.access-log.enabled=false",
+        "app.workout-report.chunk-size=2"
+})
+class WorkoutReportServiceTests {
+
+    @Autowired
+    private WorkoutReportEndpoint workoutReportEndpoint;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    private static Workout workout(UUID userId, WorkoutType type, int duration) {
+        return new Workout(userId, "Latihan", "-", duration, WorkoutService.calculateCalories(type, duration),
+                LocalDate.of(2025, 1, 1), type, null);
+    }
+
+    @Test
+    @DisplayName("Total, jumlah per tipe dan per shard dari seluruh tabel workouts")
+    void reportAggregatesAllUsers() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        workoutRepository.saveAll(List.of(
+                workout(alice, WorkoutType.RUNNING, 30),
+                workout(alice, WorkoutType.RUNNING, 45),
+                workout(alice, WorkoutType.GYM, 60),
+                workout(bob, WorkoutType.PLANK, 5),
+                workout(bob, WorkoutType.CYCLING, 90)));
+
+        WorkoutReport report = workoutReportEndpoint.report();
+
+        assertEquals(5, report.workouts());
+        assertEquals(230, report.durationMinutes());
+        assertEquals(300.0 + 450.0 + 360.0 + 20.0 + 720.0, report.caloriesBurned(), 1e-9);
+        assertEquals(Map.of("RUNNING", 2L, "CYCLING", 1L, "GYM", 1L, "STRETCHING", 0L, "BODYWEIGHT", 0L,
+                "PLANK", 1L), report.workoutsByType());
+        assertEquals(List.of("RUNNING", "CYCLING", "GYM", "STRETCHING", "BODYWEIGHT", "PLANK"),
+                List.copyOf(report.workoutsByType().keySet()));
+        assertEquals(Map.of(ShardRouter.DEFAULT_SHARD, 5L), report.workoutsPerShard());
+        assertEquals("vector", report.kernel());
+        assertTrue(report.durationMillis() >= 0);
+    }
+}
@@ -6,12 +6,15 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
+import org.delcom.app.dto.WorkoutFilter;
 import org.delcom.app.dto.WorkoutForm;
 import org.delcom.app.entities.Workout;
 import org.delcom.app.enums.WorkoutType;
@@ -19,9 +22,16 @@ import org.delcom.app.repositories.WorkoutRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 @ExtendWith(MockitoExtension.class)
 class WorkoutServiceTests {
@@ -32,6 +42,27 @@ class WorkoutServiceTests {
     @Mock
     private FileStorageService fileStorageService;
 
+    @Mock
+    private DataVersionService dataVersionService;
+
+    @Mock
+    private RecentWorkoutCache recentWorkoutCache;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private WorkoutArchiveService workoutArchiveService;
+
+    @Mock
+    private WorkoutHistoryStore workoutHistoryStore;
+
+    @Spy
+    private WorkoutAggregator workoutAggregator = new WorkoutAggregator(false);
+
+    @Mock
+    private WorkoutIngestService workoutIngestService;
+
     @InjectMocks
     private WorkoutService workoutService;
 
@@ -59,53 +90,20 @@ class WorkoutServiceTests {
         assertEquals("Title", result.getTitle());
         assertEquals(300.0, result.getCaloriesBurned());
         verify(workoutRepository).save(any(Workout.class));
+        verify(dataVersionService).bumpAfterCommit(userId);
+        verify(recentWorkoutCache).saved(userId, workout);
+        verify(workoutHistoryStore).saved(userId, workout);
     }
 
     @Test
-    @DisplayName("createWorkout (args) handles invalid type gracefully")
+    @DisplayName("createWorkout (args) rejects unknown or missing type")
     void createWorkout_InvalidType() {
         UUID userId = UUID.randomUUID();
-        when(workoutRepository.save(any(Workout.class))).thenAnswer(i -> i.getArguments()[0]);
-
-        Workout result = workoutService.createWorkout(userId, "Title", "Desc", 30, "INVALID", LocalDate.now());
-
-        assertNotNull(result);
-        assertEquals(WorkoutType.RUNNING, result.getType()); // Default
-        assertEquals(300.0, result.getCaloriesBurned()); // 30 * 10
-    }
-
-    @Test
-    @DisplayName("getAllWorkouts with type filter")
-    void getAllWorkouts_WithType() {
-        UUID userId = UUID.randomUUID();
-        when(workoutRepository.findByUserIdAndTypeOrderByDateDesc(userId, WorkoutType.RUNNING))
-                .thenReturn(Collections.emptyList());
 
-        workoutService.getAllWorkouts(userId, "", "RUNNING");
+        assertThrows(IllegalArgumentException.class,
+                () -> workoutService.createWorkout(userId, "Title", "Desc", 30, "INVALID", LocalDate.now()));
 
-        verify(workoutRepository).findByUserIdAndTypeOrderByDateDesc(userId, WorkoutType.RUNNING);
-    }
-
-    @Test
-    @DisplayName("getAllWorkouts with search keyword")
-    void getAllWorkouts_WithSearch() {
-        UUID userId = UUID.randomUUID();
-        when(workoutRepository.findByKeyword(userId, "search")).thenReturn(Collections.emptyList());
-
-        workoutService.getAllWorkouts(userId, "search", null);
-
-        verify(workoutRepository).findByKeyword(userId, "search");
-    }
-
-    @Test
-    @DisplayName("getAllWorkouts default")
-    void getAllWorkouts_Default() {
-        UUID userId = UUID.randomUUID();
-        when(workoutRepository.findByUserIdOrderByDateDesc(userId)).thenReturn(Collections.emptyList());
-
-        workoutService.getAllWorkouts(userId, null, null);
-
-        verify(workoutRepository).findByUserIdOrderByDateDesc(userId);
+        verify(workoutRepository, never()).save(any(Workout.class));
     }
 
     @Test
@@ -123,6 +121,16 @@ class WorkoutServiceTests {
         assertEquals(5, stats.get("totalWorkouts"));
     }
 
+    @Test
+    @DisplayName("countWorkouts binds the user's shard and counts")
+    void countWorkouts() {
+        UUID userId = UUID.randomUUID();
+        when(workoutRepository.countByUserId(userId)).thenReturn(7);
+
+        assertEquals(7, workoutService.countWorkouts(userId));
+        verify(shardRouter).bind(userId);
+    }
+
     @Test
     @DisplayName("getDashboardStats returns zeros on nulls")
     void getDashboardStats_Nulls() {
@@ -166,6 +174,7 @@ class WorkoutServiceTests {
         assertEquals("New", updated.getTitle());
         assertEquals(WorkoutType.CYCLING, updated.getType());
         assertEquals(480.0, updated.getCaloriesBurned()); // 60 * 8
+        verify(dataVersionService).bumpAfterCommit(userId);
     }
 
     @Test
@@ -178,6 +187,8 @@ class WorkoutServiceTests {
         Workout result = workoutService.updateWorkout(userId, id, "Title", "Desc", 30, "RUNNING", LocalDate.now());
 
         assertNull(result);
+        verify(dataVersionService, never()).bumpAfterCommit(any());
+        verifyNoInteractions(recentWorkoutCache);
     }
 
     @Test
@@ -219,23 +230,49 @@ class WorkoutServiceTests {
         assertTrue(result);
         verify(fileStorageService).deleteFile("image.jpg");
         verify(workoutRepository).deleteById(id);
+        verify(dataVersionService).bumpAfterCommit(userId);
+        verify(recentWorkoutCache).deleted(userId, id);
+        verify(workoutHistoryStore).deleted(userId, id);
     }
 
     @Test
     @DisplayName("updateImage deletes old image and saves new")
     void updateImage_Success() {
         UUID id = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
         Workout w = new Workout();
+        w.setUserId(userId);
         w.setImagePath("old.jpg");
 
-        when(workoutRepository.findById(id)).thenReturn(Optional.of(w));
+        when(workoutRepository.findByUserIdAndId(userId, id)).thenReturn(Optional.of(w));
         when(workoutRepository.save(any(Workout.class))).thenReturn(w);
 
-        Workout result = workoutService.updateImage(id, "new.jpg");
+        Workout result = workoutService.updateImage(userId, id, "new.jpg");
 
         assertNotNull(result);
         verify(fileStorageService).deleteFile("old.jpg");
         assertEquals("new.jpg", result.getImagePath());
+        verify(dataVersionService).bumpAfterCommit(userId);
+        verify(shardRouter).bind(userId);
+    }
+
+    @Test
+    @DisplayName("update, delete and updateImage leave flushing pending ingested workouts to the caller")
+    void editsDoNotFlushInsideTransaction() {
+        UUID userId = UUID.randomUUID();
+        UUID id = UUID.randomUUID();
+        when(workoutRepository.findByUserIdAndId(userId, id)).thenReturn(Optional.empty());
+
+        workoutService.updateWorkout(userId, id, "Title", "Desc", 30, "RUNNING", LocalDate.now());
+        workoutService.deleteWorkout(userId, id);
+        workoutService.updateImage(userId, id, "new.jpg");
+
+        InOrder order = inOrder(shardRouter, workoutRepository);
+        for (int i = 0; i < 3; i++) {
+            order.verify(shardRouter).bind(userId);
+            order.verify(workoutRepository).findByUserIdAndId(userId, id);
+        }
+        verify(workoutIngestService, never()).flushIfPending(any(), any());
     }
 
     @Test
@@ -263,15 +300,6 @@ class WorkoutServiceTests {
                 workoutService.createWorkout(userId, "T", "D", 10, "CYCLING", LocalDate.now()).getCaloriesBurned());
     }
 
-    @Test
-    @DisplayName("getAllWorkouts with whitespace search (should be ignored)")
-    void getAllWorkouts_Whitespace() {
-        UUID userId = UUID.randomUUID();
-        // Return all
-        workoutService.getAllWorkouts(userId, "   ", null);
-        verify(workoutRepository).findByUserIdOrderByDateDesc(userId);
-    }
-
     @Test
     @DisplayName("getChartData with empty lists from repository")
     void getChartData_EmptyLists() {
@@ -377,34 +405,18 @@ class WorkoutServiceTests {
     }
 
     @Test
-    @DisplayName("getAllWorkouts with invalid type handles exception")
-    void getAllWorkouts_InvalidType() {
-        UUID userId = UUID.randomUUID();
-        // Should return empty list or ignored?
-        // Code: catch (IllegalArgumentException) { // Ignore and return next logic }
-        // Next logic: if (search...) else return all.
-        when(workoutRepository.findByUserIdOrderByDateDesc(userId)).thenReturn(Collections.emptyList());
-
-        workoutService.getAllWorkouts(userId, null, "INVALID_TYPE");
-
-        // Verify it fell through to default findByUserId...
-        verify(workoutRepository).findByUserIdOrderByDateDesc(userId);
-    }
-
-    @Test
-    @DisplayName("updateWorkout handles invalid type exception")
+    @DisplayName("updateWorkout rejects unknown type")
     void updateWorkout_InvalidType() {
         UUID userId = UUID.randomUUID();
         UUID id = UUID.randomUUID();
         Workout w = new Workout();
         w.setId(id);
         when(workoutRepository.findByUserIdAndId(userId, id)).thenReturn(Optional.of(w));
-        when(workoutRepository.save(any(Workout.class))).thenAnswer(i -> i.getArguments()[0]);
 
-        Workout result = workoutService.updateWorkout(userId, id, "T", "D", 10, "INVALID", LocalDate.now());
+        assertThrows(IllegalArgumentException.class,
+                () -> workoutService.updateWorkout(userId, id, "T", "D", 10, "INVALID", LocalDate.now()));
 
-        assertNotNull(result);
-        assertEquals(WorkoutType.RUNNING, result.getType()); // Defaulted
+        verify(workoutRepository, never()).save(any(Workout.class));
     }
 
     @Test
@@ -432,6 +444,8 @@ class WorkoutServiceTests {
         when(workoutRepository.findByUserIdAndId(userId, id)).thenReturn(Optional.empty());
 
         assertFalse(workoutService.deleteWorkout(userId, id));
+        verify(dataVersionService, never()).bumpAfterCommit(any());
+        verifyNoInteractions(recentWorkoutCache);
     }
 
     @Test
@@ -440,10 +454,10 @@ class WorkoutServiceTests {
         UUID id = UUID.randomUUID();
         Workout w = new Workout();
         w.setImagePath("img.jpg");
-        when(workoutRepository.findById(id)).thenReturn(Optional.of(w));
+        when(workoutRepository.findByUserIdAndId(null, id)).thenReturn(Optional.of(w));
         when(workoutRepository.save(any(Workout.class))).thenReturn(w);
 
-        workoutService.updateImage(id, "img.jpg");
+        workoutService.updateImage(null, id, "img.jpg");
 
         verify(fileStorageService, never()).deleteFile(anyString());
     }
@@ -454,10 +468,10 @@ class WorkoutServiceTests {
         UUID id = UUID.randomUUID();
         Workout w = new Workout();
         w.setImagePath(null);
-        when(workoutRepository.findById(id)).thenReturn(Optional.of(w));
+        when(workoutRepository.findByUserIdAndId(null, id)).thenReturn(Optional.of(w));
         when(workoutRepository.save(any(Workout.class))).thenReturn(w);
 
-        workoutService.updateImage(id, "new.jpg");
+        workoutService.updateImage(null, id, "new.jpg");
 
         verify(fileStorageService, never()).deleteFile(anyString());
     }
@@ -465,8 +479,8 @@ class WorkoutServiceTests {
     @Test
     @DisplayName("updateImage: not found")
     void updateImage_NotFound() {
-        when(workoutRepository.findById(any())).thenReturn(Optional.empty());
-        assertNull(workoutService.updateImage(UUID.randomUUID(), "img.jpg"));
+        when(workoutRepository.findByUserIdAndId(any(), any())).thenReturn(Optional.empty());
+        assertNull(workoutService.updateImage(UUID.randomUUID(), UUID.randomUUID(), "img.jpg"));
     }
 
     @Test
@@ -510,17 +524,6 @@ class WorkoutServiceTests {
         assertEquals(2, labels.size());
     }
 
-    @Test
-    @DisplayName("getAllWorkouts with empty strings (Should behave as default)")
-    void getAllWorkouts_EmptyStrings() {
-        UUID userId = UUID.randomUUID();
-        when(workoutRepository.findByUserIdOrderByDateDesc(userId)).thenReturn(Collections.emptyList());
-
-        workoutService.getAllWorkouts(userId, "", "");
-
-        verify(workoutRepository).findByUserIdOrderByDateDesc(userId);
-    }
-
     @Test
     @DisplayName("getChartData handles null values in rows")
     void getChartData_NullValues() {
@@ -558,31 +561,29 @@ class WorkoutServiceTests {
     }
 
     @Test
-    @DisplayName("createWorkout handles null type (defaults to RUNNING)")
+    @DisplayName("createWorkout rejects null type")
     void createWorkout_NullType() {
         UUID userId = UUID.randomUUID();
-        when(workoutRepository.save(any(Workout.class))).thenAnswer(i -> i.getArguments()[0]);
 
-        Workout result = workoutService.createWorkout(userId, "T", "D", 10, null, LocalDate.now());
+        assertThrows(IllegalArgumentException.class,
+                () -> workoutService.createWorkout(userId, "T", "D", 10, null, LocalDate.now()));
 
-        assertNotNull(result);
-        assertEquals(WorkoutType.RUNNING, result.getType());
+        verify(workoutRepository, never()).save(any(Workout.class));
     }
 
     @Test
-    @DisplayName("updateWorkout handles null type (defaults to RUNNING)")
+    @DisplayName("updateWorkout rejects null type")
     void updateWorkout_NullType() {
         UUID userId = UUID.randomUUID();
         UUID id = UUID.randomUUID();
         Workout w = new Workout();
         w.setId(id);
         when(workoutRepository.findByUserIdAndId(userId, id)).thenReturn(Optional.of(w));
-        when(workoutRepository.save(any(Workout.class))).thenAnswer(i -> i.getArguments()[0]);
 
-        Workout result = workoutService.updateWorkout(userId, id, "T", "D", 10, null, LocalDate.now());
+        assertThrows(IllegalArgumentException.class,
+                () -> workoutService.updateWorkout(userId, id, "T", "D", 10, null, LocalDate.now()));
 
-        assertNotNull(result);
-        assertEquals(WorkoutType.RUNNING, result.getType());
+        verify(workoutRepository, never()).save(any(Workout.class));
     }
 
     @Test
@@ -603,4 +604,426 @@ class WorkoutServiceTests {
         assertTrue(((List) tMap.get("labels")).isEmpty());
         assertTrue(((List) tMap.get("data")).isEmpty());
     }
+
+    @Test
+    @DisplayName("getAllWorkouts passes the whole filter in one unpaged query sorted by filter order")
+    void getAllWorkouts_WithFilter() {
+        UUID userId = UUID.randomUUID();
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setType(List.of("RUNNING", "GYM"));
+        filter.setSearch("pagi");
+        filter.setSort("longest");
+        List<Workout> workouts = List.of(new Workout());
+        when(workoutRepository.findByFilter(eq(userId), eq(filter), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(workouts));
+
+        assertEquals(workouts, workoutService.getAllWorkouts(userId, filter));
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(workoutRepository).findByFilter(eq(userId), eq(filter), captor.capture());
+        assertTrue(captor.getValue().isUnpaged());
+        assertEquals(Sort.Direction.DESC,
+                captor.getValue().getSort().getOrderFor("durationMinutes").getDirection());
+    }
+
+    @Test
+    @DisplayName("getWorkoutsPage without filter is sorted by newest and clamps negative page")
+    void getWorkoutsPage_DefaultFilter() {
+        UUID userId = UUID.randomUUID();
+        WorkoutFilter filter = new WorkoutFilter();
+        Slice<Workout> slice = new SliceImpl<>(List.of(new Workout()));
+        when(workoutRepository.findByFilter(eq(userId), eq(filter), any(Pageable.class))).thenReturn(slice);
+
+        Slice<Workout> result = workoutService.getWorkoutsPage(userId, filter, -1, 20);
+
+        assertSame(slice, result);
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(workoutRepository).findByFilter(eq(userId), eq(filter), captor.capture());
+        assertEquals(0, captor.getValue().getPageNumber());
+        assertEquals(20, captor.getValue().getPageSize());
+        assertEquals(Sort.Direction.DESC, captor.getValue().getSort().getOrderFor("date").getDirection());
+        assertEquals(Sort.Direction.DESC, captor.getValue().getSort().getOrderFor("createdAt").getDirection());
+    }
+
+    @Test
+    @DisplayName("getWorkoutsPage uses the requested page and filter sort order")
+    void getWorkoutsPage_WithFilter() {
+        UUID userId = UUID.randomUUID();
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setSort("oldest");
+        Slice<Workout> slice = new SliceImpl<>(List.of());
+        when(workoutRepository.findByFilter(eq(userId), eq(filter), any(Pageable.class))).thenReturn(slice);
+
+        assertSame(slice, workoutService.getWorkoutsPage(userId, filter, 2, 10));
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(workoutRepository).findByFilter(eq(userId), eq(filter), captor.capture());
+        assertEquals(2, captor.getValue().getPageNumber());
+        assertEquals(Sort.Direction.ASC, captor.getValue().getSort().getOrderFor("date").getDirection());
+    }
+
+    // Window cache dengan isi tertentu; loader yang diberikan service dijalankan supaya query-nya ikut diuji
+    private void cachedWindow(UUID userId, boolean complete, Workout... workouts) {
+        when(recentWorkoutCache.get(eq(userId), any())).thenAnswer(invocation -> {
+            java.util.function.BiFunction<UUID, Integer, Slice<Workout>> loader = invocation.getArgument(1);
+            loader.apply(userId, 50);
+            return new RecentWorkoutCache.Window(List.of(workouts), complete);
+        });
+        when(workoutRepository.findSliceByUserId(eq(userId), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(workouts)));
+    }
+
+    private static Workout workoutWithId() {
+        Workout workout = new Workout(UUID.randomUUID(), "Lari", null, 30, 300.0, LocalDate.now(),
+                WorkoutType.RUNNING, null);
+        workout.setId(UUID.randomUUID());
+        return workout;
+    }
+
+    @Test
+    @DisplayName("getWorkoutById is answered from the recent workout window without a query")
+    void getWorkoutById_FromCache() {
+        UUID userId = UUID.randomUUID();
+        Workout cached = workoutWithId();
+        cachedWindow(userId, true, cached);
+
+        assertEquals(cached.getId(), workoutService.getWorkoutById(userId, cached.getId()).getId());
+        assertNull(workoutService.getWorkoutById(userId, UUID.randomUUID()));
+        verify(workoutRepository, never()).findByUserIdAndId(any(), any());
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(workoutRepository, atLeastOnce()).findSliceByUserId(eq(userId), captor.capture());
+        assertEquals(0, captor.getValue().getPageNumber());
+        assertEquals(50, captor.getValue().getPageSize());
+    }
+
+    @Test
+    @DisplayName("getWorkoutById falls back to the database for ids outside an incomplete window")
+    void getWorkoutById_OutsideWindow() {
+        UUID userId = UUID.randomUUID();
+        UUID id = UUID.randomUUID();
+        Workout older = new Workout();
+        cachedWindow(userId, false, workoutWithId());
+        when(workoutRepository.findByUserIdAndId(userId, id)).thenReturn(Optional.of(older));
+
+        assertSame(older, workoutService.getWorkoutById(userId, id));
+    }
+
+    @Test
+    @DisplayName("getAllWorkouts without filter returns a complete window without a query")
+    void getAllWorkouts_FromCompleteWindow() {
+        UUID userId = UUID.randomUUID();
+        Workout cached = workoutWithId();
+        cachedWindow(userId, true, cached);
+
+        List<Workout> result = workoutService.getAllWorkouts(userId, new WorkoutFilter());
+
+        assertEquals(1, result.size());
+        assertEquals(cached.getId(), result.get(0).getId());
+        verify(workoutRepository, never()).findByFilter(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getAllWorkouts queries the database when the window is incomplete or the cache is off")
+    void getAllWorkouts_IncompleteWindow() {
+        UUID userId = UUID.randomUUID();
+        WorkoutFilter filter = new WorkoutFilter();
+        List<Workout> all = List.of(new Workout(), new Workout());
+        cachedWindow(userId, false, workoutWithId());
+        when(workoutRepository.findByFilter(eq(userId), eq(filter), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(all));
+
+        assertEquals(all, workoutService.getAllWorkouts(userId, filter));
+
+        when(recentWorkoutCache.get(eq(userId), any())).thenReturn(null);
+        assertEquals(all, workoutService.getAllWorkouts(userId, filter));
+    }
+
+    @Test
+    @DisplayName("getWorkoutsPage serves pages inside the window and queries pages beyond it")
+    void getWorkoutsPage_FromWindow() {
+        UUID userId = UUID.randomUUID();
+        WorkoutFilter filter = new WorkoutFilter();
+        cachedWindow(userId, false, workoutWithId(), workoutWithId());
+        Slice<Workout> fromDb = new SliceImpl<>(List.of());
+        when(workoutRepository.findByFilter(eq(userId), eq(filter), any(Pageable.class))).thenReturn(fromDb);
+
+        Slice<Workout> first = workoutService.getWorkoutsPage(userId, filter, 0, 2);
+        assertEquals(2, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        verify(workoutRepository, never()).findByFilter(any(), any(), any());
+
+        assertSame(fromDb, workoutService.getWorkoutsPage(userId, filter, 1, 2));
+    }
+
+    @Test
+    @DisplayName("updateWorkout and updateImage write the saved workout through to the cache")
+    void updates_WriteThroughCache() {
+        UUID userId = UUID.randomUUID();
+        Workout workout = workoutWithId();
+        workout.setUserId(userId);
+        when(workoutRepository.findByUserIdAndId(userId, workout.getId())).thenReturn(Optional.of(workout));
+        when(workoutRepository.save(workout)).thenReturn(workout);
+
+        workoutService.updateWorkout(userId, workout.getId(), "Baru", "Desc", 45, "GYM", LocalDate.now());
+        workoutService.updateImage(userId, workout.getId(), "cover.png");
+
+        verify(recentWorkoutCache, times(2)).saved(userId, workout);
+        // Gambar tidak mengubah kolom riwayat
+        verify(workoutHistoryStore).saved(userId, workout);
+    }
+
+    private static Workout archivedWorkout(UUID userId, LocalDate date, WorkoutType type, int duration) {
+        Workout workout = new Workout(userId, "Arsip " + type, "-", duration, duration * 10.0, date, type, null);
+        workout.setId(UUID.randomUUID());
+        workout.setTimestamps(date.atStartOfDay(), date.atStartOfDay());
+        return workout;
+    }
+
+    @Test
+    @DisplayName("getAllWorkouts merges archived workouts matching the filter once, in filter order")
+    void getAllWorkouts_WithArchive() {
+        UUID userId = UUID.randomUUID();
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setType(List.of("RUNNING"));
+        filter.setSort("oldest");
+        Workout hot = archivedWorkout(userId, LocalDate.of(2025, 5, 1), WorkoutType.RUNNING, 30);
+        Workout oldRun = archivedWorkout(userId, LocalDate.of(2019, 5, 1), WorkoutType.RUNNING, 40);
+        Workout oldGym = archivedWorkout(userId, LocalDate.of(2018, 5, 1), WorkoutType.GYM, 50);
+        when(workoutRepository.findByFilter(eq(userId), eq(filter), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(hot, oldRun)));
+        when(workoutArchiveService.findArchived(userId)).thenReturn(List.of(oldRun, oldGym));
+
+        assertEquals(List.of(oldRun, hot), workoutService.getAllWorkouts(userId, filter));
+    }
+
+    @Test
+    @DisplayName("getWorkoutById falls back to the archive; stats and count include archived workouts")
+    void archivedWorkoutsAreReadThrough() {
+        UUID userId = UUID.randomUUID();
+        Workout archived = archivedWorkout(userId, LocalDate.of(2019, 5, 1), WorkoutType.GYM, 60);
+        when(workoutArchiveService.findArchived(userId, archived.getId())).thenReturn(Optional.of(archived));
+        when(workoutArchiveService.findArchived(userId)).thenReturn(List.of(archived));
+        when(workoutRepository.sumDurationByUserId(userId)).thenReturn(30);
+        when(workoutRepository.sumCaloriesByUserId(userId)).thenReturn(300.0);
+        when(workoutRepository.countByUserId(userId)).thenReturn(1);
+
+        assertSame(archived, workoutService.getWorkoutById(userId, archived.getId()));
+        Map<String, Object> stats = workoutService.getDashboardStats(userId);
+        assertEquals(90, stats.get("totalDuration"));
+        assertEquals(900.0, stats.get("totalCalories"));
+        assertEquals(2, stats.get("totalWorkouts"));
+        assertEquals(2, workoutService.countWorkouts(userId));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("getChartData range all merges archived workouts per day and per type")
+    void getChartData_WithArchive() {
+        UUID userId = UUID.randomUUID();
+        LocalDate day = LocalDate.of(2019, 5, 1);
+        when(workoutArchiveService.findArchived(userId)).thenReturn(List.of(
+                archivedWorkout(userId, day, WorkoutType.GYM, 60),
+                archivedWorkout(userId, day, WorkoutType.RUNNING, 15),
+                archivedWorkout(userId, LocalDate.of(2018, 1, 1), WorkoutType.GYM, 20)));
+        when(workoutRepository.findDailyDurationStats(userId)).thenReturn(List.<Object[]>of(
+                new Object[] { day, 5L }, new Object[] { LocalDate.of(2025, 1, 1), 30L }));
+        when(workoutRepository.findTypeStats(userId)).thenReturn(List.<Object[]>of(
+                new Object[] { WorkoutType.RUNNING, 1L }));
+
+        Map<String, Object> result = workoutService.getChartData(userId, "all");
+
+        Map<String, Object> duration = (Map<String, Object>) result.get("duration");
+        // Urut tanggal: 2018-01-01, 2019-05-01 (DB + dua arsip), 2025-01-01
+        assertEquals(3, ((List<?>) duration.get("labels")).size());
+        assertEquals(List.of(20, 80, 30), duration.get("data"));
+        Map<String, Object> type = (Map<String, Object>) result.get("type");
+        assertEquals(List.of("RUNNING", "GYM"), type.get("labels"));
+        assertEquals(List.of(2, 2), type.get("data"));
+
+        workoutService.getChartData(userId, "week");
+        verify(workoutArchiveService).findArchived(userId);
+    }
+
+    // Store aktif: loader dijalankan langsung (tanpa file)
+    @SuppressWarnings("unchecked")
+    private void historyEnabled(UUID userId) {
+        when(workoutHistoryStore.get(eq(userId), any()))
+                .thenAnswer(invocation -> ((Supplier<WorkoutHistoryFile>) invocation.getArgument(1)).get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("With the history store, totals, count and the all-time chart come from database columns plus archive")
+    void historyStore_AllTimeAggregates() {
+        UUID userId = UUID.randomUUID();
+        historyEnabled(userId);
+        LocalDate day = LocalDate.of(2025, 5, 1);
+        Workout hot = archivedWorkout(userId, day, WorkoutType.RUNNING, 30);
+        Workout old = archivedWorkout(userId, LocalDate.of(2019, 5, 1), WorkoutType.GYM, 60);
+        when(workoutRepository.findHistoryColumnsByUserId(userId)).thenReturn(List.<Object[]>of(
+                new Object[] { hot.getId(), day, 30, WorkoutType.RUNNING, 300.0 },
+                new Object[] { UUID.randomUUID(), day, 45, WorkoutType.GYM, 270.0 }));
+        // Id yang masih ada di database tidak dihitung dua kali
+        when(workoutArchiveService.findArchived(userId)).thenReturn(List.of(hot, old));
+
+        Map<String, Object> stats = workoutService.getDashboardStats(userId);
+        assertEquals(135, stats.get("totalDuration"));
+        assertEquals(1170.0, stats.get("totalCalories"));
+        assertEquals(3, stats.get("totalWorkouts"));
+        assertEquals(3, workoutService.countWorkouts(userId));
+
+        Map<String, Object> result = workoutService.getChartData(userId, null);
+        Map<String, Object> duration = (Map<String, Object>) result.get("duration");
+        assertEquals(2, ((List<?>) duration.get("labels")).size());
+        assertEquals(List.of(60, 75), duration.get("data"));
+        Map<String, Object> type = (Map<String, Object>) result.get("type");
+        assertEquals(List.of("RUNNING", "GYM"), type.get("labels"));
+        assertEquals(List.of(1, 2), type.get("data"));
+
+        verify(workoutRepository, never()).sumDurationByUserId(any());
+        verify(workoutRepository, never()).countByUserId(any());
+        verify(workoutRepository, never()).findDailyDurationStats(any());
+        verify(workoutRepository, never()).findTypeStats(any());
+    }
+
+    @Test
+    @DisplayName("With the history store, bounded chart ranges still query the database")
+    void historyStore_BoundedRangeUsesQueries() {
+        UUID userId = UUID.randomUUID();
+
+        workoutService.getChartData(userId, "month");
+
+        verify(workoutHistoryStore, never()).get(any(), any());
+        verify(workoutRepository).findDailyDurationStatsAfterDate(eq(userId), any());
+    }
+
+    private static Workout pendingWorkout(UUID userId, LocalDate date, WorkoutType type, int duration) {
+        Workout workout = new Workout(userId, "Pending " + type, "-", duration, duration * 10.0, date, type, null);
+        workout.setId(UUID.randomUUID());
+        workout.setTimestamps(LocalDateTime.now(), LocalDateTime.now());
+        return workout;
+    }
+
+    @Test
+    @DisplayName("getAllWorkouts overlays pending ingested workouts matching the filter, skipping committed ids")
+    void getAllWorkouts_WithPending() {
+        UUID userId = UUID.randomUUID();
+        WorkoutFilter filter = new WorkoutFilter();
+        filter.setType(List.of("RUNNING"));
+        filter.setSort("oldest");
+        Workout stored = pendingWorkout(userId, LocalDate.of(2025, 5, 2), WorkoutType.RUNNING, 30);
+        Workout pendingRun = pendingWorkout(userId, LocalDate.of(2025, 5, 1), WorkoutType.RUNNING, 20);
+        Workout pendingGym = pendingWorkout(userId, LocalDate.of(2025, 4, 1), WorkoutType.GYM, 20);
+        when(workoutRepository.findByFilter(eq(userId), eq(filter), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(stored)));
+        // Sudah commit tapi overlay belum dilepas
+        when(workoutIngestService.pending(userId)).thenReturn(List.of(pendingRun, pendingGym, stored));
+
+        assertEquals(List.of(pendingRun, stored), workoutService.getAllWorkouts(userId, filter));
+    }
+
+    @Test
+    @DisplayName("getWorkoutsPage with pending workouts merges them into the top offset+size database rows")
+    void getWorkoutsPage_WithPending() {
+        UUID userId = UUID.randomUUID();
+        WorkoutFilter filter = new WorkoutFilter();
+        Workout older = pendingWorkout(userId, LocalDate.of(2025, 5, 1), WorkoutType.RUNNING, 30);
+        Workout old = pendingWorkout(userId, LocalDate.of(2025, 4, 1), WorkoutType.GYM, 45);
+        Workout pending = pendingWorkout(userId, LocalDate.of(2025, 5, 2), WorkoutType.CYCLING, 60);
+        when(workoutRepository.findByFilter(eq(userId), eq(filter), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(older, old)));
+        when(workoutIngestService.pending(userId)).thenReturn(List.of(pending));
+
+        Slice<Workout> first = workoutService.getWorkoutsPage(userId, filter, 0, 2);
+        assertEquals(List.of(pending, older), first.getContent());
+        assertTrue(first.hasNext());
+        Slice<Workout> second = workoutService.getWorkoutsPage(userId, filter, 1, 2);
+        assertEquals(List.of(old), second.getContent());
+        assertFalse(second.hasNext());
+        assertEquals(1, second.getNumber());
+        assertEquals(List.of(), workoutService.getWorkoutsPage(userId, filter, 5, 2).getContent());
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(workoutRepository, times(3)).findByFilter(eq(userId), eq(filter), captor.capture());
+        assertEquals(List.of(2, 4, 12), captor.getAllValues().stream().map(Pageable::getPageSize).toList());
+        assertTrue(captor.getAllValues().stream().allMatch(pageable -> pageable.getPageNumber() == 0));
+        verify(recentWorkoutCache, never()).get(any(), any());
+    }
+
+    @Test
+    @DisplayName("getWorkoutsPage pages archived workouts after the database rows they sort behind")
+    void getWorkoutsPage_WithArchive() {
+        UUID userId = UUID.randomUUID();
+        WorkoutFilter filter = new WorkoutFilter();
+        Workout newest = pendingWorkout(userId, LocalDate.of(2025, 5, 2), WorkoutType.RUNNING, 30);
+        Workout newer = pendingWorkout(userId, LocalDate.of(2025, 5, 1), WorkoutType.GYM, 45);
+        Workout archived = pendingWorkout(userId, LocalDate.of(2019, 1, 1), WorkoutType.CYCLING, 60);
+        // Database masih punya baris setelah yang diminta
+        when(workoutRepository.findByFilter(eq(userId), eq(filter), any(Pageable.class)))
+                .thenAnswer(invocation -> new SliceImpl<>(List.of(newest, newer), invocation.getArgument(2), true));
+        when(workoutArchiveService.findArchived(userId)).thenReturn(List.of(archived));
+
+        Slice<Workout> first = workoutService.getWorkoutsPage(userId, filter, 0, 2);
+        assertEquals(List.of(newest, newer), first.getContent());
+        assertTrue(first.hasNext());
+        Slice<Workout> second = workoutService.getWorkoutsPage(userId, filter, 1, 2);
+        assertEquals(List.of(archived), second.getContent());
+        assertTrue(second.hasNext());
+    }
+
+    @Test
+    @DisplayName("getWorkoutById answers pending workouts without a query")
+    void getWorkoutById_Pending() {
+        UUID userId = UUID.randomUUID();
+        Workout first = pendingWorkout(userId, LocalDate.now(), WorkoutType.RUNNING, 30);
+        Workout second = pendingWorkout(userId, LocalDate.now(), WorkoutType.GYM, 45);
+        when(workoutIngestService.pending(userId)).thenReturn(List.of(first, second));
+
+        assertSame(second, workoutService.getWorkoutById(userId, second.getId()));
+        verify(workoutRepository, never()).findByUserIdAndId(any(), any());
+
+        assertNull(workoutService.getWorkoutById(userId, UUID.randomUUID()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Totals, count and charts include pending workouts, with or without the history store")
+    void pendingWorkoutsInAggregates() {
+        UUID userId = UUID.randomUUID();
+        LocalDate today = LocalDate.now();
+        Workout recent = pendingWorkout(userId, today, WorkoutType.RUNNING, 30);
+        Workout backfilled = pendingWorkout(userId, LocalDate.of(2019, 5, 1), WorkoutType.GYM, 20);
+        when(workoutIngestService.pending(userId)).thenReturn(List.of(recent, backfilled));
+        when(workoutRepository.sumDurationByUserId(userId)).thenReturn(60);
+        when(workoutRepository.sumCaloriesByUserId(userId)).thenReturn(600.0);
+        when(workoutRepository.countByUserId(userId)).thenReturn(2);
+
+        Map<String, Object> stats = workoutService.getDashboardStats(userId);
+        assertEquals(110, stats.get("totalDuration"));
+        assertEquals(1100.0, stats.get("totalCalories"));
+        assertEquals(4, stats.get("totalWorkouts"));
+        assertEquals(4, workoutService.countWorkouts(userId));
+
+        // Rentang week hanya memuat workout pending di dalam rentang
+        Map<String, Object> week = workoutService.getChartData(userId, "week");
+        assertEquals(List.of(30), ((Map<String, Object>) week.get("duration")).get("data"));
+        assertEquals(List.of("RUNNING"), ((Map<String, Object>) week.get("type")).get("labels"));
+
+        Map<String, Object> all = workoutService.getChartData(userId, "all");
+        assertEquals(List.of(20, 30), ((Map<String, Object>) all.get("duration")).get("data"));
+
+        historyEnabled(userId);
+        when(workoutRepository.findHistoryColumnsByUserId(userId)).thenReturn(List.<Object[]>of(
+                new Object[] { UUID.randomUUID(), today, 45, WorkoutType.RUNNING, 450.0 }));
+
+        stats = workoutService.getDashboardStats(userId);
+        assertEquals(95, stats.get("totalDuration"));
+        assertEquals(950.0, stats.get("totalCalories"));
+        assertEquals(3, stats.get("totalWorkouts"));
+        assertEquals(3, workoutService.countWorkouts(userId));
+        Map<String, Object> history = workoutService.getChartData(userId, null);
+        assertEquals(List.of(20, 75), ((Map<String, Object>) history.get("duration")).get("data"));
+        assertEquals(List.of(2, 1), ((Map<String, Object>) history.get("type")).get("data"));
+    }
 }
@@ -0,0 +1,56 @@
+package org.delcom.app.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BoundedInputStreamTests {
+
+    @Test
+    @DisplayName("reads stop at the limit, single bytes and arrays alike")
+    void readsUpToLimit() throws Exception {
+        ByteArrayInputStream source = new ByteArrayInputStream("abcdef".getBytes());
+        BoundedInputStream in = new BoundedInputStream(source, 4, false);
+
+        assertEquals('a', in.read());
+        assertEquals(3, in.available());
+        assertEquals(1, in.skip(1));
+        assertFalse(in.markSupported());
+        byte[] buffer = new byte[8];
+        assertEquals(2, in.read(buffer, 0, buffer.length));
+        assertEquals("cd", new String(buffer, 0, 2));
+        assertEquals(-1, in.read());
+        assertEquals(-1, in.read(buffer, 0, buffer.length));
+        assertEquals(0, in.skip(5));
+
+        in.close();
+        // Stream sumber tetap terbuka dan berada tepat setelah batas
+        assertEquals('e', source.read());
+    }
+
+    @Test
+    @DisplayName("end of the source before the limit is passed through")
+    void shortSource() throws Exception {
+        BoundedInputStream in = new BoundedInputStream(new ByteArrayInputStream("ab".getBytes()), 10, false);
+
+        assertEquals(2, in.read(new byte[4], 0, 4));
+        assertEquals(-1, in.read(new byte[4], 0, 4));
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    @DisplayName("close closes the source only when asked to")
+    void closeSource() throws Exception {
+        InputStream source = mock(InputStream.class);
+
+        new BoundedInputStream(source, 1, false).close();
+        verify(source, never()).close();
+        new BoundedInputStream(source, 1, true).close();
+        verify(source).close();
+    }
+}
@@ -0,0 +1,174 @@
+package org.delcom.app.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CachingBlobStoreTests {
+
+    @TempDir
+    Path tempDir;
+
+    private InMemoryBlobStore remote;
+    private LocalBlobStore cache;
+
+    @BeforeEach
+    void setup() {
+        remote = spy(new InMemoryBlobStore());
+        cache = new LocalBlobStore(tempDir);
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("put writes through to remote and cache")
+    void put_WritesThrough() throws Exception {
+        CachingBlobStore store = new CachingBlobStore(remote, cache, Duration.ZERO, 0);
+
+        store.put("a.png", new ByteArrayInputStream("data".getBytes()), 4, "image/png");
+
+        assertTrue(cache.exists("a.png"));
+        assertEquals("data", read(remote.get("a.png")));
+        assertEquals("image/png", remote.getContentType("a.png"));
+    }
+
+    @Test
+    @DisplayName("put drops the cache entry when the remote upload fails")
+    void put_RemoteFailure() throws Exception {
+        BlobStore failing = mock(BlobStore.class);
+        doThrow(new IOException("down")).when(failing).put(eq("a.png"), any(InputStream.class), anyLong(), any());
+        CachingBlobStore store = new CachingBlobStore(failing, cache, Duration.ZERO, 0);
+
+        assertThrows(IOException.class,
+                () -> store.put("a.png", new ByteArrayInputStream("data".getBytes()), 4, null));
+        assertFalse(cache.exists("a.png"));
+    }
+
+    @Test
+    @DisplayName("get reads through on miss and serves the next read from cache")
+    void get_ReadThrough() throws Exception {
+        remote.put("a.png", new ByteArrayInputStream("data".getBytes()), 4, null);
+        CachingBlobStore store = new CachingBlobStore(remote, cache, null, 0);
+
+        assertEquals("data", read(store.get("a.png")));
+        assertEquals("data", read(store.get("a.png")));
+        assertTrue(store.exists("a.png"));
+
+        verify(remote, times(1)).get("a.png");
+        verify(remote, never()).exists("a.png");
+    }
+
+    @Test
+    @DisplayName("range reads come from a fresh cache entry, otherwise from remote without caching")
+    void get_Range() throws Exception {
+        remote.put("a.png", new ByteArrayInputStream("data".getBytes()), 4, null);
+        CachingBlobStore store = new CachingBlobStore(remote, cache, null, 0);
+
+        assertEquals("at", read(store.get("a.png", 1, 2)));
+        assertFalse(cache.exists("a.png"));
+        assertNull(store.get("../a.png", 0, 1));
+
+        store.get("a.png").close();
+        assertEquals("da", read(store.get("a.png", 0, 2)));
+        verify(remote, times(1)).get("a.png", 1, 2);
+        verify(remote, never()).get("a.png", 0, 2);
+    }
+
+    @Test
+    @DisplayName("get returns null and clears the cache when remote has no blob")
+    void get_Missing() throws Exception {
+        cache.put("a.png", new ByteArrayInputStream("stale".getBytes()), -1, null);
+        CachingBlobStore store = new CachingBlobStore(remote, cache, Duration.ofSeconds(1), 0);
+        Files.setLastModifiedTime(cache.path("a.png"), FileTime.from(Instant.now().minusSeconds(60)));
+
+        assertNull(store.get("a.png"));
+        assertFalse(cache.exists("a.png"));
+        assertFalse(store.exists("a.png"));
+    }
+
+    @Test
+    @DisplayName("keys the cache rejects are treated as missing instead of failing")
+    void get_InvalidKey() throws Exception {
+        remote.put("../secret.txt", new ByteArrayInputStream("secret".getBytes()), -1, null);
+        CachingBlobStore store = new CachingBlobStore(remote, cache, null, 0);
+
+        assertNull(store.get("../secret.txt"));
+        assertFalse(store.exists("../secret.txt"));
+        verify(remote, never()).get("../secret.txt");
+    }
+
+    @Test
+    @DisplayName("expired cache entries are re-fetched from remote")
+    void get_Expired() throws Exception {
+        remote.put("a.png", new ByteArrayInputStream("new".getBytes()), 3, null);
+        cache.put("a.png", new ByteArrayInputStream("old".getBytes()), 3, null);
+        CachingBlobStore store = new CachingBlobStore(remote, cache, Duration.ofSeconds(30), 0);
+
+        assertEquals("old", read(store.get("a.png")));
+
+        Files.setLastModifiedTime(cache.path("a.png"), FileTime.from(Instant.now().minusSeconds(60)));
+        assertEquals("new", read(store.get("a.png")));
+    }
+
+    @Test
+    @DisplayName("oldest cache entries are evicted above maxBytes")
+    void evictsOldest() throws Exception {
+        CachingBlobStore store = new CachingBlobStore(remote, cache, Duration.ZERO, 8);
+
+        store.put("old.png", new ByteArrayInputStream("1234".getBytes()), 4, null);
+        Files.setLastModifiedTime(cache.path("old.png"), FileTime.from(Instant.now().minusSeconds(60)));
+        store.put("mid.png", new ByteArrayInputStream("1234".getBytes()), 4, null);
+        store.put("new.png", new ByteArrayInputStream("1234".getBytes()), 4, null);
+
+        assertFalse(cache.exists("old.png"));
+        assertTrue(cache.exists("mid.png"));
+        assertTrue(cache.exists("new.png"));
+        // Remote tetap lengkap
+        assertEquals(3, store.list().size());
+    }
+
+    @Test
+    @DisplayName("an entry larger than maxBytes is still served")
+    void keepsJustWrittenEntry() throws Exception {
+        remote.put("big.png", new ByteArrayInputStream("123456789".getBytes()), 9, null);
+        CachingBlobStore store = new CachingBlobStore(remote, cache, Duration.ZERO, 4);
+
+        assertEquals("123456789", read(store.get("big.png")));
+    }
+
+    @Test
+    @DisplayName("delete removes from cache and remote, close closes remote")
+    void deleteAndClose() throws Exception {
+        CachingBlobStore store = new CachingBlobStore(remote, cache, Duration.ZERO, 0);
+        store.put("a.png", new ByteArrayInputStream("data".getBytes()), 4, null);
+
+        assertEquals(remote.stat("a.png"), store.stat("a.png"));
+        assertTrue(store.delete("a.png"));
+        assertFalse(cache.exists("a.png"));
+        assertEquals(List.of(), store.list());
+
+        store.close();
+        verify(remote).close();
+    }
+}
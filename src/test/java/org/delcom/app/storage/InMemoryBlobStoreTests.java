@@ -0,0 +1,50 @@
+package org.delcom.app.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class InMemoryBlobStoreTests {
+
+    @Test
+    @DisplayName("put, get, list and delete round trip")
+    void roundTrip() throws Exception {
+        InMemoryBlobStore store = new InMemoryBlobStore();
+
+        assertNull(store.get("a.png"));
+        assertNull(store.getContentType("a.png"));
+        assertFalse(store.exists("a.png"));
+
+        store.put("a.png", new ByteArrayInputStream("data".getBytes()), 4, "image/png");
+
+        assertTrue(store.exists("a.png"));
+        assertEquals("image/png", store.getContentType("a.png"));
+        try (InputStream in = store.get("a.png")) {
+            assertEquals("data", new String(in.readAllBytes()));
+        }
+
+        List<BlobInfo> blobs = store.list();
+        assertEquals(1, blobs.size());
+        assertEquals("a.png", blobs.get(0).key());
+        assertEquals(4, blobs.get(0).size());
+        assertEquals(blobs.get(0), store.stat("a.png"));
+        try (InputStream in = store.get("a.png", 1, 2)) {
+            assertEquals("at", new String(in.readAllBytes()));
+        }
+        try (InputStream in = store.get("a.png", 9, 2)) {
+            assertEquals(-1, in.read());
+        }
+        assertNull(store.get("b.png", 0, 1));
+
+        assertTrue(store.delete("a.png"));
+        assertFalse(store.delete("a.png"));
+        assertFalse(store.exists("a.png"));
+        assertNull(store.stat("a.png"));
+        store.close();
+    }
+}
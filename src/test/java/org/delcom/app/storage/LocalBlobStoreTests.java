@@ -0,0 +1,131 @@
+package org.delcom.app.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+
+class LocalBlobStoreTests {
+
+    @TempDir
+    Path tempDir;
+
+    private LocalBlobStore store;
+
+    @BeforeEach
+    void setup() {
+        store = new LocalBlobStore(tempDir.resolve("uploads"));
+    }
+
+    @Test
+    @DisplayName("put creates the directory and writes the file")
+    void put_CreatesDirectory() throws Exception {
+        store.put("a.txt", new ByteArrayInputStream("data".getBytes()), 4, "text/plain");
+
+        Path file = tempDir.resolve("uploads").resolve("a.txt");
+        assertTrue(Files.exists(file));
+        assertEquals("data", Files.readString(file));
+        assertEquals(tempDir.resolve("uploads").toAbsolutePath().normalize(), store.getRoot());
+    }
+
+    @Test
+    @DisplayName("put overwrites an existing blob and leaves no temp file")
+    void put_Overwrites() throws Exception {
+        store.put("a.txt", new ByteArrayInputStream("old".getBytes()), -1, null);
+        store.put("a.txt", new ByteArrayInputStream("new".getBytes()), -1, null);
+
+        try (InputStream in = store.get("a.txt")) {
+            assertEquals("new", new String(in.readAllBytes()));
+        }
+        try (var files = Files.list(store.getRoot())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("put rejects keys outside the root")
+    void put_RejectsTraversal() {
+        assertThrows(IllegalArgumentException.class,
+                () -> store.put("../evil.txt", new ByteArrayInputStream(new byte[0]), 0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.put(".", new ByteArrayInputStream(new byte[0]), 0, null));
+    }
+
+    @Test
+    @DisplayName("get, exists and delete on missing or invalid keys")
+    void missingKeys() throws Exception {
+        assertNull(store.get("nope.txt"));
+        assertNull(store.get("../nope.txt"));
+        assertNull(store.get("nope.txt", 0, 1));
+        assertNull(store.get("../nope.txt", 0, 1));
+        assertFalse(store.exists("nope.txt"));
+        assertFalse(store.exists("../nope.txt"));
+        assertNull(store.stat("nope.txt"));
+        assertNull(store.stat("../nope.txt"));
+        assertFalse(store.delete("nope.txt"));
+        assertFalse(store.delete("../nope.txt"));
+    }
+
+    @Test
+    @DisplayName("get with a range reads only that part of the file")
+    void get_Range() throws Exception {
+        store.put("a.txt", new ByteArrayInputStream("abcdef".getBytes()), 6, null);
+
+        try (InputStream in = store.get("a.txt", 2, 3)) {
+            assertEquals("cde", new String(in.readAllBytes()));
+        }
+        try (InputStream in = store.get("a.txt", 4, 10)) {
+            assertEquals("ef", new String(in.readAllBytes()));
+        }
+    }
+
+    @Test
+    @DisplayName("delete removes an existing blob")
+    void delete_Success() throws Exception {
+        store.put("a.txt", new ByteArrayInputStream("data".getBytes()), 4, null);
+
+        assertTrue(store.exists("a.txt"));
+        assertTrue(store.delete("a.txt"));
+        assertFalse(store.exists("a.txt"));
+    }
+
+    @Test
+    @DisplayName("delete returns false on IOException")
+    void delete_IOException() throws Exception {
+        try (MockedStatic<Files> mockedFiles = mockStatic(Files.class)) {
+            mockedFiles.when(() -> Files.deleteIfExists(any(Path.class))).thenThrow(new IOException("Simulated"));
+
+            assertFalse(store.delete("a.txt"));
+        }
+    }
+
+    @Test
+    @DisplayName("list returns regular files and skips hidden files and directories")
+    void list() throws Exception {
+        assertTrue(store.list().isEmpty());
+
+        store.put("a.txt", new ByteArrayInputStream("data".getBytes()), 4, null);
+        Files.writeString(store.getRoot().resolve(".upload-123.tmp"), "tmp");
+        Files.createDirectories(store.getRoot().resolve("sub"));
+
+        List<BlobInfo> blobs = store.list();
+
+        assertEquals(1, blobs.size());
+        assertEquals("a.txt", blobs.get(0).key());
+        assertEquals(4, blobs.get(0).size());
+        assertNotNull(blobs.get(0).lastModified());
+        assertEquals(blobs.get(0), store.stat("a.txt"));
+    }
+}
@@ -0,0 +1,223 @@
+package org.delcom.app.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+@ExtendWith(MockitoExtension.class)
+class S3BlobStoreTests {
+
+    @Mock
+    private S3Client s3;
+
+    private S3BlobStore store;
+
+    @BeforeEach
+    void setup() {
+        store = new S3BlobStore(s3, "bucket", "uploads/");
+    }
+
+    @Test
+    @DisplayName("put uploads with prefixed key and content type")
+    void put_KnownSize() throws Exception {
+        when(s3.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().build());
+
+        store.put("a.png", new ByteArrayInputStream("data".getBytes()), 4, "image/png");
+
+        ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3).putObject(captor.capture(), any(RequestBody.class));
+        assertEquals("bucket", captor.getValue().bucket());
+        assertEquals("uploads/a.png", captor.getValue().key());
+        assertEquals("image/png", captor.getValue().contentType());
+    }
+
+    @Test
+    @DisplayName("put buffers content of unknown size")
+    void put_UnknownSize() throws Exception {
+        when(s3.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().build());
+
+        store.put("a.png", new ByteArrayInputStream("data".getBytes()), -1, null);
+
+        ArgumentCaptor<RequestBody> captor = ArgumentCaptor.forClass(RequestBody.class);
+        verify(s3).putObject(any(PutObjectRequest.class), captor.capture());
+        assertEquals(4L, captor.getValue().optionalContentLength().orElse(-1L));
+    }
+
+    @Test
+    @DisplayName("put wraps SDK errors in IOException")
+    void put_Error() {
+        when(s3.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenThrow(SdkClientException.create("down"));
+
+        assertThrows(IOException.class,
+                () -> store.put("a.png", new ByteArrayInputStream("data".getBytes()), 4, null));
+    }
+
+    @Test
+    @DisplayName("get returns the object stream, null when missing, IOException on error")
+    void get() throws Exception {
+        ResponseInputStream<GetObjectResponse> response = new ResponseInputStream<>(
+                GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream("data".getBytes())));
+        when(s3.getObject(any(GetObjectRequest.class)))
+                .thenReturn(response)
+                .thenThrow(NoSuchKeyException.builder().build())
+                .thenThrow(SdkClientException.create("down"));
+
+        try (InputStream in = store.get("a.png")) {
+            assertEquals("data", new String(in.readAllBytes()));
+        }
+        assertNull(store.get("a.png"));
+        assertThrows(IOException.class, () -> store.get("a.png"));
+    }
+
+    @Test
+    @DisplayName("get with a range sends an HTTP range header")
+    void get_Range() throws Exception {
+        ResponseInputStream<GetObjectResponse> response = new ResponseInputStream<>(
+                GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream("at".getBytes())));
+        when(s3.getObject(any(GetObjectRequest.class)))
+                .thenReturn(response)
+                .thenThrow(NoSuchKeyException.builder().build())
+                .thenThrow(SdkClientException.create("down"));
+
+        try (InputStream in = store.get("a.png", 1, 2)) {
+            assertEquals("at", new String(in.readAllBytes()));
+        }
+        assertNull(store.get("a.png", 1, 2));
+        assertThrows(IOException.class, () -> store.get("a.png", 1, 2));
+        verify(s3, times(3)).getObject(argThat((GetObjectRequest request) -> "bytes=1-2".equals(request.range())
+                && request.key().endsWith("a.png")));
+    }
+
+    @Test
+    @DisplayName("exists maps 404 to false and rethrows other errors")
+    void exists() {
+        S3Exception notFound = (S3Exception) S3Exception.builder().statusCode(404).build();
+        S3Exception forbidden = (S3Exception) S3Exception.builder().statusCode(403).build();
+        when(s3.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(HeadObjectResponse.builder().build())
+                .thenThrow(NoSuchKeyException.builder().build())
+                .thenThrow(notFound)
+                .thenThrow(forbidden);
+
+        assertTrue(store.exists("a.png"));
+        assertFalse(store.exists("a.png"));
+        assertFalse(store.exists("a.png"));
+        assertThrows(S3Exception.class, () -> store.exists("a.png"));
+    }
+
+    @Test
+    @DisplayName("delete returns false on SDK errors")
+    void delete() {
+        when(s3.deleteObject(any(DeleteObjectRequest.class)))
+                .thenReturn(null)
+                .thenThrow(SdkClientException.create("down"));
+
+        assertTrue(store.delete("a.png"));
+        assertFalse(store.delete("a.png"));
+    }
+
+    @Test
+    @DisplayName("list follows continuation tokens and strips the prefix")
+    void list() throws Exception {
+        Instant now = Instant.now();
+        when(s3.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenReturn(ListObjectsV2Response.builder()
+                        .contents(S3Object.builder().key("uploads/a.png").size(4L).lastModified(now).build())
+                        .isTruncated(true)
+                        .nextContinuationToken("next")
+                        .build())
+                .thenReturn(ListObjectsV2Response.builder()
+                        .contents(S3Object.builder().key("uploads/b.png").size(2L).lastModified(now).build())
+                        .isTruncated(false)
+                        .build());
+
+        List<BlobInfo> blobs = store.list();
+
+        assertEquals(List.of(new BlobInfo("a.png", 4, now), new BlobInfo("b.png", 2, now)), blobs);
+        verify(s3, times(2)).listObjectsV2(any(ListObjectsV2Request.class));
+    }
+
+    @Test
+    @DisplayName("stat lists the exact key with millisecond precision, null if only a longer key matches")
+    void stat() throws Exception {
+        Instant now = Instant.now();
+        when(s3.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenReturn(ListObjectsV2Response.builder()
+                        .contents(S3Object.builder().key("uploads/a.png").size(4L).lastModified(now).build())
+                        .build())
+                .thenReturn(ListObjectsV2Response.builder()
+                        .contents(S3Object.builder().key("uploads/a.png.bak").size(2L).lastModified(now).build())
+                        .build())
+                .thenThrow(SdkClientException.create("down"));
+
+        assertEquals(new BlobInfo("a.png", 4, now), store.stat("a.png"));
+        assertNull(store.stat("a.png"));
+        assertThrows(IOException.class, () -> store.stat("a.png"));
+
+        ArgumentCaptor<ListObjectsV2Request> captor = ArgumentCaptor.forClass(ListObjectsV2Request.class);
+        verify(s3, times(3)).listObjectsV2(captor.capture());
+        assertEquals("uploads/a.png", captor.getValue().prefix());
+        assertEquals(1, captor.getValue().maxKeys());
+    }
+
+    @Test
+    @DisplayName("list wraps SDK errors and close closes the client")
+    void list_ErrorAndClose() {
+        when(s3.listObjectsV2(any(ListObjectsV2Request.class))).thenThrow(SdkClientException.create("down"));
+
+        assertThrows(IOException.class, () -> store.list());
+
+        store.close();
+        verify(s3).close();
+    }
+
+    @Test
+    @DisplayName("null prefix is treated as empty")
+    void nullPrefix() {
+        S3BlobStore noPrefix = new S3BlobStore(s3, "bucket", null);
+        when(s3.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder().build());
+
+        assertTrue(noPrefix.exists("a.png"));
+
+        ArgumentCaptor<HeadObjectRequest> captor = ArgumentCaptor.forClass(HeadObjectRequest.class);
+        verify(s3).headObject(captor.capture());
+        assertEquals("a.png", captor.getValue().key());
+    }
+}
@@ -0,0 +1,32 @@
+package org.delcom.app.support;
+
+import java.io.IOException;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * PostgreSQL lokal (embedded) sebagai datasource {@code @SpringBootTest}, untuk
+ * test yang bergantung pada fitur PostgreSQL (plan query, partisi).
+ *
+ * Pakai dengan {@code @Import(EmbeddedPostgresConfiguration.class)} dan
+ * {@code spring.flyway.locations} yang memuat {@code classpath:db/vendor/{vendor}}
+ * seperti di application.properties.template.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class EmbeddedPostgresConfiguration {
+
+    @Bean(destroyMethod = "close")
+    EmbeddedPostgres embeddedPostgres() throws IOException {
+        return EmbeddedPostgres.start();
+    }
+
+    @Bean
+    DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+        return embeddedPostgres.getPostgresDatabase();
+    }
+}
@@ -0,0 +1,126 @@
+package org.delcom.app.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.configs.ServerTimingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Menghitung statement SQL yang dieksekusi lewat JDBC selama satu blok kode
+ * (biasanya satu request MockMvc) di test {@code @SpringBootTest}.
+ *
+ * Pakai dengan {@code @Import(SqlStatementCounter.Configuration.class)} lalu
+ * inject {@link SqlStatementCounter}. Yang dihitung adalah round trip
+ * {@code execute*}, termasuk query dari JdbcTemplate, bukan hanya Hibernate.
+ */
+public class SqlStatementCounter {
+    // Satu penghitung per JVM: context test di-cache dan dipakai bersama antar kelas test
+    private static final SqlStatementCounter INSTANCE = new SqlStatementCounter();
+
+    private final List<String> statements = new ArrayList<>();
+    private volatile boolean recording;
+
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Configuration {
+
+        @Bean
+        SqlStatementCounter sqlStatementCounter() {
+            return INSTANCE;
+        }
+
+        @Bean
+        static BeanPostProcessor sqlStatementCounterDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof CountingDataSource) {
+                        return bean;
+                    }
+                    // CountingDataSource sudah mencatat ke Server-Timing, jangan dibungkus dua kali
+                    if (bean instanceof ServerTimingDataSource serverTiming) {
+                        return new CountingDataSource(serverTiming.getTargetDataSource(), INSTANCE);
+                    }
+                    if (bean instanceof DataSource dataSource) {
+                        return new CountingDataSource(dataSource, INSTANCE);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    /**
+     * Menjalankan {@code action} dan mengembalikan SQL yang dieksekusi selama itu.
+     */
+    public synchronized List<String> record(Action action) throws Exception {
+        synchronized (statements) {
+            statements.clear();
+        }
+        recording = true;
+        try {
+            action.run();
+        } finally {
+            recording = false;
+        }
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+
+    /**
+     * Gagal jika {@code action} mengeksekusi lebih dari {@code budget} statement.
+     */
+    public List<String> assertWithinBudget(String endpoint, int budget, Action action) throws Exception {
+        List<String> executed = record(action);
+        if (executed.size() > budget) {
+            StringBuilder message = new StringBuilder()
+                    .append(endpoint).append(": ").append(executed.size())
+                    .append(" statement SQL, budget ").append(budget).append(':');
+            for (String sql : executed) {
+                message.append(System.lineSeparator()).append("  ").append(sql);
+            }
+            fail(message.toString());
+        }
+        return executed;
+    }
+
+    private void onStatement(String sql) {
+        if (recording) {
+            synchronized (statements) {
+                statements.add(sql == null ? "<batch>" : sql);
+            }
+        }
+    }
+
+    static final class CountingDataSource extends ServerTimingDataSource {
+        private final SqlStatementCounter counter;
+
+        CountingDataSource(DataSource targetDataSource, SqlStatementCounter counter) {
+            super(targetDataSource);
+            this.counter = counter;
+        }
+
+        @Override
+        protected boolean shouldWrap() {
+            return counter.recording || super.shouldWrap();
+        }
+
+        @Override
+        protected void onExecute(String sql, long nanos) {
+            super.onExecute(sql, nanos);
+            counter.onStatement(sql);
+        }
+    }
+}